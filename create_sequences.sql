@@ -23,10 +23,12 @@ CREATE SEQUENCE KYC_PROFILE_SEQ
     NOCACHE
     NOCYCLE;
 
--- Sequence for Bank Transaction table
+-- Sequence for Bank Transaction table (INCREMENT BY must match the entity's allocationSize:
+-- Hibernate hands out each block of 50 IDs without calling the sequence). Existing databases:
+-- ALTER SEQUENCE BANK_TRANSACTION_SEQ INCREMENT BY 50;
 CREATE SEQUENCE BANK_TRANSACTION_SEQ
     START WITH 1
-    INCREMENT BY 1
+    INCREMENT BY 50
     NOCACHE
     NOCYCLE;
 
@@ -37,10 +39,36 @@ CREATE SEQUENCE REF_NOTIFICATION_CHANNEL_SEQ
     NOCACHE
     NOCYCLE;
 
+-- Sequence for Notification Outbox table (pooled like BANK_TRANSACTION_SEQ; INCREMENT BY must
+-- match the entity's allocationSize). Existing databases:
+-- ALTER SEQUENCE NOTIFICATION_OUTBOX_SEQ INCREMENT BY 50;
+CREATE SEQUENCE NOTIFICATION_OUTBOX_SEQ
+    START WITH 1
+    INCREMENT BY 50
+    NOCACHE
+    NOCYCLE;
+
 -- Optional: If you already have data in the tables, set the sequence start value
 -- to be higher than the maximum existing ID value. Example:
 -- ALTER SEQUENCE CUSTOMER_SEQ RESTART WITH 1000;
 
+-- Sharding (banking.shards.count = N): run the schema on every shard, then offset
+-- the customer, account and KYC sequences so that on shard k (0-based) every
+-- generated ID satisfies ID mod N = k. Customer IDs then route back to their
+-- shard (ModuloShardResolver) and account/KYC IDs are unique across shards.
+-- Example for shard 1 of 4:
+-- DROP SEQUENCE CUSTOMER_SEQ;    CREATE SEQUENCE CUSTOMER_SEQ    START WITH 5 INCREMENT BY 4 NOCACHE NOCYCLE;
+-- DROP SEQUENCE ACCOUNT_SEQ;     CREATE SEQUENCE ACCOUNT_SEQ     START WITH 5 INCREMENT BY 4 NOCACHE NOCYCLE;
+-- DROP SEQUENCE KYC_PROFILE_SEQ; CREATE SEQUENCE KYC_PROFILE_SEQ START WITH 5 INCREMENT BY 4 NOCACHE NOCYCLE;
+-- (START WITH N + k, INCREMENT BY N.) REF_NOTIFICATION_CHANNEL_SEQ stays as is: channels are
+-- reference data and must be loaded with the same IDs on every shard.
+-- BANK_TRANSACTION_SEQ is pooled: each value V is the top of the block V - 49 .. V that
+-- Hibernate hands out. Shard k gets every N-th block of 50, so transaction IDs are unique
+-- across shards too (START WITH 50 * (k + 1), INCREMENT BY 50 * N). Shard 1 of 4:
+-- DROP SEQUENCE BANK_TRANSACTION_SEQ; CREATE SEQUENCE BANK_TRANSACTION_SEQ START WITH 100 INCREMENT BY 200 NOCACHE NOCYCLE;
+-- NOTIFICATION_OUTBOX_SEQ is pooled the same way:
+-- DROP SEQUENCE NOTIFICATION_OUTBOX_SEQ; CREATE SEQUENCE NOTIFICATION_OUTBOX_SEQ START WITH 100 INCREMENT BY 200 NOCACHE NOCYCLE;
+
 -- Verify sequences were created successfully
 SELECT sequence_name, last_number 
 FROM user_sequences 
@@ -49,5 +77,6 @@ WHERE sequence_name IN (
     'ACCOUNT_SEQ', 
     'KYC_PROFILE_SEQ',
     'BANK_TRANSACTION_SEQ',
-    'REF_NOTIFICATION_CHANNEL_SEQ'
+    'REF_NOTIFICATION_CHANNEL_SEQ',
+    'NOTIFICATION_OUTBOX_SEQ'
 );
@@ -8,7 +8,7 @@ import org.hibernate.Session;
 import org.hibernate.Transaction;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.List;
 
 public class App {
@@ -19,6 +19,9 @@ public class App {
         System.out.println("========================================\n");
         
         try {
+            // Explicit startup phase: build the SessionFactory before the first DAO call
+            HibernateUtil.start();
+            
             // CRUD Operations Example
             crudExample();
             
@@ -173,7 +176,7 @@ public class App {
         System.out.println("\n3. Creating Multiple Transactions for Savings Account...");
         
         BankTransaction deposit = new BankTransaction();
-        deposit.setTxDate(new Date());
+        deposit.setTxDate(LocalDate.now());
         deposit.setType("CREDIT");
         deposit.setAmount(new BigDecimal("10000.00"));
         deposit.setStatus("COMPLETED");
@@ -181,7 +184,7 @@ public class App {
         transactionDAO.saveTransaction(deposit);
         
         BankTransaction withdrawal = new BankTransaction();
-        withdrawal.setTxDate(new Date());
+        withdrawal.setTxDate(LocalDate.now());
         withdrawal.setType("DEBIT");
         withdrawal.setAmount(new BigDecimal("5000.00"));
         withdrawal.setStatus("COMPLETED");
@@ -0,0 +1,287 @@
+package com.banking.cache;
+
+import com.banking.entity.BankTransaction;
+import com.banking.util.HibernateConfig;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory front for the bank_transactions idempotency keys.
+ *
+ * A Bloom filter over every known key answers "definitely new" without a
+ * database lookup, and an LRU map of recently seen keys (key -> transaction ID)
+ * answers most redeliveries without one. Only keys that hit the filter but are
+ * not recent are checked with a query. The unique index on idempotency_key
+ * remains the authority: keys written by other application instances are not
+ * in this JVM's filter and are caught by the constraint on insert.
+ *
+ * Loaded at startup (see HibernateUtil), or restored from a snapshot and
+ * caught up, and kept current by BankTransactionDAO. Until it is loaded,
+ * {@link #mightContain(String)} answers true for every key.
+ */
+public class IdempotencyFilter {
+
+    public static final String SNAPSHOT_FILE = "idempotency-keys.snap";
+
+    private static final String SNAPSHOT_MAGIC = "IdempotencyFilter";
+    private static final IdempotencyFilter INSTANCE = new IdempotencyFilter();
+
+    private volatile BloomFilter filter;
+    private volatile boolean loaded;
+    private volatile long highWaterMark;
+    private volatile int recentCapacity = 100_000;
+    private final Map<String, Long> recentKeys = new LinkedHashMap<String, Long>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+            return size() > recentCapacity;
+        }
+    };
+
+    // Ingestion counters
+    private final AtomicLong acceptedWithoutLookup = new AtomicLong();
+    private final AtomicLong duplicatesFromRecent = new AtomicLong();
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong duplicatesFromLookup = new AtomicLong();
+    private final AtomicLong duplicatesFromConstraint = new AtomicLong();
+
+    public static IdempotencyFilter getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * (Re)builds the filter by streaming all idempotency keys. The filter is
+     * sized for twice the current key count or banking.idempotency.expected_keys,
+     * whichever is larger.
+     */
+    public void load(SessionFactory sessionFactory) {
+        Map<String, Object> settings = sessionFactory.getProperties();
+        long expectedKeys = HibernateConfig.getInt(settings, HibernateConfig.IDEMPOTENCY_EXPECTED_KEYS, 1_000_000);
+        double falsePositiveRate = Double.parseDouble(String.valueOf(
+            settings.getOrDefault(HibernateConfig.IDEMPOTENCY_FALSE_POSITIVE_RATE, "0.01")).trim());
+        long start = System.currentTimeMillis();
+
+        BloomFilter loading;
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            Long existing = session.createNamedQuery(BankTransaction.COUNT_IDEMPOTENCY_KEYS, Long.class).uniqueResult();
+            loading = new BloomFilter(Math.max(expectedKeys, 2 * existing), falsePositiveRate);
+        } finally {
+            session.close();
+        }
+        long[] scan = addKeysSince(sessionFactory, loading, 0L);
+
+        install(sessionFactory, loading, scan[1]);
+        System.out.println("✓ Idempotency filter loaded: " + scan[0] + " key(s), " + loading.getBitCount() / 8 / 1024 +
+                " KB, " + loading.getHashCount() + " hashes in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Adds the keys stored since the last load or catch-up (including those
+     * written by other application instances), re-reading
+     * banking.idempotency.catch_up_overlap IDs below the high-water mark.
+     *
+     * @return the number of keys read
+     */
+    public long catchUp(SessionFactory sessionFactory) {
+        BloomFilter current = filter;
+        if (current == null) {
+            return 0L;
+        }
+        int overlap = HibernateConfig.getInt(sessionFactory.getProperties(),
+                HibernateConfig.IDEMPOTENCY_CATCH_UP_OVERLAP, 10_000);
+        long[] scan = addKeysSince(sessionFactory, current, Math.max(0L, highWaterMark - overlap));
+        highWaterMark = Math.max(highWaterMark, scan[1]);
+        return scan[0];
+    }
+
+    // Streams the keys of transactions with id > afterId into the filter; returns {keys, max ID}
+    private long[] addKeysSince(SessionFactory sessionFactory, BloomFilter target, long afterId) {
+        long rows = 0;
+        long maxId = afterId;
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            ScrollableResults results = session.createNamedQuery(BankTransaction.FIND_IDEMPOTENCY_KEYS_SINCE)
+                .setParameter("afterId", afterId)
+                .setFetchSize(10_000)
+                .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (results.next()) {
+                    maxId = Math.max(maxId, (Long) results.get(0));
+                    target.add((String) results.get(1));
+                    rows++;
+                }
+            } finally {
+                results.close();
+            }
+        } finally {
+            session.close();
+        }
+        return new long[] {rows, maxId};
+    }
+
+    private void install(SessionFactory sessionFactory, BloomFilter loading, long loadedHighWaterMark) {
+        int recent = HibernateConfig.getInt(sessionFactory.getProperties(), HibernateConfig.IDEMPOTENCY_RECENT_KEYS, 100_000);
+        synchronized (recentKeys) {
+            recentCapacity = Math.max(1, recent);
+            recentKeys.clear();
+        }
+        filter = loading;
+        highWaterMark = loadedHighWaterMark;
+        loaded = true;
+    }
+
+    /**
+     * Writes the filter bits and the high-water mark of the last database scan
+     * (keys recorded by this instance since are in the bits already).
+     */
+    public void saveSnapshot(Path file, SessionFactory sessionFactory) throws IOException {
+        BloomFilter current = filter;
+        if (current == null) {
+            throw new IllegalStateException("Idempotency filter is not loaded");
+        }
+        long[] words = current.toWords();
+        try (SnapshotWriter writer = new SnapshotWriter(file, SNAPSHOT_MAGIC, SnapshotWriter.source(sessionFactory))) {
+            writer.writeLong(highWaterMark);
+            writer.writeInt(current.getHashCount());
+            writer.writeInt(words.length);
+            writer.writeLongs(words, words.length);
+            writer.commit();
+        }
+        System.out.println("✓ Idempotency filter snapshot written: " + words.length / 128 + " KB");
+    }
+
+    /**
+     * Restores the filter from a snapshot and catches up from its high-water
+     * mark. Returns false, leaving the filter unchanged, if the file is
+     * missing, corrupt or was taken from another database.
+     */
+    public boolean loadSnapshot(Path file, SessionFactory sessionFactory) {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        try (SnapshotReader reader = new SnapshotReader(file, SNAPSHOT_MAGIC, SnapshotWriter.source(sessionFactory))) {
+            long snapshotHighWaterMark = reader.readLong();
+            int hashCount = reader.readInt();
+            int wordCount = reader.readInt();
+            if (hashCount < 1 || wordCount < 1 || (long) wordCount * 8 > Files.size(file)) {
+                throw new IOException("Corrupt idempotency snapshot header");
+            }
+            long[] words = new long[wordCount];
+            reader.readLongs(words, wordCount);
+            reader.verifyEnd();
+            install(sessionFactory, new BloomFilter(words, hashCount), snapshotHighWaterMark);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring idempotency snapshot " + file + ": " + e.getMessage());
+            return false;
+        }
+        long keys = catchUp(sessionFactory);
+        System.out.println("✓ Idempotency filter restored from snapshot (" + keys + " key(s) caught up) in " +
+                (System.currentTimeMillis() - start) + " ms");
+        return true;
+    }
+
+    // ID of the last transaction read from the database
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Transaction ID of a recently seen key, or null (no database access).
+     */
+    public Long recentTransactionId(String key) {
+        synchronized (recentKeys) {
+            return recentKeys.get(key);
+        }
+    }
+
+    /**
+     * False means the key has definitely not been stored by this application
+     * instance; true means it might have been (check the database).
+     */
+    public boolean mightContain(String key) {
+        BloomFilter current = filter;
+        return !loaded || current == null || current.mightContain(key);
+    }
+
+    /**
+     * Records a stored key (after its transaction committed).
+     */
+    public void recordKey(String key, Long transactionId) {
+        BloomFilter current = filter;
+        if (current != null) {
+            current.add(key);
+        }
+        synchronized (recentKeys) {
+            recentKeys.put(key, transactionId);
+        }
+    }
+
+    // --- Counters (updated by BankTransactionDAO.ingestTransaction) ---
+
+    public void acceptedWithoutLookup() {
+        acceptedWithoutLookup.incrementAndGet();
+    }
+
+    public void duplicateFromRecent() {
+        duplicatesFromRecent.incrementAndGet();
+    }
+
+    public void lookedUp(boolean duplicate) {
+        lookups.incrementAndGet();
+        if (duplicate) {
+            duplicatesFromLookup.incrementAndGet();
+        }
+    }
+
+    public void duplicateFromConstraint() {
+        duplicatesFromConstraint.incrementAndGet();
+    }
+
+    public long getAcceptedWithoutLookup() {
+        return acceptedWithoutLookup.get();
+    }
+
+    public long getDuplicatesFromRecent() {
+        return duplicatesFromRecent.get();
+    }
+
+    // Database lookups for keys the filter could not rule out
+    public long getLookups() {
+        return lookups.get();
+    }
+
+    public long getDuplicatesFromLookup() {
+        return duplicatesFromLookup.get();
+    }
+
+    // Duplicates only detected by the unique index (keys this instance had not seen)
+    public long getDuplicatesFromConstraint() {
+        return duplicatesFromConstraint.get();
+    }
+
+    @Override
+    public String toString() {
+        return "IdempotencyFilter{" +
+                "loaded=" + loaded +
+                ", acceptedWithoutLookup=" + getAcceptedWithoutLookup() +
+                ", duplicatesFromRecent=" + getDuplicatesFromRecent() +
+                ", lookups=" + getLookups() +
+                ", duplicatesFromLookup=" + getDuplicatesFromLookup() +
+                ", duplicatesFromConstraint=" + getDuplicatesFromConstraint() +
+                '}';
+    }
+}
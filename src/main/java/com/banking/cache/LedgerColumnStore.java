@@ -0,0 +1,680 @@
+package com.banking.cache;
+
+import com.banking.util.HibernateConfig;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * In-memory, column-oriented copy of bank_transactions for analytics.
+ *
+ * Each row is stored as primitives in parallel arrays: transaction ID, a dense
+ * account index, the date as epoch day, the signed amount in minor units
+ * (credits positive, debits negative) and dictionary-encoded type and status
+ * bytes, about 26 bytes per row instead of an entity with BigDecimal and Date.
+ * Scans run over the arrays in parallel partitions with branch-free inner
+ * loops the JIT can unroll and vectorize, so totals and per-account / per-day
+ * aggregates over 100M rows stay in-process.
+ *
+ * {@link #load(SessionFactory)} streams the table once; {@link #catchUp(SessionFactory)}
+ * appends rows above the high-water mark (max transaction ID), re-reading
+ * banking.ledger_cache.catch_up_overlap IDs below it so that transactions that
+ * committed late with a lower ID are not missed. Updates and deletes of
+ * existing ledger rows are not tracked and need a reload.
+ *
+ * For a warm restart, {@link #saveSnapshot(Path, SessionFactory)} writes the
+ * columns to a file that {@link #loadSnapshot(Path, SessionFactory)} maps back
+ * in and then catches up from its high-water mark.
+ */
+public class LedgerColumnStore {
+
+    public static final int AMOUNT_SCALE = 2;
+    public static final String SNAPSHOT_FILE = "ledger-columns.snap";
+
+    static final byte CREDIT = 0;
+    static final byte DEBIT = 1;
+
+    private static final String COUNT_SQL = "SELECT COUNT(*) FROM bank_transactions WHERE id > ?";
+    private static final String SELECT_SINCE_SQL =
+        "SELECT id, account_id, tx_date, type, amount, status FROM bank_transactions WHERE id > ? ORDER BY id";
+
+    private static final String SNAPSHOT_MAGIC = "LedgerColumnStore";
+
+    private static final int MIN_ROWS_PER_TASK = 100_000;
+    private static final int APPEND_CHUNK = 10_000;
+
+    private static final LedgerColumnStore INSTANCE = new LedgerColumnStore();
+
+    // Columns (valid up to size)
+    private long[] txIds = new long[0];
+    private int[] accountIndexes = new int[0];
+    private int[] days = new int[0];
+    private long[] amounts = new long[0];
+    private byte[] types = new byte[0];
+    private byte[] statuses = new byte[0];
+    private int size;
+
+    // Dictionaries
+    private long[] accountIds = new long[16];
+    private int accountCount;
+    private final Map<Long, Integer> accountIndexById = new HashMap<>();
+    private final List<String> statusNames = new ArrayList<>();
+    private final Map<String, Byte> statusCodes = new HashMap<>();
+
+    private int minDay = Integer.MAX_VALUE;
+    private int maxDay = Integer.MIN_VALUE;
+    private long highWaterMark;
+    private final Roaring64NavigableMap loadedIds = new Roaring64NavigableMap();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+    private ScheduledExecutorService refresher;
+
+    public static LedgerColumnStore getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * (Re)builds the store by streaming the whole ledger. The new columns are
+     * built off to the side and swapped in at the end, so scans during a reload
+     * see the previous contents rather than a partial ledger.
+     */
+    public void load(SessionFactory sessionFactory) {
+        long start = System.currentTimeMillis();
+        LedgerColumnStore rebuilt = new LedgerColumnStore();
+        long rows = rebuilt.appendFrom(sessionFactory, 0L, true);
+        lock.writeLock().lock();
+        try {
+            replaceWith(rebuilt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        loaded = true;
+        System.out.println("✓ Ledger column store loaded: " + rows + " row(s), " + getAccountCount() +
+                " account(s), " + getMemoryBytes() / (1024 * 1024) + " MB in " +
+                (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Appends the rows committed since the last load or catch-up.
+     *
+     * @return the number of rows appended
+     */
+    public long catchUp(SessionFactory sessionFactory) {
+        int overlap = HibernateConfig.getInt(sessionFactory.getProperties(),
+                HibernateConfig.LEDGER_CACHE_CATCH_UP_OVERLAP, 10_000);
+        return appendFrom(sessionFactory, Math.max(0L, getHighWaterMark() - overlap), false);
+    }
+
+    // Streams rows with id > fromId over JDBC (no entities) and appends those not loaded yet
+    private long appendFrom(SessionFactory sessionFactory, long fromId, boolean presize) {
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            return session.doReturningWork(connection -> {
+                if (presize) {
+                    try (PreparedStatement count = connection.prepareStatement(COUNT_SQL)) {
+                        count.setLong(1, fromId);
+                        try (ResultSet resultSet = count.executeQuery()) {
+                            resultSet.next();
+                            lock.writeLock().lock();
+                            try {
+                                ensureCapacity((int) Math.min(Integer.MAX_VALUE - 8, resultSet.getLong(1)));
+                            } finally {
+                                lock.writeLock().unlock();
+                            }
+                        }
+                    }
+                }
+                long appended = 0;
+                try (PreparedStatement select = connection.prepareStatement(SELECT_SINCE_SQL)) {
+                    select.setFetchSize(APPEND_CHUNK);
+                    select.setLong(1, fromId);
+                    try (ResultSet resultSet = select.executeQuery()) {
+                        boolean more = resultSet.next();
+                        while (more) {
+                            // Appends are applied in chunks so readers are not blocked for the whole load
+                            lock.writeLock().lock();
+                            try {
+                                for (int i = 0; i < APPEND_CHUNK && more; i++) {
+                                    long txId = resultSet.getLong(1);
+                                    if (!loadedIds.contains(txId)) {
+                                        Date txDate = resultSet.getDate(3);
+                                        BigDecimal amount = resultSet.getBigDecimal(5);
+                                        appendRow(txId, resultSet.getLong(2),
+                                            txDate != null ? (int) txDate.toLocalDate().toEpochDay() : Integer.MIN_VALUE,
+                                            resultSet.getString(4),
+                                            amount != null ? amount.movePointRight(AMOUNT_SCALE).longValue() : 0L,
+                                            resultSet.getString(6));
+                                        appended++;
+                                    }
+                                    more = resultSet.next();
+                                }
+                            } finally {
+                                lock.writeLock().unlock();
+                            }
+                        }
+                    }
+                }
+                return appended;
+            });
+        } finally {
+            session.close();
+        }
+    }
+
+    /**
+     * Runs {@link #catchUp(SessionFactory)} every refreshMillis on a daemon thread.
+     */
+    public synchronized void startRefresh(SessionFactory sessionFactory, long refreshMillis) {
+        if (refresher == null) {
+            refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ledger-column-store-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            refresher.scheduleWithFixedDelay(() -> {
+                try {
+                    catchUp(sessionFactory);
+                } catch (RuntimeException e) {
+                    System.err.println("Ledger column store catch-up failed: " + e.getMessage());
+                }
+            }, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    public synchronized void stopRefresh() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+            refresher = null;
+        }
+    }
+
+    /**
+     * Appends one row (e.g. synthetic data or a row already known to the caller).
+     *
+     * @param amountMinor unsigned amount in minor units; the sign comes from the type
+     */
+    public void append(long txId, long accountId, LocalDate txDate, String type, long amountMinor, String status) {
+        lock.writeLock().lock();
+        try {
+            if (!loadedIds.contains(txId)) {
+                appendRow(txId, accountId, txDate != null ? (int) txDate.toEpochDay() : Integer.MIN_VALUE,
+                    type, amountMinor, status);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void appendRow(long txId, long accountId, int epochDay, String type, long amountMinor, String status) {
+        if (size == txIds.length) {
+            ensureCapacity(size + 1);
+        }
+        boolean debit = "DEBIT".equals(type);
+        txIds[size] = txId;
+        accountIndexes[size] = accountIndex(accountId);
+        days[size] = epochDay;
+        amounts[size] = debit ? -Math.abs(amountMinor) : Math.abs(amountMinor);
+        types[size] = debit ? DEBIT : CREDIT;
+        statuses[size] = statusCode(status);
+        size++;
+
+        loadedIds.addLong(txId);
+        highWaterMark = Math.max(highWaterMark, txId);
+        if (epochDay != Integer.MIN_VALUE) {
+            minDay = Math.min(minDay, epochDay);
+            maxDay = Math.max(maxDay, epochDay);
+        }
+    }
+
+    private int accountIndex(long accountId) {
+        Integer index = accountIndexById.get(accountId);
+        if (index == null) {
+            if (accountCount == accountIds.length) {
+                accountIds = Arrays.copyOf(accountIds, accountCount * 2);
+            }
+            index = accountCount;
+            accountIds[accountCount++] = accountId;
+            accountIndexById.put(accountId, index);
+        }
+        return index;
+    }
+
+    private byte statusCode(String status) {
+        String name = status != null ? status : "";
+        Byte code = statusCodes.get(name);
+        if (code == null) {
+            if (statusNames.size() == 128) {
+                throw new IllegalStateException("More than 128 distinct transaction statuses");
+            }
+            code = (byte) statusNames.size();
+            statusNames.add(name);
+            statusCodes.put(name, code);
+        }
+        return code;
+    }
+
+    // Caller holds the write lock (or is the only user)
+    private void ensureCapacity(int capacity) {
+        if (capacity > txIds.length) {
+            int newCapacity = Math.min(Integer.MAX_VALUE - 8, Math.max(capacity, txIds.length + (txIds.length >> 1) + 16));
+            txIds = Arrays.copyOf(txIds, newCapacity);
+            accountIndexes = Arrays.copyOf(accountIndexes, newCapacity);
+            days = Arrays.copyOf(days, newCapacity);
+            amounts = Arrays.copyOf(amounts, newCapacity);
+            types = Arrays.copyOf(types, newCapacity);
+            statuses = Arrays.copyOf(statuses, newCapacity);
+        }
+    }
+
+    // Caller holds the write lock; takes over the columns and dictionaries of a store nobody else uses
+    private void replaceWith(LedgerColumnStore rebuilt) {
+        clear();
+        txIds = rebuilt.txIds;
+        accountIndexes = rebuilt.accountIndexes;
+        days = rebuilt.days;
+        amounts = rebuilt.amounts;
+        types = rebuilt.types;
+        statuses = rebuilt.statuses;
+        size = rebuilt.size;
+        accountIds = rebuilt.accountIds;
+        accountCount = rebuilt.accountCount;
+        accountIndexById.putAll(rebuilt.accountIndexById);
+        for (String status : rebuilt.statusNames) {
+            statusCode(status);
+        }
+        minDay = rebuilt.minDay;
+        maxDay = rebuilt.maxDay;
+        highWaterMark = rebuilt.highWaterMark;
+        loadedIds.or(rebuilt.loadedIds);
+    }
+
+    private void clear() {
+        txIds = new long[0];
+        accountIndexes = new int[0];
+        days = new int[0];
+        amounts = new long[0];
+        types = new byte[0];
+        statuses = new byte[0];
+        size = 0;
+        accountIds = new long[16];
+        accountCount = 0;
+        accountIndexById.clear();
+        statusNames.clear();
+        statusCodes.clear();
+        minDay = Integer.MAX_VALUE;
+        maxDay = Integer.MIN_VALUE;
+        highWaterMark = 0;
+        loadedIds.clear();
+    }
+
+    // --- Snapshots ---
+
+    /**
+     * Writes the columns, dictionaries and loaded-ID set to file, replacing any
+     * previous snapshot. Scans keep running; appends wait until it is written.
+     */
+    public void saveSnapshot(Path file, SessionFactory sessionFactory) throws IOException {
+        long start = System.currentTimeMillis();
+        int rows;
+        lock.readLock().lock();
+        try (SnapshotWriter writer = new SnapshotWriter(file, SNAPSHOT_MAGIC, SnapshotWriter.source(sessionFactory))) {
+            rows = size;
+            writer.writeInt(size);
+            writer.writeInt(accountCount);
+            writer.writeInt(minDay);
+            writer.writeInt(maxDay);
+            writer.writeLong(highWaterMark);
+            writer.writeInt(statusNames.size());
+            for (String status : statusNames) {
+                writer.writeString(status);
+            }
+            writer.writeLongs(accountIds, accountCount);
+            writer.writeLongs(txIds, size);
+            writer.writeInts(accountIndexes, size);
+            writer.writeInts(days, size);
+            writer.writeLongs(amounts, size);
+            writer.writeBytes(types, size);
+            writer.writeBytes(statuses, size);
+
+            // Serialized form is a few MB even for 100M IDs, much cheaper than re-adding every ID
+            ByteArrayOutputStream ids = new ByteArrayOutputStream();
+            loadedIds.serializePortable(new DataOutputStream(ids));
+            writer.writeInt(ids.size());
+            writer.writeBytes(ids.toByteArray(), ids.size());
+            writer.commit();
+        } finally {
+            lock.readLock().unlock();
+        }
+        System.out.println("✓ Ledger column store snapshot written: " + rows + " row(s), " +
+                Files.size(file) / (1024 * 1024) + " MB in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Replaces the contents with a snapshot and catches up from its high-water
+     * mark. Returns false, leaving the store unchanged, if the file is missing,
+     * corrupt or was taken from another database; callers then {@link #load}.
+     */
+    public boolean loadSnapshot(Path file, SessionFactory sessionFactory) {
+        if (!Files.isRegularFile(file)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        try (SnapshotReader reader = new SnapshotReader(file, SNAPSHOT_MAGIC, SnapshotWriter.source(sessionFactory))) {
+            int rows = reader.readInt();
+            int accounts = reader.readInt();
+            int firstDay = reader.readInt();
+            int lastDay = reader.readInt();
+            long snapshotHighWaterMark = reader.readLong();
+            int statusCount = reader.readInt();
+            if (rows < 0 || accounts < 0 || statusCount < 0 || statusCount > 128
+                    || (long) rows * 26 + (long) accounts * 8 > Files.size(file)) {
+                throw new IOException("Corrupt ledger snapshot header");
+            }
+            List<String> snapshotStatuses = new ArrayList<>(statusCount);
+            for (int i = 0; i < statusCount; i++) {
+                snapshotStatuses.add(reader.readString());
+            }
+            long[] snapshotAccountIds = new long[Math.max(16, accounts)];
+            reader.readLongs(snapshotAccountIds, accounts);
+            long[] snapshotTxIds = new long[rows];
+            int[] snapshotAccountIndexes = new int[rows];
+            int[] snapshotDays = new int[rows];
+            long[] snapshotAmounts = new long[rows];
+            byte[] snapshotTypes = new byte[rows];
+            byte[] snapshotStatusCodes = new byte[rows];
+            reader.readLongs(snapshotTxIds, rows);
+            reader.readInts(snapshotAccountIndexes, rows);
+            reader.readInts(snapshotDays, rows);
+            reader.readLongs(snapshotAmounts, rows);
+            reader.readBytes(snapshotTypes, rows);
+            reader.readBytes(snapshotStatusCodes, rows);
+            byte[] ids = new byte[reader.readInt()];
+            reader.readBytes(ids, ids.length);
+            reader.verifyEnd();
+            Roaring64NavigableMap snapshotIds = new Roaring64NavigableMap();
+            snapshotIds.deserializePortable(new DataInputStream(new ByteArrayInputStream(ids)));
+
+            lock.writeLock().lock();
+            try {
+                clear();
+                txIds = snapshotTxIds;
+                accountIndexes = snapshotAccountIndexes;
+                days = snapshotDays;
+                amounts = snapshotAmounts;
+                types = snapshotTypes;
+                statuses = snapshotStatusCodes;
+                size = rows;
+                accountIds = snapshotAccountIds;
+                accountCount = accounts;
+                for (int index = 0; index < accounts; index++) {
+                    accountIndexById.put(accountIds[index], index);
+                }
+                for (String status : snapshotStatuses) {
+                    statusCode(status);
+                }
+                minDay = firstDay;
+                maxDay = lastDay;
+                highWaterMark = snapshotHighWaterMark;
+                loadedIds.or(snapshotIds);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring ledger snapshot " + file + ": " + e.getMessage());
+            return false;
+        }
+        long mapped = System.currentTimeMillis() - start;
+        long appended = catchUp(sessionFactory);
+        loaded = true;
+        System.out.println("✓ Ledger column store restored from snapshot: " + size() + " row(s) (" + appended +
+                " caught up), snapshot read in " + mapped + " ms, ready in " + (System.currentTimeMillis() - start) + " ms");
+        return true;
+    }
+
+    // --- Scan operators ---
+
+    /**
+     * Count, credit and debit sums of the matching rows.
+     */
+    public LedgerTotals totals(LedgerFilter filter) {
+        lock.readLock().lock();
+        try {
+            Criteria criteria = criteria(filter);
+            if (criteria == null) {
+                return new LedgerTotals(0, 0, 0);
+            }
+            long[] sums = IntStream.range(0, partitions()).parallel()
+                .mapToObj(partition -> totalsKernel(criteria, partitionStart(partition), partitionStart(partition + 1)))
+                .reduce(new long[3], (a, b) -> new long[] {a[0] + b[0], a[1] + b[1], a[2] + b[2]});
+            return new LedgerTotals(sums[0], sums[1], sums[2]);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Net amount (credits minus debits, minor units) per account with matching rows.
+     */
+    public Map<Long, Long> netMinorByAccount(LedgerFilter filter) {
+        lock.readLock().lock();
+        try {
+            Map<Long, Long> result = new HashMap<>();
+            Criteria criteria = criteria(filter);
+            if (criteria == null) {
+                return result;
+            }
+            int groups = accountCount;
+            long[][] partial = IntStream.range(0, partitions()).parallel()
+                .mapToObj(partition -> groupKernel(criteria, partitionStart(partition), partitionStart(partition + 1),
+                    accountIndexes, 0, groups))
+                .reduce(new long[2][groups], LedgerColumnStore::addGroups);
+            for (int index = 0; index < groups; index++) {
+                if (partial[1][index] > 0) {
+                    result.put(accountIds[index], partial[0][index]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Net amount (credits minus debits, minor units) per day with matching rows.
+     */
+    public SortedMap<LocalDate, Long> netMinorByDay(LedgerFilter filter) {
+        lock.readLock().lock();
+        try {
+            SortedMap<LocalDate, Long> result = new TreeMap<>();
+            Criteria criteria = criteria(filter);
+            int firstDay = Math.max(filter.fromDay, minDay);
+            int lastDay = Math.min(filter.toDay, maxDay);
+            if (criteria == null || firstDay > lastDay) {
+                return result;
+            }
+            int groups = lastDay - firstDay + 1;
+            long[][] partial = IntStream.range(0, partitions()).parallel()
+                .mapToObj(partition -> groupKernel(criteria, partitionStart(partition), partitionStart(partition + 1),
+                    days, firstDay, groups))
+                .reduce(new long[2][groups], LedgerColumnStore::addGroups);
+            for (int day = 0; day < groups; day++) {
+                if (partial[1][day] > 0) {
+                    result.put(LocalDate.ofEpochDay((long) firstDay + day), partial[0][day]);
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Branch-free filter: every criterion yields -1 (match) or 0, and their AND masks the amount
+    private long[] totalsKernel(Criteria criteria, int from, int to) {
+        long count = 0;
+        long credit = 0;
+        long debit = 0;
+        for (int i = from; i < to; i++) {
+            long match = inRange(days[i], criteria.fromDay, criteria.toDay)
+                    & equalsOrAny(accountIndexes[i], criteria.account)
+                    & equalsOrAny(types[i], criteria.type)
+                    & equalsOrAny(statuses[i], criteria.status);
+            long amount = amounts[i] & match;
+            long negative = amount >> 63;
+            count -= match;
+            credit += amount & ~negative;
+            debit -= amount & negative;
+        }
+        return new long[] {count, credit, debit};
+    }
+
+    // Sum and count of the matching rows grouped by keys[i] - keyOffset (groups outside [0, groups) are skipped)
+    private long[][] groupKernel(Criteria criteria, int from, int to, int[] keys, int keyOffset, int groups) {
+        long[] sums = new long[groups];
+        long[] counts = new long[groups];
+        for (int i = from; i < to; i++) {
+            long match = inRange(days[i], criteria.fromDay, criteria.toDay)
+                    & equalsOrAny(accountIndexes[i], criteria.account)
+                    & equalsOrAny(types[i], criteria.type)
+                    & equalsOrAny(statuses[i], criteria.status);
+            int group = keys[i] - keyOffset;
+            if (match != 0 && group >= 0 && group < groups) {
+                sums[group] += amounts[i];
+                counts[group]++;
+            }
+        }
+        return new long[][] {sums, counts};
+    }
+
+    private static long[][] addGroups(long[][] a, long[][] b) {
+        long[][] sum = new long[2][a[0].length];
+        for (int row = 0; row < 2; row++) {
+            for (int i = 0; i < sum[row].length; i++) {
+                sum[row][i] = a[row][i] + b[row][i];
+            }
+        }
+        return sum;
+    }
+
+    private static long inRange(int value, int from, int to) {
+        return ~((((long) value - from) | ((long) to - value)) >> 63);
+    }
+
+    private static long equalsOrAny(int value, int wanted) {
+        return wanted < 0 || value == wanted ? -1L : 0L;
+    }
+
+    private int partitions() {
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), size / MIN_ROWS_PER_TASK));
+    }
+
+    private int partitionStart(int partition) {
+        return (int) ((long) size * partition / partitions());
+    }
+
+    // Dictionary codes for the filter; null if it cannot match any row
+    private Criteria criteria(LedgerFilter filter) {
+        Criteria criteria = new Criteria();
+        criteria.fromDay = filter.fromDay;
+        criteria.toDay = filter.toDay;
+        if (filter.accountId != null) {
+            Integer index = accountIndexById.get(filter.accountId);
+            if (index == null) {
+                return null;
+            }
+            criteria.account = index;
+        }
+        if (filter.type != null) {
+            if (!"CREDIT".equals(filter.type) && !"DEBIT".equals(filter.type)) {
+                throw new IllegalArgumentException("Unknown transaction type: " + filter.type);
+            }
+            criteria.type = "DEBIT".equals(filter.type) ? DEBIT : CREDIT;
+        }
+        if (filter.status != null) {
+            Byte code = statusCodes.get(filter.status);
+            if (code == null) {
+                return null;
+            }
+            criteria.status = code;
+        }
+        return criteria;
+    }
+
+    private static class Criteria {
+        int fromDay;
+        int toDay;
+        int account = -1;
+        int type = -1;
+        int status = -1;
+    }
+
+    // --- State ---
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int getAccountCount() {
+        lock.readLock().lock();
+        try {
+            return accountCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Highest transaction ID loaded
+    public long getHighWaterMark() {
+        lock.readLock().lock();
+        try {
+            return highWaterMark;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Allocated column memory
+    public long getMemoryBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) txIds.length * (8 + 4 + 4 + 8 + 1 + 1) + (long) accountIds.length * 8;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
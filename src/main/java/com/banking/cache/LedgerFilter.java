@@ -0,0 +1,61 @@
+package com.banking.cache;
+
+import java.time.LocalDate;
+
+/**
+ * Row filter for {@link LedgerColumnStore} scans: an inclusive date range plus
+ * optional account, type and status. Unset criteria match every row.
+ */
+public class LedgerFilter {
+
+    int fromDay = Integer.MIN_VALUE;
+    int toDay = Integer.MAX_VALUE;
+    Long accountId;
+    String type;
+    String status;
+
+    public static LedgerFilter all() {
+        return new LedgerFilter();
+    }
+
+    public static LedgerFilter between(LocalDate from, LocalDate to) {
+        return new LedgerFilter().from(from).to(to);
+    }
+
+    public LedgerFilter from(LocalDate from) {
+        this.fromDay = (int) from.toEpochDay();
+        return this;
+    }
+
+    public LedgerFilter to(LocalDate to) {
+        this.toDay = (int) to.toEpochDay();
+        return this;
+    }
+
+    public LedgerFilter account(Long accountId) {
+        this.accountId = accountId;
+        return this;
+    }
+
+    // CREDIT or DEBIT
+    public LedgerFilter type(String type) {
+        this.type = type;
+        return this;
+    }
+
+    public LedgerFilter status(String status) {
+        this.status = status;
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerFilter{" +
+                "fromDay=" + (fromDay == Integer.MIN_VALUE ? "-" : LocalDate.ofEpochDay(fromDay)) +
+                ", toDay=" + (toDay == Integer.MAX_VALUE ? "-" : LocalDate.ofEpochDay(toDay)) +
+                ", accountId=" + accountId +
+                ", type=" + type +
+                ", status=" + status +
+                '}';
+    }
+}
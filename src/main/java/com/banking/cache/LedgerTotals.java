@@ -0,0 +1,60 @@
+package com.banking.cache;
+
+import java.math.BigDecimal;
+
+/**
+ * Count and sums of the ledger rows matching a {@link LedgerFilter}.
+ * Amounts are in minor units (cents); the BigDecimal getters convert.
+ */
+public class LedgerTotals {
+
+    private final long count;
+    private final long creditMinor;
+    private final long debitMinor;
+
+    LedgerTotals(long count, long creditMinor, long debitMinor) {
+        this.count = count;
+        this.creditMinor = creditMinor;
+        this.debitMinor = debitMinor;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getCreditMinor() {
+        return creditMinor;
+    }
+
+    // Positive sum of the DEBIT amounts
+    public long getDebitMinor() {
+        return debitMinor;
+    }
+
+    // Credits minus debits
+    public long getNetMinor() {
+        return creditMinor - debitMinor;
+    }
+
+    public BigDecimal getCredits() {
+        return BigDecimal.valueOf(creditMinor, LedgerColumnStore.AMOUNT_SCALE);
+    }
+
+    public BigDecimal getDebits() {
+        return BigDecimal.valueOf(debitMinor, LedgerColumnStore.AMOUNT_SCALE);
+    }
+
+    public BigDecimal getNet() {
+        return BigDecimal.valueOf(getNetMinor(), LedgerColumnStore.AMOUNT_SCALE);
+    }
+
+    @Override
+    public String toString() {
+        return "LedgerTotals{" +
+                "count=" + count +
+                ", credits=" + getCredits() +
+                ", debits=" + getDebits() +
+                ", net=" + getNet() +
+                '}';
+    }
+}
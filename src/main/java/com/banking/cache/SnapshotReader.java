@@ -0,0 +1,134 @@
+package com.banking.cache;
+
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a snapshot written by {@link SnapshotWriter} through read-only
+ * memory-mapped windows of the file. Arrays are bulk-copied from the mapping
+ * into the caller's primitive arrays, so loading allocates nothing per record.
+ *
+ * Opening fails with an IOException if the file belongs to another cache,
+ * another format version or another database; callers then rebuild from the
+ * database instead.
+ */
+final class SnapshotReader implements Closeable {
+
+    // Mapped at most this much at a time (a single mapping is limited to 2 GB)
+    private static final long WINDOW_BYTES = 256L << 20;
+
+    private final FileChannel channel;
+    private final long length;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    SnapshotReader(Path file, String magic, String source) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            this.length = channel.size();
+            String fileMagic = readString();
+            int version = readInt();
+            String fileSource = readString();
+            if (!magic.equals(fileMagic) || version != SnapshotWriter.VERSION) {
+                throw new IOException("Not a " + magic + " v" + SnapshotWriter.VERSION + " snapshot: " + file);
+            }
+            if (!source.equals(fileSource)) {
+                throw new IOException("Snapshot " + file + " was taken from " + fileSource);
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    int readInt() throws IOException {
+        require(4);
+        return window.getInt();
+    }
+
+    long readLong() throws IOException {
+        require(8);
+        return window.getLong();
+    }
+
+    String readString() throws IOException {
+        int bytesLength = readInt();
+        if (bytesLength < 0 || bytesLength > 1 << 20) {
+            throw new IOException("Corrupt snapshot string length " + bytesLength);
+        }
+        byte[] bytes = new byte[bytesLength];
+        readBytes(bytes, bytesLength);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    void readLongs(long[] values, int count) throws IOException {
+        for (int offset = 0; offset < count; ) {
+            require(8);
+            int n = Math.min(count - offset, window.remaining() / 8);
+            window.asLongBuffer().get(values, offset, n);
+            window.position(window.position() + n * 8);
+            offset += n;
+        }
+    }
+
+    void readInts(int[] values, int count) throws IOException {
+        for (int offset = 0; offset < count; ) {
+            require(4);
+            int n = Math.min(count - offset, window.remaining() / 4);
+            window.asIntBuffer().get(values, offset, n);
+            window.position(window.position() + n * 4);
+            offset += n;
+        }
+    }
+
+    void readBytes(byte[] values, int count) throws IOException {
+        for (int offset = 0; offset < count; ) {
+            require(1);
+            int n = Math.min(count - offset, window.remaining());
+            window.get(values, offset, n);
+            offset += n;
+        }
+    }
+
+    /**
+     * Checks the trailer and that nothing follows it (a truncated or
+     * overwritten file fails here or earlier with an EOFException).
+     */
+    void verifyEnd() throws IOException {
+        if (readLong() != SnapshotWriter.TRAILER || position() != length) {
+            throw new IOException("Corrupt snapshot (bad trailer)");
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // Mappings are released when the buffers are collected (no explicit unmap on Java 8)
+        window = null;
+        channel.close();
+    }
+
+    private long position() {
+        return window != null ? windowStart + window.position() : 0L;
+    }
+
+    // Moves the window so that at least bytes are available at the current position
+    private void require(int bytes) throws IOException {
+        if (window != null && window.remaining() >= bytes) {
+            return;
+        }
+        long start = position();
+        if (length - start < bytes) {
+            throw new EOFException("Truncated snapshot");
+        }
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(WINDOW_BYTES, length - start));
+        window.order(ByteOrder.LITTLE_ENDIAN);
+        windowStart = start;
+    }
+}
@@ -0,0 +1,139 @@
+package com.banking.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+import org.hibernate.SessionFactory;
+
+/**
+ * Writes a cache snapshot (see {@link SnapshotReader}): little-endian
+ * primitives and whole arrays copied through one reusable direct buffer.
+ * The file is written under a temporary name and moved into place by
+ * {@link #commit()}, so a crash never leaves a half-written snapshot behind.
+ */
+final class SnapshotWriter implements Closeable {
+
+    static final int VERSION = 1;
+    static final long TRAILER = 0x534E4150454E4421L; // "SNAPEND!"
+
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private final Path file;
+    private final Path temp;
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+    private boolean committed;
+
+    /**
+     * @param magic  identifies the cache (checked on load)
+     * @param source identifies the database the data came from (checked on load)
+     */
+    SnapshotWriter(Path file, String magic, String source) throws IOException {
+        this.file = file;
+        this.temp = file.resolveSibling(file.getFileName() + ".tmp");
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        writeString(magic);
+        writeInt(VERSION);
+        writeString(source);
+    }
+
+    /**
+     * Identifies the database a cache was loaded from (user and JDBC URL), so a
+     * snapshot is never applied to a different one.
+     */
+    static String source(SessionFactory sessionFactory) {
+        return sessionFactory.getProperties().get("hibernate.connection.username") + "@" +
+                sessionFactory.getProperties().get("hibernate.connection.url");
+    }
+
+    void writeInt(int value) throws IOException {
+        ensure(4);
+        buffer.putInt(value);
+    }
+
+    void writeLong(long value) throws IOException {
+        ensure(8);
+        buffer.putLong(value);
+    }
+
+    void writeString(String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeInt(bytes.length);
+        writeBytes(bytes, bytes.length);
+    }
+
+    void writeLongs(long[] values, int count) throws IOException {
+        for (int offset = 0; offset < count; ) {
+            ensure(8);
+            int n = Math.min(count - offset, buffer.remaining() / 8);
+            buffer.asLongBuffer().put(values, offset, n);
+            buffer.position(buffer.position() + n * 8);
+            offset += n;
+        }
+    }
+
+    void writeInts(int[] values, int count) throws IOException {
+        for (int offset = 0; offset < count; ) {
+            ensure(4);
+            int n = Math.min(count - offset, buffer.remaining() / 4);
+            buffer.asIntBuffer().put(values, offset, n);
+            buffer.position(buffer.position() + n * 4);
+            offset += n;
+        }
+    }
+
+    void writeBytes(byte[] values, int count) throws IOException {
+        for (int offset = 0; offset < count; ) {
+            ensure(1);
+            int n = Math.min(count - offset, buffer.remaining());
+            buffer.put(values, offset, n);
+            offset += n;
+        }
+    }
+
+    /**
+     * Appends the trailer, syncs the file and replaces any previous snapshot.
+     */
+    void commit() throws IOException {
+        writeLong(TRAILER);
+        flush();
+        channel.force(false);
+        channel.close();
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        committed = true;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!committed) {
+            channel.close();
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
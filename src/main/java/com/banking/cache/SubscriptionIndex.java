@@ -0,0 +1,372 @@
+package com.banking.cache;
+
+import com.banking.entity.RefNotificationChannel;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory index of channel subscriptions: one compressed (Roaring) bitmap of
+ * account IDs per RefNotificationChannel.
+ *
+ * Answers "which accounts are subscribed to channel X", "which channels does
+ * account Y have" and set combinations such as SMS AND NOT EMAIL without
+ * touching the database. The index is loaded at startup (see HibernateUtil)
+ * and kept current by AccountSubscriptionDAO; subscriptions changed by
+ * mutating Account.getSubscriptions() are not tracked and need
+ * {@link #reloadChannel(SessionFactory, Long)} or {@link #load(SessionFactory)}.
+ *
+ * All query methods return new bitmaps that the caller is free to modify.
+ */
+public class SubscriptionIndex {
+
+    private static final SubscriptionIndex INSTANCE = new SubscriptionIndex();
+
+    private final Map<Long, Roaring64NavigableMap> accountsByChannel = new HashMap<>();
+    private final Map<String, Long> channelIdsByName = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean loaded;
+
+    // One per running load() or reloadChannel(): the write-path changes made while it scans the database
+    private final List<ChangeLog> changeLogs = new ArrayList<>();
+
+    public static SubscriptionIndex getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * (Re)builds the whole index by streaming the channels and the
+     * account_subscriptions join table. Changes reported through the write
+     * path while the scan runs are applied again on top of the scanned state,
+     * so subscriptions that commit during the load are not lost.
+     */
+    public synchronized void load(SessionFactory sessionFactory) {
+        Map<Long, Roaring64NavigableMap> bitmaps = new HashMap<>();
+        Map<String, Long> names = new HashMap<>();
+        long rows = 0;
+        long start = System.currentTimeMillis();
+
+        ChangeLog changes = startChangeLog(null);
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            for (RefNotificationChannel channel : session.createQuery(
+                    "FROM RefNotificationChannel", RefNotificationChannel.class).list()) {
+                names.put(channel.getChannelName(), channel.getId());
+                bitmaps.put(channel.getId(), new Roaring64NavigableMap());
+            }
+
+            ScrollableResults results = session.createQuery(
+                    "SELECT s.accountId, s.channelId FROM AccountSubscription s")
+                .setFetchSize(10_000)
+                .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (results.next()) {
+                    Long accountId = (Long) results.get(0);
+                    Long channelId = (Long) results.get(1);
+                    bitmaps.computeIfAbsent(channelId, id -> new Roaring64NavigableMap()).addLong(accountId);
+                    rows++;
+                }
+            } finally {
+                results.close();
+            }
+        } catch (RuntimeException e) {
+            endChangeLog(changes);
+            throw e;
+        } finally {
+            session.close();
+        }
+
+        for (Roaring64NavigableMap bitmap : bitmaps.values()) {
+            bitmap.runOptimize();
+        }
+
+        lock.writeLock().lock();
+        try {
+            accountsByChannel.clear();
+            accountsByChannel.putAll(bitmaps);
+            channelIdsByName.clear();
+            channelIdsByName.putAll(names);
+            replay(changes);
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("✓ Subscription index loaded: " + rows + " subscription(s) across "
+                + bitmaps.size() + " channel(s) in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    /**
+     * Reloads one channel's bitmap from the database (after set-based writes
+     * whose affected accounts are not known individually). As in
+     * {@link #load(SessionFactory)}, changes to the channel reported while the
+     * scan runs are applied again on top of the scanned bitmap.
+     */
+    public void reloadChannel(SessionFactory sessionFactory, Long channelId) {
+        Roaring64NavigableMap bitmap = new Roaring64NavigableMap();
+        String channelName = null;
+
+        ChangeLog changes = startChangeLog(channelId);
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            RefNotificationChannel channel = (RefNotificationChannel) session.get(RefNotificationChannel.class, channelId);
+            if (channel != null) {
+                channelName = channel.getChannelName();
+            }
+            ScrollableResults results = session.createQuery(
+                    "SELECT s.accountId FROM AccountSubscription s WHERE s.channelId = :channelId")
+                .setParameter("channelId", channelId)
+                .setFetchSize(10_000)
+                .scroll(ScrollMode.FORWARD_ONLY);
+            try {
+                while (results.next()) {
+                    bitmap.addLong((Long) results.get(0));
+                }
+            } finally {
+                results.close();
+            }
+        } catch (RuntimeException e) {
+            endChangeLog(changes);
+            throw e;
+        } finally {
+            session.close();
+        }
+        bitmap.runOptimize();
+
+        String name = channelName;
+        lock.writeLock().lock();
+        try {
+            accountsByChannel.put(channelId, bitmap);
+            if (name != null) {
+                channelIdsByName.put(name, channelId);
+            }
+            replay(changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // --- Write path (called after the subscription change is committed) ---
+
+    public void subscribed(long accountId, long channelId) {
+        write(channelId, () -> accountsByChannel.computeIfAbsent(channelId, id -> new Roaring64NavigableMap()).addLong(accountId));
+    }
+
+    public void unsubscribed(long accountId, long channelId) {
+        write(channelId, () -> {
+            Roaring64NavigableMap bitmap = accountsByChannel.get(channelId);
+            if (bitmap != null) {
+                bitmap.removeLong(accountId);
+            }
+        });
+    }
+
+    public void channelAdded(long channelId, String channelName) {
+        write(channelId, () -> {
+            accountsByChannel.putIfAbsent(channelId, new Roaring64NavigableMap());
+            channelIdsByName.put(channelName, channelId);
+        });
+    }
+
+    public void channelCleared(long channelId) {
+        write(channelId, () -> accountsByChannel.put(channelId, new Roaring64NavigableMap()));
+    }
+
+    public void accountRemoved(long accountId) {
+        write(null, () -> {
+            for (Roaring64NavigableMap bitmap : accountsByChannel.values()) {
+                bitmap.removeLong(accountId);
+            }
+        });
+    }
+
+    // Applies a change to one channel (null: every channel) under the write lock, and records it
+    // for replay by the running loads and reloads it concerns
+    private void write(Long channelId, Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            for (ChangeLog changes : changeLogs) {
+                if (changes.channelId == null || channelId == null || changes.channelId.equals(channelId)) {
+                    changes.changes.add(change);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Starts recording before a scan of one channel (null: all channels)
+    private ChangeLog startChangeLog(Long channelId) {
+        ChangeLog changes = new ChangeLog(channelId);
+        lock.writeLock().lock();
+        try {
+            changeLogs.add(changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return changes;
+    }
+
+    private void endChangeLog(ChangeLog changes) {
+        lock.writeLock().lock();
+        try {
+            changeLogs.remove(changes);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock and has just installed the scanned state; the changes act on the
+    // maps' current contents, i.e. now on that state (they are idempotent set operations)
+    private void replay(ChangeLog changes) {
+        for (Runnable change : changes.changes) {
+            change.run();
+        }
+        changeLogs.remove(changes);
+    }
+
+    // The write-path changes made during one scan
+    private static final class ChangeLog {
+
+        private final Long channelId;
+        private final List<Runnable> changes = new ArrayList<>();
+
+        ChangeLog(Long channelId) {
+            this.channelId = channelId;
+        }
+    }
+
+    // --- Queries ---
+
+    public boolean isSubscribed(long accountId, long channelId) {
+        lock.readLock().lock();
+        try {
+            Roaring64NavigableMap bitmap = accountsByChannel.get(channelId);
+            return bitmap != null && bitmap.contains(accountId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Long getChannelId(String channelName) {
+        lock.readLock().lock();
+        try {
+            return channelIdsByName.get(channelName);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Accounts subscribed to the channel
+    public Roaring64NavigableMap accountsFor(long channelId) {
+        lock.readLock().lock();
+        try {
+            return copyOf(accountsByChannel.get(channelId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Roaring64NavigableMap accountsFor(String channelName) {
+        return anyOf(Collections.singletonList(channelName));
+    }
+
+    // Write lock: getLongCardinality() updates the bitmap's cached cumulative cardinalities
+    public long countAccounts(long channelId) {
+        lock.writeLock().lock();
+        try {
+            Roaring64NavigableMap bitmap = accountsByChannel.get(channelId);
+            return bitmap != null ? bitmap.getLongCardinality() : 0L;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Channels the account is subscribed to (there are only a handful of channels)
+    public List<Long> channelsFor(long accountId) {
+        lock.readLock().lock();
+        try {
+            List<Long> channelIds = new ArrayList<>();
+            for (Map.Entry<Long, Roaring64NavigableMap> entry : accountsByChannel.entrySet()) {
+                if (entry.getValue().contains(accountId)) {
+                    channelIds.add(entry.getKey());
+                }
+            }
+            return channelIds;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Accounts subscribed to every one of the channels (AND)
+    public Roaring64NavigableMap allOf(Collection<String> channelNames) {
+        return query(channelNames, true, Collections.<String>emptyList());
+    }
+
+    // Accounts subscribed to at least one of the channels (OR)
+    public Roaring64NavigableMap anyOf(Collection<String> channelNames) {
+        return query(channelNames, false, Collections.<String>emptyList());
+    }
+
+    // Accounts subscribed to all of the included channels and none of the excluded ones,
+    // e.g. allOfExcept([SMS_ALERT], [EMAIL_STMT]) for "SMS AND NOT EMAIL"
+    public Roaring64NavigableMap allOfExcept(Collection<String> included, Collection<String> excluded) {
+        return query(included, true, excluded);
+    }
+
+    private Roaring64NavigableMap query(Collection<String> included, boolean intersect,
+                                        Collection<String> excluded) {
+        lock.readLock().lock();
+        try {
+            Roaring64NavigableMap result = null;
+            for (String channelName : included) {
+                Roaring64NavigableMap bitmap = bitmapFor(channelName);
+                if (result == null) {
+                    result = copyOf(bitmap);
+                } else if (intersect) {
+                    result.and(bitmap);
+                } else {
+                    result.or(bitmap);
+                }
+            }
+            if (result == null) {
+                return new Roaring64NavigableMap();
+            }
+            for (String channelName : excluded) {
+                result.andNot(bitmapFor(channelName));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Roaring64NavigableMap bitmapFor(String channelName) {
+        Long channelId = channelIdsByName.get(channelName);
+        Roaring64NavigableMap bitmap = channelId != null ? accountsByChannel.get(channelId) : null;
+        return bitmap != null ? bitmap : new Roaring64NavigableMap();
+    }
+
+    private static Roaring64NavigableMap copyOf(Roaring64NavigableMap bitmap) {
+        Roaring64NavigableMap copy = new Roaring64NavigableMap();
+        if (bitmap != null) {
+            copy.or(bitmap);
+        }
+        return copy;
+    }
+}
@@ -1,22 +1,63 @@
 package com.banking.dao;
 
+import com.banking.cache.SubscriptionIndex;
 import com.banking.entity.Account;
+import com.banking.entity.Customer;
 import com.banking.util.HibernateUtil;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StaleObjectStateException;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 
 public class AccountDAO {
 
+    // JDBC rather than HQL: a bulk HQL UPDATE would evict the Account natural-id and collection caches
+    private static final String ADJUST_BALANCE_SQL =
+        "UPDATE accounts SET balance = balance + ?, version = version + 1 WHERE id = ?";
+    private static final String ADJUST_BALANCE_IF_VERSION_SQL = ADJUST_BALANCE_SQL + " AND version = ?";
+    private static final String DELETE_IF_VERSION_SQL = "DELETE FROM accounts WHERE id = ? AND version = ?";
+
+    private final SessionFactory sessionFactory;
+
+    // Application SessionFactory (reads go to the replica when one is configured)
+    public AccountDAO() {
+        this(null);
+    }
+
+    // A specific SessionFactory for reads and writes, e.g. one shard's
+    public AccountDAO(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    private SessionFactory writeFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getSessionFactory();
+    }
+
+    private SessionFactory readFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getReadSessionFactory();
+    }
+
+    // The SubscriptionIndex mirrors the application database only
+    private boolean indexLoaded() {
+        return sessionFactory == null && SubscriptionIndex.getInstance().isLoaded();
+    }
+
     // CREATE
     public Long saveAccount(Account account) {
         Session session = null;
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
             Long id = (Long) session.save(account);
@@ -38,11 +79,40 @@ public class AccountDAO {
         }
     }
 
+    // CREATE - For a customer ID (the customer is attached as a reference, not loaded)
+    public Long saveAccount(Long customerId, Account account) {
+        Session session = null;
+        Transaction transaction = null;
+        
+        try {
+            session = writeFactory().openSession();
+            transaction = session.beginTransaction();
+            
+            account.setCustomer(session.load(Customer.class, customerId));
+            Long id = (Long) session.save(account);
+            
+            transaction.commit();
+            System.out.println("✓ Account saved with ID: " + id);
+            return id;
+            
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            System.err.println("Error saving account: " + e.getMessage());
+            throw e;
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
     // READ
     public Account getAccountById(Long id) {
         Session session = null;
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = readFactory().openSession();
             return session.get(Account.class, id);
         } finally {
             if (session != null) {
@@ -51,13 +121,53 @@ public class AccountDAO {
         }
     }
 
+    // READ - Many IDs at once (accounts in input order; cached ones are not queried)
+    public List<Account> getByIds(Collection<Long> ids) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            return MultiIdLoader.loadList(session, Account.class, ids);
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // READ - By account number (natural id; the number -> id resolution is cached)
+    public Account getByAccountNumber(String accountNumber) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            return session.bySimpleNaturalId(Account.class).load(accountNumber);
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // READ - Many account numbers at once (account number -> account, in input order)
+    public Map<String, Account> getByAccountNumbers(Collection<String> accountNumbers) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            return NaturalIdBatchLoader.load(session, Account.class, "accountNumber",
+                Account.FIND_BY_ACCOUNT_NUMBERS, accountNumbers, NaturalIdBatchLoader.DEFAULT_IN_CLAUSE_SIZE);
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
     // READ - Get accounts by customer
     public List<Account> getAccountsByCustomerId(Long customerId) {
         Session session = null;
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
-            Query<Account> query = session.createQuery(
-                "FROM Account WHERE customer.id = :customerId", Account.class);
+            session = readFactory().openSession();
+            Query<Account> query = session.createNamedQuery(
+                Account.FIND_BY_CUSTOMER_ID, Account.class);
             query.setParameter("customerId", customerId);
             return query.list();
         } finally {
@@ -73,7 +183,7 @@ public class AccountDAO {
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
             session.update(account);
@@ -94,28 +204,125 @@ public class AccountDAO {
         }
     }
 
-    // DELETE
-    public void deleteAccount(Long id) {
+    // UPDATE - Balance change without reading the account (false if there is no such account)
+    public boolean adjustBalance(Long id, BigDecimal delta) {
+        return adjustBalance(id, delta, null);
+    }
+
+    /**
+     * Adds delta (negative for a debit) to the balance in one
+     * UPDATE ... SET balance = balance + ?, version = version + 1, so concurrent
+     * adjustments cannot overwrite each other. With an expectedVersion the
+     * update only applies to that version of the row and a
+     * StaleObjectStateException is thrown otherwise, as for updateAccount.
+     * Account instances already loaded keep their old balance and version.
+     *
+     * @return false if there is no such account (expectedVersion null)
+     */
+    public boolean adjustBalance(Long id, BigDecimal delta, Long expectedVersion) {
+        Session session = null;
+        Transaction transaction = null;
+        
+        try {
+            session = writeFactory().openSession();
+            transaction = session.beginTransaction();
+            
+            int updated = session.doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(
+                        expectedVersion != null ? ADJUST_BALANCE_IF_VERSION_SQL : ADJUST_BALANCE_SQL)) {
+                    statement.setBigDecimal(1, delta);
+                    statement.setLong(2, id);
+                    if (expectedVersion != null) {
+                        statement.setLong(3, expectedVersion);
+                    }
+                    return statement.executeUpdate();
+                }
+            });
+            if (updated == 0 && expectedVersion != null) {
+                throw new StaleObjectStateException(Account.class.getName(), id);
+            }
+            
+            transaction.commit();
+            if (updated > 0) {
+                System.out.println("✓ Account " + id + " balance adjusted by " + delta);
+            }
+            return updated > 0;
+            
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            System.err.println("Error adjusting balance: " + e.getMessage());
+            throw e;
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // DELETE - By ID without loading; the account's transactions and subscriptions are deleted with it
+    public boolean deleteAccount(Long id) {
+        return delete(Collections.singletonList(id), null) == 1;
+    }
+
+    // DELETE - Only at the expected version, else StaleObjectStateException and nothing is deleted
+    public boolean deleteAccount(Long id, Long expectedVersion) {
+        if (expectedVersion == null) {
+            throw new IllegalArgumentException("Expected version is required");
+        }
+        return delete(Collections.singletonList(id), expectedVersion) == 1;
+    }
+
+    /**
+     * Deletes accounts by ID with their ledger rows and subscriptions, set-wise
+     * (see BulkDelete), in one transaction. The LedgerColumnStore keeps deleted
+     * ledger rows until its next load.
+     *
+     * @return the number of accounts deleted
+     */
+    public int deleteByIds(Collection<Long> ids) {
+        return delete(BulkDelete.distinct(ids), null);
+    }
+
+    private int delete(List<Long> ids, Long expectedVersion) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
         Session session = null;
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
-            Account account = session.get(Account.class, id);
-            if (account != null) {
-                session.delete(account);
-                System.out.println("✓ Account deleted successfully");
+            List<String> accountNumbers = new ArrayList<>();
+            int deleted = session.doReturningWork(connection -> {
+                accountNumbers.addAll(BulkDelete.selectNaturalIds(connection, "account_number", "accounts", ids));
+                if (expectedVersion == null) {
+                    return BulkDelete.deleteAccounts(connection, ids);
+                }
+                BulkDelete.deleteAccountChildren(connection, ids);
+                try (PreparedStatement statement = connection.prepareStatement(DELETE_IF_VERSION_SQL)) {
+                    statement.setLong(1, ids.get(0));
+                    statement.setLong(2, expectedVersion);
+                    return statement.executeUpdate();
+                }
+            });
+            if (deleted == 0 && expectedVersion != null) {
+                throw new StaleObjectStateException(Account.class.getName(), ids.get(0));
             }
             
             transaction.commit();
+            BulkDelete.accountsDeleted(session, ids, accountNumbers, indexLoaded());
+            System.out.println("✓ Deleted " + deleted + " account(s)");
+            return deleted;
             
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
             }
-            System.err.println("Error deleting account: " + e.getMessage());
+            System.err.println("Error deleting accounts: " + e.getMessage());
             throw e;
         } finally {
             if (session != null) {
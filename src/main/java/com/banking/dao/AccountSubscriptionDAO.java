@@ -0,0 +1,326 @@
+package com.banking.dao;
+
+import com.banking.cache.SubscriptionIndex;
+import com.banking.entity.AccountSubscription;
+import com.banking.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.NativeQuery;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Set-based subscription management on the account_subscriptions join table.
+ *
+ * Unlike mutating Account.getSubscriptions(), none of these operations load
+ * Account entities: bulk subscribe runs as a single INSERT ... SELECT and
+ * add/remove lists are sent as JDBC batches. Committed changes are applied to
+ * the in-memory {@link SubscriptionIndex} when it is loaded.
+ */
+public class AccountSubscriptionDAO {
+
+    private static final String SUBSCRIBE_WHERE_SQL =
+        "INSERT INTO account_subscriptions (account_id, channel_id) " +
+        "SELECT a.id, :channelId FROM accounts a " +
+        "WHERE (%s) AND NOT EXISTS (" +
+        "SELECT 1 FROM account_subscriptions s WHERE s.account_id = a.id AND s.channel_id = :channelId)";
+
+    // The only conditions SUBSCRIBE_WHERE_SQL is formatted with; values are always bound
+    private static final String ALL_ACCOUNTS = "1 = 1";
+    private static final String CUSTOMER_ID_IN = "a.customer_id IN (:ids)";
+    private static final String ACCOUNT_ID_IN = "a.id IN (:ids)";
+    private static final String MIN_BALANCE = "a.balance >= :minBalance";
+
+    // Inserts only if the account exists and is not yet subscribed, so re-running is harmless
+    private static final String INSERT_IF_ABSENT_SQL =
+        "INSERT INTO account_subscriptions (account_id, channel_id) " +
+        "SELECT a.id, ? FROM accounts a WHERE a.id = ? AND NOT EXISTS (" +
+        "SELECT 1 FROM account_subscriptions s WHERE s.account_id = ? AND s.channel_id = ?)";
+
+    // Oracle's limit for an IN list
+    private static final int MAX_IN_LIST = 1000;
+
+    private static final String DELETE_SQL =
+        "DELETE FROM account_subscriptions WHERE account_id = ? AND channel_id = ?";
+
+    private final SessionFactory sessionFactory;
+
+    // Application SessionFactory
+    public AccountSubscriptionDAO() {
+        this(null);
+    }
+
+    // A specific SessionFactory, e.g. one shard's (the SubscriptionIndex is not updated)
+    public AccountSubscriptionDAO(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    private SessionFactory writeFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getSessionFactory();
+    }
+
+    // The SubscriptionIndex mirrors the application database only
+    private boolean indexLoaded() {
+        return sessionFactory == null && SubscriptionIndex.getInstance().isLoaded();
+    }
+
+    // BULK SUBSCRIBE - Every account
+    public int subscribeAll(Long channelId) {
+        return subscribeWhere(channelId, ALL_ACCOUNTS,
+                Collections.singletonList(Collections.<String, Object>emptyMap()));
+    }
+
+    // BULK SUBSCRIBE - Every account of a customer
+    public int subscribeCustomerAccounts(Long channelId, Long customerId) {
+        return subscribeCustomersAccounts(channelId, Collections.singletonList(customerId));
+    }
+
+    // BULK SUBSCRIBE - Every account of the given customers (one statement per 1000 customers)
+    public int subscribeCustomersAccounts(Long channelId, Collection<Long> customerIds) {
+        return subscribeWhere(channelId, CUSTOMER_ID_IN, idChunks(customerIds));
+    }
+
+    // BULK SUBSCRIBE - The given accounts (one statement per 1000 accounts; unknown IDs are skipped)
+    public int subscribeAccounts(Long channelId, Collection<Long> accountIds) {
+        return subscribeWhere(channelId, ACCOUNT_ID_IN, idChunks(accountIds));
+    }
+
+    // BULK SUBSCRIBE - Every account with at least the given balance
+    public int subscribeAccountsWithMinBalance(Long channelId, BigDecimal minBalance) {
+        return subscribeWhere(channelId, MIN_BALANCE,
+                Collections.singletonList(Collections.<String, Object>singletonMap("minBalance", minBalance)));
+    }
+
+    /**
+     * Subscribes every account matching one of the fixed conditions above to
+     * the channel, with one INSERT ... SELECT per parameter set, in one
+     * transaction. Accounts that are already subscribed are skipped.
+     *
+     * @return number of subscriptions created
+     */
+    private int subscribeWhere(Long channelId, String accountCondition, List<Map<String, Object>> parameterSets) {
+        if (parameterSets.isEmpty()) {
+            return 0;
+        }
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = writeFactory().openSession();
+            transaction = session.beginTransaction();
+
+            int inserted = 0;
+            for (Map<String, Object> parameters : parameterSets) {
+                NativeQuery<?> insert = session.createNativeQuery(
+                    String.format(SUBSCRIBE_WHERE_SQL, accountCondition));
+                insert.addSynchronizedQuerySpace("account_subscriptions");
+                insert.setParameter("channelId", channelId);
+                for (Map.Entry<String, Object> parameter : parameters.entrySet()) {
+                    if (parameter.getValue() instanceof Collection) {
+                        insert.setParameterList(parameter.getKey(), (Collection<?>) parameter.getValue());
+                    } else {
+                        insert.setParameter(parameter.getKey(), parameter.getValue());
+                    }
+                }
+                inserted += insert.executeUpdate();
+            }
+
+            transaction.commit();
+            if (inserted > 0 && indexLoaded()) {
+                SubscriptionIndex.getInstance().reloadChannel(session.getSessionFactory(), channelId);
+            }
+            System.out.println("✓ Subscribed " + inserted + " account(s) to channel " + channelId);
+            return inserted;
+
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            System.err.println("Error subscribing accounts: " + e.getMessage());
+            throw e;
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // {ids: chunk} parameter sets of at most 1000 distinct IDs (Oracle's IN-list limit)
+    private static List<Map<String, Object>> idChunks(Collection<Long> ids) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.remove(null);
+        List<Map<String, Object>> chunks = new ArrayList<>();
+        for (int from = 0; from < distinct.size(); from += MAX_IN_LIST) {
+            List<Long> chunk = distinct.subList(from, Math.min(distinct.size(), from + MAX_IN_LIST));
+            chunks.add(Collections.<String, Object>singletonMap("ids", new ArrayList<>(chunk)));
+        }
+        return chunks;
+    }
+
+    // BULK UNSUBSCRIBE - Remove a channel from every account
+    public int unsubscribeChannel(Long channelId) {
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = writeFactory().openSession();
+            transaction = session.beginTransaction();
+
+            int deleted = session.createNamedQuery(AccountSubscription.DELETE_BY_CHANNEL_ID)
+                .setParameter("channelId", channelId)
+                .executeUpdate();
+
+            transaction.commit();
+            if (indexLoaded()) {
+                SubscriptionIndex.getInstance().channelCleared(channelId);
+            }
+            System.out.println("✓ Removed " + deleted + " subscription(s) to channel " + channelId);
+            return deleted;
+
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            System.err.println("Error unsubscribing channel: " + e.getMessage());
+            throw e;
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // SUBSCRIBE - One account by ID (a single INSERT ... SELECT; false if already subscribed or no such account)
+    public boolean subscribe(Long accountId, Long channelId) {
+        return addSubscriptions(Collections.singletonList(new AccountSubscription(accountId, channelId))) == 1;
+    }
+
+    // UNSUBSCRIBE - One account by ID (false if it was not subscribed)
+    public boolean unsubscribe(Long accountId, Long channelId) {
+        return removeSubscriptions(Collections.singletonList(new AccountSubscription(accountId, channelId))) == 1;
+    }
+
+    // BATCHED ADD - Existing subscriptions and unknown accounts are skipped. The count comes from the batch's
+    // per-row update counts: a driver that does not report them rolls the call back (IllegalStateException)
+    public int addSubscriptions(Collection<AccountSubscription> subscriptions) {
+        return executeBatch(subscriptions, INSERT_IF_ABSENT_SQL, true, "adding subscriptions");
+    }
+
+    // BATCHED REMOVE
+    public int removeSubscriptions(Collection<AccountSubscription> subscriptions) {
+        return executeBatch(subscriptions, DELETE_SQL, false, "removing subscriptions");
+    }
+
+    private int executeBatch(Collection<AccountSubscription> subscriptions, String sql,
+                             boolean insert, String operation) {
+        if (subscriptions.isEmpty()) {
+            return 0;
+        }
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = writeFactory().openSession();
+            transaction = session.beginTransaction();
+
+            int batchSize = batchSize(session);
+            // Rows the database actually changed, in input order
+            List<AccountSubscription> applied = session.doReturningWork(connection -> {
+                List<AccountSubscription> changed = new ArrayList<>();
+                List<AccountSubscription> chunk = new ArrayList<>(batchSize);
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (AccountSubscription subscription : subscriptions) {
+                        if (insert) {
+                            statement.setLong(1, subscription.getChannelId());
+                            statement.setLong(2, subscription.getAccountId());
+                            statement.setLong(3, subscription.getAccountId());
+                            statement.setLong(4, subscription.getChannelId());
+                        } else {
+                            statement.setLong(1, subscription.getAccountId());
+                            statement.setLong(2, subscription.getChannelId());
+                        }
+                        statement.addBatch();
+                        chunk.add(subscription);
+                        if (chunk.size() == batchSize) {
+                            collectChanged(chunk, statement.executeBatch(), changed);
+                            chunk.clear();
+                        }
+                    }
+                    if (!chunk.isEmpty()) {
+                        collectChanged(chunk, statement.executeBatch(), changed);
+                    }
+                }
+                return changed;
+            });
+
+            transaction.commit();
+            // The batch bypassed Hibernate, so drop any cached Account.subscriptions collections
+            session.getSessionFactory().getCache()
+                .evictCollectionData("com.banking.entity.Account.subscriptions");
+            if (indexLoaded()) {
+                SubscriptionIndex index = SubscriptionIndex.getInstance();
+                for (AccountSubscription subscription : applied) {
+                    if (insert) {
+                        index.subscribed(subscription.getAccountId(), subscription.getChannelId());
+                    } else {
+                        index.unsubscribed(subscription.getAccountId(), subscription.getChannelId());
+                    }
+                }
+            }
+            int affected = applied.size();
+            System.out.println("✓ " + affected + " subscription row(s) affected");
+            return affected;
+
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            System.err.println("Error " + operation + ": " + e.getMessage());
+            throw e;
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    static int batchSize(Session session) {
+        Integer sessionBatchSize = session.getJdbcBatchSize();
+        if (sessionBatchSize != null && sessionBatchSize > 0) {
+            return sessionBatchSize;
+        }
+        int factoryBatchSize = session.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+            .getSessionFactoryOptions().getJdbcBatchSize();
+        return factoryBatchSize > 0 ? factoryBatchSize : 50;
+    }
+
+    // Without a row count an inserted pair cannot be told apart from one that was already there (or whose
+    // account does not exist), so a driver answering SUCCESS_NO_INFO fails the whole call instead of guessing
+    private static void collectChanged(List<AccountSubscription> chunk, int[] updateCounts,
+                                       List<AccountSubscription> changed) {
+        if (updateCounts.length != chunk.size()) {
+            throw new IllegalStateException("Subscription batch returned " + updateCounts.length +
+                " update count(s) for " + chunk.size() + " row(s)");
+        }
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                throw new IllegalStateException("The JDBC driver reported no update count for account " +
+                    chunk.get(i).getAccountId() + " on channel " + chunk.get(i).getChannelId() +
+                    "; cannot tell which subscriptions were changed");
+            }
+            if (updateCounts[i] > 0) {
+                changed.add(chunk.get(i));
+            }
+        }
+    }
+}
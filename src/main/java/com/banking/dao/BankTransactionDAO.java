@@ -1,28 +1,112 @@
 package com.banking.dao;
 
+import com.banking.cache.IdempotencyFilter;
+import com.banking.cache.SubscriptionIndex;
+import com.banking.entity.Account;
 import com.banking.entity.BankTransaction;
+import com.banking.notification.OutboxWriter;
 import com.banking.util.HibernateUtil;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
+import org.hibernate.exception.ConstraintViolationException;
 import org.hibernate.query.Query;
 
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Ledger rows. Saving a transaction also queues a notification per subscribed
+ * channel in the same database transaction (see {@link OutboxWriter}).
+ * Feeds that redeliver messages use {@link #ingestTransaction(BankTransaction)},
+ * which is idempotent on the transaction's idempotency key.
+ * The overloads taking an account ID attach the account as an uninitialized
+ * reference: recording a transaction then costs a single INSERT, without
+ * loading the account, its customer or the customer's KYC profile.
+ */
 public class BankTransactionDAO {
 
+    private final SessionFactory sessionFactory;
+    private final IdempotencyFilter idempotencyFilter;
+
+    // Application SessionFactory (reads go to the replica when one is configured)
+    public BankTransactionDAO() {
+        this(null, IdempotencyFilter.getInstance());
+    }
+
+    // A specific SessionFactory for reads and writes, e.g. one shard's (ingestion checks every key in the database)
+    public BankTransactionDAO(SessionFactory sessionFactory) {
+        this(sessionFactory, null);
+    }
+
+    // A specific SessionFactory with its own idempotency filter
+    public BankTransactionDAO(SessionFactory sessionFactory, IdempotencyFilter idempotencyFilter) {
+        this.sessionFactory = sessionFactory;
+        this.idempotencyFilter = idempotencyFilter;
+    }
+
+    private SessionFactory writeFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getSessionFactory();
+    }
+
+    private boolean indexLoaded() {
+        return sessionFactory == null && SubscriptionIndex.getInstance().isLoaded();
+    }
+
+    private SessionFactory readFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getReadSessionFactory();
+    }
+
     // CREATE
     public Long saveTransaction(BankTransaction transaction) {
+        return save(null, transaction);
+    }
+
+    // CREATE - For an account ID (nothing is loaded; an unknown ID fails on the foreign key)
+    public Long saveTransaction(Long accountId, BankTransaction transaction) {
+        if (accountId == null) {
+            throw new IllegalArgumentException("Account ID is required");
+        }
+        return save(accountId, transaction);
+    }
+
+    // CREATE - For an account ID
+    public Long saveTransaction(Long accountId, LocalDate txDate, String type, BigDecimal amount, String status) {
+        return saveTransaction(accountId, new BankTransaction(txDate, type, amount, status));
+    }
+
+    // Sets the account to a reference proxy when an account ID is given
+    private Long save(Long accountId, BankTransaction transaction) {
         Session session = null;
         Transaction tx = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             tx = session.beginTransaction();
             
+            if (accountId != null) {
+                transaction.setAccount(session.load(Account.class, accountId));
+            }
             Long id = (Long) session.save(transaction);
+            // Notifications for the account's channels commit (or roll back) with the ledger row
+            int notifications = 0;
+            if (transaction.getAccount() != null && transaction.getAccount().getId() != null) {
+                Long notifiedAccountId = transaction.getAccount().getId();
+                List<Long> channelIds = indexLoaded()
+                    ? SubscriptionIndex.getInstance().channelsFor(notifiedAccountId)
+                    : OutboxWriter.subscribedChannelIds(session, notifiedAccountId);
+                notifications = OutboxWriter.enqueue(session, transaction, channelIds);
+            }
             
             tx.commit();
-            System.out.println("✓ Bank Transaction saved with ID: " + id);
+            if (idempotencyFilter != null && transaction.getIdempotencyKey() != null) {
+                idempotencyFilter.recordKey(transaction.getIdempotencyKey(), id);
+            }
+            System.out.println("✓ Bank Transaction saved with ID: " + id +
+                (notifications > 0 ? " (" + notifications + " notifications queued)" : ""));
             return id;
             
         } catch (Exception e) {
@@ -38,11 +122,99 @@ public class BankTransactionDAO {
         }
     }
 
+    // CREATE - Idempotent on the transaction's idempotency key: a redelivered message is not posted again.
+    // Returns the new transaction's ID, or the ID already stored under the key (the passed
+    // transaction then keeps a null ID and nothing is written).
+    public Long ingestTransaction(BankTransaction transaction) {
+        return ingest(null, transaction);
+    }
+
+    // CREATE - Idempotent, for an account ID (the account is not loaded)
+    public Long ingestTransaction(Long accountId, BankTransaction transaction) {
+        if (accountId == null) {
+            throw new IllegalArgumentException("Account ID is required");
+        }
+        return ingest(accountId, transaction);
+    }
+
+    private Long ingest(Long accountId, BankTransaction transaction) {
+        String key = transaction.getIdempotencyKey();
+        if (key == null) {
+            throw new IllegalArgumentException("Idempotency key is required for ingestion");
+        }
+
+        // Recently seen: duplicate without touching the database
+        Long existing = idempotencyFilter != null ? idempotencyFilter.recentTransactionId(key) : null;
+        if (existing != null) {
+            idempotencyFilter.duplicateFromRecent();
+            System.out.println("✓ Duplicate transaction ignored (key " + key + ", ID " + existing + ")");
+            return existing;
+        }
+
+        // Not in the filter: definitely new, insert without a lookup
+        if (idempotencyFilter != null && !idempotencyFilter.mightContain(key)) {
+            idempotencyFilter.acceptedWithoutLookup();
+        } else {
+            existing = getTransactionIdByIdempotencyKey(key);
+            if (idempotencyFilter != null) {
+                idempotencyFilter.lookedUp(existing != null);
+            }
+            if (existing != null) {
+                if (idempotencyFilter != null) {
+                    idempotencyFilter.recordKey(key, existing);
+                }
+                System.out.println("✓ Duplicate transaction ignored (key " + key + ", ID " + existing + ")");
+                return existing;
+            }
+        }
+
+        try {
+            return save(accountId, transaction);
+        } catch (RuntimeException e) {
+            // Stored concurrently or by another instance: the unique index rejected the insert
+            existing = isConstraintViolation(e) ? getTransactionIdByIdempotencyKey(key) : null;
+            if (existing == null) {
+                throw e;
+            }
+            transaction.setId(null);
+            if (idempotencyFilter != null) {
+                idempotencyFilter.duplicateFromConstraint();
+                idempotencyFilter.recordKey(key, existing);
+            }
+            System.out.println("✓ Duplicate transaction ignored (key " + key + ", ID " + existing + ")");
+            return existing;
+        }
+    }
+
+    // READ - ID of the transaction stored under the idempotency key (unique index lookup on the primary: a replica may lag)
+    public Long getTransactionIdByIdempotencyKey(String idempotencyKey) {
+        Session session = null;
+        try {
+            session = writeFactory().openSession();
+            return session.createNamedQuery(BankTransaction.FIND_ID_BY_IDEMPOTENCY_KEY, Long.class)
+                .setParameter("idempotencyKey", idempotencyKey)
+                .uniqueResult();
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    private static boolean isConstraintViolation(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // READ
     public BankTransaction getTransactionById(Long id) {
         Session session = null;
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = readFactory().openSession();
             return session.get(BankTransaction.class, id);
         } finally {
             if (session != null) {
@@ -51,15 +223,45 @@ public class BankTransactionDAO {
         }
     }
 
+    // READ - Many IDs at once (transactions in input order; cached ones are not queried)
+    public List<BankTransaction> getByIds(Collection<Long> ids) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            return MultiIdLoader.loadList(session, BankTransaction.class, ids);
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
     // READ - Get transactions by account
     public List<BankTransaction> getTransactionsByAccountId(Long accountId) {
         Session session = null;
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
-            Query<BankTransaction> query = session.createQuery(
-                "FROM BankTransaction WHERE account.id = :accountId ORDER BY txDate DESC", 
-                BankTransaction.class);
+            session = readFactory().openSession();
+            Query<BankTransaction> query = session.createNamedQuery(
+                BankTransaction.FIND_BY_ACCOUNT_ID, BankTransaction.class);
+            query.setParameter("accountId", accountId);
+            return query.list();
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // READ - Transactions of an account dated from..to (inclusive), newest first
+    public List<BankTransaction> getTransactionsByAccountAndDateRange(Long accountId, LocalDate from, LocalDate to) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            Query<BankTransaction> query = session.createNamedQuery(
+                BankTransaction.FIND_BY_ACCOUNT_AND_DATE_RANGE, BankTransaction.class);
             query.setParameter("accountId", accountId);
+            query.setParameter("fromDate", from);
+            query.setParameter("toDate", to);
             return query.list();
         } finally {
             if (session != null) {
@@ -68,13 +270,48 @@ public class BankTransactionDAO {
         }
     }
 
+    // READ - Number of transactions of an account dated from..to (answered from the index alone)
+    public long countTransactionsByAccountAndDateRange(Long accountId, LocalDate from, LocalDate to) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            return session.createNamedQuery(BankTransaction.COUNT_BY_ACCOUNT_AND_DATE_RANGE, Long.class)
+                .setParameter("accountId", accountId)
+                .setParameter("fromDate", from)
+                .setParameter("toDate", to)
+                .uniqueResult();
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // READ - Total amount of one type (CREDIT/DEBIT) for an account dated from..to, zero if none
+    public BigDecimal sumAmountByAccountAndDateRange(Long accountId, LocalDate from, LocalDate to, String type) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            return session.createNamedQuery(BankTransaction.SUM_BY_ACCOUNT_TYPE_AND_DATE_RANGE, BigDecimal.class)
+                .setParameter("accountId", accountId)
+                .setParameter("fromDate", from)
+                .setParameter("toDate", to)
+                .setParameter("type", type)
+                .uniqueResult();
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
     // UPDATE
     public void updateTransaction(BankTransaction transaction) {
         Session session = null;
         Transaction tx = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             tx = session.beginTransaction();
             
             session.update(transaction);
@@ -95,28 +332,39 @@ public class BankTransactionDAO {
         }
     }
 
-    // DELETE
-    public void deleteTransaction(Long id) {
+    // DELETE - By ID without loading
+    public boolean deleteTransaction(Long id) {
+        return deleteByIds(Collections.singletonList(id)) == 1;
+    }
+
+    // DELETE - Many IDs, set-wise (see BulkDelete), with their pending notifications; the LedgerColumnStore
+    // keeps them until its next load
+    public int deleteByIds(Collection<Long> ids) {
+        List<Long> transactionIds = BulkDelete.distinct(ids);
+        if (transactionIds.isEmpty()) {
+            return 0;
+        }
         Session session = null;
         Transaction tx = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             tx = session.beginTransaction();
             
-            BankTransaction transaction = session.get(BankTransaction.class, id);
-            if (transaction != null) {
-                session.delete(transaction);
-                System.out.println("✓ Bank Transaction deleted successfully");
-            }
+            int deleted = session.doReturningWork(connection -> {
+                BulkDelete.deletePendingMessages(connection, "transaction_id", transactionIds);
+                return BulkDelete.deleteWhereIn(connection, "bank_transactions", "id", transactionIds);
+            });
             
             tx.commit();
+            System.out.println("✓ Deleted " + deleted + " Bank Transaction(s)");
+            return deleted;
             
         } catch (Exception e) {
             if (tx != null) {
                 tx.rollback();
             }
-            System.err.println("Error deleting transaction: " + e.getMessage());
+            System.err.println("Error deleting transactions: " + e.getMessage());
             throw e;
         } finally {
             if (session != null) {
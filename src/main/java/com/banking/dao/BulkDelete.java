@@ -0,0 +1,204 @@
+package com.banking.dao;
+
+import com.banking.cache.SubscriptionIndex;
+import com.banking.entity.Account;
+import com.banking.entity.OutboxMessage;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.cache.spi.access.NaturalIdDataAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Deletes by ID without loading entities, for the DAOs' delete methods.
+ *
+ * Rows go with DELETE ... WHERE column IN (?, ...) over plain JDBC, at most
+ * 1000 IDs per statement (Oracle's IN-list limit), so removing the ledger rows
+ * of 10,000 accounts takes 10 statements, not one per row. Nothing passes
+ * through a persistence context: callers evict the second-level cache entries
+ * of what they deleted once the transaction has committed. Undelivered outbox
+ * messages of deleted ledger rows go in the same transaction.
+ */
+class BulkDelete {
+
+    static final int MAX_IN_LIST = 1000;
+
+    static final String ACCOUNT_SUBSCRIPTIONS_ROLE = "com.banking.entity.Account.subscriptions";
+
+    private BulkDelete() {
+    }
+
+    // Distinct non-null IDs, in input order
+    static List<Long> distinct(Collection<Long> ids) {
+        Set<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        return new ArrayList<>(distinct);
+    }
+
+    /**
+     * DELETE FROM table WHERE column IN (ids), one statement per 1000 IDs.
+     *
+     * @return the number of rows deleted
+     */
+    static int deleteWhereIn(Connection connection, String table, String column, List<Long> ids) throws SQLException {
+        int deleted = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM " + table + " WHERE " + column + " IN (" + placeholders(chunk.size()) + ")")) {
+                bind(delete, chunk);
+                deleted += delete.executeUpdate();
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * SELECT idColumn FROM table WHERE column IN (ids), e.g. the accounts of some customers.
+     */
+    static List<Long> selectWhereIn(Connection connection, String idColumn, String table, String column,
+                                    List<Long> ids) throws SQLException {
+        List<Long> found = new ArrayList<>();
+        for (List<Long> chunk : chunks(ids)) {
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT " + idColumn + " FROM " + table + " WHERE " + column + " IN (" + placeholders(chunk.size()) + ")")) {
+                bind(select, chunk);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        found.add(resultSet.getLong(1));
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The natural IDs (account number, PAN) of the rows with the given IDs, read
+     * before they are deleted so that {@link #evictNaturalIds} can drop exactly
+     * their cache entries afterwards.
+     */
+    static List<String> selectNaturalIds(Connection connection, String naturalIdColumn, String table,
+                                         List<Long> ids) throws SQLException {
+        List<String> found = new ArrayList<>();
+        for (List<Long> chunk : chunks(ids)) {
+            try (PreparedStatement select = connection.prepareStatement(
+                    "SELECT " + naturalIdColumn + " FROM " + table + " WHERE id IN (" + placeholders(chunk.size()) + ")")) {
+                bind(select, chunk);
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        if (resultSet.getString(1) != null) {
+                            found.add(resultSet.getString(1));
+                        }
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Evicts the natural-id cache entries (natural ID -> ID) of the given
+     * values only; Cache.evictNaturalIdData would empty the whole region.
+     */
+    static void evictNaturalIds(Session session, Class<?> entityClass, List<String> naturalIds) {
+        EntityPersister persister = session.getSessionFactory().unwrap(SessionFactoryImplementor.class)
+            .getMetamodel().entityPersister(entityClass);
+        if (persister.hasNaturalIdCache()) {
+            NaturalIdDataAccess cache = persister.getNaturalIdCacheAccessStrategy();
+            for (String naturalId : naturalIds) {
+                cache.evict(cache.generateCacheKey(new Object[] {naturalId}, persister,
+                    (SharedSessionContractImplementor) session));
+            }
+        }
+    }
+
+    /**
+     * Deletes the PENDING outbox messages whose column (transaction_id or
+     * account_id) is in ids, so the relay does not announce deleted ledger rows.
+     * Sent and failed messages are kept as the notification history.
+     *
+     * @return the number of messages deleted
+     */
+    static int deletePendingMessages(Connection connection, String column, List<Long> ids) throws SQLException {
+        int deleted = 0;
+        for (List<Long> chunk : chunks(ids)) {
+            try (PreparedStatement delete = connection.prepareStatement(
+                    "DELETE FROM notification_outbox WHERE status = ? AND " + column + " IN (" +
+                    placeholders(chunk.size()) + ")")) {
+                delete.setString(1, OutboxMessage.PENDING);
+                for (int i = 0; i < chunk.size(); i++) {
+                    delete.setLong(i + 2, chunk.get(i));
+                }
+                deleted += delete.executeUpdate();
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes the accounts' subscriptions, ledger rows and pending outbox
+     * messages, then the accounts.
+     *
+     * @return the number of accounts deleted
+     */
+    static int deleteAccounts(Connection connection, List<Long> accountIds) throws SQLException {
+        deleteAccountChildren(connection, accountIds);
+        return deleteWhereIn(connection, "accounts", "id", accountIds);
+    }
+
+    static void deleteAccountChildren(Connection connection, List<Long> accountIds) throws SQLException {
+        deleteWhereIn(connection, "account_subscriptions", "account_id", accountIds);
+        deleteWhereIn(connection, "bank_transactions", "account_id", accountIds);
+        deletePendingMessages(connection, "account_id", accountIds);
+    }
+
+    /**
+     * After commit, with the deleting session still open: drops the deleted
+     * accounts' natural-id and subscription cache entries and removes them
+     * from the SubscriptionIndex. Other accounts stay cached.
+     */
+    static void accountsDeleted(Session session, List<Long> accountIds, List<String> accountNumbers,
+                                boolean indexLoaded) {
+        evictNaturalIds(session, Account.class, accountNumbers);
+        Cache cache = session.getSessionFactory().getCache();
+        for (Long accountId : accountIds) {
+            cache.evictCollectionData(ACCOUNT_SUBSCRIPTIONS_ROLE, accountId);
+            if (indexLoaded) {
+                SubscriptionIndex.getInstance().accountRemoved(accountId);
+            }
+        }
+    }
+
+    private static List<List<Long>> chunks(List<Long> ids) {
+        if (ids.size() <= MAX_IN_LIST) {
+            return ids.isEmpty() ? Collections.<List<Long>>emptyList() : Collections.singletonList(ids);
+        }
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + MAX_IN_LIST)));
+        }
+        return chunks;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static void bind(PreparedStatement statement, List<Long> ids) throws SQLException {
+        for (int i = 0; i < ids.size(); i++) {
+            statement.setLong(i + 1, ids.get(i));
+        }
+    }
+}
@@ -1,22 +1,61 @@
 package com.banking.dao;
 
+import com.banking.cache.SubscriptionIndex;
 import com.banking.entity.Customer;
 import com.banking.util.HibernateUtil;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 
 public class CustomerDAO {
 
+    private static final int BACKFILL_PAGE_SIZE = 1000;
+
+    private static final String BACKFILL_PAGE_SQL =
+        "SELECT id, email FROM customers " +
+        "WHERE id > ? AND email_domain_rev IS NULL AND email IS NOT NULL ORDER BY id";
+
+    private static final String BACKFILL_UPDATE_SQL =
+        "UPDATE customers SET email_domain_rev = ? WHERE id = ? AND email_domain_rev IS NULL";
+
+    private final SessionFactory sessionFactory;
+
+    // Application SessionFactory (reads go to the replica when one is configured)
+    public CustomerDAO() {
+        this(null);
+    }
+
+    // A specific SessionFactory for reads and writes, e.g. one shard's
+    public CustomerDAO(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    private SessionFactory writeFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getSessionFactory();
+    }
+
+    private SessionFactory readFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getReadSessionFactory();
+    }
+
     // CREATE
     public Long saveCustomer(Customer customer) {
         Session session = null;
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
             Long id = (Long) session.save(customer);
@@ -43,7 +82,7 @@ public class CustomerDAO {
     public Customer getCustomerById(Long id) {
         Session session = null;
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = readFactory().openSession();
             return session.get(Customer.class, id);
         } finally {
             if (session != null) {
@@ -52,12 +91,85 @@ public class CustomerDAO {
         }
     }
 
+    // READ - Many IDs at once (customers in input order; cached ones are not queried)
+    public List<Customer> getByIds(Collection<Long> ids) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            return MultiIdLoader.loadList(session, Customer.class, ids);
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // READ - A page of customers with their KYC profiles and accounts, in two queries
+    // (subselect fetching would re-run the page query without its row limit)
+    public List<Customer> getCustomersWithAccounts(int firstResult, int maxResults) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            Query<Customer> pageQuery = session.createNamedQuery(Customer.FIND_PAGE, Customer.class);
+            pageQuery.setFirstResult(firstResult);
+            pageQuery.setMaxResults(maxResults);
+            List<Customer> customers = pageQuery.list();
+            if (customers.isEmpty()) {
+                return customers;
+            }
+
+            List<Long> customerIds = new ArrayList<>(customers.size());
+            for (Customer customer : customers) {
+                customerIds.add(customer.getId());
+            }
+            // Initializes the accounts collections of the customers already in the session
+            Query<Customer> accountsQuery = session.createNamedQuery(Customer.FETCH_ACCOUNTS, Customer.class);
+            accountsQuery.setParameterList("customerIds", customerIds);
+            accountsQuery.list();
+            return customers;
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
     // READ - Get all
     public List<Customer> getAllCustomers() {
         Session session = null;
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
-            Query<Customer> query = session.createQuery("FROM Customer", Customer.class);
+            session = readFactory().openSession();
+            Query<Customer> query = session.createNamedQuery(Customer.FIND_ALL, Customer.class);
+            return query.list();
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // READ - Exact email (index on email)
+    public List<Customer> findByEmail(String email) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            Query<Customer> query = session.createNamedQuery(Customer.FIND_BY_EMAIL, Customer.class);
+            query.setParameter("email", email);
+            return query.list();
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // READ - Case-insensitive email (function-based index on LOWER(email))
+    public List<Customer> findByEmailIgnoreCase(String email) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            Query<Customer> query = session.createNamedQuery(Customer.FIND_BY_EMAIL_IGNORE_CASE, Customer.class);
+            query.setParameter("email", email.toLowerCase(Locale.ROOT));
             return query.list();
         } finally {
             if (session != null) {
@@ -66,13 +178,109 @@ public class CustomerDAO {
         }
     }
 
+    // READ - Email domain, optionally including subdomains (index on email_domain_rev)
+    public List<Customer> findByEmailDomain(String domain, boolean includeSubdomains) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            String domainRev = Customer.reverseDomain(domain);
+            Query<Customer> query;
+            if (includeSubdomains) {
+                query = session.createNamedQuery(Customer.FIND_BY_EMAIL_DOMAIN_TREE, Customer.class);
+                query.setParameter("subdomainPrefix", Customer.subdomainPattern(domainRev));
+            } else {
+                query = session.createNamedQuery(Customer.FIND_BY_EMAIL_DOMAIN, Customer.class);
+            }
+            query.setParameter("domainRev", domainRev);
+            return query.list();
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // MIGRATION - Fill email_domain_rev for rows written before the column existed.
+    // Keyset pages of BACKFILL_PAGE_SIZE customers, one JDBC batch and one commit per page;
+    // only the updated customers are evicted from the second-level cache.
+    public int backfillEmailDomains() {
+        Session session = null;
+        Transaction transaction = null;
+        int updated = 0;
+
+        try {
+            session = writeFactory().openSession();
+            long lastId = 0L;
+            while (true) {
+                transaction = session.beginTransaction();
+                final long afterId = lastId;
+                List<Long> pageIds = new ArrayList<>();
+                int pageUpdated = session.doReturningWork(connection -> backfillPage(connection, afterId, pageIds));
+                transaction.commit();
+                transaction = null;
+
+                if (pageIds.isEmpty()) {
+                    break;
+                }
+                for (Long customerId : pageIds) {
+                    session.getSessionFactory().getCache().evictEntityData(Customer.class, customerId);
+                }
+                updated += pageUpdated;
+                lastId = pageIds.get(pageIds.size() - 1);
+            }
+
+            System.out.println("✓ Backfilled email domain for " + updated + " customer(s)");
+            return updated;
+
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            System.err.println("Error backfilling email domains: " + e.getMessage());
+            throw e;
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // One backfill page: the next customers above afterId still missing the column, filled in one batch
+    private static int backfillPage(Connection connection, long afterId, List<Long> pageIds) throws SQLException {
+        List<String> domains = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(BACKFILL_PAGE_SQL)) {
+            select.setLong(1, afterId);
+            select.setMaxRows(BACKFILL_PAGE_SIZE);
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    pageIds.add(resultSet.getLong(1));
+                    domains.add(Customer.reverseDomain(resultSet.getString(2)));
+                }
+            }
+        }
+        if (pageIds.isEmpty()) {
+            return 0;
+        }
+
+        try (PreparedStatement update = connection.prepareStatement(BACKFILL_UPDATE_SQL)) {
+            for (int i = 0; i < pageIds.size(); i++) {
+                update.setString(1, domains.get(i));
+                update.setLong(2, pageIds.get(i));
+                update.addBatch();
+            }
+            update.executeBatch();
+        }
+        // Every row of the page is filled now, by this batch or (IS NULL guard) by a concurrent writer
+        return pageIds.size();
+    }
+
     // UPDATE
     public void updateCustomer(Customer customer) {
         Session session = null;
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
             session.update(customer);
@@ -93,30 +301,58 @@ public class CustomerDAO {
         }
     }
 
-    // DELETE
-    public void deleteCustomer(Long id) {
+    // DELETE - By ID without loading; the customer's accounts (with their transactions and subscriptions) go too
+    public boolean deleteCustomer(Long id) {
+        boolean deleted = deleteByIds(Collections.singletonList(id)) == 1;
+        if (!deleted) {
+            System.out.println("Customer not found with ID: " + id);
+        }
+        return deleted;
+    }
+
+    /**
+     * Deletes customers by ID together with their accounts and the accounts'
+     * ledger rows and subscriptions, set-wise (see BulkDelete), in one
+     * transaction. KYC profiles are kept.
+     *
+     * @return the number of customers deleted
+     */
+    public int deleteByIds(Collection<Long> ids) {
+        List<Long> customerIds = BulkDelete.distinct(ids);
+        if (customerIds.isEmpty()) {
+            return 0;
+        }
         Session session = null;
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
-            Customer customer = session.get(Customer.class, id);
-            if (customer != null) {
-                session.delete(customer);
-                System.out.println("✓ Customer deleted successfully");
-            } else {
-                System.out.println("Customer not found with ID: " + id);
-            }
+            List<Long> accountIds = new ArrayList<>();
+            List<String> accountNumbers = new ArrayList<>();
+            int deleted = session.doReturningWork(connection -> {
+                accountIds.addAll(BulkDelete.selectWhereIn(connection, "id", "accounts", "customer_id", customerIds));
+                accountNumbers.addAll(BulkDelete.selectNaturalIds(connection, "account_number", "accounts", accountIds));
+                BulkDelete.deleteAccounts(connection, accountIds);
+                return BulkDelete.deleteWhereIn(connection, "customers", "id", customerIds);
+            });
             
             transaction.commit();
+            SessionFactory factory = session.getSessionFactory();
+            for (Long customerId : customerIds) {
+                factory.getCache().evictEntityData(Customer.class, customerId);
+            }
+            BulkDelete.accountsDeleted(session, accountIds, accountNumbers,
+                sessionFactory == null && SubscriptionIndex.getInstance().isLoaded());
+            System.out.println("✓ Deleted " + deleted + " customer(s) and " + accountIds.size() + " account(s)");
+            return deleted;
             
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
             }
-            System.err.println("Error deleting customer: " + e.getMessage());
+            System.err.println("Error deleting customers: " + e.getMessage());
             throw e;
         } finally {
             if (session != null) {
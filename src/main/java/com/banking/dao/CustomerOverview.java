@@ -0,0 +1,73 @@
+package com.banking.dao;
+
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.entity.KycProfile;
+import com.banking.entity.RefNotificationChannel;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Customer-360 view assembled by {@link CustomerOverviewDAO}: profile, KYC,
+ * accounts with their subscriptions, and the latest transactions per account.
+ * Everything is initialized, so it can be used after the session is closed.
+ */
+public class CustomerOverview {
+
+    private final Customer customer;
+    private final List<Account> accounts;
+    private final Map<Long, List<BankTransaction>> latestTransactions;
+
+    CustomerOverview(Customer customer, List<Account> accounts, Map<Long, List<BankTransaction>> latestTransactions) {
+        this.customer = customer;
+        this.accounts = accounts;
+        this.latestTransactions = latestTransactions;
+    }
+
+    public Customer getCustomer() {
+        return customer;
+    }
+
+    public KycProfile getKycProfile() {
+        return customer.getKycProfile();
+    }
+
+    public List<Account> getAccounts() {
+        return accounts;
+    }
+
+    public Set<RefNotificationChannel> getSubscriptions(Account account) {
+        return account.getSubscriptions();
+    }
+
+    // Newest first; empty for accounts without transactions
+    public List<BankTransaction> getLatestTransactions(Long accountId) {
+        List<BankTransaction> transactions = latestTransactions.get(accountId);
+        return transactions != null ? transactions : Collections.<BankTransaction>emptyList();
+    }
+
+    public BigDecimal getTotalBalance() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Account account : accounts) {
+            if (account.getBalance() != null) {
+                total = total.add(account.getBalance());
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public String toString() {
+        return "CustomerOverview{" +
+                "customer=" + customer +
+                ", kycProfile=" + customer.getKycProfile() +
+                ", accounts=" + accounts.size() +
+                ", totalBalance=" + getTotalBalance() +
+                '}';
+    }
+}
@@ -0,0 +1,94 @@
+package com.banking.dao;
+
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.util.HibernateUtil;
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.query.Query;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads a {@link CustomerOverview} in one read-only session (on the read
+ * replica when one is configured) with three queries, however many accounts
+ * the customer has:
+ *   1. customer + KYC profile + accounts (fetch joins)
+ *   2. subscriptions of those accounts (fetch join)
+ *   3. latest N transactions per account (ROW_NUMBER() window, one native query)
+ * All three are named queries on the entities.
+ */
+public class CustomerOverviewDAO {
+
+    public static final int DEFAULT_LATEST_TRANSACTIONS = 5;
+
+    private final SessionFactory sessionFactory;
+
+    // Application SessionFactory (reads go to the replica when one is configured)
+    public CustomerOverviewDAO() {
+        this(null);
+    }
+
+    // A specific SessionFactory, e.g. one shard's
+    public CustomerOverviewDAO(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    private SessionFactory readFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getReadSessionFactory();
+    }
+
+    public CustomerOverview getOverview(Long customerId) {
+        return getOverview(customerId, DEFAULT_LATEST_TRANSACTIONS);
+    }
+
+    /**
+     * @return the overview, or null if the customer does not exist
+     */
+    public CustomerOverview getOverview(Long customerId, int latestTransactions) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            session.setDefaultReadOnly(true);
+            session.setHibernateFlushMode(FlushMode.MANUAL);
+
+            Query<Customer> customerQuery = session.createNamedQuery(Customer.FIND_WITH_KYC_AND_ACCOUNTS, Customer.class);
+            customerQuery.setParameter("customerId", customerId);
+            Customer customer = customerQuery.uniqueResult();
+            if (customer == null) {
+                return null;
+            }
+            List<Account> accounts = new ArrayList<>(customer.getAccounts());
+
+            Map<Long, List<BankTransaction>> transactionsByAccount = new LinkedHashMap<>();
+            if (!accounts.isEmpty()) {
+                // The accounts are already in the session; this initializes their subscriptions
+                Query<Account> subscriptionQuery = session.createNamedQuery(Account.FETCH_SUBSCRIPTIONS_BY_CUSTOMER_ID, Account.class);
+                subscriptionQuery.setParameter("customerId", customerId);
+                subscriptionQuery.list();
+
+                if (latestTransactions > 0) {
+                    Query<BankTransaction> transactionQuery = session.createNamedQuery(
+                        BankTransaction.FIND_LATEST_PER_ACCOUNT_OF_CUSTOMER, BankTransaction.class);
+                    transactionQuery.setParameter("customerId", customerId);
+                    transactionQuery.setParameter("latest", latestTransactions);
+                    for (BankTransaction transaction : transactionQuery.list()) {
+                        transactionsByAccount
+                            .computeIfAbsent(transaction.getAccount().getId(), id -> new ArrayList<>())
+                            .add(transaction);
+                    }
+                }
+            }
+            return new CustomerOverview(customer, accounts, transactionsByAccount);
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+}
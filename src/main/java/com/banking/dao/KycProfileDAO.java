@@ -2,18 +2,46 @@ package com.banking.dao;
 
 import com.banking.entity.KycProfile;
 import com.banking.util.HibernateUtil;
+import org.hibernate.Cache;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
 public class KycProfileDAO {
 
+    private final SessionFactory sessionFactory;
+
+    // Application SessionFactory (reads go to the replica when one is configured)
+    public KycProfileDAO() {
+        this(null);
+    }
+
+    // A specific SessionFactory for reads and writes, e.g. one shard's
+    public KycProfileDAO(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    private SessionFactory writeFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getSessionFactory();
+    }
+
+    private SessionFactory readFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getReadSessionFactory();
+    }
+
     // CREATE
     public Long saveKycProfile(KycProfile kycProfile) {
         Session session = null;
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
             Long id = (Long) session.save(kycProfile);
@@ -39,7 +67,7 @@ public class KycProfileDAO {
     public KycProfile getKycProfileById(Long id) {
         Session session = null;
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = readFactory().openSession();
             return session.get(KycProfile.class, id);
         } finally {
             if (session != null) {
@@ -48,13 +76,53 @@ public class KycProfileDAO {
         }
     }
 
+    // READ - Many IDs at once (KYC profiles in input order; cached ones are not queried)
+    public List<KycProfile> getByIds(Collection<Long> ids) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            return MultiIdLoader.loadList(session, KycProfile.class, ids);
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // READ - By PAN (natural id; the PAN -> id resolution is cached)
+    public KycProfile getKycProfileByPanNumber(String panNumber) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            return session.bySimpleNaturalId(KycProfile.class).load(panNumber);
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // READ - Many PANs at once (PAN -> profile, in input order; unknown PANs are absent)
+    public Map<String, KycProfile> findByPanNumbers(Collection<String> panNumbers) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            return NaturalIdBatchLoader.load(session, KycProfile.class, "panNumber",
+                KycProfile.FIND_BY_PAN_NUMBERS, panNumbers, NaturalIdBatchLoader.DEFAULT_IN_CLAUSE_SIZE);
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
     // UPDATE
     public void updateKycProfile(KycProfile kycProfile) {
         Session session = null;
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
             session.update(kycProfile);
@@ -75,28 +143,44 @@ public class KycProfileDAO {
         }
     }
 
-    // DELETE
-    public void deleteKycProfile(Long id) {
+    // DELETE - By ID without loading (a profile still referenced by a customer fails on the foreign key)
+    public boolean deleteKycProfile(Long id) {
+        return deleteByIds(Collections.singletonList(id)) == 1;
+    }
+
+    // DELETE - Many IDs, set-wise (see BulkDelete); returns the number of profiles deleted
+    public int deleteByIds(Collection<Long> ids) {
+        List<Long> profileIds = BulkDelete.distinct(ids);
+        if (profileIds.isEmpty()) {
+            return 0;
+        }
         Session session = null;
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
-            KycProfile kycProfile = session.get(KycProfile.class, id);
-            if (kycProfile != null) {
-                session.delete(kycProfile);
-                System.out.println("✓ KYC Profile deleted successfully");
-            }
+            List<String> panNumbers = new ArrayList<>();
+            int deleted = session.doReturningWork(connection -> {
+                panNumbers.addAll(BulkDelete.selectNaturalIds(connection, "pan_number", "kyc_profiles", profileIds));
+                return BulkDelete.deleteWhereIn(connection, "kyc_profiles", "id", profileIds);
+            });
             
             transaction.commit();
+            Cache cache = session.getSessionFactory().getCache();
+            for (Long profileId : profileIds) {
+                cache.evictEntityData(KycProfile.class, profileId);
+            }
+            BulkDelete.evictNaturalIds(session, KycProfile.class, panNumbers);
+            System.out.println("✓ Deleted " + deleted + " KYC Profile(s)");
+            return deleted;
             
         } catch (Exception e) {
             if (transaction != null) {
                 transaction.rollback();
             }
-            System.err.println("Error deleting KYC Profile: " + e.getMessage());
+            System.err.println("Error deleting KYC Profiles: " + e.getMessage());
             throw e;
         } finally {
             if (session != null) {
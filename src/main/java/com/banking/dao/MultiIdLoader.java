@@ -0,0 +1,92 @@
+package com.banking.dao;
+
+import com.banking.util.HibernateConfig;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads many entities by primary key.
+ *
+ * IDs already in the session or the second-level entity cache are served from
+ * there; the rest are fetched with multi-load statements of at most
+ * {@code batchSize} IDs each, so 10,000 uncached IDs cost 10 round trips at
+ * the default batch size of 1000.
+ */
+class MultiIdLoader {
+
+    static final int DEFAULT_BATCH_SIZE = 1000;
+
+    private MultiIdLoader() {
+    }
+
+    /**
+     * @return id -> entity, in input order; IDs that do not exist are absent
+     */
+    static <K extends Serializable, T> Map<K, T> load(Session session, Class<T> entityClass,
+                                                      Collection<K> ids, int batchSize) {
+        Set<K> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+
+        SessionImplementor sessionImpl = session.unwrap(SessionImplementor.class);
+        EntityPersister persister = sessionImpl.getFactory().getMetamodel().entityPersister(entityClass);
+
+        // 5.6 multi-load checks the session but not the second-level cache, so read cached entities first
+        Map<Serializable, T> byId = new LinkedHashMap<>();
+        List<K> toLoad = new ArrayList<>();
+        for (K id : distinct) {
+            if (persister.canReadFromCache() && sessionImpl.getFactory().getCache().containsEntity(entityClass, id)) {
+                T entity = session.get(entityClass, id);
+                if (entity != null) {
+                    byId.put(id, entity);
+                }
+            } else {
+                toLoad.add(id);
+            }
+        }
+        if (!toLoad.isEmpty()) {
+            List<T> entities = session.byMultipleIds(entityClass)
+                .enableSessionCheck(true)
+                .withBatchSize(batchSize)
+                .multiLoad(toLoad);
+            for (T entity : entities) {
+                if (entity != null) {
+                    byId.put(persister.getIdentifier(entity, sessionImpl), entity);
+                }
+            }
+        }
+
+        Map<K, T> ordered = new LinkedHashMap<>();
+        for (K id : distinct) {
+            T entity = byId.get(id);
+            if (entity != null) {
+                ordered.put(id, entity);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * @return entities for the given IDs, in input order (missing IDs and duplicates skipped)
+     */
+    static <T> List<T> loadList(Session session, Class<T> entityClass, Collection<Long> ids) {
+        return new ArrayList<>(load(session, entityClass, ids, batchSize(session)).values());
+    }
+
+    // banking.multi_load.batch_size from the session factory settings
+    static int batchSize(Session session) {
+        Map<String, Object> settings = session.getSessionFactory().unwrap(SessionFactoryImplementor.class).getProperties();
+        int batchSize = HibernateConfig.getInt(settings, HibernateConfig.MULTI_LOAD_BATCH_SIZE, DEFAULT_BATCH_SIZE);
+        return batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    }
+}
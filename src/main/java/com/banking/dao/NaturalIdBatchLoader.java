@@ -0,0 +1,94 @@
+package com.banking.dao;
+
+import org.hibernate.Session;
+import org.hibernate.engine.spi.PersistenceContext;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.query.Query;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves many simple natural IDs at once.
+ *
+ * Values whose natural-id -> id resolution is already cached (in the session
+ * or the second-level natural-id cache) are loaded by primary key, from the
+ * entity cache where possible and otherwise in batched multi-loads; the rest are fetched with the
+ * entity's named IN-clause query (parameter {@code naturalIds}), at most {@code inClauseSize} values
+ * per execution. Entities loaded by those queries populate the natural-id cache for the next call.
+ */
+class NaturalIdBatchLoader {
+
+    // Oracle allows at most 1000 expressions in an IN list; with in_clause_parameter_padding 500 pads to 512
+    static final int DEFAULT_IN_CLAUSE_SIZE = 500;
+
+    private NaturalIdBatchLoader() {
+    }
+
+    /**
+     * @return natural id value -> entity, in input order; values that do not exist are absent
+     */
+    static <T> Map<String, T> load(Session session, Class<T> entityClass, String naturalIdProperty,
+                                   String inQueryName, Collection<String> naturalIds, int inClauseSize) {
+        Set<String> distinct = new LinkedHashSet<>(naturalIds);
+        distinct.remove(null);
+
+        SessionImplementor sessionImpl = session.unwrap(SessionImplementor.class);
+        EntityPersister persister = sessionImpl.getFactory().getMetamodel().entityPersister(entityClass);
+        PersistenceContext.NaturalIdHelper naturalIdHelper = sessionImpl.getPersistenceContext().getNaturalIdHelper();
+
+        Map<String, Serializable> resolved = new LinkedHashMap<>();
+        List<String> unresolved = new ArrayList<>();
+        for (String naturalId : distinct) {
+            Serializable id = naturalIdHelper.findCachedNaturalIdResolution(persister, new Object[] {naturalId});
+            if (id != null && id != PersistenceContext.NaturalIdHelper.INVALID_NATURAL_ID_REFERENCE) {
+                resolved.put(naturalId, id);
+            } else {
+                unresolved.add(naturalId);
+            }
+        }
+
+        Map<String, T> byNaturalId = new LinkedHashMap<>();
+
+        // Cached resolutions: load by primary key (entity cache first, then batched multi-loads)
+        if (!resolved.isEmpty()) {
+            Map<Serializable, T> byId = MultiIdLoader.load(session, entityClass, resolved.values(), inClauseSize);
+            for (Map.Entry<String, Serializable> entry : resolved.entrySet()) {
+                T entity = byId.get(entry.getValue());
+                if (entity != null) {
+                    byNaturalId.put(entry.getKey(), entity);
+                } else {
+                    // stale resolution (row deleted); look it up like an unresolved value
+                    unresolved.add(entry.getKey());
+                }
+            }
+        }
+
+        // Unresolved: IN-clause queries, a chunk at a time
+        for (int from = 0; from < unresolved.size(); from += inClauseSize) {
+            List<String> chunk = unresolved.subList(from, Math.min(unresolved.size(), from + inClauseSize));
+            Query<T> query = session.createNamedQuery(inQueryName, entityClass);
+            query.setParameterList("naturalIds", chunk);
+            for (T entity : query.list()) {
+                byNaturalId.put((String) persister.getPropertyValue(entity, naturalIdProperty), entity);
+            }
+        }
+
+        // Return in input order
+        Map<String, T> ordered = new LinkedHashMap<>();
+        for (String naturalId : distinct) {
+            T entity = byNaturalId.get(naturalId);
+            if (entity != null) {
+                ordered.put(naturalId, entity);
+            }
+        }
+        return ordered;
+    }
+}
@@ -1,27 +1,60 @@
 package com.banking.dao;
 
+import com.banking.cache.SubscriptionIndex;
 import com.banking.entity.RefNotificationChannel;
 import com.banking.util.HibernateUtil;
+import org.hibernate.Cache;
 import org.hibernate.Session;
+import org.hibernate.SessionFactory;
 import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 
 public class RefNotificationChannelDAO {
 
+    private final SessionFactory sessionFactory;
+
+    // Application SessionFactory (reads go to the replica when one is configured)
+    public RefNotificationChannelDAO() {
+        this(null);
+    }
+
+    // A specific SessionFactory for reads and writes, e.g. one shard's
+    public RefNotificationChannelDAO(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    private SessionFactory writeFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getSessionFactory();
+    }
+
+    private SessionFactory readFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getReadSessionFactory();
+    }
+
+    // The SubscriptionIndex mirrors the application database only
+    private boolean indexLoaded() {
+        return sessionFactory == null && SubscriptionIndex.getInstance().isLoaded();
+    }
+
     // CREATE
     public Long saveChannel(RefNotificationChannel channel) {
         Session session = null;
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
             Long id = (Long) session.save(channel);
             
             transaction.commit();
+            if (indexLoaded()) {
+                SubscriptionIndex.getInstance().channelAdded(id, channel.getChannelName());
+            }
             System.out.println("✓ Notification Channel saved with ID: " + id);
             return id;
             
@@ -42,7 +75,7 @@ public class RefNotificationChannelDAO {
     public RefNotificationChannel getChannelById(Long id) {
         Session session = null;
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = readFactory().openSession();
             return session.get(RefNotificationChannel.class, id);
         } finally {
             if (session != null) {
@@ -51,13 +84,26 @@ public class RefNotificationChannelDAO {
         }
     }
 
+    // READ - Many IDs at once (channels in input order; cached ones are not queried)
+    public List<RefNotificationChannel> getByIds(Collection<Long> ids) {
+        Session session = null;
+        try {
+            session = readFactory().openSession();
+            return MultiIdLoader.loadList(session, RefNotificationChannel.class, ids);
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
     // READ - Get all
     public List<RefNotificationChannel> getAllChannels() {
         Session session = null;
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
-            Query<RefNotificationChannel> query = session.createQuery(
-                "FROM RefNotificationChannel ORDER BY channelName", RefNotificationChannel.class);
+            session = readFactory().openSession();
+            Query<RefNotificationChannel> query = session.createNamedQuery(
+                RefNotificationChannel.FIND_ALL_ORDER_BY_NAME, RefNotificationChannel.class);
             return query.list();
         } finally {
             if (session != null) {
@@ -72,7 +118,7 @@ public class RefNotificationChannelDAO {
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
             session.update(channel);
@@ -93,22 +139,32 @@ public class RefNotificationChannelDAO {
         }
     }
 
-    // DELETE
-    public void deleteChannel(Long id) {
+    // DELETE - By ID without loading; the channel's subscriptions are deleted with it
+    public boolean deleteChannel(Long id) {
+        List<Long> channelIds = Collections.singletonList(id);
         Session session = null;
         Transaction transaction = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            session = writeFactory().openSession();
             transaction = session.beginTransaction();
             
-            RefNotificationChannel channel = session.get(RefNotificationChannel.class, id);
-            if (channel != null) {
-                session.delete(channel);
-                System.out.println("✓ Notification Channel deleted successfully");
-            }
+            int deleted = session.doReturningWork(connection -> {
+                BulkDelete.deleteWhereIn(connection, "account_subscriptions", "channel_id", channelIds);
+                return BulkDelete.deleteWhereIn(connection, "ref_notification_channels", "id", channelIds);
+            });
             
             transaction.commit();
+            Cache cache = session.getSessionFactory().getCache();
+            cache.evictEntityData(RefNotificationChannel.class, id);
+            cache.evictCollectionData(BulkDelete.ACCOUNT_SUBSCRIPTIONS_ROLE);
+            if (indexLoaded()) {
+                SubscriptionIndex.getInstance().channelCleared(id);
+            }
+            if (deleted > 0) {
+                System.out.println("✓ Notification Channel deleted successfully");
+            }
+            return deleted > 0;
             
         } catch (Exception e) {
             if (transaction != null) {
@@ -0,0 +1,167 @@
+package com.banking.dao;
+
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.shard.ShardRegistry;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Customer data spread over the shards of a {@link ShardRegistry}.
+ *
+ * Everything that belongs to a customer (KYC profile, accounts, transactions)
+ * is stored on the customer's shard, so single-customer operations are routed
+ * by customer ID to one shard and reuse the regular DAOs. Cross-customer reads
+ * are scatter-gathered over all shards.
+ */
+public class ShardedCustomerDAO {
+
+    private final ShardRegistry registry;
+
+    public ShardedCustomerDAO(ShardRegistry registry) {
+        this.registry = registry;
+    }
+
+    // CREATE - On the next shard (round robin), together with a new KYC profile
+    public Long saveCustomer(Customer customer) {
+        int shard = registry.nextPlacementShard();
+        Session session = null;
+        Transaction transaction = null;
+
+        try {
+            session = registry.getShard(shard).openSession();
+            transaction = session.beginTransaction();
+
+            if (customer.getKycProfile() != null && customer.getKycProfile().getId() == null) {
+                session.save(customer.getKycProfile());
+            }
+            Long id = (Long) session.save(customer);
+            session.flush();
+            // The ID comes from the shard's CUSTOMER_SEQ; it must route back to this shard
+            if (registry.shardIndexFor(id) != shard) {
+                throw new IllegalStateException("CUSTOMER_SEQ on shard " + shard + " generated ID " + id +
+                    ", which belongs to shard " + registry.shardIndexFor(id) + "; check the per-shard sequence setup");
+            }
+
+            transaction.commit();
+            System.out.println("✓ Customer saved on shard " + shard + " with ID: " + id);
+            return id;
+
+        } catch (Exception e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            System.err.println("Error saving customer: " + e.getMessage());
+            throw e;
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // READ - Routed by customer ID
+    public Customer getCustomerById(Long customerId) {
+        return customerDAO(customerId).getCustomerById(customerId);
+    }
+
+    // CREATE - On the shard of the account's customer
+    public Long saveAccount(Account account) {
+        return accountDAO(customerIdOf(account)).saveAccount(account);
+    }
+
+    // CREATE - On the customer's shard, without loading the customer
+    public Long saveAccount(Long customerId, Account account) {
+        return accountDAO(customerId).saveAccount(customerId, account);
+    }
+
+    // READ - Routed by customer ID
+    public List<Account> getAccountsByCustomerId(Long customerId) {
+        return accountDAO(customerId).getAccountsByCustomerId(customerId);
+    }
+
+    // CREATE - On the shard of the account's customer
+    public Long saveTransaction(BankTransaction transaction) {
+        return transactionDAO(customerIdOf(transaction.getAccount())).saveTransaction(transaction);
+    }
+
+    // CREATE - On the shard of the customer that owns the account, without loading the account
+    public Long saveTransaction(Long customerId, Long accountId, BankTransaction transaction) {
+        return transactionDAO(customerId).saveTransaction(accountId, transaction);
+    }
+
+    // READ - Routed by the ID of the customer that owns the account
+    public List<BankTransaction> getTransactionsByAccountId(Long customerId, Long accountId) {
+        return transactionDAO(customerId).getTransactionsByAccountId(accountId);
+    }
+
+    // Routed DAOs for anything not wrapped here
+    public CustomerDAO customerDAO(Long customerId) {
+        return new CustomerDAO(registry.forCustomer(customerId));
+    }
+
+    public AccountDAO accountDAO(Long customerId) {
+        return new AccountDAO(registry.forCustomer(customerId));
+    }
+
+    public BankTransactionDAO transactionDAO(Long customerId) {
+        return new BankTransactionDAO(registry.forCustomer(customerId));
+    }
+
+    // CROSS-SHARD - Customers with the given email on any shard
+    public List<Customer> findByEmail(String email) {
+        List<Customer> customers = new ArrayList<>();
+        for (List<Customer> shardCustomers : registry.scatterGather(shard -> new CustomerDAO(shard).findByEmail(email))) {
+            customers.addAll(shardCustomers);
+        }
+        return customers;
+    }
+
+    // CROSS-SHARD - Total number of customers
+    public long countCustomers() {
+        long total = 0;
+        for (Long count : registry.scatterGather(shard ->
+                aggregate(shard, Customer.COUNT_ALL, Long.class))) {
+            total += count;
+        }
+        return total;
+    }
+
+    // CROSS-SHARD - Sum of all account balances
+    public BigDecimal getTotalBalance() {
+        BigDecimal total = BigDecimal.ZERO;
+        for (BigDecimal balance : registry.scatterGather(shard ->
+                aggregate(shard, Account.SUM_BALANCES, BigDecimal.class))) {
+            if (balance != null) {
+                total = total.add(balance);
+            }
+        }
+        return total;
+    }
+
+    // One shard's value of a single-result named query
+    private static <T> T aggregate(SessionFactory shard, String queryName, Class<T> resultType) {
+        Session session = null;
+        try {
+            session = shard.openSession();
+            return session.createNamedQuery(queryName, resultType).uniqueResult();
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    private static Long customerIdOf(Account account) {
+        if (account.getCustomer() == null || account.getCustomer().getId() == null) {
+            throw new IllegalArgumentException("Account must belong to a saved customer to pick its shard");
+        }
+        return account.getCustomer().getId();
+    }
+}
@@ -1,20 +1,54 @@
 package com.banking.entity;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+import org.hibernate.jpa.QueryHints;
+
 import javax.persistence.*;
 import java.math.BigDecimal;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@BatchSize(size = 50)
 @Table(name = "accounts")
+// UPDATEs list only the changed columns (balance changes go through AccountDAO.adjustBalance)
+@DynamicUpdate
+// accountNumber -> id resolutions are cached; the entity itself is not, its balance changes too often
+@NaturalIdCache
+@NamedQueries({
+    @NamedQuery(name = Account.FIND_BY_CUSTOMER_ID,
+                query = "SELECT a FROM Account a WHERE a.customer.id = :customerId"),
+    @NamedQuery(name = Account.SUM_BALANCES,
+                query = "SELECT SUM(a.balance) FROM Account a"),
+    @NamedQuery(name = Account.FIND_BY_CHANNEL_NAME,
+                query = "SELECT a FROM Account a JOIN a.subscriptions s WHERE s.channelName = :channelName"),
+    // Natural-id misses of AccountDAO.getByAccountNumbers, one IN chunk at a time
+    @NamedQuery(name = Account.FIND_BY_ACCOUNT_NUMBERS,
+                query = "SELECT a FROM Account a WHERE a.accountNumber IN (:naturalIds)"),
+    // Customer overview: initializes the subscriptions of all the customer's accounts in one query
+    @NamedQuery(name = Account.FETCH_SUBSCRIPTIONS_BY_CUSTOMER_ID,
+                query = "SELECT DISTINCT a FROM Account a LEFT JOIN FETCH a.subscriptions WHERE a.customer.id = :customerId",
+                hints = @QueryHint(name = QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+})
 public class Account {
     
+    // Named query names (validated when the SessionFactory is built)
+    public static final String FIND_BY_CUSTOMER_ID = "Account.findByCustomerId";
+    public static final String SUM_BALANCES = "Account.sumBalances";
+    public static final String FIND_BY_CHANNEL_NAME = "Account.findByChannelName";
+    public static final String FIND_BY_ACCOUNT_NUMBERS = "Account.findByAccountNumbers";
+    public static final String FETCH_SUBSCRIPTIONS_BY_CUSTOMER_ID = "Account.fetchSubscriptionsByCustomerId";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
     @SequenceGenerator(name = "account_seq", sequenceName = "ACCOUNT_SEQ", allocationSize = 1)
     @Column(name = "id")
     private Long id;
     
+    @NaturalId
     @Column(name = "account_number", length = 20, unique = true, nullable = false)
     private String accountNumber;
     
@@ -30,6 +64,7 @@ public class Account {
     private Long version;
     
     @ManyToMany
+    @BatchSize(size = 50)
     @JoinTable(
         name = "account_subscriptions",
         joinColumns = @JoinColumn(name = "account_id"),
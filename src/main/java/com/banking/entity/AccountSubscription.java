@@ -2,11 +2,22 @@ package com.banking.entity;
 
 import javax.persistence.*;
 import java.io.Serializable;
+import java.util.Objects;
 
 @Entity
 @Table(name = "account_subscriptions")
+@NamedQueries({
+    @NamedQuery(name = AccountSubscription.FIND_CHANNEL_IDS_BY_ACCOUNT_ID,
+                query = "SELECT s.channelId FROM AccountSubscription s WHERE s.accountId = :accountId"),
+    @NamedQuery(name = AccountSubscription.DELETE_BY_CHANNEL_ID,
+                query = "DELETE FROM AccountSubscription s WHERE s.channelId = :channelId")
+})
 public class AccountSubscription implements Serializable {
     
+    // Named query names (validated when the SessionFactory is built)
+    public static final String FIND_CHANNEL_IDS_BY_ACCOUNT_ID = "AccountSubscription.findChannelIdsByAccountId";
+    public static final String DELETE_BY_CHANNEL_ID = "AccountSubscription.deleteByChannelId";
+    
     @Id
     @Column(name = "account_id")
     private Long accountId;
@@ -41,6 +52,19 @@ public class AccountSubscription implements Serializable {
         this.channelId = channelId;
     }
     
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AccountSubscription)) return false;
+        AccountSubscription that = (AccountSubscription) o;
+        return Objects.equals(accountId, that.accountId) && Objects.equals(channelId, that.channelId);
+    }
+    
+    @Override
+    public int hashCode() {
+        return Objects.hash(accountId, channelId);
+    }
+    
     @Override
     public String toString() {
         return "AccountSubscription{" +
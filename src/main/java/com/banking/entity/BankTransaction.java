@@ -1,22 +1,68 @@
 package com.banking.entity;
 
+import org.hibernate.annotations.DynamicUpdate;
+
 import javax.persistence.*;
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 
 @Entity
-@Table(name = "bank_transactions")
+@DynamicUpdate
+@Table(name = "bank_transactions",
+       indexes = @Index(name = "idx_tx_account_date", columnList = "account_id, tx_date, id"))
+@NamedQueries({
+    @NamedQuery(name = BankTransaction.FIND_BY_ACCOUNT_ID,
+                query = "SELECT t FROM BankTransaction t WHERE t.account.id = :accountId ORDER BY t.txDate DESC"),
+    // Date-window reads: range scans of idx_tx_account_date (bounds inclusive)
+    @NamedQuery(name = BankTransaction.FIND_BY_ACCOUNT_AND_DATE_RANGE,
+                query = "SELECT t FROM BankTransaction t WHERE t.account.id = :accountId " +
+                        "AND t.txDate BETWEEN :fromDate AND :toDate ORDER BY t.txDate DESC, t.id DESC"),
+    @NamedQuery(name = BankTransaction.COUNT_BY_ACCOUNT_AND_DATE_RANGE,
+                query = "SELECT COUNT(t) FROM BankTransaction t WHERE t.account.id = :accountId " +
+                        "AND t.txDate BETWEEN :fromDate AND :toDate"),
+    @NamedQuery(name = BankTransaction.SUM_BY_ACCOUNT_TYPE_AND_DATE_RANGE,
+                query = "SELECT COALESCE(SUM(t.amount), 0) FROM BankTransaction t WHERE t.account.id = :accountId " +
+                        "AND t.txDate BETWEEN :fromDate AND :toDate AND t.type = :type"),
+    @NamedQuery(name = BankTransaction.FIND_ID_BY_IDEMPOTENCY_KEY,
+                query = "SELECT t.id FROM BankTransaction t WHERE t.idempotencyKey = :idempotencyKey"),
+    @NamedQuery(name = BankTransaction.FIND_IDEMPOTENCY_KEYS_SINCE,
+                query = "SELECT t.id, t.idempotencyKey FROM BankTransaction t " +
+                        "WHERE t.id > :afterId AND t.idempotencyKey IS NOT NULL"),
+    @NamedQuery(name = BankTransaction.COUNT_IDEMPOTENCY_KEYS,
+                query = "SELECT COUNT(t.idempotencyKey) FROM BankTransaction t")
+})
+// Latest N transactions per account of a customer (CustomerOverviewDAO); the ranking runs once
+// in the database instead of one query per account
+@NamedNativeQuery(name = BankTransaction.FIND_LATEST_PER_ACCOUNT_OF_CUSTOMER,
+                  query = "SELECT t.* FROM bank_transactions t WHERE t.id IN (" +
+                          "SELECT ranked.id FROM (" +
+                          "SELECT bt.id, ROW_NUMBER() OVER (PARTITION BY bt.account_id ORDER BY bt.tx_date DESC, bt.id DESC) rn " +
+                          "FROM bank_transactions bt JOIN accounts a ON a.id = bt.account_id " +
+                          "WHERE a.customer_id = :customerId) ranked " +
+                          "WHERE ranked.rn <= :latest) " +
+                          "ORDER BY t.account_id, t.tx_date DESC, t.id DESC",
+                  resultClass = BankTransaction.class)
 public class BankTransaction {
     
+    // Named query names (validated when the SessionFactory is built)
+    public static final String FIND_BY_ACCOUNT_ID = "BankTransaction.findByAccountId";
+    public static final String FIND_BY_ACCOUNT_AND_DATE_RANGE = "BankTransaction.findByAccountAndDateRange";
+    public static final String COUNT_BY_ACCOUNT_AND_DATE_RANGE = "BankTransaction.countByAccountAndDateRange";
+    public static final String SUM_BY_ACCOUNT_TYPE_AND_DATE_RANGE = "BankTransaction.sumByAccountTypeAndDateRange";
+    public static final String FIND_ID_BY_IDEMPOTENCY_KEY = "BankTransaction.findIdByIdempotencyKey";
+    public static final String FIND_IDEMPOTENCY_KEYS_SINCE = "BankTransaction.findIdempotencyKeysSince";
+    public static final String COUNT_IDEMPOTENCY_KEYS = "BankTransaction.countIdempotencyKeys";
+    public static final String FIND_LATEST_PER_ACCOUNT_OF_CUSTOMER = "BankTransaction.findLatestPerAccountOfCustomer";
+    
+    // Pooled: one sequence call per 50 inserts (the sequence must INCREMENT BY 50)
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transaction_seq")
-    @SequenceGenerator(name = "transaction_seq", sequenceName = "BANK_TRANSACTION_SEQ", allocationSize = 1)
+    @SequenceGenerator(name = "transaction_seq", sequenceName = "BANK_TRANSACTION_SEQ", allocationSize = 50)
     @Column(name = "id")
     private Long id;
     
-    @Temporal(TemporalType.DATE)
     @Column(name = "tx_date")
-    private Date txDate;
+    private LocalDate txDate;
     
     @Column(name = "type", length = 10)
     private String type; // CREDIT/DEBIT
@@ -31,11 +77,15 @@ public class BankTransaction {
     @JoinColumn(name = "account_id")
     private Account account;
     
+    // Upstream message ID; unique, so a redelivered message cannot be posted twice
+    @Column(name = "idempotency_key", length = 64, unique = true)
+    private String idempotencyKey;
+    
     // Constructors
     public BankTransaction() {
     }
     
-    public BankTransaction(Date txDate, String type, BigDecimal amount, String status) {
+    public BankTransaction(LocalDate txDate, String type, BigDecimal amount, String status) {
         this.txDate = txDate;
         this.type = type;
         this.amount = amount;
@@ -51,11 +101,11 @@ public class BankTransaction {
         this.id = id;
     }
     
-    public Date getTxDate() {
+    public LocalDate getTxDate() {
         return txDate;
     }
     
-    public void setTxDate(Date txDate) {
+    public void setTxDate(LocalDate txDate) {
         this.txDate = txDate;
     }
     
@@ -91,6 +141,14 @@ public class BankTransaction {
         this.account = account;
     }
     
+    public String getIdempotencyKey() {
+        return idempotencyKey;
+    }
+    
+    public void setIdempotencyKey(String idempotencyKey) {
+        this.idempotencyKey = idempotencyKey;
+    }
+    
     @Override
     public String toString() {
         return "BankTransaction{" +
@@ -100,6 +158,7 @@ public class BankTransaction {
                 ", amount=" + amount +
                 ", status='" + status + '\'' +
                 ", accountId=" + (account != null ? account.getId() : null) +
+                ", idempotencyKey='" + idempotencyKey + '\'' +
                 '}';
     }
 }
@@ -1,11 +1,68 @@
 package com.banking.entity;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.Fetch;
+import org.hibernate.annotations.FetchMode;
+import org.hibernate.jpa.QueryHints;
+
 import javax.persistence.*;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
 
 @Entity
-@Table(name = "customers")
+@BatchSize(size = 50)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@DynamicUpdate
+@Table(name = "customers", indexes = {
+    @Index(name = "idx_cust_email", columnList = "email"),
+    @Index(name = "idx_cust_email_domain_rev", columnList = "email_domain_rev")
+})
+@NamedQueries({
+    @NamedQuery(name = Customer.FIND_ALL,
+                query = "SELECT c FROM Customer c"),
+    @NamedQuery(name = Customer.COUNT_ALL,
+                query = "SELECT COUNT(c) FROM Customer c"),
+    @NamedQuery(name = Customer.FIND_BY_EMAIL,
+                query = "SELECT c FROM Customer c WHERE c.email = :email"),
+    // Served by the function-based index on LOWER(email) (see db_script.txt)
+    @NamedQuery(name = Customer.FIND_BY_EMAIL_IGNORE_CASE,
+                query = "SELECT c FROM Customer c WHERE lower(c.email) = :email"),
+    @NamedQuery(name = Customer.FIND_BY_EMAIL_DOMAIN,
+                query = "SELECT c FROM Customer c WHERE c.emailDomainRev = :domainRev"),
+    // Domain plus all its subdomains: an index range scan on the reversed domain
+    // (bind subdomainPrefix with subdomainPattern, which escapes the wildcards)
+    @NamedQuery(name = Customer.FIND_BY_EMAIL_DOMAIN_TREE,
+                query = "SELECT c FROM Customer c WHERE c.emailDomainRev = :domainRev " +
+                        "OR c.emailDomainRev LIKE :subdomainPrefix ESCAPE '!'"),
+    // Paging: one query for the page, one to initialize the accounts of the whole page
+    @NamedQuery(name = Customer.FIND_PAGE,
+                query = "SELECT c FROM Customer c LEFT JOIN FETCH c.kycProfile ORDER BY c.id"),
+    @NamedQuery(name = Customer.FETCH_ACCOUNTS,
+                query = "SELECT DISTINCT c FROM Customer c LEFT JOIN FETCH c.accounts WHERE c.id IN (:customerIds)",
+                hints = @QueryHint(name = QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false")),
+    // Customer overview: the customer with KYC profile and accounts in one query
+    @NamedQuery(name = Customer.FIND_WITH_KYC_AND_ACCOUNTS,
+                query = "SELECT DISTINCT c FROM Customer c LEFT JOIN FETCH c.kycProfile LEFT JOIN FETCH c.accounts " +
+                        "WHERE c.id = :customerId",
+                hints = @QueryHint(name = QueryHints.HINT_PASS_DISTINCT_THROUGH, value = "false"))
+})
 public class Customer {
     
+    // Named query names (validated when the SessionFactory is built)
+    public static final String FIND_ALL = "Customer.findAll";
+    public static final String COUNT_ALL = "Customer.countAll";
+    public static final String FIND_BY_EMAIL = "Customer.findByEmail";
+    public static final String FIND_BY_EMAIL_IGNORE_CASE = "Customer.findByEmailIgnoreCase";
+    public static final String FIND_BY_EMAIL_DOMAIN = "Customer.findByEmailDomain";
+    public static final String FIND_BY_EMAIL_DOMAIN_TREE = "Customer.findByEmailDomainTree";
+    public static final String FIND_PAGE = "Customer.findPage";
+    public static final String FETCH_ACCOUNTS = "Customer.fetchAccounts";
+    public static final String FIND_WITH_KYC_AND_ACCOUNTS = "Customer.findWithKycAndAccounts";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
     @SequenceGenerator(name = "customer_seq", sequenceName = "CUSTOMER_SEQ", allocationSize = 1)
@@ -18,10 +75,22 @@ public class Customer {
     @Column(name = "email", length = 100)
     private String email;
     
+    // Lower-cased email domain with its labels reversed ("mail.example.com" -> "com.example.mail"),
+    // maintained from email so domain searches can use an index instead of LIKE '%@domain'
+    @Column(name = "email_domain_rev", length = 100)
+    private String emailDomainRev;
+    
     @OneToOne
     @JoinColumn(name = "kyc_id", unique = true)
     private KycProfile kycProfile;
     
+    // Inverse side of Account.customer. Lazy; when a query loads several customers,
+    // touching one collection loads the accounts of all of them in one subselect
+    @OneToMany(mappedBy = "customer")
+    @Fetch(FetchMode.SUBSELECT)
+    @OrderBy("id")
+    private Set<Account> accounts = new LinkedHashSet<>();
+    
     // Constructors
     public Customer() {
     }
@@ -54,6 +123,11 @@ public class Customer {
     
     public void setEmail(String email) {
         this.email = email;
+        this.emailDomainRev = reverseDomain(email);
+    }
+    
+    public String getEmailDomainRev() {
+        return emailDomainRev;
     }
     
     public KycProfile getKycProfile() {
@@ -64,6 +138,70 @@ public class Customer {
         this.kycProfile = kycProfile;
     }
     
+    public Set<Account> getAccounts() {
+        return accounts;
+    }
+    
+    public void setAccounts(Set<Account> accounts) {
+        this.accounts = accounts;
+    }
+    
+    // Keeps both sides of the association in sync
+    public void addAccount(Account account) {
+        accounts.add(account);
+        account.setCustomer(this);
+    }
+    
+    public void removeAccount(Account account) {
+        accounts.remove(account);
+        account.setCustomer(null);
+    }
+    
+    @PrePersist
+    @PreUpdate
+    private void updateEmailDomainRev() {
+        this.emailDomainRev = reverseDomain(email);
+    }
+    
+    /**
+     * Reversed, lower-cased domain of an email address or bare domain
+     * ("Bob@Mail.Example.com" or "mail.example.com" -> "com.example.mail").
+     */
+    public static String reverseDomain(String emailOrDomain) {
+        if (emailOrDomain == null) {
+            return null;
+        }
+        String domain = emailOrDomain.substring(emailOrDomain.lastIndexOf('@') + 1).trim().toLowerCase(Locale.ROOT);
+        if (domain.isEmpty()) {
+            return null;
+        }
+        String[] labels = domain.split("\\.");
+        StringBuilder reversed = new StringBuilder(domain.length());
+        for (int i = labels.length - 1; i >= 0; i--) {
+            reversed.append(labels[i]);
+            if (i > 0) {
+                reversed.append('.');
+            }
+        }
+        return reversed.toString();
+    }
+
+    /**
+     * LIKE pattern (escape character '!') matching the subdomains of a reversed
+     * domain: "com.example" -> "com.example.%", with '_' and '%' taken literally.
+     */
+    public static String subdomainPattern(String domainRev) {
+        StringBuilder pattern = new StringBuilder(domainRev.length() + 4);
+        for (int i = 0; i < domainRev.length(); i++) {
+            char c = domainRev.charAt(i);
+            if (c == '!' || c == '_' || c == '%') {
+                pattern.append('!');
+            }
+            pattern.append(c);
+        }
+        return pattern.append(".%").toString();
+    }
+    
     @Override
     public String toString() {
         return "Customer{" +
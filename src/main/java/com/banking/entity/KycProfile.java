@@ -1,17 +1,39 @@
 package com.banking.entity;
 
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
+
 import javax.persistence.*;
 
 @Entity
+@BatchSize(size = 50)
 @Table(name = "kyc_profiles")
+// Onboarding looks profiles up by PAN; profiles change rarely, so both the entity and the PAN -> id resolution are cached
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache
+@DynamicUpdate
+@NamedQueries({
+    // Natural-id misses of KycProfileDAO.findByPanNumbers, one IN chunk at a time
+    @NamedQuery(name = KycProfile.FIND_BY_PAN_NUMBERS,
+                query = "SELECT k FROM KycProfile k WHERE k.panNumber IN (:naturalIds)")
+})
 public class KycProfile {
     
+    // Named query names (validated when the SessionFactory is built)
+    public static final String FIND_BY_PAN_NUMBERS = "KycProfile.findByPanNumbers";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "kyc_seq")
     @SequenceGenerator(name = "kyc_seq", sequenceName = "KYC_PROFILE_SEQ", allocationSize = 1)
     @Column(name = "id")
     private Long id;
     
+    // mutable: a mistyped PAN can be corrected through updateKycProfile
+    @NaturalId(mutable = true)
     @Column(name = "pan_number", length = 20, unique = true)
     private String panNumber;
     
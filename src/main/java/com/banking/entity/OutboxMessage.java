@@ -0,0 +1,223 @@
+package com.banking.entity;
+
+import org.hibernate.annotations.DynamicUpdate;
+
+import javax.persistence.*;
+import java.util.Date;
+
+/**
+ * One notification waiting to be delivered (transactional outbox).
+ *
+ * Rows are inserted in the same database transaction as the ledger row they
+ * describe and delivered later by {@link com.banking.notification.OutboxRelay},
+ * so a notification exists exactly when its transaction committed. Account and
+ * channel are plain IDs: the relay never needs the entities.
+ */
+@Entity
+@DynamicUpdate
+@Table(name = "notification_outbox",
+       indexes = {
+           @Index(name = "idx_outbox_due", columnList = "status, channel_id, next_attempt_at"),
+           @Index(name = "idx_outbox_claim", columnList = "claim_token")
+       })
+@NamedQueries({
+    @NamedQuery(name = OutboxMessage.FIND_DUE_IDS,
+                query = "SELECT o.id FROM OutboxMessage o WHERE o.status = :status AND o.nextAttemptAt <= :now ORDER BY o.id"),
+    // One channel's due rows: each channel is polled on its own
+    @NamedQuery(name = OutboxMessage.FIND_DUE_IDS_FOR_CHANNEL,
+                query = "SELECT o.id FROM OutboxMessage o WHERE o.status = :status AND o.channelId = :channelId " +
+                        "AND o.nextAttemptAt <= :now ORDER BY o.id"),
+    // Due rows of channels the relay has no sender for
+    @NamedQuery(name = OutboxMessage.FIND_DUE_IDS_EXCEPT_CHANNELS,
+                query = "SELECT o.id FROM OutboxMessage o WHERE o.status = :status AND o.channelId NOT IN (:channelIds) " +
+                        "AND o.nextAttemptAt <= :now ORDER BY o.id"),
+    @NamedQuery(name = OutboxMessage.CLAIM,
+                query = "UPDATE OutboxMessage o SET o.claimToken = :token, o.nextAttemptAt = :leaseUntil " +
+                        "WHERE o.id IN (:ids) AND o.status = :status AND o.nextAttemptAt <= :now"),
+    @NamedQuery(name = OutboxMessage.FIND_CLAIMED,
+                query = "SELECT o FROM OutboxMessage o WHERE o.claimToken = :token ORDER BY o.id"),
+    @NamedQuery(name = OutboxMessage.COUNT_BY_STATUS,
+                query = "SELECT COUNT(o) FROM OutboxMessage o WHERE o.status = :status")
+})
+public class OutboxMessage {
+
+    // Named query names (validated when the SessionFactory is built)
+    public static final String FIND_DUE_IDS = "OutboxMessage.findDueIds";
+    public static final String FIND_DUE_IDS_FOR_CHANNEL = "OutboxMessage.findDueIdsForChannel";
+    public static final String FIND_DUE_IDS_EXCEPT_CHANNELS = "OutboxMessage.findDueIdsExceptChannels";
+    public static final String CLAIM = "OutboxMessage.claim";
+    public static final String FIND_CLAIMED = "OutboxMessage.findClaimed";
+    public static final String COUNT_BY_STATUS = "OutboxMessage.countByStatus";
+
+    public static final String PENDING = "PENDING";
+    public static final String SENT = "SENT";
+    public static final String FAILED = "FAILED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_seq")
+    // Pooled like BANK_TRANSACTION_SEQ: one sequence call per 50 messages (INCREMENT BY 50 in db_script.txt)
+    @SequenceGenerator(name = "outbox_seq", sequenceName = "NOTIFICATION_OUTBOX_SEQ", allocationSize = 50)
+    @Column(name = "id")
+    private Long id;
+
+    @Column(name = "transaction_id", nullable = false)
+    private Long transactionId;
+
+    @Column(name = "account_id", nullable = false)
+    private Long accountId;
+
+    @Column(name = "channel_id", nullable = false)
+    private Long channelId;
+
+    @Column(name = "payload", length = 500)
+    private String payload;
+
+    @Column(name = "status", length = 20, nullable = false)
+    private String status; // PENDING/SENT/FAILED
+
+    @Column(name = "attempts", nullable = false)
+    private int attempts;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "created_at", nullable = false)
+    private Date createdAt;
+
+    // PENDING rows are picked up once this has passed (retry backoff, relay lease)
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "next_attempt_at", nullable = false)
+    private Date nextAttemptAt;
+
+    // Set by the relay that claimed the row for delivery
+    @Column(name = "claim_token", length = 36)
+    private String claimToken;
+
+    @Temporal(TemporalType.TIMESTAMP)
+    @Column(name = "sent_at")
+    private Date sentAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    // Constructors
+    public OutboxMessage() {
+    }
+
+    public OutboxMessage(Long transactionId, Long accountId, Long channelId, String payload) {
+        this.transactionId = transactionId;
+        this.accountId = accountId;
+        this.channelId = channelId;
+        this.payload = payload;
+        this.status = PENDING;
+        this.createdAt = new Date();
+        this.nextAttemptAt = createdAt;
+    }
+
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getTransactionId() {
+        return transactionId;
+    }
+
+    public void setTransactionId(Long transactionId) {
+        this.transactionId = transactionId;
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public void setAccountId(Long accountId) {
+        this.accountId = accountId;
+    }
+
+    public Long getChannelId() {
+        return channelId;
+    }
+
+    public void setChannelId(Long channelId) {
+        this.channelId = channelId;
+    }
+
+    public String getPayload() {
+        return payload;
+    }
+
+    public void setPayload(String payload) {
+        this.payload = payload;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public int getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(int attempts) {
+        this.attempts = attempts;
+    }
+
+    public Date getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Date createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Date getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    public void setNextAttemptAt(Date nextAttemptAt) {
+        this.nextAttemptAt = nextAttemptAt;
+    }
+
+    public String getClaimToken() {
+        return claimToken;
+    }
+
+    public void setClaimToken(String claimToken) {
+        this.claimToken = claimToken;
+    }
+
+    public Date getSentAt() {
+        return sentAt;
+    }
+
+    public void setSentAt(Date sentAt) {
+        this.sentAt = sentAt;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public String toString() {
+        return "OutboxMessage{" +
+                "id=" + id +
+                ", transactionId=" + transactionId +
+                ", accountId=" + accountId +
+                ", channelId=" + channelId +
+                ", status='" + status + '\'' +
+                ", attempts=" + attempts +
+                '}';
+    }
+}
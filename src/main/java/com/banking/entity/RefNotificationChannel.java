@@ -1,12 +1,24 @@
 package com.banking.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
 @Table(name = "ref_notification_channels")
+// Reference data: read on every billing run and notification, rarely changed
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NamedQueries({
+    @NamedQuery(name = RefNotificationChannel.FIND_ALL_ORDER_BY_NAME,
+                query = "SELECT c FROM RefNotificationChannel c ORDER BY c.channelName")
+})
 public class RefNotificationChannel {
     
+    // Named query names (validated when the SessionFactory is built)
+    public static final String FIND_ALL_ORDER_BY_NAME = "RefNotificationChannel.findAllOrderByName";
+    
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "channel_seq")
     @SequenceGenerator(name = "channel_seq", sequenceName = "REF_NOTIFICATION_CHANNEL_SEQ", allocationSize = 1)
@@ -0,0 +1,525 @@
+package com.banking.examples;
+
+import com.banking.cache.LedgerColumnStore;
+import com.banking.cache.LedgerFilter;
+import com.banking.dao.AccountDAO;
+import com.banking.dao.BankTransactionDAO;
+import com.banking.dao.CustomerDAO;
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.service.Posting;
+import com.banking.service.PostingEngine;
+import com.banking.service.StatementExportService;
+import com.banking.service.StatementFormat;
+import com.banking.util.HibernateConfig;
+import com.banking.util.HibernateUtil;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.dialect.Oracle8iDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.query.Query;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Performance Benchmarks
+ * Seeds synthetic data and times the optimized access paths against the
+ * naive ones. Run against the target database (sizes are arguments), e.g.
+ *   mvn exec:java -Dexec.mainClass=com.banking.examples.BenchmarkExamples -Dexec.args="10000000" -Dhibernate.show_sql=false
+ */
+public class BenchmarkExamples {
+
+    private static final int SEED_BATCH_SIZE = 1000;
+    private static final int REPETITIONS = 20;
+
+    public static void main(String[] args) {
+        System.out.println("=== Hibernate Performance Benchmarks ===\n");
+
+        int customers = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+
+        customerSearchBenchmark(customers);
+        ledgerColumnStoreBenchmark(args.length > 1 ? Integer.parseInt(args[1]) : 10_000_000);
+        statementExportBenchmark(args.length > 2 ? Integer.parseInt(args[2]) : 1000, 1000);
+        dateRangeQueryBenchmark(args.length > 3 ? Integer.parseInt(args[3]) : 5000);
+        balanceUpdateBenchmark(args.length > 4 ? Integer.parseInt(args[4]) : 1000, 8);
+        postingBenchmark(1000, args.length > 5 ? Integer.parseInt(args[5]) : 20_000, 100);
+
+        HibernateUtil.shutdown();
+        System.out.println("\n=== All benchmarks completed ===");
+    }
+
+    /**
+     * Customer search: LIKE '%@domain' (full scan) vs. indexed exact email,
+     * LOWER(email) and reversed-domain lookups
+     */
+    public static void customerSearchBenchmark(int customers) {
+        System.out.println("\n--- Customer Search Benchmark (" + customers + " customers) ---");
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+
+        seedCustomers(sessionFactory, customers);
+        String probeEmail = "user" + (customers / 2) + "@corp" + ((customers / 2) % 1000) + ".example.com";
+        CustomerDAO customerDAO = new CustomerDAO();
+
+        time("LIKE '%@corp7.example.com' (leading wildcard)", () -> {
+            Session session = sessionFactory.openSession();
+            try {
+                Query<Customer> query = session.createQuery(
+                    "FROM Customer c WHERE c.email LIKE :pattern", Customer.class);
+                query.setParameter("pattern", "%@corp7.example.com");
+                return query.list();
+            } finally {
+                session.close();
+            }
+        });
+        time("Exact email (idx_cust_email)", () -> customerDAO.findByEmail(probeEmail));
+        time("Case-insensitive email (idx_cust_email_lower)",
+            () -> customerDAO.findByEmailIgnoreCase(probeEmail.toUpperCase()));
+        time("Domain corp7.example.com (idx_cust_email_domain_rev)",
+            () -> customerDAO.findByEmailDomain("corp7.example.com", false));
+        time("Domain tree example.com, first 100 rows", () -> {
+            Session session = sessionFactory.openSession();
+            try {
+                Query<Customer> query = session.createNamedQuery(Customer.FIND_BY_EMAIL_DOMAIN_TREE, Customer.class);
+                query.setParameter("domainRev", Customer.reverseDomain("example.com"));
+                query.setParameter("subdomainPrefix", Customer.reverseDomain("example.com") + ".%");
+                query.setMaxResults(100);
+                return query.list();
+            } finally {
+                session.close();
+            }
+        });
+    }
+
+    /**
+     * Columnar ledger scans over synthetic rows: 100M rows need about 3 GB of
+     * heap (-Xmx4g), e.g. -Dexec.args="100000 100000000". Also times a snapshot
+     * round trip (the database is only used for the catch-up query).
+     */
+    public static void ledgerColumnStoreBenchmark(int rows) {
+        System.out.println("\n--- Ledger Column Store Benchmark (" + rows + " transactions) ---");
+        LedgerColumnStore store = new LedgerColumnStore();
+        Random random = new Random(42);
+        LocalDate firstDay = LocalDate.of(2024, 1, 1);
+        String[] statuses = {"COMPLETED", "COMPLETED", "COMPLETED", "PENDING"};
+        long start = System.currentTimeMillis();
+        // IDs above any real sequence value, so the snapshot catch-up finds no database rows
+        long firstId = 1L << 40;
+        for (int i = 1; i <= rows; i++) {
+            store.append(firstId + i, 1 + random.nextInt(1_000_000), firstDay.plusDays(random.nextInt(730)),
+                random.nextBoolean() ? "CREDIT" : "DEBIT", 1 + random.nextInt(100_000), statuses[i & 3]);
+        }
+        System.out.println("Appended " + rows + " row(s) in " + (System.currentTimeMillis() - start) + " ms, " +
+            store.getMemoryBytes() / (1024 * 1024) + " MB of columns");
+
+        LedgerFilter year = LedgerFilter.between(firstDay, firstDay.plusDays(364)).status("COMPLETED");
+        time("Totals, one year, COMPLETED", () -> Collections.singletonList(store.totals(year)));
+        time("Net per day, one year, COMPLETED", () -> new ArrayList<>(store.netMinorByDay(year).values()));
+        time("Net per account, all rows", () -> new ArrayList<>(store.netMinorByAccount(LedgerFilter.all()).values()));
+        time("Totals for one account", () -> Collections.singletonList(
+            store.totals(LedgerFilter.all().account(4242L))));
+
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+        Path snapshot = Paths.get(System.getProperty("java.io.tmpdir"), "benchmark-" + LedgerColumnStore.SNAPSHOT_FILE);
+        try {
+            store.saveSnapshot(snapshot, sessionFactory);
+            LedgerColumnStore restored = new LedgerColumnStore();
+            start = System.currentTimeMillis();
+            restored.loadSnapshot(snapshot, sessionFactory);
+            System.out.println("Restored " + restored.size() + " row(s) from snapshot in " +
+                (System.currentTimeMillis() - start) + " ms (vs. " + rows + " appends above)");
+        } catch (IOException e) {
+            System.err.println("Snapshot benchmark failed: " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(snapshot);
+            } catch (IOException e) {
+                System.err.println("Could not delete " + snapshot);
+            }
+        }
+    }
+
+    /**
+     * Statement export: DAO entity lists formatted with String.format vs. the
+     * streaming CSV and binary export (StatementExportService), with throughput
+     * and peak heap. Seeds accounts x transactionsPerAccount ledger rows.
+     */
+    public static void statementExportBenchmark(int accounts, int transactionsPerAccount) {
+        System.out.println("\n--- Statement Export Benchmark (" + accounts + " accounts x " +
+            transactionsPerAccount + " transactions) ---");
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+        List<Long> accountIds = seedLedger(sessionFactory, accounts, transactionsPerAccount);
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = from.plusDays(364);
+        Path directory = Paths.get(System.getProperty("java.io.tmpdir"), "statement-benchmark");
+
+        measure("DAO lists + String.format, one file", () -> {
+            BankTransactionDAO transactionDAO = new BankTransactionDAO(sessionFactory);
+            Files.createDirectories(directory);
+            Path file = directory.resolve("naive.csv");
+            Files.write(file, "account_id,transaction_id,tx_date,type,amount,status\n".getBytes(StandardCharsets.UTF_8));
+            for (Long accountId : accountIds) {
+                StringBuilder statement = new StringBuilder();
+                for (BankTransaction transaction : transactionDAO.getTransactionsByAccountId(accountId)) {
+                    statement.append(String.format("%d,%d,%tF,%s,%s,%s%n", accountId, transaction.getId(),
+                        transaction.getTxDate(), transaction.getType(), transaction.getAmount(), transaction.getStatus()));
+                }
+                Files.write(file, statement.toString().getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+            }
+            return Files.size(file);
+        });
+        int partitions = Runtime.getRuntime().availableProcessors();
+        StatementExportService exportService = new StatementExportService(sessionFactory, partitions, 100);
+        measure("Streaming CSV, " + partitions + " partition(s)",
+            () -> exportService.exportAll(directory, from, to, StatementFormat.CSV).getBytes());
+        measure("Streaming binary, " + partitions + " partition(s)",
+            () -> exportService.exportAll(directory, from, to, StatementFormat.BINARY).getBytes());
+    }
+
+    /**
+     * One month of an account with a long history: full history filtered in
+     * Java vs. the date-range queries on idx_tx_account_date (plan printed)
+     */
+    public static void dateRangeQueryBenchmark(int transactionsPerAccount) {
+        System.out.println("\n--- Date-Range Query Benchmark (" + transactionsPerAccount + " transactions per account) ---");
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+        List<Long> accountIds = seedLedger(sessionFactory, 20, transactionsPerAccount);
+        Long accountId = accountIds.get(accountIds.size() / 2);
+        LocalDate from = LocalDate.of(2024, 6, 1);
+        LocalDate to = from.plusMonths(1).minusDays(1);
+        BankTransactionDAO transactionDAO = new BankTransactionDAO(sessionFactory);
+
+        printPlan(sessionFactory, "SELECT * FROM bank_transactions WHERE account_id = " + accountId +
+            " AND tx_date BETWEEN DATE '" + from + "' AND DATE '" + to + "' ORDER BY tx_date DESC, id DESC");
+
+        time("Full history, filtered in Java", () -> {
+            List<BankTransaction> month = new ArrayList<>();
+            for (BankTransaction transaction : transactionDAO.getTransactionsByAccountId(accountId)) {
+                if (!transaction.getTxDate().isBefore(from) && !transaction.getTxDate().isAfter(to)) {
+                    month.add(transaction);
+                }
+            }
+            return month;
+        });
+        time("Date range (idx_tx_account_date)",
+            () -> transactionDAO.getTransactionsByAccountAndDateRange(accountId, from, to));
+        time("Count in range (index only)", () -> Collections.singletonList(
+            transactionDAO.countTransactionsByAccountAndDateRange(accountId, from, to)));
+        time("Sum of debits in range", () -> Collections.singletonList(
+            transactionDAO.sumAmountByAccountAndDateRange(accountId, from, to, "DEBIT")));
+    }
+
+    /**
+     * Balance changes: read-modify-write (get, setBalance, session.update) vs.
+     * AccountDAO.adjustBalance (one UPDATE balance = balance + delta), first
+     * sequentially, then from several threads on one account, where the
+     * read-modify-write loses on the version check and has to be retried
+     */
+    public static void balanceUpdateBenchmark(int updates, int threads) {
+        System.out.println("\n--- Balance Update Benchmark (" + updates + " updates, " + threads + " thread(s)) ---");
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+        List<Long> accountIds = seedLedger(sessionFactory, 4, 0);
+        AccountDAO accountDAO = new AccountDAO(sessionFactory);
+        BigDecimal delta = new BigDecimal("1.00");
+
+        runConcurrently("Read-modify-write, 1 thread", updates, 1, 1, "updates",
+            () -> readModifyWrite(sessionFactory, accountIds.get(0), delta));
+        runConcurrently("adjustBalance, 1 thread", updates, 1, 1, "updates",
+            () -> accountDAO.adjustBalance(accountIds.get(1), delta));
+        runConcurrently("Read-modify-write, " + threads + " threads, one account", updates, threads, 1, "updates",
+            () -> readModifyWrite(sessionFactory, accountIds.get(2), delta));
+        runConcurrently("adjustBalance, " + threads + " threads, one account", updates, threads, 1, "updates",
+            () -> accountDAO.adjustBalance(accountIds.get(3), delta));
+
+        for (Long accountId : accountIds) {
+            Account account = accountDAO.getAccountById(accountId);
+            System.out.println("  Account " + accountId + ": balance " + account.getBalance() + ", version " + account.getVersion());
+        }
+    }
+
+    /**
+     * Posting throughput at 1, 8 and 32 concurrent posters: one posting at a
+     * time through the DAOs (saveTransaction + adjustBalance, two commits) vs.
+     * PostingEngine batches (one balance UPDATE batch, one ledger INSERT batch,
+     * one commit). Every poster holds a connection: with the built-in pool run
+     * with -Dhibernate.connection.pool_size=32 or more, smaller pools skip the
+     * poster counts they cannot serve.
+     */
+    public static void postingBenchmark(int accounts, int postings, int batchSize) {
+        System.out.println("\n--- Posting Benchmark (" + postings + " postings over " + accounts +
+            " accounts, batches of " + batchSize + ") ---");
+        SessionFactory sessionFactory = HibernateUtil.getSessionFactory();
+        List<Long> accountIds = seedLedger(sessionFactory, accounts, 0);
+        BankTransactionDAO transactionDAO = new BankTransactionDAO(sessionFactory);
+        AccountDAO accountDAO = new AccountDAO(sessionFactory);
+        PostingEngine engine = new PostingEngine(sessionFactory);
+        int poolSize = HibernateConfig.getInt(sessionFactory.getProperties(), "hibernate.connection.pool_size", 0);
+        AtomicInteger rejected = new AtomicInteger();
+
+        for (int posters : new int[] {1, 8, 32}) {
+            if (poolSize > 0 && poolSize < posters) {
+                System.out.println("  " + posters + " posters skipped: hibernate.connection.pool_size is " + poolSize);
+                continue;
+            }
+            runConcurrently("DAO, one posting per commit, " + posters + " poster(s)", postings, posters, 1, "postings", () -> {
+                Posting posting = randomPosting(accountIds);
+                transactionDAO.saveTransaction(posting.getAccountId(), posting.getTxDate(), posting.getType(),
+                    posting.getAmount(), PostingEngine.POSTED_STATUS);
+                accountDAO.adjustBalance(posting.getAccountId(), posting.getSignedAmount());
+            });
+            runConcurrently("PostingEngine, " + batchSize + " per commit, " + posters + " poster(s)",
+                    postings / batchSize, posters, batchSize, "postings", () -> {
+                List<Posting> batch = new ArrayList<>(batchSize);
+                for (int i = 0; i < batchSize; i++) {
+                    batch.add(randomPosting(accountIds));
+                }
+                rejected.addAndGet(engine.post(batch).getRejected().size());
+            });
+        }
+        System.out.println("  Postings rejected by the overdraft check: " + rejected.get());
+    }
+
+    // Mostly credits; debits can overdraw the synthetic accounts
+    private static Posting randomPosting(List<Long> accountIds) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Long accountId = accountIds.get(random.nextInt(accountIds.size()));
+        BigDecimal amount = BigDecimal.valueOf(100 + random.nextInt(10_000), 2);
+        return random.nextInt(10) < 7 ? Posting.credit(accountId, amount) : Posting.debit(accountId, amount);
+    }
+
+    // The pattern adjustBalance replaces: two round trips, every column rewritten
+    private static void readModifyWrite(SessionFactory sessionFactory, Long accountId, BigDecimal delta) {
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            Account account = session.get(Account.class, accountId);
+            account.setBalance(account.getBalance().add(delta));
+            session.update(account);
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) transaction.rollback();
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+
+    // Runs operation `operations` times on `threads` threads; prints items/s and the operations that failed
+    private static void runConcurrently(String label, int operations, int threads, int itemsPerOperation, String items,
+                                        Runnable operation) {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        AtomicInteger remaining = new AtomicInteger(operations);
+        AtomicInteger failed = new AtomicInteger();
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    while (remaining.getAndDecrement() > 0) {
+                        try {
+                            operation.run();
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(label + " failed", e);
+        } finally {
+            executor.shutdown();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        System.out.println(String.format("  %-55s %10.0f %s/s  (%d failed)", label,
+            (double) operations * itemsPerOperation / seconds, items, failed.get()));
+    }
+
+    // Prints the execution plan (EXPLAIN PLAN + DBMS_XPLAN on Oracle, EXPLAIN elsewhere)
+    private static void printPlan(SessionFactory sessionFactory, String sql) {
+        Dialect dialect = sessionFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        boolean oracle = dialect instanceof Oracle8iDialect;
+        Session session = sessionFactory.openSession();
+        try {
+            session.doWork(connection -> {
+                try (java.sql.Statement statement = connection.createStatement()) {
+                    if (oracle) {
+                        statement.execute("EXPLAIN PLAN FOR " + sql);
+                    }
+                    try (java.sql.ResultSet plan = statement.executeQuery(oracle
+                            ? "SELECT plan_table_output FROM TABLE(DBMS_XPLAN.DISPLAY(NULL, NULL, 'BASIC'))"
+                            : "EXPLAIN " + sql)) {
+                        while (plan.next()) {
+                            System.out.println("  " + plan.getString(1));
+                        }
+                    }
+                }
+            });
+        } finally {
+            session.close();
+        }
+    }
+
+    // Inserts synthetic customers spread over 1000 domains with JDBC batches
+    private static void seedCustomers(SessionFactory sessionFactory, int customers) {
+        Dialect dialect = sessionFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        String sql = "INSERT INTO customers (id, full_name, email, email_domain_rev) VALUES (" +
+            dialect.getSelectSequenceNextValString("CUSTOMER_SEQ") + ", ?, ?, ?)";
+        long start = System.currentTimeMillis();
+
+        for (int from = 0; from < customers; from += SEED_BATCH_SIZE) {
+            int to = Math.min(customers, from + SEED_BATCH_SIZE);
+            Session session = sessionFactory.openSession();
+            Transaction transaction = session.beginTransaction();
+            try {
+                int first = from;
+                session.doWork(connection -> {
+                    try (PreparedStatement insert = connection.prepareStatement(sql)) {
+                        for (int i = first; i < to; i++) {
+                            String email = "user" + i + "@corp" + (i % 1000) + ".example.com";
+                            insert.setString(1, "Customer " + i);
+                            insert.setString(2, email);
+                            insert.setString(3, Customer.reverseDomain(email));
+                            insert.addBatch();
+                        }
+                        insert.executeBatch();
+                    }
+                });
+                transaction.commit();
+            } catch (RuntimeException e) {
+                if (transaction.isActive()) transaction.rollback();
+                throw e;
+            } finally {
+                session.close();
+            }
+        }
+        System.out.println("Seeded " + customers + " customer(s) in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    // Accounts (owned by the first customer) with transactions spread over 2024, JDBC batches; returns the account IDs
+    private static List<Long> seedLedger(SessionFactory sessionFactory, int accounts, int transactionsPerAccount) {
+        Dialect dialect = sessionFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        String prefix = "BENCH-" + (System.currentTimeMillis() % 1_000_000) + "-";
+        String accountSql = "INSERT INTO accounts (id, account_number, balance, customer_id, version) VALUES (" +
+            dialect.getSelectSequenceNextValString("ACCOUNT_SEQ") + ", ?, 0, (SELECT MIN(id) FROM customers), 0)";
+        String transactionSql = "INSERT INTO bank_transactions (id, tx_date, type, amount, status, account_id) VALUES (" +
+            dialect.getSelectSequenceNextValString("BANK_TRANSACTION_SEQ") + ", ?, ?, ?, 'COMPLETED', ?)";
+        LocalDate firstDay = LocalDate.of(2024, 1, 1);
+        List<Long> accountIds = new ArrayList<>();
+        long start = System.currentTimeMillis();
+
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            session.doWork(connection -> {
+                try (PreparedStatement insert = connection.prepareStatement(accountSql)) {
+                    for (int i = 0; i < accounts; i++) {
+                        insert.setString(1, prefix + i);
+                        insert.addBatch();
+                        if (i % SEED_BATCH_SIZE == SEED_BATCH_SIZE - 1) {
+                            insert.executeBatch();
+                        }
+                    }
+                    insert.executeBatch();
+                }
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT id FROM accounts WHERE account_number LIKE ? ORDER BY id")) {
+                    select.setString(1, prefix + "%");
+                    try (java.sql.ResultSet resultSet = select.executeQuery()) {
+                        while (resultSet.next()) {
+                            accountIds.add(resultSet.getLong(1));
+                        }
+                    }
+                }
+                try (PreparedStatement insert = connection.prepareStatement(transactionSql)) {
+                    int batched = 0;
+                    for (Long accountId : accountIds) {
+                        for (int i = 0; i < transactionsPerAccount; i++) {
+                            insert.setDate(1, java.sql.Date.valueOf(firstDay.plusDays(i % 365)));
+                            insert.setString(2, i % 3 == 0 ? "DEBIT" : "CREDIT");
+                            insert.setBigDecimal(3, BigDecimal.valueOf(100 + i % 10_000, 2));
+                            insert.setLong(4, accountId);
+                            insert.addBatch();
+                            if (++batched % SEED_BATCH_SIZE == 0) {
+                                insert.executeBatch();
+                            }
+                        }
+                    }
+                    insert.executeBatch();
+                }
+            });
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) transaction.rollback();
+            throw e;
+        } finally {
+            session.close();
+        }
+        System.out.println("Seeded " + accountIds.size() + " account(s), " + (long) accounts * transactionsPerAccount +
+            " transaction(s) in " + (System.currentTimeMillis() - start) + " ms");
+        return accountIds;
+    }
+
+    // Runs work once; prints time, MB/s of the bytes it returns and peak heap (sum of the heap pools' peaks)
+    static void measure(String label, Callable<Long> work) {
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) {
+                heapPools.add(pool);
+            }
+        }
+        System.gc();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+        long start = System.nanoTime();
+        long bytes;
+        try {
+            bytes = work.call();
+        } catch (Exception e) {
+            throw new IllegalStateException(label + " failed", e);
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        long peakHeap = 0;
+        for (MemoryPoolMXBean pool : heapPools) {
+            peakHeap += pool.getPeakUsage().getUsed();
+        }
+        System.out.println(String.format("  %-55s %8.0f ms %8.1f MB/s  peak heap %5d MB  (%d MB written)", label,
+            seconds * 1000, bytes / (1024.0 * 1024.0) / seconds, peakHeap / (1024 * 1024), bytes / (1024 * 1024)));
+    }
+
+    static void time(String label, Supplier<List<?>> work) {
+        work.get(); // warm-up (query plan, statement cache)
+        long start = System.nanoTime();
+        int rows = 0;
+        for (int i = 0; i < REPETITIONS; i++) {
+            rows = work.get().size();
+        }
+        double avgMillis = (System.nanoTime() - start) / 1_000_000.0 / REPETITIONS;
+        System.out.println(String.format("  %-55s %10.3f ms/op  (%d row(s))", label, avgMillis, rows));
+    }
+}
@@ -1,5 +1,6 @@
 package com.banking.examples;
 
+import com.banking.dao.AccountDAO;
 import com.banking.entity.*;
 import com.banking.util.HibernateUtil;
 import org.hibernate.Session;
@@ -7,7 +8,7 @@ import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -91,7 +92,7 @@ public class CRUDExamples {
             // 6. Create Bank Transactions (One-to-Many: Account -> Transactions)
             System.out.println("\n6. Creating Bank Transactions...");
             BankTransaction deposit = new BankTransaction();
-            deposit.setTxDate(new Date());
+            deposit.setTxDate(LocalDate.now());
             deposit.setType("CREDIT");
             deposit.setAmount(new BigDecimal("5000.00"));
             deposit.setStatus("COMPLETED");
@@ -99,7 +100,7 @@ public class CRUDExamples {
             session.save(deposit);
             
             BankTransaction withdrawal = new BankTransaction();
-            withdrawal.setTxDate(new Date());
+            withdrawal.setTxDate(LocalDate.now());
             withdrawal.setType("DEBIT");
             withdrawal.setAmount(new BigDecimal("1000.00"));
             withdrawal.setStatus("COMPLETED");
@@ -153,9 +154,10 @@ public class CRUDExamples {
             
             // 3. Conditional Query (HQL with WHERE)
             System.out.println("\n3. Finding Customers by email domain...");
-            Query<Customer> emailQuery = session.createQuery(
-                "FROM Customer WHERE email LIKE :domain", Customer.class);
-            emailQuery.setParameter("domain", "%example.com");
+            // Reversed-domain column instead of LIKE '%example.com', which can never use an index
+            Query<Customer> emailQuery = session.createNamedQuery(
+                Customer.FIND_BY_EMAIL_DOMAIN, Customer.class);
+            emailQuery.setParameter("domainRev", Customer.reverseDomain("example.com"));
             List<Customer> filteredCustomers = emailQuery.list();
             System.out.println("✓ Found " + filteredCustomers.size() + " customer(s) with example.com email");
             
@@ -188,9 +190,8 @@ public class CRUDExamples {
             
             // 6. Read Transactions for an Account
             System.out.println("\n6. Reading Bank Transactions...");
-            Query<BankTransaction> txQuery = session.createQuery(
-                "FROM BankTransaction tx WHERE tx.account.id = :accountId ORDER BY tx.txDate DESC", 
-                BankTransaction.class);
+            Query<BankTransaction> txQuery = session.createNamedQuery(
+                BankTransaction.FIND_BY_ACCOUNT_ID, BankTransaction.class);
             txQuery.setParameter("accountId", 1L);
             txQuery.setMaxResults(5);
             List<BankTransaction> transactions = txQuery.list();
@@ -233,13 +234,10 @@ public class CRUDExamples {
             }
             
             // 2. Update with relationship change
-            System.out.println("\n2. Updating Account balance...");
+            System.out.println("\n2. Loading Account for a relationship change...");
             Account account = session.get(Account.class, 1L);
             if (account != null) {
-                BigDecimal oldBalance = account.getBalance();
-                account.setBalance(account.getBalance().add(new BigDecimal("500.00")));
-                session.update(account);
-                System.out.println("✓ Updated balance from " + oldBalance + " to " + account.getBalance());
+                System.out.println("✓ Loaded account " + account.getAccountNumber() + " (version " + account.getVersion() + ")");
             }
             
             // 3. Bulk Update (HQL)
@@ -263,6 +261,13 @@ public class CRUDExamples {
             }
             
             transaction.commit();
+            
+            // 5. Balance change: one UPDATE balance = balance + delta, no read-modify-write
+            //    (after the commit: the account above is versioned and would otherwise be stale)
+            System.out.println("\n5. Adjusting Account balance...");
+            if (account != null) {
+                new AccountDAO().adjustBalance(account.getId(), new BigDecimal("500.00"));
+            }
             System.out.println("\n✓ All UPDATE operations completed successfully!");
             
         } catch (Exception e) {
@@ -1,5 +1,7 @@
 package com.banking.examples;
 
+import com.banking.dao.AccountSubscriptionDAO;
+import com.banking.dao.CustomerDAO;
 import com.banking.entity.*;
 import com.banking.util.HibernateUtil;
 import org.hibernate.Session;
@@ -7,7 +9,8 @@ import org.hibernate.Transaction;
 import org.hibernate.query.Query;
 
 import java.math.BigDecimal;
-import java.util.Date;
+import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -23,6 +26,7 @@ public class MappingExamples {
         oneToManyExample();
         manyToOneExample();
         manyToManyExample();
+        bulkSubscriptionExample();
         
         HibernateUtil.shutdown();
         System.out.println("\n=== All mapping examples completed ===");
@@ -127,8 +131,8 @@ public class MappingExamples {
             
             // Step 3: Retrieve Customer and all their Accounts
             session = HibernateUtil.getSessionFactory().openSession();
-            Query<Account> accountQuery = session.createQuery(
-                "FROM Account WHERE customer.id = :customerId", Account.class);
+            Query<Account> accountQuery = session.createNamedQuery(
+                Account.FIND_BY_CUSTOMER_ID, Account.class);
             accountQuery.setParameter("customerId", customer.getId());
             List<Account> accounts = accountQuery.list();
             
@@ -139,6 +143,12 @@ public class MappingExamples {
                 System.out.println("   - " + acc.getAccountNumber() + " | Balance: " + acc.getBalance());
             }
             
+            // Step 4: Page of customers with their accounts (Customer.accounts, two queries)
+            System.out.println("\n6. First page of customers with their accounts:");
+            for (Customer pageCustomer : new CustomerDAO().getCustomersWithAccounts(0, 10)) {
+                System.out.println("   - " + pageCustomer.getFullName() + ": " + pageCustomer.getAccounts().size() + " account(s)");
+            }
+            
             System.out.println("\n✓ One-to-Many mapping demonstrated successfully!");
             
         } catch (Exception e) {
@@ -174,7 +184,7 @@ public class MappingExamples {
             
             // Step 2: Create multiple Transactions for the same Account
             BankTransaction tx1 = new BankTransaction();
-            tx1.setTxDate(new Date());
+            tx1.setTxDate(LocalDate.now());
             tx1.setType("CREDIT");
             tx1.setAmount(new BigDecimal("10000.00"));
             tx1.setStatus("COMPLETED");
@@ -183,7 +193,7 @@ public class MappingExamples {
             System.out.println("2. Created Transaction 1: CREDIT " + tx1.getAmount());
             
             BankTransaction tx2 = new BankTransaction();
-            tx2.setTxDate(new Date());
+            tx2.setTxDate(LocalDate.now());
             tx2.setType("DEBIT");
             tx2.setAmount(new BigDecimal("3000.00"));
             tx2.setStatus("COMPLETED");
@@ -192,7 +202,7 @@ public class MappingExamples {
             System.out.println("3. Created Transaction 2: DEBIT " + tx2.getAmount());
             
             BankTransaction tx3 = new BankTransaction();
-            tx3.setTxDate(new Date());
+            tx3.setTxDate(LocalDate.now());
             tx3.setType("DEBIT");
             tx3.setAmount(new BigDecimal("2000.00"));
             tx3.setStatus("PENDING");
@@ -204,9 +214,8 @@ public class MappingExamples {
             
             // Step 3: Retrieve Account and all its Transactions
             session = HibernateUtil.getSessionFactory().openSession();
-            Query<BankTransaction> txQuery = session.createQuery(
-                "FROM BankTransaction WHERE account.id = :accountId ORDER BY txDate DESC", 
-                BankTransaction.class);
+            Query<BankTransaction> txQuery = session.createNamedQuery(
+                BankTransaction.FIND_BY_ACCOUNT_ID, BankTransaction.class);
             txQuery.setParameter("accountId", account.getId());
             List<BankTransaction> transactions = txQuery.list();
             
@@ -308,9 +317,8 @@ public class MappingExamples {
             }
             
             // Show which accounts are subscribed to SMS channel
-            Query<Account> accountsWithSms = session.createQuery(
-                "SELECT a FROM Account a JOIN a.subscriptions s WHERE s.channelName = :channelName", 
-                Account.class);
+            Query<Account> accountsWithSms = session.createNamedQuery(
+                Account.FIND_BY_CHANNEL_NAME, Account.class);
             accountsWithSms.setParameter("channelName", "SMS_BUSINESS");
             List<Account> smsAccounts = accountsWithSms.list();
             System.out.println("\n10. Accounts subscribed to SMS_BUSINESS:");
@@ -328,4 +336,62 @@ public class MappingExamples {
             if (session != null) session.close();
         }
     }
+
+    /**
+     * Set-based Many-to-Many Example
+     * Works on the account_subscriptions join table directly (AccountSubscription)
+     * instead of loading every Account and mutating getSubscriptions()
+     */
+    public static void bulkSubscriptionExample() {
+        System.out.println("\n--- Set-based Subscription Example ---");
+        System.out.println("AccountSubscription (join table) without loading Accounts\n");
+        
+        Session session = null;
+        Transaction transaction = null;
+        
+        try {
+            session = HibernateUtil.getSessionFactory().openSession();
+            transaction = session.beginTransaction();
+            
+            RefNotificationChannel alertChannel = new RefNotificationChannel();
+            alertChannel.setChannelName("FRAUD_ALERT");
+            alertChannel.setMonthlyCost(new BigDecimal("0.50"));
+            session.save(alertChannel);
+            
+            Account account = new Account();
+            account.setAccountNumber("BLK_" + System.currentTimeMillis());
+            account.setBalance(new BigDecimal("20000.00"));
+            session.save(account);
+            
+            transaction.commit();
+            session.close();
+            session = null;
+            System.out.println("1. Created Channel: " + alertChannel.getChannelName());
+            
+            AccountSubscriptionDAO subscriptionDAO = new AccountSubscriptionDAO();
+            
+            // INSERT ... SELECT over every account with a balance of at least 10,000
+            int subscribed = subscriptionDAO.subscribeAccountsWithMinBalance(alertChannel.getId(),
+                new BigDecimal("10000.00"));
+            System.out.println("2. Subscribed " + subscribed + " account(s) with one statement");
+            
+            // Batched add / remove of explicit (account, channel) pairs
+            List<AccountSubscription> pairs = Arrays.asList(
+                new AccountSubscription(account.getId(), alertChannel.getId()));
+            System.out.println("3. Re-adding existing pair adds " + subscriptionDAO.addSubscriptions(pairs) + " row(s)");
+            System.out.println("4. Removed " + subscriptionDAO.removeSubscriptions(pairs) + " row(s)");
+            
+            // Set-wise unsubscribe
+            System.out.println("5. Unsubscribed " + subscriptionDAO.unsubscribeChannel(alertChannel.getId()) + " account(s)");
+            
+            System.out.println("\n✓ Set-based subscription management demonstrated successfully!");
+            
+        } catch (Exception e) {
+            if (transaction != null && transaction.isActive()) transaction.rollback();
+            System.err.println("Error: " + e.getMessage());
+            e.printStackTrace();
+        } finally {
+            if (session != null) session.close();
+        }
+    }
 }
@@ -1,5 +1,7 @@
 package com.banking.examples;
 
+import com.banking.dao.CustomerOverview;
+import com.banking.dao.CustomerOverviewDAO;
 import com.banking.entity.*;
 import com.banking.util.HibernateUtil;
 import org.hibernate.Session;
@@ -23,6 +25,7 @@ public class QueryExamples {
         namedParameterExamples();
         joinQueryExamples();
         aggregateQueryExamples();
+        customerOverviewExample();
         
         HibernateUtil.shutdown();
         System.out.println("\n=== All query examples completed ===");
@@ -47,7 +50,8 @@ public class QueryExamples {
             // 2. HQL with WHERE clause
             System.out.println("\n2. Customers with specific email domain:");
             Query<Customer> query2 = session.createQuery(
-                "FROM Customer c WHERE c.email LIKE '%@example.com'", Customer.class);
+                "FROM Customer c WHERE c.emailDomainRev = :domainRev", Customer.class);
+            query2.setParameter("domainRev", Customer.reverseDomain("example.com"));
             List<Customer> filteredCustomers = query2.list();
             System.out.println("   Found " + filteredCustomers.size() + " customer(s)");
             
@@ -195,7 +199,8 @@ public class QueryExamples {
         Session session = null;
         
         try {
-            session = HibernateUtil.getSessionFactory().openSession();
+            // Reporting query: runs on the read replica when one is configured
+            session = HibernateUtil.getReadSessionFactory().openSession();
             
             // 1. COUNT
             System.out.println("\n1. Count total customers:");
@@ -260,4 +265,37 @@ public class QueryExamples {
             if (session != null) session.close();
         }
     }
+
+    /**
+     * Customer-360 Overview
+     * Profile, KYC, accounts, subscriptions and latest transactions in three queries
+     */
+    public static void customerOverviewExample() {
+        System.out.println("\n--- Customer Overview Example ---");
+        Session session = null;
+        Long customerId;
+        
+        try {
+            session = HibernateUtil.getSessionFactory().openSession();
+            Query<Long> idQuery = session.createQuery("SELECT MIN(c.id) FROM Customer c", Long.class);
+            customerId = idQuery.uniqueResult();
+        } finally {
+            if (session != null) session.close();
+        }
+        if (customerId == null) {
+            System.out.println("   No customers found");
+            return;
+        }
+        
+        CustomerOverview overview = new CustomerOverviewDAO().getOverview(customerId, 3);
+        System.out.println("   " + overview.getCustomer().getFullName() + " | KYC: " +
+            (overview.getKycProfile() != null ? overview.getKycProfile().getRiskStatus() : "none") +
+            " | Total balance: " + overview.getTotalBalance());
+        for (Account account : overview.getAccounts()) {
+            System.out.println("   - " + account.getAccountNumber() + " | " +
+                overview.getSubscriptions(account).size() + " subscription(s) | latest: " +
+                overview.getLatestTransactions(account.getId()).size() + " transaction(s)");
+        }
+        System.out.println("\n✓ Customer overview example completed!");
+    }
 }
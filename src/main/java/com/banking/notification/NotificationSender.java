@@ -0,0 +1,24 @@
+package com.banking.notification;
+
+import com.banking.entity.OutboxMessage;
+
+/**
+ * Delivers outbox messages for one notification channel (SMS_ALERT,
+ * EMAIL_STMT, WHATSAPP_OTP, ...). {@link OutboxRelay} calls a sender from at
+ * most banking.outbox.channel.&lt;name&gt;.max_concurrency threads at a time, so
+ * implementations must be thread-safe up to that limit.
+ */
+public interface NotificationSender {
+
+    /**
+     * @return the RefNotificationChannel.channelName this sender handles
+     */
+    String getChannelName();
+
+    /**
+     * Delivers the message; any exception counts as a failed attempt and the
+     * message is retried with backoff up to banking.outbox.max_attempts times.
+     * Delivery is at-least-once, so receivers should de-duplicate on the message ID.
+     */
+    void send(OutboxMessage message) throws Exception;
+}
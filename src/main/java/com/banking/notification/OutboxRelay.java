@@ -0,0 +1,399 @@
+package com.banking.notification;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.IntSupplier;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.query.Query;
+
+import com.banking.entity.OutboxMessage;
+import com.banking.entity.RefNotificationChannel;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Delivers the notification outbox.
+ *
+ * Every channel with a sender is relayed on its own: a poll claims up to
+ * banking.outbox.batch_size of that channel's due messages (a claim token plus
+ * a lease of banking.outbox.lease_millis, so several relays can run side by
+ * side and a crashed relay's messages become due again), sends them on the
+ * channel's pool of banking.outbox.channel.&lt;name&gt;.max_concurrency threads
+ * (default banking.outbox.max_concurrency) and records the outcomes in one
+ * transaction. {@link #start()} polls each channel on its own thread, so a slow
+ * gateway only holds up its own channel. Messages for channels without a sender
+ * fail without a send attempt. Failed sends are retried with exponential
+ * backoff from banking.outbox.retry_backoff_millis and marked FAILED after
+ * banking.outbox.max_attempts. An outcome is only recorded while the message
+ * still carries the claim token; delivery is at-least-once.
+ */
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    // Only while the row is still ours: after a lease expiry another relay may have claimed it
+    private static final String RECORD_OUTCOME_SQL =
+        "UPDATE notification_outbox SET status = ?, attempts = ?, next_attempt_at = ?, sent_at = ?, last_error = ?, " +
+        "claim_token = NULL WHERE id = ? AND claim_token = ?";
+
+    private final SessionFactory sessionFactory;
+    private final Map<String, NotificationSender> senders = new LinkedHashMap<>();
+    private final Map<String, ExecutorService> channelExecutors = new HashMap<>();
+    private final Map<Long, String> channelNames = new ConcurrentHashMap<>();
+    private final RelayMetrics metrics = new RelayMetrics();
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long retryBackoffMillis;
+    private final long leaseMillis;
+    private final long pollIntervalMillis;
+    private final List<ScheduledExecutorService> pollers = new ArrayList<>();
+
+    public OutboxRelay(SessionFactory sessionFactory, Collection<? extends NotificationSender> senders) {
+        this.sessionFactory = sessionFactory;
+        Map<String, Object> settings = sessionFactory.getProperties();
+        this.batchSize = Math.max(1, HibernateConfig.getInt(settings, HibernateConfig.OUTBOX_BATCH_SIZE, 100));
+        this.maxAttempts = Math.max(1, HibernateConfig.getInt(settings, HibernateConfig.OUTBOX_MAX_ATTEMPTS, 5));
+        this.retryBackoffMillis = HibernateConfig.getInt(settings, HibernateConfig.OUTBOX_RETRY_BACKOFF_MILLIS, 1000);
+        this.leaseMillis = HibernateConfig.getInt(settings, HibernateConfig.OUTBOX_LEASE_MILLIS, 60000);
+        this.pollIntervalMillis = HibernateConfig.getInt(settings, HibernateConfig.OUTBOX_POLL_INTERVAL_MILLIS, 1000);
+
+        int defaultConcurrency = HibernateConfig.getInt(settings, HibernateConfig.OUTBOX_MAX_CONCURRENCY, 4);
+        for (NotificationSender sender : senders) {
+            String channel = sender.getChannelName();
+            int concurrency = Math.max(1, HibernateConfig.getInt(settings,
+                HibernateConfig.OUTBOX_CHANNEL_PREFIX + channel + ".max_concurrency", defaultConcurrency));
+            this.senders.put(channel, sender);
+            this.channelExecutors.put(channel, Executors.newFixedThreadPool(concurrency, runnable -> {
+                Thread thread = new Thread(runnable, "outbox-" + channel);
+                thread.setDaemon(true);
+                return thread;
+            }));
+        }
+    }
+
+    /**
+     * Polls every channel, and the messages without a sender, on its own background
+     * thread every banking.outbox.poll_interval_millis; full batches are followed
+     * by the next one right away.
+     */
+    public synchronized void start() {
+        if (pollers.isEmpty()) {
+            for (String channel : senders.keySet()) {
+                pollers.add(poll("outbox-relay-" + channel, () -> relayChannelOnce(channel)));
+            }
+            pollers.add(poll("outbox-relay-unrouted", this::failUnroutable));
+            System.out.println("✓ Outbox relay started for channels " + senders.keySet());
+        }
+    }
+
+    public synchronized void close() {
+        for (ScheduledExecutorService poller : pollers) {
+            poller.shutdown();
+        }
+        for (ScheduledExecutorService poller : pollers) {
+            try {
+                poller.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        pollers.clear();
+        for (ExecutorService executor : channelExecutors.values()) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * One batch for every channel, one channel after the other, then one batch of
+     * messages without a sender. For callers that drive the relay themselves;
+     * {@link #start()} polls the channels independently.
+     *
+     * @return the number of messages processed (0 when nothing is due)
+     */
+    public int relayOnce() {
+        int processed = 0;
+        for (String channel : senders.keySet()) {
+            processed += relayChannelOnce(channel);
+        }
+        return processed + failUnroutable();
+    }
+
+    /**
+     * Claims, delivers and records one batch of the channel's messages.
+     *
+     * @return the number of messages processed (0 when nothing is due or the channel is unknown)
+     */
+    public int relayChannelOnce(String channel) {
+        NotificationSender sender = senders.get(channel);
+        Long channelId = sender != null ? channelId(channel) : null;
+        if (channelId == null) {
+            return 0;
+        }
+        List<OutboxMessage> batch = claimBatch(session ->
+            session.createNamedQuery(OutboxMessage.FIND_DUE_IDS_FOR_CHANNEL, Long.class)
+                .setParameter("channelId", channelId));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        metrics.batchClaimed();
+
+        ExecutorService executor = channelExecutors.get(channel);
+        List<Future<?>> deliveries = new ArrayList<>(batch.size());
+        for (OutboxMessage message : batch) {
+            deliveries.add(executor.submit(() -> deliver(sender, message)));
+        }
+        for (Future<?> delivery : deliveries) {
+            try {
+                delivery.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while delivering outbox batch of " + channel, e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Outbox delivery failed on " + channel, e.getCause());
+            }
+        }
+
+        recordOutcomes(batch);
+        return batch.size();
+    }
+
+    public RelayMetrics getMetrics() {
+        return metrics;
+    }
+
+    // Drains full batches right away, then waits for the next poll
+    private ScheduledExecutorService poll(String threadName, IntSupplier relayBatch) {
+        ScheduledExecutorService poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, threadName);
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(() -> {
+            try {
+                while (relayBatch.getAsInt() == batchSize) {
+                    // Backlog: keep draining
+                }
+            } catch (RuntimeException e) {
+                System.err.println("Outbox relay poll failed (" + threadName + "): " + e.getMessage());
+            }
+        }, 0, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        return poller;
+    }
+
+    // Messages of channels without a sender (not registered, or deleted) fail without a send attempt
+    private int failUnroutable() {
+        List<Long> routed = new ArrayList<>();
+        for (String channel : senders.keySet()) {
+            Long channelId = channelId(channel);
+            if (channelId != null) {
+                routed.add(channelId);
+            }
+        }
+        List<OutboxMessage> batch = claimBatch(session -> routed.isEmpty()
+            ? session.createNamedQuery(OutboxMessage.FIND_DUE_IDS, Long.class)
+            : session.createNamedQuery(OutboxMessage.FIND_DUE_IDS_EXCEPT_CHANNELS, Long.class)
+                .setParameterList("channelIds", routed));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        metrics.batchClaimed();
+        for (OutboxMessage message : batch) {
+            String channel = channelName(message.getChannelId());
+            metrics.sendStarted(channel);
+            failed(message, channel, 0, "No sender registered for channel " + channel);
+        }
+        recordOutcomes(batch);
+        return batch.size();
+    }
+
+    private void deliver(NotificationSender sender, OutboxMessage message) {
+        String channel = sender.getChannelName();
+        metrics.sendStarted(channel);
+        long start = System.nanoTime();
+        try {
+            sender.send(message);
+            message.setAttempts(message.getAttempts() + 1);
+            message.setStatus(OutboxMessage.SENT);
+            message.setSentAt(new Date());
+            message.setLastError(null);
+            metrics.sendFinished(channel, System.nanoTime() - start, true, false);
+        } catch (Exception e) {
+            failed(message, channel, System.nanoTime() - start, String.valueOf(e.getMessage()));
+        }
+    }
+
+    // Schedules a retry, or gives up after maxAttempts
+    private void failed(OutboxMessage message, String channel, long nanos, String error) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        message.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+        boolean gaveUp = attempts >= maxAttempts;
+        if (gaveUp) {
+            message.setStatus(OutboxMessage.FAILED);
+        } else {
+            long backoff = retryBackoffMillis << Math.min(attempts - 1, 20);
+            message.setNextAttemptAt(new Date(System.currentTimeMillis() + backoff));
+        }
+        metrics.sendFinished(channel, nanos, false, gaveUp);
+    }
+
+    // Due IDs (from the given named query, before status/now/limit are bound), then one UPDATE that
+    // stamps our token and lease on those still unclaimed, then the claimed rows
+    private List<OutboxMessage> claimBatch(Function<Session, Query<Long>> dueIdsQuery) {
+        Session session = null;
+        Transaction transaction = null;
+        try {
+            session = sessionFactory.openSession();
+            transaction = session.beginTransaction();
+            Date now = new Date();
+
+            List<Long> dueIds = dueIdsQuery.apply(session)
+                .setParameter("status", OutboxMessage.PENDING)
+                .setParameter("now", now)
+                .setMaxResults(batchSize)
+                .list();
+            if (dueIds.isEmpty()) {
+                transaction.commit();
+                return new ArrayList<>();
+            }
+
+            String token = UUID.randomUUID().toString();
+            session.createNamedQuery(OutboxMessage.CLAIM)
+                .setParameter("token", token)
+                .setParameter("leaseUntil", new Date(now.getTime() + leaseMillis))
+                .setParameterList("ids", dueIds)
+                .setParameter("status", OutboxMessage.PENDING)
+                .setParameter("now", now)
+                .executeUpdate();
+            List<OutboxMessage> claimed = session.createNamedQuery(OutboxMessage.FIND_CLAIMED, OutboxMessage.class)
+                .setParameter("token", token)
+                .list();
+
+            transaction.commit();
+            return claimed;
+
+        } catch (RuntimeException e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    // All outcomes of the batch in one transaction and one JDBC batch; rows that no longer
+    // carry the batch's claim token (lease expired, claimed again elsewhere) are left alone
+    private void recordOutcomes(List<OutboxMessage> batch) {
+        Session session = null;
+        Transaction transaction = null;
+        try {
+            session = sessionFactory.openSession();
+            transaction = session.beginTransaction();
+            int skipped = session.doReturningWork(connection -> {
+                try (PreparedStatement update = connection.prepareStatement(RECORD_OUTCOME_SQL)) {
+                    for (OutboxMessage message : batch) {
+                        update.setString(1, message.getStatus());
+                        update.setInt(2, message.getAttempts());
+                        setTimestamp(update, 3, message.getNextAttemptAt());
+                        setTimestamp(update, 4, message.getSentAt());
+                        update.setString(5, message.getLastError());
+                        update.setLong(6, message.getId());
+                        update.setString(7, message.getClaimToken());
+                        update.addBatch();
+                    }
+                    int notClaimed = 0;
+                    for (int count : update.executeBatch()) {
+                        if (count == 0) {
+                            notClaimed++;
+                        }
+                    }
+                    return notClaimed;
+                }
+            });
+            transaction.commit();
+            if (skipped > 0) {
+                metrics.outcomesSkipped(skipped);
+                System.err.println("Outbox: " + skipped + " outcome(s) not recorded, the messages were claimed again");
+            }
+        } catch (RuntimeException e) {
+            if (transaction != null) {
+                transaction.rollback();
+            }
+            // Sent messages stay claimed and are delivered again once the lease expires
+            System.err.println("Error recording outbox outcomes: " + e.getMessage());
+            throw e;
+        } finally {
+            if (session != null) {
+                session.close();
+            }
+        }
+    }
+
+    private static void setTimestamp(PreparedStatement statement, int index, Date value) throws SQLException {
+        if (value != null) {
+            statement.setTimestamp(index, new Timestamp(value.getTime()));
+        } else {
+            statement.setNull(index, Types.TIMESTAMP);
+        }
+    }
+
+    // ID of a channel by name, reloading the reference data once for a name not seen yet
+    private Long channelId(String channelName) {
+        for (int pass = 0; pass < 2; pass++) {
+            for (Map.Entry<Long, String> entry : channelNames.entrySet()) {
+                if (entry.getValue().equals(channelName)) {
+                    return entry.getKey();
+                }
+            }
+            if (pass == 0) {
+                loadChannelNames();
+            }
+        }
+        return null;
+    }
+
+    // Channel names are reference data; reload them only for an unknown channel ID
+    private String channelName(Long channelId) {
+        String name = channelNames.get(channelId);
+        if (name == null) {
+            loadChannelNames();
+            name = channelNames.getOrDefault(channelId, "channel#" + channelId);
+        }
+        return name;
+    }
+
+    private void loadChannelNames() {
+        Session session = sessionFactory.openSession();
+        try {
+            for (RefNotificationChannel channel : session.createNamedQuery(
+                    RefNotificationChannel.FIND_ALL_ORDER_BY_NAME, RefNotificationChannel.class).list()) {
+                channelNames.put(channel.getId(), channel.getChannelName());
+            }
+        } finally {
+            session.close();
+        }
+    }
+}
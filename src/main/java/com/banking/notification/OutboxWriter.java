@@ -0,0 +1,65 @@
+package com.banking.notification;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+
+import com.banking.entity.Account;
+import com.banking.entity.AccountSubscription;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.OutboxMessage;
+
+/**
+ * Adds outbox rows for a ledger row inside the caller's transaction, so the
+ * notifications commit or roll back together with the transaction itself.
+ */
+public class OutboxWriter {
+
+    private OutboxWriter() {
+    }
+
+    /**
+     * Channels the account is subscribed to (one indexed query on account_subscriptions).
+     */
+    public static List<Long> subscribedChannelIds(Session session, Long accountId) {
+        return session.createNamedQuery(AccountSubscription.FIND_CHANNEL_IDS_BY_ACCOUNT_ID, Long.class)
+            .setParameter("accountId", accountId)
+            .list();
+    }
+
+    /**
+     * Saves one PENDING message per channel for the (already saved) transaction.
+     * The inserts are flushed with the transaction and sent as one JDBC batch.
+     *
+     * @return the number of messages added
+     */
+    public static int enqueue(Session session, BankTransaction transaction, Collection<Long> channelIds) {
+        Account account = transaction.getAccount();
+        if (account == null || account.getId() == null || channelIds.isEmpty()) {
+            return 0;
+        }
+        String payload = payload(transaction);
+        for (Long channelId : channelIds) {
+            session.save(new OutboxMessage(transaction.getId(), account.getId(), channelId, payload));
+        }
+        return channelIds.size();
+    }
+
+    private static String payload(BankTransaction transaction) {
+        Account account = transaction.getAccount();
+        // An account attached by ID is an uninitialized proxy: do not load it for the text
+        String accountRef = Hibernate.isInitialized(account) && account.getAccountNumber() != null
+            ? account.getAccountNumber() : "#" + account.getId();
+        return payload(transaction.getType(), transaction.getAmount(), accountRef, transaction.getStatus());
+    }
+
+    /**
+     * Message text for a ledger row (accountRef: the account number, or "#" + account ID).
+     */
+    public static String payload(String type, BigDecimal amount, String accountRef, String status) {
+        return type + " of " + amount + " on account " + accountRef + " (" + status + ")";
+    }
+}
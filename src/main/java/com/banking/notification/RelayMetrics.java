@@ -0,0 +1,139 @@
+package com.banking.notification;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Delivery counters and throughput of an {@link OutboxRelay}, per channel.
+ * Counters are updated concurrently by the channel sender threads.
+ */
+public class RelayMetrics {
+
+    private final Map<String, ChannelStats> channels = new ConcurrentHashMap<>();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong firstBatchMillis = new AtomicLong();
+    private final AtomicLong skippedOutcomes = new AtomicLong();
+
+    void batchClaimed() {
+        batches.incrementAndGet();
+        firstBatchMillis.compareAndSet(0, System.currentTimeMillis());
+    }
+
+    void sendStarted(String channel) {
+        ChannelStats stats = stats(channel);
+        stats.maxInFlight.accumulateAndGet(stats.inFlight.incrementAndGet(), Math::max);
+    }
+
+    void sendFinished(String channel, long nanos, boolean success, boolean gaveUp) {
+        ChannelStats stats = stats(channel);
+        stats.inFlight.decrementAndGet();
+        stats.sendNanos.addAndGet(nanos);
+        if (success) {
+            stats.sent.incrementAndGet();
+        } else {
+            stats.failedAttempts.incrementAndGet();
+            if (gaveUp) {
+                stats.gaveUp.incrementAndGet();
+            }
+        }
+    }
+
+    void outcomesSkipped(int count) {
+        skippedOutcomes.addAndGet(count);
+    }
+
+    private ChannelStats stats(String channel) {
+        return channels.computeIfAbsent(channel, name -> new ChannelStats());
+    }
+
+    public long getBatches() {
+        return batches.get();
+    }
+
+    public long getSent() {
+        return channels.values().stream().mapToLong(stats -> stats.sent.get()).sum();
+    }
+
+    public long getSent(String channel) {
+        ChannelStats stats = channels.get(channel);
+        return stats != null ? stats.sent.get() : 0L;
+    }
+
+    // Attempts that threw (each retry counts)
+    public long getFailedAttempts() {
+        return channels.values().stream().mapToLong(stats -> stats.failedAttempts.get()).sum();
+    }
+
+    public long getFailedAttempts(String channel) {
+        ChannelStats stats = channels.get(channel);
+        return stats != null ? stats.failedAttempts.get() : 0L;
+    }
+
+    // Messages marked FAILED after banking.outbox.max_attempts
+    public long getGaveUp() {
+        return channels.values().stream().mapToLong(stats -> stats.gaveUp.get()).sum();
+    }
+
+    // Outcomes not recorded because the message was no longer claimed by this relay (lease expired)
+    public long getSkippedOutcomes() {
+        return skippedOutcomes.get();
+    }
+
+    // Highest number of concurrent sends on the channel
+    public int getMaxInFlight(String channel) {
+        ChannelStats stats = channels.get(channel);
+        return stats != null ? stats.maxInFlight.get() : 0;
+    }
+
+    public double getAverageSendMillis(String channel) {
+        ChannelStats stats = channels.get(channel);
+        if (stats == null) {
+            return 0.0;
+        }
+        long attempts = stats.sent.get() + stats.failedAttempts.get();
+        return attempts > 0 ? stats.sendNanos.get() / 1_000_000.0 / attempts : 0.0;
+    }
+
+    // Messages delivered per second since the first batch was claimed
+    public double getSentPerSecond() {
+        long start = firstBatchMillis.get();
+        long elapsedMillis = start > 0 ? System.currentTimeMillis() - start : 0;
+        return elapsedMillis > 0 ? getSent() * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder perChannel = new StringBuilder();
+        for (Map.Entry<String, ChannelStats> entry : new TreeMap<>(channels).entrySet()) {
+            ChannelStats stats = entry.getValue();
+            perChannel.append(perChannel.length() > 0 ? ", " : "")
+                    .append(entry.getKey()).append("={sent=").append(stats.sent.get())
+                    .append(", failedAttempts=").append(stats.failedAttempts.get())
+                    .append(", gaveUp=").append(stats.gaveUp.get())
+                    .append(", maxInFlight=").append(stats.maxInFlight.get())
+                    .append(", avgSendMillis=").append(String.format("%.1f", getAverageSendMillis(entry.getKey())))
+                    .append('}');
+        }
+        return "RelayMetrics{" +
+                "batches=" + getBatches() +
+                ", sent=" + getSent() +
+                ", failedAttempts=" + getFailedAttempts() +
+                ", gaveUp=" + getGaveUp() +
+                ", skippedOutcomes=" + getSkippedOutcomes() +
+                ", sentPerSecond=" + String.format("%.0f", getSentPerSecond()) +
+                ", channels=[" + perChannel + "]" +
+                '}';
+    }
+
+    private static class ChannelStats {
+        final AtomicLong sent = new AtomicLong();
+        final AtomicLong failedAttempts = new AtomicLong();
+        final AtomicLong gaveUp = new AtomicLong();
+        final AtomicLong sendNanos = new AtomicLong();
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+    }
+}
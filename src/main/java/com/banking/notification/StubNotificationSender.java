@@ -0,0 +1,71 @@
+package com.banking.notification;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.banking.entity.OutboxMessage;
+
+/**
+ * Local sender for tests and development: records what it "delivers" instead
+ * of calling a gateway. It can simulate gateway latency and fail the first
+ * attempts of every message to exercise the relay's retries.
+ */
+public class StubNotificationSender implements NotificationSender {
+
+    private final String channelName;
+    private final long latencyMillis;
+    private final int failuresPerMessage;
+    private final ConcurrentLinkedQueue<OutboxMessage> delivered = new ConcurrentLinkedQueue<>();
+    private final Map<Long, AtomicInteger> attemptsByMessage = new ConcurrentHashMap<>();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    public StubNotificationSender(String channelName) {
+        this(channelName, 0, 0);
+    }
+
+    /**
+     * @param latencyMillis      simulated time per send
+     * @param failuresPerMessage number of attempts of each message that fail before one succeeds
+     */
+    public StubNotificationSender(String channelName, long latencyMillis, int failuresPerMessage) {
+        this.channelName = channelName;
+        this.latencyMillis = latencyMillis;
+        this.failuresPerMessage = failuresPerMessage;
+    }
+
+    @Override
+    public String getChannelName() {
+        return channelName;
+    }
+
+    @Override
+    public void send(OutboxMessage message) throws Exception {
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            if (latencyMillis > 0) {
+                Thread.sleep(latencyMillis);
+            }
+            int attempt = attemptsByMessage.computeIfAbsent(message.getId(), id -> new AtomicInteger()).incrementAndGet();
+            if (attempt <= failuresPerMessage) {
+                throw new IllegalStateException(channelName + " gateway unavailable (attempt " + attempt + ")");
+            }
+            delivered.add(message);
+        } finally {
+            inFlight.decrementAndGet();
+        }
+    }
+
+    public List<OutboxMessage> getDelivered() {
+        return new ArrayList<>(delivered);
+    }
+
+    // Highest number of concurrent send() calls seen
+    public int getMaxInFlight() {
+        return maxInFlight.get();
+    }
+}
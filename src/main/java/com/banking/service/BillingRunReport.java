@@ -0,0 +1,102 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Outcome and throughput of one monthly channel-billing run.
+ * Counters are updated concurrently by the billing partitions.
+ */
+public class BillingRunReport {
+
+    private final YearMonth month;
+    private final int partitions;
+    private final AtomicLong subscriptionRows = new AtomicLong();
+    private final AtomicLong accountsCharged = new AtomicLong();
+    private final AtomicReference<BigDecimal> totalCharged = new AtomicReference<>(BigDecimal.ZERO);
+    private final AtomicLong chunks = new AtomicLong();
+    private final AtomicLong conflicts = new AtomicLong();
+    private long elapsedMillis;
+
+    public BillingRunReport(YearMonth month, int partitions) {
+        this.month = month;
+        this.partitions = partitions;
+    }
+
+    void recordChunk(long rowsRead, long accounts, BigDecimal amount) {
+        subscriptionRows.addAndGet(rowsRead);
+        accountsCharged.addAndGet(accounts);
+        totalCharged.accumulateAndGet(amount, BigDecimal::add);
+        chunks.incrementAndGet();
+    }
+
+    void recordConflict() {
+        conflicts.incrementAndGet();
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public YearMonth getMonth() {
+        return month;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public long getSubscriptionRows() {
+        return subscriptionRows.get();
+    }
+
+    public long getAccountsCharged() {
+        return accountsCharged.get();
+    }
+
+    public BigDecimal getTotalCharged() {
+        return totalCharged.get();
+    }
+
+    // Chunks committed (each one keyset query, one billing query, one insert batch)
+    public long getChunks() {
+        return chunks.get();
+    }
+
+    // Chunks rolled back and re-read because another run had billed some of their accounts
+    public long getConflicts() {
+        return conflicts.get();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    // Subscription rows streamed per second
+    public double getRowsPerSecond() {
+        return elapsedMillis > 0 ? getSubscriptionRows() * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    // Charge transactions written per second
+    public double getChargesPerSecond() {
+        return elapsedMillis > 0 ? getAccountsCharged() * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "BillingRunReport{" +
+                "month=" + month +
+                ", partitions=" + partitions +
+                ", subscriptionRows=" + getSubscriptionRows() +
+                ", accountsCharged=" + getAccountsCharged() +
+                ", totalCharged=" + getTotalCharged() +
+                ", chunks=" + getChunks() +
+                ", conflicts=" + getConflicts() +
+                ", elapsedMillis=" + elapsedMillis +
+                ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+                ", chargesPerSecond=" + String.format("%.0f", getChargesPerSecond()) +
+                '}';
+    }
+}
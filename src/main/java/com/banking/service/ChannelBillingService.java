@@ -0,0 +1,283 @@
+package com.banking.service;
+
+import com.banking.entity.BankTransaction;
+import com.banking.util.HibernateUtil;
+import com.banking.util.PerformanceProfiles;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.exception.ConstraintViolationException;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Monthly billing of notification channel subscriptions.
+ *
+ * Streams account_subscriptions joined with ref_notification_channels
+ * (monthly_cost) instead of walking Account.getSubscriptions(), sums the cost
+ * per account and writes one CHANNEL_FEE debit BankTransaction per account
+ * through JDBC batches. The account ID range is split into partitions that run
+ * in parallel; each partition pages through its subscribed accounts by key
+ * (the next chunkSize account IDs after the last one billed) and commits after
+ * every chunk, so sparse ID ranges cost no empty queries.
+ *
+ * Every charge carries the idempotency key CHANNEL_FEE:&lt;month&gt;:&lt;account ID&gt;
+ * (unique in bank_transactions), so an account is billed at most once per
+ * month. A run is restartable: accounts that already have their key are
+ * skipped, so re-running the same month after a failure only bills the
+ * accounts that are still missing. Two runs of the same month can overlap:
+ * a chunk that collides with the other run's keys is rolled back and re-read
+ * without the accounts the other run billed. Balances are not changed here;
+ * the fee rows are ledger entries.
+ */
+public class ChannelBillingService {
+
+    public static final String CHARGE_TYPE = "DEBIT";
+    public static final String CHARGE_STATUS = "CHANNEL_FEE";
+
+    private static final String ACCOUNT_RANGE_SQL =
+        "SELECT MIN(account_id), MAX(account_id) FROM account_subscriptions";
+
+    // Keyset page: the next subscribed account IDs after the last one billed (LIMIT via setMaxRows)
+    private static final String NEXT_ACCOUNTS_SQL =
+        "SELECT DISTINCT account_id FROM account_subscriptions " +
+        "WHERE account_id > ? AND account_id <= ? ORDER BY account_id";
+
+    // Ordered by account so the cost can be summed while streaming
+    private static final String CHARGEABLE_SUBSCRIPTIONS_SQL =
+        "SELECT s.account_id, c.monthly_cost " +
+        "FROM account_subscriptions s " +
+        "JOIN ref_notification_channels c ON c.id = s.channel_id " +
+        "WHERE s.account_id BETWEEN ? AND ? AND c.monthly_cost > 0 " +
+        "AND NOT EXISTS (SELECT 1 FROM bank_transactions t " +
+        "WHERE t.idempotency_key = CONCAT(?, s.account_id)) " +
+        "ORDER BY s.account_id";
+
+    private static final String INSERT_CHARGE_SQL =
+        "INSERT INTO bank_transactions (id, tx_date, type, amount, status, account_id, idempotency_key) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // Attempts per chunk when another run of the same month inserts the same keys first
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+    private final SessionFactory sessionFactory;
+    private final int partitions;
+    private final int chunkSize;
+
+    public ChannelBillingService() {
+        this(HibernateUtil.getSessionFactory(PerformanceProfiles.BATCH), Runtime.getRuntime().availableProcessors(), 1000);
+    }
+
+    /**
+     * @param partitions number of account ID ranges billed in parallel
+     * @param chunkSize  account IDs per chunk (one query, one insert batch and one commit per chunk)
+     */
+    public ChannelBillingService(SessionFactory sessionFactory, int partitions, int chunkSize) {
+        this.sessionFactory = sessionFactory;
+        this.partitions = Math.max(1, partitions);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    public BillingRunReport runMonthlyBilling(YearMonth month) {
+        long start = System.currentTimeMillis();
+        BillingRunReport report = new BillingRunReport(month, partitions);
+        java.sql.Date billingDate = java.sql.Date.valueOf(month.atDay(1));
+        String keyPrefix = chargeKeyPrefix(month);
+
+        long[] range = accountRange();
+        if (range != null) {
+            long span = range[1] - range[0] + 1;
+            long partitionSize = (span + partitions - 1) / partitions;
+
+            ExecutorService executor = Executors.newFixedThreadPool(partitions);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (long from = range[0]; from <= range[1]; from += partitionSize) {
+                    long partitionFrom = from;
+                    long partitionTo = Math.min(range[1], from + partitionSize - 1);
+                    futures.add(executor.submit(() ->
+                        billPartition(partitionFrom, partitionTo, billingDate, keyPrefix, report)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Billing run for " + month + " was interrupted", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Billing run for " + month + " failed; re-run to resume", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        System.out.println("✓ Channel billing completed: " + report);
+        return report;
+    }
+
+    /**
+     * Idempotency key of an account's charge for the month, e.g. CHANNEL_FEE:2026-10:42.
+     */
+    public static String chargeKey(YearMonth month, long accountId) {
+        return chargeKeyPrefix(month) + accountId;
+    }
+
+    private static String chargeKeyPrefix(YearMonth month) {
+        return CHARGE_STATUS + ":" + month + ":";
+    }
+
+    private long[] accountRange() {
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            return session.doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(ACCOUNT_RANGE_SQL);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    long min = resultSet.getLong(1);
+                    if (resultSet.wasNull()) {
+                        return null;
+                    }
+                    return new long[] {min, resultSet.getLong(2)};
+                }
+            });
+        } finally {
+            session.close();
+        }
+    }
+
+    private void billPartition(long fromAccountId, long toAccountId, java.sql.Date billingDate,
+                               String keyPrefix, BillingRunReport report) {
+        IdentifierGenerator idGenerator = sessionFactory.unwrap(SessionFactoryImplementor.class)
+            .getMetamodel().entityPersister(BankTransaction.class).getIdentifierGenerator();
+
+        long afterAccountId = fromAccountId - 1;
+        while (afterAccountId < toAccountId) {
+            Long lastAccountId = null;
+            for (int attempt = 1; ; attempt++) {
+                StatelessSession session = sessionFactory.openStatelessSession();
+                Transaction tx = null;
+                try {
+                    tx = session.beginTransaction();
+                    long after = afterAccountId;
+                    lastAccountId = session.doReturningWork(connection ->
+                        billChunk(connection, session, idGenerator, after, toAccountId, billingDate, keyPrefix, report));
+                    tx.commit();
+                    break;
+                } catch (ConstraintViolationException e) {
+                    // Another run billed some of these accounts first: re-read the chunk without them
+                    if (tx != null && tx.isActive()) {
+                        tx.rollback();
+                    }
+                    if (attempt == MAX_CHUNK_ATTEMPTS) {
+                        System.err.println("Error billing accounts after " + afterAccountId + ": " + e.getMessage());
+                        throw e;
+                    }
+                    report.recordConflict();
+                } catch (RuntimeException e) {
+                    if (tx != null && tx.isActive()) {
+                        tx.rollback();
+                    }
+                    System.err.println("Error billing accounts after " + afterAccountId + ": " + e.getMessage());
+                    throw e;
+                } finally {
+                    session.close();
+                }
+            }
+            if (lastAccountId == null) {
+                break;
+            }
+            afterAccountId = lastAccountId;
+        }
+    }
+
+    // Bills the next chunk of subscribed accounts after afterAccountId; returns the last account ID of the chunk
+    private Long billChunk(Connection connection, StatelessSession session, IdentifierGenerator idGenerator,
+                           long afterAccountId, long toAccountId, java.sql.Date billingDate, String keyPrefix,
+                           BillingRunReport report) throws SQLException {
+        Long lastAccountId = null;
+        try (PreparedStatement next = connection.prepareStatement(NEXT_ACCOUNTS_SQL)) {
+            next.setMaxRows(chunkSize);
+            next.setFetchSize(chunkSize);
+            next.setLong(1, afterAccountId);
+            next.setLong(2, toAccountId);
+            try (ResultSet resultSet = next.executeQuery()) {
+                while (resultSet.next()) {
+                    lastAccountId = resultSet.getLong(1);
+                }
+            }
+        }
+        if (lastAccountId == null) {
+            return null;
+        }
+
+        long rowsRead = 0;
+        long accounts = 0;
+        BigDecimal chunkTotal = BigDecimal.ZERO;
+
+        try (PreparedStatement select = connection.prepareStatement(CHARGEABLE_SUBSCRIPTIONS_SQL);
+             PreparedStatement insert = connection.prepareStatement(INSERT_CHARGE_SQL)) {
+            select.setFetchSize(chunkSize);
+            select.setLong(1, afterAccountId + 1);
+            select.setLong(2, lastAccountId);
+            select.setString(3, keyPrefix);
+
+            long currentAccount = -1;
+            BigDecimal accountTotal = BigDecimal.ZERO;
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    long accountId = resultSet.getLong(1);
+                    BigDecimal cost = resultSet.getBigDecimal(2);
+                    rowsRead++;
+                    if (accountId != currentAccount) {
+                        if (currentAccount != -1) {
+                            addCharge(insert, session, idGenerator, currentAccount, accountTotal, billingDate, keyPrefix);
+                            accounts++;
+                            chunkTotal = chunkTotal.add(accountTotal);
+                        }
+                        currentAccount = accountId;
+                        accountTotal = BigDecimal.ZERO;
+                    }
+                    accountTotal = accountTotal.add(cost);
+                }
+            }
+            if (currentAccount != -1) {
+                addCharge(insert, session, idGenerator, currentAccount, accountTotal, billingDate, keyPrefix);
+                accounts++;
+                chunkTotal = chunkTotal.add(accountTotal);
+            }
+            if (accounts > 0) {
+                insert.executeBatch();
+            }
+        }
+        report.recordChunk(rowsRead, accounts, chunkTotal);
+        return lastAccountId;
+    }
+
+    private static void addCharge(PreparedStatement insert, StatelessSession session, IdentifierGenerator idGenerator,
+                                  long accountId, BigDecimal amount, java.sql.Date billingDate,
+                                  String keyPrefix) throws SQLException {
+        Long id = (Long) idGenerator.generate((SharedSessionContractImplementor) session, null);
+        insert.setLong(1, id);
+        insert.setDate(2, billingDate);
+        insert.setString(3, CHARGE_TYPE);
+        insert.setBigDecimal(4, amount);
+        insert.setString(5, CHARGE_STATUS);
+        insert.setLong(6, accountId);
+        insert.setString(7, keyPrefix + accountId);
+        insert.addBatch();
+    }
+}
@@ -0,0 +1,86 @@
+package com.banking.service;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Outcome and throughput of one statement export run.
+ * Counters are updated concurrently by the export partitions.
+ */
+public class ExportRunReport {
+
+    private final StatementFormat format;
+    private final int partitions;
+    private final AtomicLong rows = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final List<Path> files = Collections.synchronizedList(new ArrayList<>());
+    private long elapsedMillis;
+
+    public ExportRunReport(StatementFormat format, int partitions) {
+        this.format = format;
+        this.partitions = partitions;
+    }
+
+    void recordFile(Path file, long fileRows, long fileBytes) {
+        files.add(file);
+        rows.addAndGet(fileRows);
+        bytes.addAndGet(fileBytes);
+    }
+
+    void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public StatementFormat getFormat() {
+        return format;
+    }
+
+    public int getPartitions() {
+        return partitions;
+    }
+
+    public long getRows() {
+        return rows.get();
+    }
+
+    public long getBytes() {
+        return bytes.get();
+    }
+
+    // One file per partition, in completion order
+    public List<Path> getFiles() {
+        synchronized (files) {
+            return new ArrayList<>(files);
+        }
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public double getRowsPerSecond() {
+        return elapsedMillis > 0 ? getRows() * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    // Output written per second (MB = 2^20 bytes)
+    public double getMegabytesPerSecond() {
+        return elapsedMillis > 0 ? getBytes() / (1024.0 * 1024.0) * 1000.0 / elapsedMillis : 0.0;
+    }
+
+    @Override
+    public String toString() {
+        return "ExportRunReport{" +
+                "format=" + format +
+                ", partitions=" + partitions +
+                ", files=" + files.size() +
+                ", rows=" + getRows() +
+                ", bytes=" + getBytes() +
+                ", elapsedMillis=" + elapsedMillis +
+                ", rowsPerSecond=" + String.format("%.0f", getRowsPerSecond()) +
+                ", megabytesPerSecond=" + String.format("%.1f", getMegabytesPerSecond()) +
+                '}';
+    }
+}
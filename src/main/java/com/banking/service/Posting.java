@@ -0,0 +1,74 @@
+package com.banking.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One money movement for the {@link PostingEngine}: a CREDIT or DEBIT of a
+ * positive amount on an account, recorded as one ledger row.
+ */
+public class Posting {
+
+    public static final String CREDIT = "CREDIT";
+    public static final String DEBIT = "DEBIT";
+
+    private final Long accountId;
+    private final LocalDate txDate;
+    private final String type;
+    private final BigDecimal amount;
+
+    public Posting(Long accountId, LocalDate txDate, String type, BigDecimal amount) {
+        if (accountId == null || txDate == null || amount == null) {
+            throw new IllegalArgumentException("Account ID, date and amount are required");
+        }
+        if (!CREDIT.equals(type) && !DEBIT.equals(type)) {
+            throw new IllegalArgumentException("Posting type must be CREDIT or DEBIT: " + type);
+        }
+        if (amount.signum() <= 0) {
+            throw new IllegalArgumentException("Posting amount must be positive: " + amount);
+        }
+        this.accountId = accountId;
+        this.txDate = txDate;
+        this.type = type;
+        this.amount = amount;
+    }
+
+    public static Posting credit(Long accountId, BigDecimal amount) {
+        return new Posting(accountId, LocalDate.now(), CREDIT, amount);
+    }
+
+    public static Posting debit(Long accountId, BigDecimal amount) {
+        return new Posting(accountId, LocalDate.now(), DEBIT, amount);
+    }
+
+    public Long getAccountId() {
+        return accountId;
+    }
+
+    public LocalDate getTxDate() {
+        return txDate;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public BigDecimal getAmount() {
+        return amount;
+    }
+
+    // Balance change: positive for a credit, negative for a debit
+    public BigDecimal getSignedAmount() {
+        return DEBIT.equals(type) ? amount.negate() : amount;
+    }
+
+    @Override
+    public String toString() {
+        return "Posting{" +
+                "accountId=" + accountId +
+                ", txDate=" + txDate +
+                ", type='" + type + '\'' +
+                ", amount=" + amount +
+                '}';
+    }
+}
@@ -0,0 +1,294 @@
+package com.banking.service;
+
+import com.banking.cache.SubscriptionIndex;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.OutboxMessage;
+import com.banking.notification.OutboxWriter;
+import com.banking.util.HibernateUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Posts money movements: the ledger rows and the balance changes of a batch
+ * of postings in one database transaction.
+ *
+ * The postings are grouped by account and netted, so every account gets one
+ * UPDATE accounts SET balance = balance + net, and all of them go out as one
+ * JDBC batch in account ID order (concurrent posters lock the rows in the same
+ * order and cannot deadlock). The overdraft check is part of that UPDATE: an
+ * account whose net debit would take its balance below zero is left alone and
+ * all its postings in the batch are rejected, as are postings for unknown
+ * accounts. The ledger rows of the other accounts follow as one JDBC insert
+ * batch (IDs from the pooled BANK_TRANSACTION_SEQ) and the outbox messages for
+ * their subscribed channels as another, then the batch commits once.
+ *
+ * Only the net change is checked, so a debit covered by a credit in the same
+ * batch is accepted. A NULL balance counts as zero. Postings are not
+ * idempotent: use BankTransactionDAO.ingestTransaction for redelivering feeds.
+ *
+ * The outcome of every account is taken from the batch's update counts. A
+ * driver that only reports SUCCESS_NO_INFO leaves it unknown which accounts
+ * were updated, so the whole batch is rolled back instead of being guessed.
+ */
+public class PostingEngine {
+
+    public static final String POSTED_STATUS = "COMPLETED";
+
+    // A credit always applies; a debit only if the balance stays non-negative (NULL is zero)
+    private static final String ADJUST_BALANCE_SQL =
+        "UPDATE accounts SET balance = COALESCE(balance, 0) + ?, version = version + 1 " +
+        "WHERE id = ? AND (? >= 0 OR COALESCE(balance, 0) + ? >= 0)";
+
+    private static final String INSERT_TRANSACTION_SQL =
+        "INSERT INTO bank_transactions (id, tx_date, type, amount, status, account_id) " +
+        "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX_SQL =
+        "INSERT INTO notification_outbox (id, transaction_id, account_id, channel_id, payload, status, " +
+        "attempts, created_at, next_attempt_at) VALUES (?, ?, ?, ?, ?, ?, 0, ?, ?)";
+
+    private static final String SUBSCRIPTIONS_SQL =
+        "SELECT account_id, channel_id FROM account_subscriptions WHERE account_id IN (%s)";
+
+    // Oracle's limit for an IN list
+    private static final int MAX_IN_LIST = 1000;
+
+    private final SessionFactory sessionFactory;
+
+    // Application SessionFactory (notifications use the SubscriptionIndex when it is loaded)
+    public PostingEngine() {
+        this(null);
+    }
+
+    // A specific SessionFactory, e.g. one shard's (subscriptions are queried)
+    public PostingEngine(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    private SessionFactory writeFactory() {
+        return sessionFactory != null ? sessionFactory : HibernateUtil.getSessionFactory();
+    }
+
+    // The SubscriptionIndex mirrors the application database only
+    private boolean indexLoaded() {
+        return sessionFactory == null && SubscriptionIndex.getInstance().isLoaded();
+    }
+
+    /**
+     * Posts the batch in one transaction: one balance UPDATE batch, one ledger
+     * INSERT batch, one outbox INSERT batch, one commit. Rejected postings
+     * write nothing; anything else that fails rolls the whole batch back.
+     */
+    public PostingResult post(Collection<Posting> postings) {
+        long start = System.currentTimeMillis();
+
+        // Net change and postings per account, in account ID order
+        TreeMap<Long, BigDecimal> netChanges = new TreeMap<>();
+        Map<Long, List<Posting>> byAccount = new HashMap<>();
+        for (Posting posting : postings) {
+            netChanges.merge(posting.getAccountId(), posting.getSignedAmount(), BigDecimal::add);
+            byAccount.computeIfAbsent(posting.getAccountId(), id -> new ArrayList<>()).add(posting);
+        }
+        if (netChanges.isEmpty()) {
+            return new PostingResult(0, Collections.<Posting>emptyList(), 0, 0, 0L);
+        }
+
+        SessionFactory factory = writeFactory();
+        StatelessSession session = factory.openStatelessSession();
+        Transaction tx = null;
+        try {
+            tx = session.beginTransaction();
+            PostingResult result = session.doReturningWork(connection -> {
+                List<Long> updated = updateBalances(connection, netChanges);
+                List<Posting> rejected = new ArrayList<>();
+                if (updated.size() < netChanges.size()) {
+                    Set<Long> applied = new HashSet<>(updated);
+                    for (Long accountId : netChanges.keySet()) {
+                        if (!applied.contains(accountId)) {
+                            rejected.addAll(byAccount.get(accountId));
+                        }
+                    }
+                }
+                int notifications = 0;
+                int posted = 0;
+                if (!updated.isEmpty()) {
+                    Map<Long, List<Long>> channels = subscribedChannels(connection, updated);
+                    List<Object[]> messages = new ArrayList<>();
+                    posted = insertTransactions(connection, session, factory, updated, byAccount, channels, messages);
+                    notifications = insertMessages(connection, session, factory, messages);
+                }
+                return new PostingResult(posted, rejected, updated.size(), notifications,
+                    System.currentTimeMillis() - start);
+            });
+            tx.commit();
+            return result;
+
+        } catch (RuntimeException e) {
+            if (tx != null && tx.isActive()) {
+                tx.rollback();
+            }
+            System.err.println("Error posting " + postings.size() + " posting(s): " + e.getMessage());
+            throw e;
+        } finally {
+            session.close();
+        }
+    }
+
+    // One batch; returns the accounts that were updated (in account ID order)
+    private static List<Long> updateBalances(Connection connection, TreeMap<Long, BigDecimal> netChanges)
+            throws SQLException {
+        List<Long> accountIds = new ArrayList<>(netChanges.keySet());
+        List<Long> updated = new ArrayList<>(accountIds.size());
+        try (PreparedStatement update = connection.prepareStatement(ADJUST_BALANCE_SQL)) {
+            for (Map.Entry<Long, BigDecimal> change : netChanges.entrySet()) {
+                update.setBigDecimal(1, change.getValue());
+                update.setLong(2, change.getKey());
+                update.setBigDecimal(3, change.getValue());
+                update.setBigDecimal(4, change.getValue());
+                update.addBatch();
+            }
+            int[] updateCounts = update.executeBatch();
+            if (updateCounts.length != accountIds.size()) {
+                throw new IllegalStateException("Balance batch returned " + updateCounts.length +
+                    " update count(s) for " + accountIds.size() + " account(s)");
+            }
+            for (int i = 0; i < updateCounts.length; i++) {
+                // Without a row count a rejected debit cannot be told apart from an applied one
+                if (updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                    throw new IllegalStateException("The JDBC driver reported no update count for account " +
+                        accountIds.get(i) + "; cannot tell which balances were changed");
+                }
+                if (updateCounts[i] > 0) {
+                    updated.add(accountIds.get(i));
+                }
+            }
+        }
+        return updated;
+    }
+
+    // Channel IDs per account: from the SubscriptionIndex, or one query per 1000 accounts
+    private Map<Long, List<Long>> subscribedChannels(Connection connection, List<Long> accountIds) throws SQLException {
+        Map<Long, List<Long>> channels = new HashMap<>();
+        if (indexLoaded()) {
+            SubscriptionIndex index = SubscriptionIndex.getInstance();
+            for (Long accountId : accountIds) {
+                List<Long> channelIds = index.channelsFor(accountId);
+                if (!channelIds.isEmpty()) {
+                    channels.put(accountId, channelIds);
+                }
+            }
+            return channels;
+        }
+        for (int from = 0; from < accountIds.size(); from += MAX_IN_LIST) {
+            List<Long> chunk = accountIds.subList(from, Math.min(accountIds.size(), from + MAX_IN_LIST));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            try (PreparedStatement select = connection.prepareStatement(String.format(SUBSCRIPTIONS_SQL, placeholders))) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    select.setLong(i + 1, chunk.get(i));
+                }
+                try (ResultSet resultSet = select.executeQuery()) {
+                    while (resultSet.next()) {
+                        channels.computeIfAbsent(resultSet.getLong(1), id -> new ArrayList<>()).add(resultSet.getLong(2));
+                    }
+                }
+            }
+        }
+        return channels;
+    }
+
+    // One batch of ledger rows; collects {transaction ID, account ID, channel ID, payload} per notification
+    private static int insertTransactions(Connection connection, StatelessSession session, SessionFactory factory,
+                                          List<Long> accountIds, Map<Long, List<Posting>> byAccount,
+                                          Map<Long, List<Long>> channels, List<Object[]> messages) throws SQLException {
+        int count = 0;
+        for (Long accountId : accountIds) {
+            count += byAccount.get(accountId).size();
+        }
+        long[] ids = allocateIds(session, factory, BankTransaction.class, count);
+        int rows = 0;
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_TRANSACTION_SQL)) {
+            for (Long accountId : accountIds) {
+                List<Long> channelIds = channels.getOrDefault(accountId, Collections.<Long>emptyList());
+                for (Posting posting : byAccount.get(accountId)) {
+                    long id = ids[rows];
+                    insert.setLong(1, id);
+                    insert.setDate(2, java.sql.Date.valueOf(posting.getTxDate()));
+                    insert.setString(3, posting.getType());
+                    insert.setBigDecimal(4, posting.getAmount());
+                    insert.setString(5, POSTED_STATUS);
+                    insert.setLong(6, accountId);
+                    insert.addBatch();
+                    rows++;
+                    if (!channelIds.isEmpty()) {
+                        String payload = OutboxWriter.payload(posting.getType(), posting.getAmount(),
+                            "#" + accountId, POSTED_STATUS);
+                        for (Long channelId : channelIds) {
+                            messages.add(new Object[] {id, accountId, channelId, payload});
+                        }
+                    }
+                }
+            }
+            insert.executeBatch();
+        }
+        return rows;
+    }
+
+    // One batch of PENDING outbox rows (delivered by OutboxRelay)
+    private static int insertMessages(Connection connection, StatelessSession session, SessionFactory factory,
+                                      List<Object[]> messages) throws SQLException {
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        long[] ids = allocateIds(session, factory, OutboxMessage.class, messages.size());
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        try (PreparedStatement insert = connection.prepareStatement(INSERT_OUTBOX_SQL)) {
+            for (int i = 0; i < messages.size(); i++) {
+                Object[] message = messages.get(i);
+                insert.setLong(1, ids[i]);
+                insert.setLong(2, (Long) message[0]);
+                insert.setLong(3, (Long) message[1]);
+                insert.setLong(4, (Long) message[2]);
+                insert.setString(5, (String) message[3]);
+                insert.setString(6, OutboxMessage.PENDING);
+                insert.setTimestamp(7, now);
+                insert.setTimestamp(8, now);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+        return messages.size();
+    }
+
+    // IDs for a whole batch before it is built. The sequences are pooled (allocationSize 50), so this
+    // costs one sequence call per 50 rows; the rest are handed out in memory
+    private static long[] allocateIds(StatelessSession session, SessionFactory factory, Class<?> entity, int count) {
+        IdentifierGenerator idGenerator = factory.unwrap(SessionFactoryImplementor.class)
+            .getMetamodel().entityPersister(entity).getIdentifierGenerator();
+        long[] ids = new long[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = (Long) idGenerator.generate((SharedSessionContractImplementor) session, null);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,58 @@
+package com.banking.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Outcome of one {@link PostingEngine#post} call (one database transaction).
+ */
+public class PostingResult {
+
+    private final int posted;
+    private final List<Posting> rejected;
+    private final int accountsUpdated;
+    private final int notifications;
+    private final long elapsedMillis;
+
+    PostingResult(int posted, List<Posting> rejected, int accountsUpdated, int notifications, long elapsedMillis) {
+        this.posted = posted;
+        this.rejected = Collections.unmodifiableList(rejected);
+        this.accountsUpdated = accountsUpdated;
+        this.notifications = notifications;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Ledger rows written
+    public int getPosted() {
+        return posted;
+    }
+
+    // Postings of accounts whose net debit would overdraw them, or that do not exist
+    public List<Posting> getRejected() {
+        return rejected;
+    }
+
+    public int getAccountsUpdated() {
+        return accountsUpdated;
+    }
+
+    // Outbox messages queued for the posted rows
+    public int getNotifications() {
+        return notifications;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "PostingResult{" +
+                "posted=" + posted +
+                ", rejected=" + rejected.size() +
+                ", accountsUpdated=" + accountsUpdated +
+                ", notifications=" + notifications +
+                ", elapsedMillis=" + elapsedMillis +
+                '}';
+    }
+}
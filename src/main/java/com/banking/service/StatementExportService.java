@@ -0,0 +1,211 @@
+package com.banking.service;
+
+import com.banking.util.HibernateUtil;
+import com.banking.util.PerformanceProfiles;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Account statement export.
+ *
+ * Streams bank_transactions from a JDBC cursor straight into CSV or the
+ * compact binary format (see {@link StatementFormat}) instead of loading
+ * entity lists and formatting Strings: every row is encoded into a reusable
+ * direct buffer that is written to an NIO channel when full, so memory use
+ * does not grow with the number of rows.
+ *
+ * {@link #exportAll} splits the account ID range into partitions that are
+ * exported in parallel, one file per partition; each partition reads its
+ * accounts in chunks of chunkSize account IDs (one query per chunk).
+ */
+public class StatementExportService {
+
+    private static final String ACCOUNT_RANGE_SQL = "SELECT MIN(id), MAX(id) FROM accounts";
+
+    // Ordered for statements: per account, by date (index idx_tx_account_date when present)
+    private static final String STATEMENT_SQL =
+        "SELECT t.account_id, t.id, t.tx_date, t.type, t.amount, t.status " +
+        "FROM bank_transactions t " +
+        "WHERE t.account_id BETWEEN ? AND ? AND t.tx_date BETWEEN ? AND ? " +
+        "ORDER BY t.account_id, t.tx_date, t.id";
+
+    private static final int FETCH_SIZE = 1000;
+    private static final int BUFFER_BYTES = 256 * 1024;
+
+    private final SessionFactory sessionFactory;
+    private final int partitions;
+    private final int chunkSize;
+
+    public StatementExportService() {
+        this(HibernateUtil.getSessionFactory(PerformanceProfiles.REPORTING), Runtime.getRuntime().availableProcessors(), 1000);
+    }
+
+    /**
+     * @param partitions number of account ID ranges exported in parallel (one file each)
+     * @param chunkSize  account IDs per query
+     */
+    public StatementExportService(SessionFactory sessionFactory, int partitions, int chunkSize) {
+        this.sessionFactory = sessionFactory;
+        this.partitions = Math.max(1, partitions);
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Writes one account's statement for [from, to] to the channel (left open).
+     *
+     * @return the number of transactions written
+     */
+    public long exportAccount(Long accountId, LocalDate from, LocalDate to, StatementFormat format,
+                              WritableByteChannel channel) throws IOException {
+        StatementWriter writer = new StatementWriter(format, ByteBuffer.allocate(BUFFER_BYTES));
+        writer.open(channel);
+        exportRange(writer, accountId, accountId, from, to);
+        writer.flush();
+        return writer.getRows();
+    }
+
+    /**
+     * Exports the statements of all accounts for [from, to] into directory,
+     * one file statements-NNN.&lt;extension&gt; per partition.
+     */
+    public ExportRunReport exportAll(Path directory, LocalDate from, LocalDate to, StatementFormat format)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        ExportRunReport report = new ExportRunReport(format, partitions);
+        Files.createDirectories(directory);
+
+        long[] range = accountRange();
+        if (range != null) {
+            long span = range[1] - range[0] + 1;
+            long partitionSize = (span + partitions - 1) / partitions;
+
+            ExecutorService executor = Executors.newFixedThreadPool(partitions);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                int partition = 0;
+                for (long first = range[0]; first <= range[1]; first += partitionSize) {
+                    long partitionFrom = first;
+                    long partitionTo = Math.min(range[1], first + partitionSize - 1);
+                    Path file = directory.resolve(String.format("statements-%03d.%s", partition++, format.getExtension()));
+                    futures.add(executor.submit(() ->
+                        exportPartition(file, format, partitionFrom, partitionTo, from, to, report)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Statement export was interrupted", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof UncheckedIOException) {
+                    throw ((UncheckedIOException) e.getCause()).getCause();
+                }
+                throw new IllegalStateException("Statement export failed", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        report.setElapsedMillis(System.currentTimeMillis() - start);
+        System.out.println("✓ Statement export completed: " + report);
+        return report;
+    }
+
+    private long[] accountRange() {
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            return session.doReturningWork(connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(ACCOUNT_RANGE_SQL);
+                     ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    long min = resultSet.getLong(1);
+                    if (resultSet.wasNull()) {
+                        return null;
+                    }
+                    return new long[] {min, resultSet.getLong(2)};
+                }
+            });
+        } finally {
+            session.close();
+        }
+    }
+
+    // One file and one buffer per partition, reused for all of its chunks
+    private void exportPartition(Path file, StatementFormat format, long fromAccountId, long toAccountId,
+                                 LocalDate from, LocalDate to, ExportRunReport report) {
+        StatementWriter writer = new StatementWriter(format, ByteBuffer.allocateDirect(BUFFER_BYTES));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            writer.open(channel);
+            for (long chunkFrom = fromAccountId; chunkFrom <= toAccountId; chunkFrom += chunkSize) {
+                exportRange(writer, chunkFrom, Math.min(toAccountId, chunkFrom + chunkSize - 1), from, to);
+            }
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("Error exporting accounts " + fromAccountId + ".." + toAccountId + ": " + e.getMessage());
+            throw new UncheckedIOException(e);
+        }
+        report.recordFile(file, writer.getRows(), writer.getBytesWritten());
+    }
+
+    private void exportRange(StatementWriter writer, long fromAccountId, long toAccountId,
+                             LocalDate from, LocalDate to) throws IOException {
+        StatelessSession session = sessionFactory.openStatelessSession();
+        try {
+            session.doWork(connection -> {
+                try {
+                    streamRows(connection, writer, fromAccountId, toAccountId, from, to);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            session.close();
+        }
+    }
+
+    private static void streamRows(Connection connection, StatementWriter writer, long fromAccountId, long toAccountId,
+                                   LocalDate from, LocalDate to) throws SQLException, IOException {
+        try (PreparedStatement select = connection.prepareStatement(STATEMENT_SQL)) {
+            select.setFetchSize(FETCH_SIZE);
+            select.setLong(1, fromAccountId);
+            select.setLong(2, toAccountId);
+            select.setDate(3, java.sql.Date.valueOf(from));
+            select.setDate(4, java.sql.Date.valueOf(to));
+            try (ResultSet resultSet = select.executeQuery()) {
+                while (resultSet.next()) {
+                    java.sql.Date txDate = resultSet.getDate(3);
+                    BigDecimal amount = resultSet.getBigDecimal(5);
+                    writer.write(resultSet.getLong(1), resultSet.getLong(2),
+                        txDate != null ? txDate.toLocalDate() : null,
+                        resultSet.getString(4),
+                        amount != null ? amount.movePointRight(2).longValue() : 0L,
+                        resultSet.getString(6));
+                }
+            }
+        }
+    }
+}
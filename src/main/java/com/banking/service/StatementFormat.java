@@ -0,0 +1,28 @@
+package com.banking.service;
+
+/**
+ * Output formats of {@link StatementExportService}.
+ *
+ * CSV: header line, then
+ * account_id,transaction_id,tx_date (yyyy-MM-dd),type,amount (two decimals),status
+ *
+ * BINARY: the 8 ASCII bytes "BKSTMT01", then per row (big-endian, readable
+ * with DataInputStream): long account ID, long transaction ID, int epoch day
+ * (Integer.MIN_VALUE when null), byte type (0 CREDIT, 1 DEBIT), long amount in
+ * minor units (cents), byte status length and the status in UTF-8.
+ */
+public enum StatementFormat {
+
+    CSV("csv"),
+    BINARY("bin");
+
+    private final String extension;
+
+    StatementFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+}
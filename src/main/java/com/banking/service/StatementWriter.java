@@ -0,0 +1,181 @@
+package com.banking.service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Encodes statement rows straight into one reusable byte buffer and writes it
+ * to a channel whenever it fills up. Numbers and dates are written digit by
+ * digit, so no Strings are built per row.
+ */
+class StatementWriter {
+
+    static final byte[] BINARY_MAGIC = "BKSTMT01".getBytes(StandardCharsets.US_ASCII);
+    static final byte[] CSV_HEADER =
+        "account_id,transaction_id,tx_date,type,amount,status\n".getBytes(StandardCharsets.US_ASCII);
+
+    // Longest encoded row without its strings (CSV: two longs, date, amount and separators)
+    private static final int MAX_FIXED_ROW_BYTES = 96;
+
+    private final StatementFormat format;
+    private final ByteBuffer buffer;
+    private final byte[] digits = new byte[20];
+    private WritableByteChannel channel;
+    private long bytesWritten;
+    private long rows;
+
+    StatementWriter(StatementFormat format, ByteBuffer buffer) {
+        this.format = format;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Starts a new output (the buffer is reused) and writes the format header.
+     */
+    void open(WritableByteChannel target) throws IOException {
+        this.channel = target;
+        this.bytesWritten = 0;
+        this.rows = 0;
+        buffer.clear();
+        buffer.put(format == StatementFormat.CSV ? CSV_HEADER : BINARY_MAGIC);
+    }
+
+    void write(long accountId, long transactionId, LocalDate txDate, String type, long amountMinor, String status)
+            throws IOException {
+        ensure(MAX_FIXED_ROW_BYTES + 2 * (length(type) + length(status)) + 8);
+        if (format == StatementFormat.CSV) {
+            putDecimal(accountId);
+            buffer.put((byte) ',');
+            putDecimal(transactionId);
+            buffer.put((byte) ',');
+            if (txDate != null) {
+                putPadded(txDate.getYear(), 4);
+                buffer.put((byte) '-');
+                putPadded(txDate.getMonthValue(), 2);
+                buffer.put((byte) '-');
+                putPadded(txDate.getDayOfMonth(), 2);
+            }
+            buffer.put((byte) ',');
+            putCsvText(type);
+            buffer.put((byte) ',');
+            if (amountMinor < 0) {
+                buffer.put((byte) '-');
+            }
+            long absolute = Math.abs(amountMinor);
+            putDecimal(absolute / 100);
+            buffer.put((byte) '.');
+            putPadded((int) (absolute % 100), 2);
+            buffer.put((byte) ',');
+            putCsvText(status);
+            buffer.put((byte) '\n');
+        } else {
+            buffer.putLong(accountId);
+            buffer.putLong(transactionId);
+            buffer.putInt(txDate != null ? (int) txDate.toEpochDay() : Integer.MIN_VALUE);
+            buffer.put("DEBIT".equals(type) ? (byte) 1 : (byte) 0);
+            buffer.putLong(amountMinor);
+            putShortText(status);
+        }
+        rows++;
+    }
+
+    /**
+     * Writes what is buffered; the channel stays open.
+     */
+    void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+
+    private void putDecimal(long value) {
+        if (value < 0) {
+            buffer.put((byte) '-');
+            if (value == Long.MIN_VALUE) {
+                buffer.put("9223372036854775808".getBytes(StandardCharsets.US_ASCII));
+                return;
+            }
+            value = -value;
+        }
+        int count = 0;
+        do {
+            digits[count++] = (byte) ('0' + value % 10);
+            value /= 10;
+        } while (value > 0);
+        while (count > 0) {
+            buffer.put(digits[--count]);
+        }
+    }
+
+    private void putPadded(int value, int width) {
+        for (int divisor = width == 4 ? 1000 : 10; divisor > 0; divisor /= 10) {
+            buffer.put((byte) ('0' + value / divisor % 10));
+        }
+    }
+
+    // ASCII is copied char by char; quotes, separators and other characters take the slow path
+    private void putCsvText(String text) {
+        if (text == null) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 0x80 || c == ',' || c == '"' || c == '\n' || c == '\r') {
+                buffer.put(('"' + text.replace("\"", "\"\"") + '"').getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        for (int i = 0; i < text.length(); i++) {
+            buffer.put((byte) text.charAt(i));
+        }
+    }
+
+    // Length byte and UTF-8 (truncated to 255 bytes)
+    private void putShortText(String text) {
+        String value = text != null ? text : "";
+        if (value.length() <= 255 && isAscii(value)) {
+            buffer.put((byte) value.length());
+            for (int i = 0; i < value.length(); i++) {
+                buffer.put((byte) value.charAt(i));
+            }
+        } else {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            int length = Math.min(255, bytes.length);
+            buffer.put((byte) length);
+            buffer.put(bytes, 0, length);
+        }
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Upper bound of the encoded length (UTF-8 needs up to 3 bytes per char, quoting doubles quotes)
+    private static int length(String text) {
+        return text != null ? 3 * text.length() + 2 : 0;
+    }
+}
@@ -0,0 +1,25 @@
+package com.banking.shard;
+
+/**
+ * customerId mod shardCount.
+ *
+ * Works together with per-shard sequences: on shard k of N, CUSTOMER_SEQ
+ * starts at N + k and increments by N (see db_script.txt), so every ID a
+ * shard generates maps back to that shard.
+ */
+public class ModuloShardResolver implements ShardResolver {
+
+    private final int shardCount;
+
+    public ModuloShardResolver(int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("shardCount must be at least 1: " + shardCount);
+        }
+        this.shardCount = shardCount;
+    }
+
+    @Override
+    public int shardFor(long customerId) {
+        return (int) Math.floorMod(customerId, (long) shardCount);
+    }
+}
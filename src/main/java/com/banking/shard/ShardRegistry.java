@@ -0,0 +1,156 @@
+package com.banking.shard;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.hibernate.SessionFactory;
+
+import com.banking.util.HibernateConfig;
+
+/**
+ * One SessionFactory per shard plus the resolver that picks a shard for a
+ * customer ID.
+ *
+ * Shards are configured in hibernate.cfg.xml (or system properties) with
+ * banking.shards.count=N and banking.shard.&lt;n&gt;.hibernate.* settings that
+ * override the shared ones for shard n, typically the connection URL and
+ * credentials. Work for one customer goes to {@link #forCustomer(long)};
+ * cross-shard reads use {@link #scatterGather(Function)}.
+ */
+public class ShardRegistry {
+
+    private final List<SessionFactory> shards;
+    private final ShardResolver resolver;
+    private final ExecutorService executor;
+    private final AtomicInteger nextPlacement = new AtomicInteger();
+    // True on this registry's pool threads
+    private final ThreadLocal<Boolean> onPoolThread = ThreadLocal.withInitial(() -> Boolean.FALSE);
+
+    public ShardRegistry(List<SessionFactory> shards, ShardResolver resolver) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+        this.resolver = resolver;
+        this.executor = Executors.newFixedThreadPool(shards.size(), runnable -> {
+            Thread thread = new Thread(() -> {
+                onPoolThread.set(Boolean.TRUE);
+                runnable.run();
+            }, "shard-scatter-gather");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Builds one SessionFactory per configured shard with a {@link ModuloShardResolver}.
+     *
+     * @param overrides settings shared by all shards (highest precedence before the per-shard ones)
+     */
+    public static ShardRegistry fromSettings(Properties overrides) {
+        Map<String, Object> settings = HibernateConfig.loadSettings(overrides);
+        int shardCount = HibernateConfig.getInt(settings, HibernateConfig.SHARD_COUNT, 0);
+        if (shardCount < 1) {
+            throw new IllegalStateException(HibernateConfig.SHARD_COUNT + " must be at least 1 to use sharding");
+        }
+
+        List<SessionFactory> shards = new ArrayList<>(shardCount);
+        try {
+            for (int shard = 0; shard < shardCount; shard++) {
+                Properties shardOverrides = new Properties();
+                shardOverrides.putAll(overrides);
+                shardOverrides.putAll(HibernateConfig.prefixedSettings(settings, HibernateConfig.SHARD_PREFIX + shard + "."));
+                shards.add(HibernateConfig.buildSessionFactory(shardOverrides));
+                System.out.println("✓ Shard " + shard + " SessionFactory initialized");
+            }
+        } catch (RuntimeException e) {
+            for (SessionFactory built : shards) {
+                built.close();
+            }
+            throw e;
+        }
+        return new ShardRegistry(shards, new ModuloShardResolver(shardCount));
+    }
+
+    public int getShardCount() {
+        return shards.size();
+    }
+
+    public SessionFactory getShard(int index) {
+        return shards.get(index);
+    }
+
+    public List<SessionFactory> getShards() {
+        return shards;
+    }
+
+    public int shardIndexFor(long customerId) {
+        return resolver.shardFor(customerId);
+    }
+
+    /**
+     * The shard that owns the customer and all of its accounts and transactions.
+     */
+    public SessionFactory forCustomer(long customerId) {
+        return shards.get(shardIndexFor(customerId));
+    }
+
+    /**
+     * Shard for a new customer (round robin); its ID is only known after the insert.
+     */
+    public int nextPlacementShard() {
+        return Math.floorMod(nextPlacement.getAndIncrement(), shards.size());
+    }
+
+    /**
+     * Runs the work on every shard in parallel. Called from within scatter-gather
+     * work (a nested call), it runs the shards one after another on the calling
+     * thread: the pool has one thread per shard, and waiting on it from its own
+     * threads could block all of them.
+     *
+     * @return one result per shard, in shard order
+     */
+    public <T> List<T> scatterGather(Function<SessionFactory, T> work) {
+        if (onPoolThread.get()) {
+            List<T> results = new ArrayList<>(shards.size());
+            for (SessionFactory shard : shards) {
+                results.add(work.apply(shard));
+            }
+            return results;
+        }
+        List<Future<T>> futures = new ArrayList<>(shards.size());
+        for (SessionFactory shard : shards) {
+            futures.add(executor.submit(() -> work.apply(shard)));
+        }
+        List<T> results = new ArrayList<>(shards.size());
+        for (int shard = 0; shard < futures.size(); shard++) {
+            try {
+                results.add(futures.get(shard).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for shard " + shard, e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Query failed on shard " + shard, e.getCause());
+            }
+        }
+        return results;
+    }
+
+    public void close() {
+        executor.shutdownNow();
+        for (SessionFactory shard : shards) {
+            if (!shard.isClosed()) {
+                shard.close();
+            }
+        }
+    }
+}
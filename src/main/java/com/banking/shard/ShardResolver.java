@@ -0,0 +1,13 @@
+package com.banking.shard;
+
+/**
+ * Maps a customer ID to the shard that owns the customer, its KYC profile,
+ * accounts, subscriptions and transactions.
+ */
+public interface ShardResolver {
+
+    /**
+     * @return 0-based shard index
+     */
+    int shardFor(long customerId);
+}
@@ -1,68 +1,105 @@
 package com.banking.util;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Properties;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
 import org.hibernate.SessionFactory;
+import org.hibernate.boot.Metadata;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.cfgxml.spi.LoadedConfig;
+import org.hibernate.boot.registry.StandardServiceRegistry;
 import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
-import org.hibernate.cfg.Configuration;
-import org.hibernate.cfg.Environment;
-import org.hibernate.service.ServiceRegistry;
-
-import com.banking.entity.Account;
-import com.banking.entity.AccountSubscription;
-import com.banking.entity.BankTransaction;
-import com.banking.entity.Customer;
-import com.banking.entity.KycProfile;
-import com.banking.entity.RefNotificationChannel;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
 
+/**
+ * Builds the SessionFactory from hibernate.cfg.xml, which is the single source
+ * of connection settings and mapped entity classes.
+ *
+ * Any hibernate.* or banking.* system property (-Dhibernate.connection.url=...)
+ * overrides the value from hibernate.cfg.xml, and callers can pass further
+ * overrides to {@link #buildSessionFactory(Properties)}.
+ */
 public class HibernateConfig {
 
+    public static final String CONFIG_RESOURCE = "hibernate.cfg.xml";
+
+    // Skip the JDBC metadata lookups Hibernate performs while bootstrapping
+    // (requires hibernate.dialect to be set explicitly)
+    public static final String SKIP_JDBC_METADATA = "banking.bootstrap.skip_jdbc_metadata";
+    public static final String USE_JDBC_METADATA_DEFAULTS = "hibernate.temp.use_jdbc_metadata_defaults";
+
+    // Print the startup timing and named query reports after bootstrap
+    public static final String STARTUP_REPORT = "banking.bootstrap.startup_report";
+    public static final String NAMED_QUERY_REPORT = "banking.bootstrap.named_query_report";
+
+    // Load the in-memory SubscriptionIndex as part of startup
+    public static final String SUBSCRIPTION_INDEX_ON_STARTUP = "banking.subscription_index.load_on_startup";
+
+    // IDs per statement for the DAOs' getByIds multi-loads
+    public static final String MULTI_LOAD_BATCH_SIZE = "banking.multi_load.batch_size";
+
+    // Read replica: banking.replica.hibernate.* settings override the primary's for the replica factory
+    public static final String REPLICA_ENABLED = "banking.replica.enabled";
+    public static final String REPLICA_PREFIX = "banking.replica.";
+    public static final String REPLICA_READ_YOUR_WRITES_MILLIS = "banking.replica.read_your_writes_millis";
+
+    // Sharding: banking.shard.<n>.hibernate.* settings override the defaults for shard n (0-based)
+    public static final String SHARD_COUNT = "banking.shards.count";
+    public static final String SHARD_PREFIX = "banking.shard.";
+
+    // Idempotent ingestion: in-memory filter over bank_transactions.idempotency_key
+    public static final String IDEMPOTENCY_ON_STARTUP = "banking.idempotency.load_on_startup";
+    public static final String IDEMPOTENCY_EXPECTED_KEYS = "banking.idempotency.expected_keys";
+    public static final String IDEMPOTENCY_FALSE_POSITIVE_RATE = "banking.idempotency.false_positive_rate";
+    public static final String IDEMPOTENCY_RECENT_KEYS = "banking.idempotency.recent_keys";
+    public static final String IDEMPOTENCY_CATCH_UP_OVERLAP = "banking.idempotency.catch_up_overlap";
+
+    // Columnar ledger cache for analytics (LedgerColumnStore)
+    public static final String LEDGER_CACHE_ON_STARTUP = "banking.ledger_cache.load_on_startup";
+    public static final String LEDGER_CACHE_REFRESH_MILLIS = "banking.ledger_cache.refresh_millis";
+    public static final String LEDGER_CACHE_CATCH_UP_OVERLAP = "banking.ledger_cache.catch_up_overlap";
+
+    // Snapshot files for warm restarts of the in-memory caches (blank = off)
+    public static final String SNAPSHOT_DIR = "banking.snapshot.dir";
+
+    // Notification outbox relay (OutboxRelay)
+    public static final String OUTBOX_BATCH_SIZE = "banking.outbox.batch_size";
+    public static final String OUTBOX_MAX_ATTEMPTS = "banking.outbox.max_attempts";
+    public static final String OUTBOX_RETRY_BACKOFF_MILLIS = "banking.outbox.retry_backoff_millis";
+    public static final String OUTBOX_LEASE_MILLIS = "banking.outbox.lease_millis";
+    public static final String OUTBOX_POLL_INTERVAL_MILLIS = "banking.outbox.poll_interval_millis";
+    public static final String OUTBOX_MAX_CONCURRENCY = "banking.outbox.max_concurrency";
+    public static final String OUTBOX_CHANNEL_PREFIX = "banking.outbox.channel.";
+
+    // Performance profiles: hibernate-<name>.properties on the classpath, then banking.profile.<name>.* settings
+    public static final String PROFILE_RESOURCE = "hibernate-%s.properties";
+    public static final String PROFILE_PREFIX = "banking.profile.";
+
+    public static final String CONNECTION_PREFIX = "hibernate.connection.";
+    public static final String DIALECT = "hibernate.dialect";
+    public static final String USE_SECOND_LEVEL_CACHE = "hibernate.cache.use_second_level_cache";
+    public static final String JCACHE_PROVIDER = "hibernate.javax.cache.provider";
+    public static final String JCACHE_CACHE_MANAGER = "hibernate.javax.cache.cache_manager";
+
     private static SessionFactory sessionFactory;
+    private static StartupReport startupReport;
 
-    public static SessionFactory getSessionFactory() {
+    public static synchronized SessionFactory getSessionFactory() {
         if (sessionFactory == null) {
             try {
-                Configuration configuration = new Configuration();
-
-                // Hibernate settings equivalent to hibernate.cfg.xml's properties
-                Properties settings = new Properties();
-                
-                // Database connection settings
-                settings.put(Environment.DRIVER, "oracle.jdbc.driver.OracleDriver");
-                settings.put(Environment.URL, "*********************************************");
-                settings.put(Environment.USER, "*********************************************");
-                settings.put(Environment.PASS, "*********************************************");
-                
-                // Dialect
-                settings.put(Environment.DIALECT, "org.hibernate.dialect.Oracle10gDialect");
-                
-                // SQL settings
-                settings.put(Environment.SHOW_SQL, "true");
-                settings.put(Environment.FORMAT_SQL, "true");
-                settings.put(Environment.USE_SQL_COMMENTS, "true");
-                
-                // Connection pool
-                settings.put(Environment.POOL_SIZE, "10");
-                
-                // Current session context
-                settings.put(Environment.CURRENT_SESSION_CONTEXT_CLASS, "thread");
-
-                configuration.setProperties(settings);
-
-                // Add annotated entity classes
-                configuration.addAnnotatedClass(RefNotificationChannel.class);
-                configuration.addAnnotatedClass(KycProfile.class);
-                configuration.addAnnotatedClass(Customer.class);
-                configuration.addAnnotatedClass(Account.class);
-                configuration.addAnnotatedClass(BankTransaction.class);
-                configuration.addAnnotatedClass(AccountSubscription.class);
-
-                ServiceRegistry serviceRegistry = new StandardServiceRegistryBuilder()
-                        .applySettings(configuration.getProperties()).build();
-
-                sessionFactory = configuration.buildSessionFactory(serviceRegistry);
-                
-                System.out.println("✓ Hibernate SessionFactory initialized with annotation-based configuration");
-                
+                sessionFactory = buildSessionFactory(new Properties());
+
+                System.out.println("✓ Hibernate SessionFactory initialized from " + CONFIG_RESOURCE);
+
             } catch (Exception e) {
                 System.err.println("Failed to create SessionFactory: " + e);
                 e.printStackTrace();
@@ -71,9 +108,195 @@ public class HibernateConfig {
         return sessionFactory;
     }
 
-    public static void shutdown() {
+    /**
+     * Builds a new SessionFactory from hibernate.cfg.xml, system properties and
+     * the given overrides (highest precedence). The bootstrap is timed per phase;
+     * the timings are available from {@link #getStartupReport()}.
+     */
+    public static SessionFactory buildSessionFactory(Properties overrides) {
+        StartupReport report = new StartupReport();
+        StandardServiceRegistry registry = null;
+        try {
+            StandardServiceRegistryBuilder registryBuilder = new StandardServiceRegistryBuilder();
+            LoadedConfig config = registryBuilder.getConfigLoader().loadConfigXmlResource(CONFIG_RESOURCE);
+            Map<String, Object> settings = layeredSettings(config, overrides);
+            registryBuilder.configure(config).applySettings(settings);
+
+            if (getBoolean(settings, SKIP_JDBC_METADATA, false)) {
+                registryBuilder.applySetting(USE_JDBC_METADATA_DEFAULTS, "false");
+            }
+            // Each factory gets its own JCache CacheManager unless one is passed in: with the shared
+            // default manager, factories on different databases would share cache regions, and
+            // closing one factory would close the others' caches
+            if (getBoolean(settings, USE_SECOND_LEVEL_CACHE, false) && settings.get(JCACHE_CACHE_MANAGER) == null) {
+                registryBuilder.applySetting(JCACHE_CACHE_MANAGER, newCacheManager(settings));
+            }
+            report.phaseCompleted("Load configuration");
+
+            registry = registryBuilder.build();
+            report.phaseCompleted("Build service registry");
+
+            Metadata metadata = new MetadataSources(registry).buildMetadata();
+            report.phaseCompleted("Build mapping metadata");
+
+            SessionFactory factory = metadata.buildSessionFactory();
+            report.phaseCompleted("Build SessionFactory (named queries)");
+
+            if (getBoolean(settings, NAMED_QUERY_REPORT, true)) {
+                NamedQueryReport.print(factory, metadata);
+                report.phaseCompleted("Named query report");
+            }
+            if (getBoolean(settings, STARTUP_REPORT, true)) {
+                report.print();
+            }
+            startupReport = report;
+            return factory;
+
+        } catch (RuntimeException e) {
+            if (registry != null) {
+                StandardServiceRegistryBuilder.destroy(registry);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Timings of the most recent {@link #buildSessionFactory(Properties)} call.
+     */
+    public static StartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    public static synchronized void shutdown() {
         if (sessionFactory != null) {
             sessionFactory.close();
+            sessionFactory = null;
         }
     }
+
+    /**
+     * The layered settings (hibernate.cfg.xml < system properties < overrides)
+     * that {@link #buildSessionFactory(Properties)} would use, without building anything.
+     */
+    public static Map<String, Object> loadSettings(Properties overrides) {
+        LoadedConfig config = new StandardServiceRegistryBuilder().getConfigLoader().loadConfigXmlResource(CONFIG_RESOURCE);
+        return layeredSettings(config, overrides);
+    }
+
+    /**
+     * Settings under the given prefix with the prefix removed, e.g. for
+     * "banking.replica." the entry banking.replica.hibernate.connection.url
+     * becomes hibernate.connection.url.
+     */
+    public static Properties prefixedSettings(Map<?, ?> settings, String prefix) {
+        Properties stripped = new Properties();
+        for (Map.Entry<?, ?> entry : settings.entrySet()) {
+            String name = entry.getKey().toString();
+            if (name.startsWith(prefix) && name.length() > prefix.length()) {
+                stripped.put(name.substring(prefix.length()), entry.getValue());
+            }
+        }
+        return stripped;
+    }
+
+    /**
+     * Overrides for another SessionFactory on the same database as the given one: its
+     * connection, dialect and second-level cache settings (including any overrides it was
+     * built with) and its JCache CacheManager, so both factories share one second-level cache.
+     * Everything else, e.g. the session factory interceptor, comes from the layers
+     * {@link #buildSessionFactory(Properties)} applies to every factory.
+     */
+    public static Properties derivedSettings(SessionFactory base) {
+        SessionFactoryImplementor factory = base.unwrap(SessionFactoryImplementor.class);
+        // Not getProperties(): that copy has the connection password masked
+        Map<?, ?> settings = factory.getServiceRegistry().getService(ConfigurationService.class).getSettings();
+        Properties overrides = new Properties();
+        for (Map.Entry<?, ?> entry : settings.entrySet()) {
+            String name = entry.getKey().toString();
+            boolean derived = name.startsWith(CONNECTION_PREFIX) || name.equals(DIALECT) || name.equals(USE_SECOND_LEVEL_CACHE);
+            if (derived && entry.getValue() instanceof String) {
+                overrides.put(name, entry.getValue());
+            }
+        }
+        overrides.put(STARTUP_REPORT, "false");
+        overrides.put(NAMED_QUERY_REPORT, "false");
+        RegionFactory regionFactory = factory.getCache().getRegionFactory();
+        if (regionFactory instanceof JCacheRegionFactory) {
+            overrides.put(JCACHE_CACHE_MANAGER, ((JCacheRegionFactory) regionFactory).getCacheManager());
+        }
+        return overrides;
+    }
+
+    /**
+     * Settings of a named performance profile: hibernate-&lt;name&gt;.properties from the
+     * classpath, overridden by banking.profile.&lt;name&gt;.* entries in the given settings.
+     *
+     * @throws IllegalArgumentException if the profile has neither a file nor settings
+     */
+    public static Properties loadProfile(String name, Map<?, ?> settings) {
+        Properties profile = new Properties();
+        String resource = String.format(PROFILE_RESOURCE, name);
+        boolean found = false;
+        try (InputStream in = HibernateConfig.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in != null) {
+                profile.load(in);
+                found = true;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + resource, e);
+        }
+        Properties configured = prefixedSettings(settings, PROFILE_PREFIX + name + ".");
+        if (!found && configured.isEmpty()) {
+            throw new IllegalArgumentException("Unknown performance profile '" + name + "': no " + resource +
+                " and no " + PROFILE_PREFIX + name + ".* settings");
+        }
+        profile.putAll(configured);
+        return profile;
+    }
+
+    // hibernate.cfg.xml < system properties < overrides
+    private static Map<String, Object> layeredSettings(LoadedConfig config, Properties overrides) {
+        Map<String, Object> settings = new HashMap<>();
+        for (Object entry : config.getConfigurationValues().entrySet()) {
+            Map.Entry<?, ?> setting = (Map.Entry<?, ?>) entry;
+            settings.put(setting.getKey().toString(), setting.getValue());
+        }
+        for (Map.Entry<Object, Object> setting : systemOverrides().entrySet()) {
+            settings.put(setting.getKey().toString(), setting.getValue());
+        }
+        for (Map.Entry<Object, Object> setting : overrides.entrySet()) {
+            settings.put(setting.getKey().toString(), setting.getValue());
+        }
+        return settings;
+    }
+
+    // A new CacheManager; JCache keys managers by URI and class loader, so a fresh loader gives a fresh manager
+    private static CacheManager newCacheManager(Map<?, ?> settings) {
+        Object providerName = settings.get(JCACHE_PROVIDER);
+        CachingProvider provider = providerName != null
+                ? Caching.getCachingProvider(providerName.toString().trim())
+                : Caching.getCachingProvider();
+        ClassLoader loader = new ClassLoader(HibernateConfig.class.getClassLoader()) { };
+        return provider.getCacheManager(provider.getDefaultURI(), loader);
+    }
+
+    private static Properties systemOverrides() {
+        Properties overrides = new Properties();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            if (name.startsWith("hibernate.") || name.startsWith("banking.")) {
+                overrides.put(name, System.getProperty(name));
+            }
+        }
+        return overrides;
+    }
+
+    public static boolean getBoolean(Map<?, ?> settings, String name, boolean defaultValue) {
+        Object value = settings.get(name);
+        return value != null ? Boolean.parseBoolean(value.toString().trim()) : defaultValue;
+    }
+
+    public static int getInt(Map<?, ?> settings, String name, int defaultValue) {
+        Object value = settings.get(name);
+        return value != null ? Integer.parseInt(value.toString().trim()) : defaultValue;
+    }
 }
@@ -1,29 +1,229 @@
 package com.banking.util;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 import org.hibernate.SessionFactory;
 
+import com.banking.cache.IdempotencyFilter;
+import com.banking.cache.LedgerColumnStore;
+import com.banking.cache.SubscriptionIndex;
+import com.banking.shard.ShardRegistry;
+
+/**
+ * Owns the application SessionFactory lifecycle.
+ *
+ * Bootstrap is an explicit phase: call {@link #start()} (blocking) or
+ * {@link #startAsync()} (background) during application startup and use
+ * {@link #isReady()} / {@link #awaitReady(long, TimeUnit)} as the readiness
+ * signal. {@link #getSessionFactory()} still starts Hibernate on first use
+ * if nobody did so explicitly. Startup also loads the in-memory caches
+ * that are enabled in hibernate.cfg.xml (from banking.snapshot.dir when a
+ * snapshot is there) and, when banking.replica.enabled is
+ * set, the read replica used by {@link #getReadSessionFactory()}. Workload
+ * profiles ({@link #getSessionFactory(String)}) are built on first use.
+ */
 public class HibernateUtil {
 
-    private static final SessionFactory sessionFactory = buildSessionFactory();
+    private static CompletableFuture<SessionFactory> startup;
+    private static volatile ReadWriteRouter router;
+    private static ShardRegistry shardRegistry;
+    private static PerformanceProfiles profiles;
+
+    /**
+     * Starts building the SessionFactory on a background thread. Repeated calls
+     * return the same future.
+     */
+    public static synchronized CompletableFuture<SessionFactory> startAsync() {
+        if (startup == null) {
+            startup = new CompletableFuture<>();
+            Thread bootstrap = new Thread(() -> {
+                try {
+                    startup.complete(buildSessionFactory());
+                } catch (Throwable ex) {
+                    startup.completeExceptionally(ex);
+                }
+            }, "hibernate-bootstrap");
+            bootstrap.setDaemon(true);
+            bootstrap.start();
+        }
+        return startup;
+    }
+
+    /**
+     * Starts Hibernate (if needed) and blocks until the SessionFactory is ready.
+     */
+    public static SessionFactory start() {
+        try {
+            return startAsync().get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for SessionFactory", ex);
+        } catch (ExecutionException ex) {
+            throw new ExceptionInInitializerError(ex.getCause());
+        }
+    }
+
+    /**
+     * True once the SessionFactory has been built successfully.
+     */
+    public static synchronized boolean isReady() {
+        return startup != null && startup.isDone() && !startup.isCompletedExceptionally()
+                && startup.getNow(null) != null;
+    }
+
+    /**
+     * Waits up to the given timeout for a started bootstrap to finish.
+     */
+    public static boolean awaitReady(long timeout, TimeUnit unit) throws InterruptedException {
+        CompletableFuture<SessionFactory> current;
+        synchronized (HibernateUtil.class) {
+            current = startup;
+        }
+        if (current == null) {
+            return false;
+        }
+        try {
+            return current.get(timeout, unit) != null;
+        } catch (ExecutionException | TimeoutException ex) {
+            return false;
+        }
+    }
 
     private static SessionFactory buildSessionFactory() {
         try {
-            // Create the SessionFactory from annotation-based configuration
-            return HibernateConfig.getSessionFactory();
+            // Create the SessionFactory from hibernate.cfg.xml
+            SessionFactory factory = HibernateConfig.getSessionFactory();
+            if (factory != null) {
+                router = ReadWriteRouter.fromSettings(factory);
+                if (HibernateConfig.getBoolean(factory.getProperties(),
+                        HibernateConfig.SUBSCRIPTION_INDEX_ON_STARTUP, false)) {
+                    SubscriptionIndex.getInstance().load(factory);
+                }
+                if (HibernateConfig.getBoolean(factory.getProperties(),
+                        HibernateConfig.IDEMPOTENCY_ON_STARTUP, false)) {
+                    Path snapshot = snapshotFile(factory, IdempotencyFilter.SNAPSHOT_FILE);
+                    if (snapshot == null || !IdempotencyFilter.getInstance().loadSnapshot(snapshot, factory)) {
+                        IdempotencyFilter.getInstance().load(factory);
+                    }
+                }
+                if (HibernateConfig.getBoolean(factory.getProperties(),
+                        HibernateConfig.LEDGER_CACHE_ON_STARTUP, false)) {
+                    Path snapshot = snapshotFile(factory, LedgerColumnStore.SNAPSHOT_FILE);
+                    if (snapshot == null || !LedgerColumnStore.getInstance().loadSnapshot(snapshot, factory)) {
+                        LedgerColumnStore.getInstance().load(factory);
+                    }
+                    int refreshMillis = HibernateConfig.getInt(factory.getProperties(),
+                        HibernateConfig.LEDGER_CACHE_REFRESH_MILLIS, 0);
+                    if (refreshMillis > 0) {
+                        LedgerColumnStore.getInstance().startRefresh(factory, refreshMillis);
+                    }
+                }
+            }
+            return factory;
         } catch (Throwable ex) {
             // Make sure you log the exception, as it might be swallowed
             System.err.println("Initial SessionFactory creation failed: " + ex);
             ex.printStackTrace();
-            throw new ExceptionInInitializerError(ex);
+            throw ex;
         }
     }
 
     public static SessionFactory getSessionFactory() {
-        return sessionFactory;
+        return start();
     }
 
-    public static void shutdown() {
+    /**
+     * SessionFactory for read-only work: the replica if one is configured
+     * (subject to read-your-writes), otherwise the primary.
+     */
+    public static SessionFactory getReadSessionFactory() {
+        SessionFactory primary = start();
+        ReadWriteRouter current = router;
+        return current != null ? current.readFactory() : primary;
+    }
+
+    /**
+     * SessionFactory tuned for a workload, see {@link PerformanceProfiles}
+     * (e.g. PerformanceProfiles.BATCH for bulk jobs). Built on first use.
+     */
+    public static SessionFactory getSessionFactory(String profile) {
+        SessionFactory primary = start();
+        synchronized (HibernateUtil.class) {
+            if (profiles == null) {
+                profiles = new PerformanceProfiles(primary);
+            }
+            return profiles.get(profile);
+        }
+    }
+
+    /**
+     * The shards configured with banking.shards.count (built on first use).
+     */
+    public static synchronized ShardRegistry getShardRegistry() {
+        if (shardRegistry == null) {
+            shardRegistry = ShardRegistry.fromSettings(new Properties());
+        }
+        return shardRegistry;
+    }
+
+    /**
+     * Writes snapshots of the loaded in-memory caches to banking.snapshot.dir
+     * (no-op when unset). Also done at shutdown; call it periodically to keep
+     * the catch-up after an unclean stop short.
+     */
+    public static synchronized void saveCacheSnapshots() {
+        SessionFactory factory = startup != null ? startup.getNow(null) : null;
+        if (factory == null) {
+            return;
+        }
+        try {
+            Path snapshot = snapshotFile(factory, IdempotencyFilter.SNAPSHOT_FILE);
+            if (snapshot != null && IdempotencyFilter.getInstance().isLoaded()) {
+                IdempotencyFilter.getInstance().saveSnapshot(snapshot, factory);
+            }
+            snapshot = snapshotFile(factory, LedgerColumnStore.SNAPSHOT_FILE);
+            if (snapshot != null && LedgerColumnStore.getInstance().isLoaded()) {
+                LedgerColumnStore.getInstance().saveSnapshot(snapshot, factory);
+            }
+        } catch (IOException | RuntimeException ex) {
+            System.err.println("Error writing cache snapshots: " + ex.getMessage());
+        }
+    }
+
+    // Snapshot file in banking.snapshot.dir, or null when snapshots are off
+    private static Path snapshotFile(SessionFactory factory, String name) {
+        Object dir = factory.getProperties().get(HibernateConfig.SNAPSHOT_DIR);
+        return dir != null && !dir.toString().trim().isEmpty() ? Paths.get(dir.toString().trim(), name) : null;
+    }
+
+    public static synchronized void shutdown() {
         // Close caches and connection pools
-        getSessionFactory().close();
+        LedgerColumnStore.getInstance().stopRefresh();
+        if (startup != null && startup.isDone() && !startup.isCompletedExceptionally()) {
+            saveCacheSnapshots();
+        }
+        if (shardRegistry != null) {
+            shardRegistry.close();
+            shardRegistry = null;
+        }
+        if (startup != null) {
+            if (profiles != null) {
+                profiles.close();
+                profiles = null;
+            }
+            if (router != null) {
+                router.close();
+                router = null;
+            }
+            HibernateConfig.shutdown();
+            startup = null;
+        }
     }
 }
@@ -0,0 +1,63 @@
+package com.banking.util;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.Metadata;
+import org.hibernate.engine.query.spi.HQLQueryPlan;
+import org.hibernate.engine.spi.NamedQueryDefinition;
+import org.hibernate.engine.spi.NamedSQLQueryDefinition;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+/**
+ * Startup report for the named queries declared on the entity classes.
+ * Hibernate parses and validates every named query while the SessionFactory
+ * is built (hibernate.query.startup_check); this report lists each query
+ * together with the SQL it was translated to.
+ *
+ * The queries are read from the Metadata the factory was built from, which
+ * holds the same HQL and native definitions as the factory's named query
+ * repository (the repository itself cannot list its names).
+ */
+public class NamedQueryReport {
+
+    public static void print(SessionFactory sessionFactory, Metadata metadata) {
+        SessionFactoryImplementor factory = sessionFactory.unwrap(SessionFactoryImplementor.class);
+        Map<String, NamedQueryDefinition> queries = collectNamedQueries(metadata);
+
+        System.out.println("--- Named Query Report (" + queries.size() + " queries) ---");
+        for (Map.Entry<String, NamedQueryDefinition> entry : queries.entrySet()) {
+            System.out.println("  " + entry.getKey());
+            String query = entry.getValue().getQueryString();
+            if (entry.getValue() instanceof NamedSQLQueryDefinition) {
+                System.out.println("    SQL (native): " + query.replaceAll("\\s+", " ").trim());
+                continue;
+            }
+            System.out.println("    HQL: " + query);
+            try {
+                HQLQueryPlan plan = new HQLQueryPlan(query, false, Collections.emptyMap(), factory);
+                for (String sql : plan.getSqlStrings()) {
+                    System.out.println("    SQL: " + sql.replaceAll("\\s+", " ").trim());
+                }
+            } catch (Exception e) {
+                System.err.println("    Failed to translate: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Named query name -> definition for every HQL and native named query, sorted by name.
+     */
+    public static Map<String, NamedQueryDefinition> collectNamedQueries(Metadata metadata) {
+        Map<String, NamedQueryDefinition> queries = new TreeMap<>();
+        for (NamedQueryDefinition definition : metadata.getNamedQueryDefinitions()) {
+            queries.put(definition.getName(), definition);
+        }
+        for (NamedSQLQueryDefinition definition : metadata.getNamedNativeQueryDefinitions()) {
+            queries.put(definition.getName(), definition);
+        }
+        return queries;
+    }
+}
@@ -0,0 +1,65 @@
+package com.banking.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.SessionFactory;
+
+/**
+ * Separately tuned SessionFactory instances for different workloads on the
+ * primary database.
+ *
+ * A profile is a hibernate-&lt;name&gt;.properties file on the classpath (JDBC
+ * fetch and batch sizes, flush mode, driver statement cache, ...) applied over
+ * the primary's settings; banking.profile.&lt;name&gt;.* entries override single
+ * values without touching the file. Profile factories are built on first use
+ * and share the primary's second-level cache, so a write through one profile
+ * invalidates what the others have cached. Pick a profile per call site by
+ * passing its factory to a DAO, e.g. new AccountDAO(HibernateUtil.getSessionFactory(BATCH)).
+ */
+public class PerformanceProfiles {
+
+    public static final String OLTP = "oltp";
+    public static final String BATCH = "batch";
+    public static final String REPORTING = "reporting";
+
+    private final SessionFactory primary;
+    private final Map<String, SessionFactory> factories = new LinkedHashMap<>();
+
+    public PerformanceProfiles(SessionFactory primary) {
+        this.primary = primary;
+    }
+
+    /**
+     * The factory for the named profile, built on first use.
+     *
+     * @throws IllegalArgumentException for a profile without file or settings
+     */
+    public synchronized SessionFactory get(String name) {
+        SessionFactory factory = factories.get(name);
+        if (factory == null) {
+            Properties overrides = HibernateConfig.derivedSettings(primary);
+            // Same database as the primary, which owns any schema export/drop
+            overrides.remove("hibernate.hbm2ddl.auto");
+            overrides.putAll(HibernateConfig.loadProfile(name, primary.getProperties()));
+            factory = HibernateConfig.buildSessionFactory(overrides);
+            factories.put(name, factory);
+            System.out.println("✓ '" + name + "' profile SessionFactory initialized");
+        }
+        return factory;
+    }
+
+    // Closes the profile factories at shutdown (this also closes the shared cache); the primary is owned by HibernateConfig
+    public synchronized void close() {
+        List<SessionFactory> built = new ArrayList<>(factories.values());
+        factories.clear();
+        for (SessionFactory factory : built) {
+            if (!factory.isClosed()) {
+                factory.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package com.banking.util;
+
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.SessionFactory;
+
+/**
+ * Routes read-only work to a replica SessionFactory and everything else to
+ * the primary.
+ *
+ * The replica is configured with banking.replica.enabled=true plus
+ * banking.replica.hibernate.* settings (connection URL, credentials, ...)
+ * that override the primary's. Replica reads may lag the primary, so the
+ * replica never shares the primary's second-level cache (a stale read would be
+ * cached and then served by the primary): it runs without one, unless
+ * banking.replica.hibernate.cache.use_second_level_cache=true gives it its own
+ * CacheManager. It does not inherit hibernate.hbm2ddl.auto either; the primary
+ * owns the schema.
+ *
+ * Read-your-writes is opt-in: with banking.replica.read_your_writes_millis > 0,
+ * a thread that committed on the primary within that window keeps reading from
+ * the primary (covers replication lag). Commits are recorded by
+ * {@link WriteTrackingInterceptor}.
+ */
+public class ReadWriteRouter {
+
+    private static final ThreadLocal<Long> LAST_WRITE_MILLIS = new ThreadLocal<>();
+
+    private final SessionFactory primary;
+    private final SessionFactory replica;
+    private final long readYourWritesMillis;
+
+    /**
+     * @param replica              null to send reads to the primary
+     * @param readYourWritesMillis 0 to always read from the replica
+     */
+    public ReadWriteRouter(SessionFactory primary, SessionFactory replica, long readYourWritesMillis) {
+        this.primary = primary;
+        this.replica = replica;
+        this.readYourWritesMillis = Math.max(0, readYourWritesMillis);
+    }
+
+    /**
+     * Builds the router for a primary factory from its banking.replica.* settings.
+     */
+    public static ReadWriteRouter fromSettings(SessionFactory primary) {
+        Map<String, Object> settings = primary.getProperties();
+        if (!HibernateConfig.getBoolean(settings, HibernateConfig.REPLICA_ENABLED, false)) {
+            return new ReadWriteRouter(primary, null, 0);
+        }
+
+        // Start from the primary's effective settings, without its cache and schema handling,
+        // then apply the replica's own
+        Properties overrides = HibernateConfig.derivedSettings(primary);
+        overrides.remove(HibernateConfig.JCACHE_CACHE_MANAGER);
+        overrides.put(HibernateConfig.USE_SECOND_LEVEL_CACHE, "false");
+        overrides.remove("hibernate.hbm2ddl.auto");
+        Properties replicaSettings = HibernateConfig.prefixedSettings(settings, HibernateConfig.REPLICA_PREFIX);
+        replicaSettings.remove("enabled");
+        replicaSettings.remove("read_your_writes_millis");
+        overrides.putAll(replicaSettings);
+
+        SessionFactory replica = HibernateConfig.buildSessionFactory(overrides);
+        System.out.println("✓ Read replica SessionFactory initialized");
+        return new ReadWriteRouter(primary, replica,
+            HibernateConfig.getInt(settings, HibernateConfig.REPLICA_READ_YOUR_WRITES_MILLIS, 0));
+    }
+
+    public SessionFactory writeFactory() {
+        return primary;
+    }
+
+    public SessionFactory readFactory() {
+        if (replica == null || replica.isClosed()) {
+            return primary;
+        }
+        if (readYourWritesMillis > 0) {
+            Long lastWrite = LAST_WRITE_MILLIS.get();
+            if (lastWrite != null && System.currentTimeMillis() - lastWrite <= readYourWritesMillis) {
+                return primary;
+            }
+        }
+        return replica;
+    }
+
+    public boolean hasReplica() {
+        return replica != null;
+    }
+
+    // Closes the replica; the primary is owned by HibernateConfig
+    public void close() {
+        if (replica != null && !replica.isClosed()) {
+            replica.close();
+        }
+    }
+
+    /**
+     * Records a commit on the primary for the current thread.
+     */
+    public static void recordWrite() {
+        LAST_WRITE_MILLIS.set(System.currentTimeMillis());
+    }
+
+    /**
+     * Forgets the current thread's last write, e.g. at the end of a request.
+     */
+    public static void clearWrites() {
+        LAST_WRITE_MILLIS.remove();
+    }
+}
@@ -0,0 +1,50 @@
+package com.banking.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Per-phase timings of a SessionFactory bootstrap.
+ */
+public class StartupReport {
+
+    private final List<String> phases = new ArrayList<>();
+    private final List<Long> phaseMillis = new ArrayList<>();
+    private long phaseStart = System.nanoTime();
+
+    /**
+     * Closes the currently running phase under the given name and starts the next one.
+     */
+    public void phaseCompleted(String phase) {
+        long now = System.nanoTime();
+        phases.add(phase);
+        phaseMillis.add((now - phaseStart) / 1_000_000);
+        phaseStart = now;
+    }
+
+    public List<String> getPhases() {
+        return Collections.unmodifiableList(phases);
+    }
+
+    public long getPhaseMillis(String phase) {
+        int index = phases.indexOf(phase);
+        return index >= 0 ? phaseMillis.get(index) : 0L;
+    }
+
+    public long getTotalMillis() {
+        long total = 0;
+        for (Long millis : phaseMillis) {
+            total += millis;
+        }
+        return total;
+    }
+
+    public void print() {
+        System.out.println("--- SessionFactory Startup Report ---");
+        for (int i = 0; i < phases.size(); i++) {
+            System.out.println(String.format("  %-40s %6d ms", phases.get(i), phaseMillis.get(i)));
+        }
+        System.out.println(String.format("  %-40s %6d ms", "Total", getTotalMillis()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.banking.util;
+
+import org.hibernate.EmptyInterceptor;
+import org.hibernate.Transaction;
+import org.hibernate.resource.transaction.spi.TransactionStatus;
+
+/**
+ * Tells {@link ReadWriteRouter} about every committed transaction so that
+ * read-your-writes routing can keep the committing thread on the primary.
+ * Registered for the whole SessionFactory in hibernate.cfg.xml; stateless.
+ */
+public class WriteTrackingInterceptor extends EmptyInterceptor {
+
+    @Override
+    public void afterTransactionCompletion(Transaction tx) {
+        if (tx.getStatus() == TransactionStatus.COMMITTED) {
+            ReadWriteRouter.recordWrite();
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.Transaction;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.AccountDAO;
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.entity.KycProfile;
+import com.banking.entity.OutboxMessage;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify AccountDAO.adjustBalance (single-statement balance
+ * deltas, optional version check, no lost updates under concurrency) and
+ * dynamic updates on the mutable entities, against an in-memory H2 database
+ */
+public class AtomicBalanceTest {
+
+    private static SessionFactory sessionFactory;
+    private static AccountDAO accountDAO;
+    private static Long customerId;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:atomic_balance;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+        accountDAO = new AccountDAO(sessionFactory);
+
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            customerId = (Long) session.save(new Customer("Balance Customer", "balance@example.com"));
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testAdjustBalance() {
+        System.out.println("\n[TEST] Adjusting a balance with one UPDATE...");
+        Long id = accountDAO.saveAccount(customerId, new Account("BAL-1", new BigDecimal("100.00")));
+        Long version = accountDAO.getAccountById(id).getVersion();
+
+        assertTrue(accountDAO.adjustBalance(id, new BigDecimal("25.50")));
+        assertTrue(accountDAO.adjustBalance(id, new BigDecimal("-10.00")));
+
+        Account account = accountDAO.getAccountById(id);
+        assertEquals(new BigDecimal("115.50"), account.getBalance());
+        assertEquals(version + 2, account.getVersion());
+        assertFalse(accountDAO.adjustBalance(999_999L, BigDecimal.ONE), "Unknown account");
+        System.out.println("✓ Balance " + account.getBalance() + ", version " + account.getVersion());
+    }
+
+    @Test
+    public void testAdjustBalanceWithExpectedVersion() {
+        System.out.println("\n[TEST] Adjusting a balance with a version check...");
+        Long id = accountDAO.saveAccount(customerId, new Account("BAL-2", new BigDecimal("50.00")));
+        Account loaded = accountDAO.getAccountById(id);
+
+        assertTrue(accountDAO.adjustBalance(id, new BigDecimal("5.00"), loaded.getVersion()));
+        // The loaded copy is now one version behind
+        assertThrows(StaleObjectStateException.class,
+            () -> accountDAO.adjustBalance(id, new BigDecimal("5.00"), loaded.getVersion()));
+        assertEquals(new BigDecimal("55.00"), accountDAO.getAccountById(id).getBalance());
+
+        // A loaded account that was adjusted meanwhile cannot be saved over the new balance
+        loaded.setBalance(new BigDecimal("0.00"));
+        assertThrows(RuntimeException.class, () -> accountDAO.updateAccount(loaded));
+        assertEquals(new BigDecimal("55.00"), accountDAO.getAccountById(id).getBalance());
+        System.out.println("✓ Stale versions rejected");
+    }
+
+    @Test
+    public void testConcurrentAdjustmentsAndDynamicUpdate() throws Exception {
+        System.out.println("\n[TEST] Concurrent balance adjustments...");
+        Long id = accountDAO.saveAccount(customerId, new Account("BAL-3", new BigDecimal("0.00")));
+        int threads = 4;
+        int perThread = 50;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    for (int j = 0; j < perThread; j++) {
+                        accountDAO.adjustBalance(id, new BigDecimal("1.00"));
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(new BigDecimal("200.00"), accountDAO.getAccountById(id).getBalance(), "No update may be lost");
+
+        SessionFactoryImplementor factory = sessionFactory.unwrap(SessionFactoryImplementor.class);
+        for (Class<?> entity : new Class<?>[] {Account.class, Customer.class, KycProfile.class,
+                BankTransaction.class, OutboxMessage.class}) {
+            assertTrue(factory.getMetamodel().entityPersister(entity).getEntityMetamodel().isDynamicUpdate(),
+                entity.getSimpleName() + " should use dynamic updates");
+        }
+        System.out.println("✓ " + threads * perThread + " concurrent adjustments applied");
+    }
+}
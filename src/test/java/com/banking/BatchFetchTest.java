@@ -0,0 +1,153 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.entity.KycProfile;
+import com.banking.entity.RefNotificationChannel;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify batch fetching of lazy collections and proxies
+ * (statement counts against an in-memory H2 database)
+ */
+public class BatchFetchTest {
+
+    private static final int ACCOUNTS = 120;
+    private static final int BATCH_SIZE = 50;
+
+    private static SessionFactory sessionFactory;
+    private static List<Long> accountIds = new ArrayList<>();
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:batch_fetch;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.generate_statistics", "true");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+
+        Session session = sessionFactory.openSession();
+        session.beginTransaction();
+        RefNotificationChannel sms = new RefNotificationChannel("SMS_ALERT", new BigDecimal("1.50"));
+        RefNotificationChannel email = new RefNotificationChannel("EMAIL_STMT", BigDecimal.ZERO);
+        session.save(sms);
+        session.save(email);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            KycProfile kycProfile = new KycProfile("PAN" + i, "LOW");
+            session.save(kycProfile);
+            Customer customer = new Customer("Customer " + i, "customer" + i + "@example.com");
+            customer.setKycProfile(kycProfile);
+            session.save(customer);
+            Account account = new Account("ACC" + i, BigDecimal.TEN);
+            account.setCustomer(customer);
+            account.getSubscriptions().add(sms);
+            account.getSubscriptions().add(email);
+            accountIds.add((Long) session.save(account));
+        }
+        session.getTransaction().commit();
+        session.close();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @BeforeEach
+    public void resetCounters() {
+        sessionFactory.getCache().evictAllRegions();
+        sessionFactory.getStatistics().clear();
+    }
+
+    @Test
+    public void testSubscriptionsInitializeInBatches() {
+        System.out.println("\n[TEST] Testing batch initialization of Account.subscriptions...");
+        Session session = sessionFactory.openSession();
+        try {
+            List<Account> accounts = session.createQuery("FROM Account a ORDER BY a.id", Account.class).list();
+            Statistics statistics = sessionFactory.getStatistics();
+            statistics.clear();
+
+            for (Account account : accounts) {
+                assertEquals(2, account.getSubscriptions().size(), "Every account has two subscriptions");
+            }
+
+            long expected = (ACCOUNTS + BATCH_SIZE - 1) / BATCH_SIZE;
+            assertEquals(expected, statistics.getPrepareStatementCount(),
+                ACCOUNTS + " subscription collections should take ceil(N/batch) queries");
+            System.out.println("✓ " + ACCOUNTS + " collections initialized in " + statistics.getPrepareStatementCount() + " queries");
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    public void testAccountProxiesInitializeInBatches() {
+        System.out.println("\n[TEST] Testing batch initialization of Account proxies...");
+        Session session = sessionFactory.openSession();
+        try {
+            List<Account> proxies = new ArrayList<>();
+            for (Long id : accountIds) {
+                proxies.add(session.load(Account.class, id));
+            }
+            Statistics statistics = sessionFactory.getStatistics();
+            assertEquals(0, statistics.getPrepareStatementCount(), "Creating proxies should not query");
+
+            for (Account proxy : proxies) {
+                Hibernate.initialize(proxy);
+                assertNotNull(proxy.getCustomer().getKycProfile(), "Customer and KYC profile are fetched with the account");
+            }
+
+            long expected = (ACCOUNTS + BATCH_SIZE - 1) / BATCH_SIZE;
+            assertEquals(expected, statistics.getPrepareStatementCount(),
+                ACCOUNTS + " account proxies should take ceil(N/batch) queries");
+            System.out.println("✓ " + ACCOUNTS + " proxies initialized in " + statistics.getPrepareStatementCount() + " queries");
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    public void testEagerCustomersLoadInBatches() {
+        System.out.println("\n[TEST] Testing batched loading of Account.customer and Customer.kycProfile...");
+        Session session = sessionFactory.openSession();
+        try {
+            List<Account> accounts = session.createQuery("FROM Account a", Account.class).list();
+            assertEquals(ACCOUNTS, accounts.size());
+
+            // 1 account query + customers (with their KYC profiles joined) in ceil(N/batch) queries
+            long expected = 1 + (ACCOUNTS + BATCH_SIZE - 1) / BATCH_SIZE;
+            Statistics statistics = sessionFactory.getStatistics();
+            assertEquals(expected, statistics.getPrepareStatementCount(),
+                "Customers referenced by the accounts should be fetched in batches");
+            System.out.println("✓ " + ACCOUNTS + " accounts with customers loaded in " + statistics.getPrepareStatementCount() + " queries");
+        } finally {
+            session.close();
+        }
+    }
+}
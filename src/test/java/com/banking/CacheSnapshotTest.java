@@ -0,0 +1,162 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Properties;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.banking.cache.IdempotencyFilter;
+import com.banking.cache.LedgerColumnStore;
+import com.banking.cache.LedgerFilter;
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify warm restarts of the in-memory caches from snapshot
+ * files followed by a catch-up from the database (in-memory H2)
+ */
+public class CacheSnapshotTest {
+
+    private static SessionFactory sessionFactory;
+    private static Account account;
+
+    @TempDir
+    Path snapshotDir;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:snapshots;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        overrides.put(HibernateConfig.IDEMPOTENCY_EXPECTED_KEYS, "10000");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            Customer customer = new Customer("Snapshot Customer", "snapshot@example.com");
+            session.save(customer);
+            account = new Account("SNAP-1", new BigDecimal("0.00"));
+            account.setCustomer(customer);
+            session.save(account);
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+        for (int i = 0; i < 50; i++) {
+            saveTransaction(i % 3 == 0 ? "DEBIT" : "CREDIT", "snap-" + i);
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testLedgerSnapshotRestoresAndCatchesUp() throws IOException {
+        System.out.println("\n[TEST] Testing ledger column store snapshot and catch-up...");
+        Path file = snapshotDir.resolve(LedgerColumnStore.SNAPSHOT_FILE);
+        LedgerColumnStore store = new LedgerColumnStore();
+        store.load(sessionFactory);
+        store.saveSnapshot(file, sessionFactory);
+
+        saveTransaction("CREDIT", null);
+
+        LedgerColumnStore restored = new LedgerColumnStore();
+        assertTrue(restored.loadSnapshot(file, sessionFactory));
+        assertTrue(restored.isLoaded());
+        assertEquals(store.size() + 1, restored.size(), "Snapshot rows plus the row committed since");
+
+        LedgerColumnStore reloaded = new LedgerColumnStore();
+        reloaded.load(sessionFactory);
+        assertEquals(reloaded.getHighWaterMark(), restored.getHighWaterMark());
+        assertEquals(reloaded.totals(LedgerFilter.all()).toString(), restored.totals(LedgerFilter.all()).toString());
+        assertEquals(reloaded.netMinorByAccount(LedgerFilter.all()), restored.netMinorByAccount(LedgerFilter.all()));
+        assertEquals(reloaded.netMinorByDay(LedgerFilter.all()), restored.netMinorByDay(LedgerFilter.all()));
+        System.out.println("✓ Restored store matches a full reload");
+    }
+
+    @Test
+    public void testIdempotencySnapshotRestoresAndCatchesUp() throws IOException {
+        System.out.println("\n[TEST] Testing idempotency filter snapshot and catch-up...");
+        Path file = snapshotDir.resolve(IdempotencyFilter.SNAPSHOT_FILE);
+        IdempotencyFilter filter = new IdempotencyFilter();
+        filter.load(sessionFactory);
+        filter.saveSnapshot(file, sessionFactory);
+
+        // Written by "another instance": only the catch-up can know about it
+        saveTransaction("CREDIT", "snap-after-snapshot");
+
+        IdempotencyFilter restored = new IdempotencyFilter();
+        assertTrue(restored.loadSnapshot(file, sessionFactory));
+        assertTrue(restored.isLoaded());
+        for (int i = 0; i < 50; i++) {
+            assertTrue(restored.mightContain("snap-" + i));
+        }
+        assertTrue(restored.mightContain("snap-after-snapshot"));
+        assertTrue(restored.getHighWaterMark() > filter.getHighWaterMark());
+        System.out.println("✓ Restored filter knows every stored key");
+    }
+
+    @Test
+    public void testUnusableSnapshotsAreIgnored() throws IOException {
+        System.out.println("\n[TEST] Testing missing and truncated snapshots...");
+        Path file = snapshotDir.resolve(LedgerColumnStore.SNAPSHOT_FILE);
+        LedgerColumnStore store = new LedgerColumnStore();
+        assertFalse(store.loadSnapshot(file, sessionFactory), "Missing file");
+
+        LedgerColumnStore loaded = new LedgerColumnStore();
+        loaded.load(sessionFactory);
+        loaded.saveSnapshot(file, sessionFactory);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 20);
+        }
+        assertFalse(store.loadSnapshot(file, sessionFactory), "Truncated file");
+        assertFalse(store.isLoaded());
+        assertEquals(0, store.size());
+
+        Files.write(file, "not a snapshot".getBytes("UTF-8"));
+        assertFalse(new IdempotencyFilter().loadSnapshot(file, sessionFactory), "Foreign file");
+        System.out.println("✓ Unusable snapshots leave the caches empty (full load instead)");
+    }
+
+    private static void saveTransaction(String type, String idempotencyKey) {
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            BankTransaction bankTransaction = new BankTransaction(LocalDate.now(), type, new BigDecimal("12.34"), "COMPLETED");
+            bankTransaction.setAccount(account);
+            bankTransaction.setIdempotencyKey(idempotencyKey);
+            session.save(bankTransaction);
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banking.entity.Account;
+import com.banking.entity.AccountSubscription;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.RefNotificationChannel;
+import com.banking.service.BillingRunReport;
+import com.banking.service.ChannelBillingService;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify the monthly channel-billing run (restart, overlapping
+ * runs, keyset chunks) against a fresh in-memory H2 database per test
+ */
+public class ChannelBillingTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2026, 9);
+
+    private SessionFactory sessionFactory;
+    private Long smsId;
+    private Long emailId;
+
+    @BeforeEach
+    public void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:channel_billing;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.connection.pool_size", "20");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            smsId = (Long) session.save(new RefNotificationChannel("BILL_SMS", new BigDecimal("1.50")));
+            emailId = (Long) session.save(new RefNotificationChannel("BILL_EMAIL", new BigDecimal("0.50")));
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testRestartBillsOnlyMissingAccounts() {
+        System.out.println("\n[TEST] Re-running a partially billed month...");
+        List<Long> accountIds = saveSubscribedAccounts(10);
+        // A previous, interrupted run billed the first three accounts
+        for (Long accountId : accountIds.subList(0, 3)) {
+            saveTransaction(accountId, ChannelBillingService.CHARGE_STATUS, ChannelBillingService.chargeKey(MONTH, accountId));
+        }
+        // A row that merely has the same status must not suppress the charge
+        saveTransaction(accountIds.get(3), ChannelBillingService.CHARGE_STATUS, null);
+
+        BillingRunReport report = new ChannelBillingService(sessionFactory, 2, 3).runMonthlyBilling(MONTH);
+        assertEquals(7, report.getAccountsCharged());
+        assertEquals(new BigDecimal("14.00"), report.getTotalCharged(), "1.50 + 0.50 per account");
+        for (Long accountId : accountIds) {
+            assertEquals(1L, countCharges(ChannelBillingService.chargeKey(MONTH, accountId)));
+        }
+
+        BillingRunReport rerun = new ChannelBillingService(sessionFactory, 2, 3).runMonthlyBilling(MONTH);
+        assertEquals(0, rerun.getAccountsCharged(), "A complete month bills nothing again");
+        assertEquals(10, new ChannelBillingService(sessionFactory, 1, 100)
+            .runMonthlyBilling(MONTH.plusMonths(1)).getAccountsCharged(), "The next month is billed anew");
+        System.out.println("✓ Restart billed the 7 missing accounts once");
+    }
+
+    @Test
+    public void testOverlappingRunsBillOnce() throws Exception {
+        System.out.println("\n[TEST] Two overlapping runs of the same month...");
+        int accounts = 300;
+        saveSubscribedAccounts(accounts);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        List<BillingRunReport> reports = new ArrayList<>();
+        try {
+            List<Future<BillingRunReport>> runs = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                runs.add(executor.submit(() -> new ChannelBillingService(sessionFactory, 4, 10).runMonthlyBilling(MONTH)));
+            }
+            for (Future<BillingRunReport> run : runs) {
+                reports.add(run.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        long charged = reports.get(0).getAccountsCharged() + reports.get(1).getAccountsCharged();
+        assertEquals(accounts, charged, "Every account is charged by exactly one of the runs");
+        assertEquals(accounts, countCharges(null));
+        System.out.println("✓ " + accounts + " accounts billed once across two runs ("
+            + (reports.get(0).getConflicts() + reports.get(1).getConflicts()) + " chunk conflict(s) re-read)");
+    }
+
+    @Test
+    public void testSparseAccountIdsUseKeysetChunks() {
+        System.out.println("\n[TEST] Billing accounts with sparse IDs...");
+        long[] ids = {1L, 2L, 3L, 1_000_001L, 1_000_002L, 1_000_003L};
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            for (long id : ids) {
+                session.createNativeQuery("INSERT INTO accounts (id, account_number, balance, version) VALUES (?, ?, 0, 0)")
+                    .setParameter(1, id)
+                    .setParameter(2, "SPARSE-" + id)
+                    .executeUpdate();
+                session.save(new AccountSubscription(id, smsId));
+            }
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+
+        BillingRunReport report = new ChannelBillingService(sessionFactory, 1, 2).runMonthlyBilling(MONTH);
+        assertEquals(ids.length, report.getAccountsCharged());
+        assertEquals(3, report.getChunks(), "Six accounts in chunks of two, whatever the gap between their IDs");
+        System.out.println("✓ " + report);
+    }
+
+    // Accounts subscribed to both channels
+    private List<Long> saveSubscribedAccounts(int count) {
+        List<Long> accountIds = new ArrayList<>();
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            for (int i = 0; i < count; i++) {
+                Long accountId = (Long) session.save(new Account("BILL-" + i, BigDecimal.TEN));
+                session.save(new AccountSubscription(accountId, smsId));
+                session.save(new AccountSubscription(accountId, emailId));
+                accountIds.add(accountId);
+            }
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+        return accountIds;
+    }
+
+    private void saveTransaction(Long accountId, String status, String idempotencyKey) {
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            BankTransaction transaction = new BankTransaction(MONTH.atDay(1), "DEBIT", new BigDecimal("2.00"), status);
+            transaction.setAccount(session.load(Account.class, accountId));
+            transaction.setIdempotencyKey(idempotencyKey);
+            session.save(transaction);
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    // Charges with the given key, or all keyed charges of MONTH when null
+    private long countCharges(String idempotencyKey) {
+        Session session = sessionFactory.openSession();
+        try {
+            if (idempotencyKey != null) {
+                return session.createQuery(
+                        "SELECT COUNT(t) FROM BankTransaction t WHERE t.idempotencyKey = :key", Long.class)
+                    .setParameter("key", idempotencyKey)
+                    .uniqueResult();
+            }
+            return session.createQuery(
+                    "SELECT COUNT(t) FROM BankTransaction t WHERE t.txDate = :billingDate AND t.idempotencyKey IS NOT NULL",
+                    Long.class)
+                .setParameter("billingDate", MONTH.atDay(1))
+                .uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.CustomerDAO;
+import com.banking.entity.Customer;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify the indexed email searches of CustomerDAO and the
+ * email domain backfill against an in-memory H2 database
+ */
+public class CustomerEmailSearchTest {
+
+    private static SessionFactory sessionFactory;
+    private static CustomerDAO customerDAO;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:customer_email;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.generate_statistics", "true");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+        customerDAO = new CustomerDAO(sessionFactory);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testEmailLookups() {
+        System.out.println("\n[TEST] Exact and case-insensitive email lookups...");
+        customerDAO.saveCustomer(new Customer("Email Customer", "Mixed.Case@Lookup.example"));
+
+        assertEquals(1, customerDAO.findByEmail("Mixed.Case@Lookup.example").size());
+        assertEquals(0, customerDAO.findByEmail("mixed.case@lookup.example").size());
+        assertEquals(1, customerDAO.findByEmailIgnoreCase("MIXED.case@lookup.EXAMPLE").size());
+        assertEquals(1, customerDAO.findByEmailDomain("LOOKUP.example", false).size());
+        System.out.println("✓ Email found exactly, ignoring case and by domain");
+    }
+
+    @Test
+    public void testSubdomainSearchTakesWildcardsLiterally() {
+        System.out.println("\n[TEST] Domain search for a domain containing '_'...");
+        customerDAO.saveCustomer(new Customer("Underscore", "a@mail.my_host.test"));
+        customerDAO.saveCustomer(new Customer("Lookalike", "b@mail.myxhost.test"));
+        customerDAO.saveCustomer(new Customer("Parent", "c@my_host.test"));
+        customerDAO.saveCustomer(new Customer("Percent", "d@mail.my%host.test"));
+
+        List<Customer> found = customerDAO.findByEmailDomain("my_host.test", true);
+        assertEquals(2, found.size(), "'_' must not match any character");
+        for (Customer customer : found) {
+            assertTrue(customer.getEmail().endsWith("my_host.test"), customer.getEmail());
+        }
+        assertEquals(1, customerDAO.findByEmailDomain("my%host.test", true).size());
+        assertEquals("com.example!_x!%y!!.%", Customer.subdomainPattern("com.example_x%y!"));
+        System.out.println("✓ Only the real subdomains matched");
+    }
+
+    @Test
+    public void testBackfillPagesAndEvictsOnlyUpdatedCustomers() {
+        System.out.println("\n[TEST] Backfilling email domains over several pages...");
+        int customers = 2500;
+        List<Long> ids = new ArrayList<>();
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            for (int i = 0; i < customers; i++) {
+                ids.add((Long) session.save(new Customer("Backfill " + i, "user" + i + "@backfill" + (i % 7) + ".test")));
+            }
+            Long keptId = (Long) session.save(new Customer("Already Filled", "kept@filled.test"));
+            session.getTransaction().commit();
+
+            // Rows written before the column existed
+            session.beginTransaction();
+            session.createNativeQuery("UPDATE customers SET email_domain_rev = NULL WHERE email LIKE '%@backfill%'")
+                .executeUpdate();
+            session.getTransaction().commit();
+            sessionFactory.getCache().evictAllRegions();
+
+            // Cache a stale (unfilled) customer and an untouched one
+            assertNull(customerDAO.getCustomerById(ids.get(0)).getEmailDomainRev());
+            assertNotNull(customerDAO.getCustomerById(keptId));
+
+            assertEquals(customers, customerDAO.backfillEmailDomains());
+            assertEquals(0, customerDAO.backfillEmailDomains(), "Nothing left to fill");
+
+            Statistics statistics = sessionFactory.getStatistics();
+            statistics.clear();
+            assertEquals("test.backfill0", customerDAO.getCustomerById(ids.get(0)).getEmailDomainRev(),
+                "The stale cache entry was evicted");
+            assertNotNull(customerDAO.getCustomerById(keptId));
+            assertEquals(1, statistics.getSecondLevelCacheHitCount(), "The untouched customer is still cached");
+            assertEquals(customers / 7 + 1, customerDAO.findByEmailDomain("backfill0.test", false).size());
+        } finally {
+            session.close();
+        }
+        System.out.println("✓ " + customers + " customers backfilled in pages, cache entries evicted one by one");
+    }
+}
@@ -0,0 +1,161 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.CustomerOverview;
+import com.banking.dao.CustomerOverviewDAO;
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.entity.KycProfile;
+import com.banking.entity.RefNotificationChannel;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify that the customer overview is loaded with a fixed
+ * number of statements, however many accounts the customer has (in-memory
+ * H2 database)
+ */
+public class CustomerOverviewTest {
+
+    private static final int TRANSACTIONS_PER_ACCOUNT = 8;
+
+    private static SessionFactory sessionFactory;
+    private static CustomerOverviewDAO overviewDAO;
+    private static RefNotificationChannel sms;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:customer_overview;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.generate_statistics", "true");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+        overviewDAO = new CustomerOverviewDAO(sessionFactory);
+
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            sms = new RefNotificationChannel("OVERVIEW_SMS", new BigDecimal("1.00"));
+            session.save(sms);
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testFixedStatementCountForAnyNumberOfAccounts() {
+        System.out.println("\n[TEST] Loading overviews of customers with 2 and 40 accounts...");
+        Long small = saveCustomer("overview1@example.com", "OVWPN0001A", 2);
+        Long large = saveCustomer("overview2@example.com", "OVWPN0002B", 40);
+        Statistics statistics = sessionFactory.getStatistics();
+
+        for (Long customerId : new Long[] {small, large}) {
+            sessionFactory.getCache().evictAllRegions();
+            statistics.clear();
+            CustomerOverview overview = overviewDAO.getOverview(customerId);
+            // Fully initialized: reading it after the session is closed issues no SQL
+            for (Account account : overview.getAccounts()) {
+                assertEquals(1, overview.getSubscriptions(account).size());
+                assertEquals(CustomerOverviewDAO.DEFAULT_LATEST_TRANSACTIONS,
+                    overview.getLatestTransactions(account.getId()).size());
+            }
+            assertNotNull(overview.getKycProfile().getPanNumber());
+            assertEquals(3, statistics.getPrepareStatementCount(),
+                overview.getAccounts().size() + " accounts should take three statements");
+        }
+        System.out.println("✓ 2 and 40 accounts: 3 statements each");
+    }
+
+    @Test
+    public void testLatestTransactionsNewestFirst() {
+        System.out.println("\n[TEST] Latest transactions per account...");
+        Long customerId = saveCustomer("overview3@example.com", "OVWPN0003C", 3);
+        CustomerOverview overview = overviewDAO.getOverview(customerId, 3);
+
+        assertEquals(3, overview.getAccounts().size());
+        for (Account account : overview.getAccounts()) {
+            List<BankTransaction> latest = overview.getLatestTransactions(account.getId());
+            assertEquals(3, latest.size());
+            for (int i = 0; i < latest.size(); i++) {
+                assertEquals(account.getId(), latest.get(i).getAccount().getId());
+                assertEquals(LocalDate.of(2026, 1, TRANSACTIONS_PER_ACCOUNT - i), latest.get(i).getTxDate());
+            }
+        }
+        assertEquals(new BigDecimal("30.00"), overview.getTotalBalance());
+        System.out.println("✓ " + overview);
+    }
+
+    @Test
+    public void testCustomerWithoutAccountsAndUnknownCustomer() {
+        System.out.println("\n[TEST] Overview of a customer without accounts, and of an unknown one...");
+        Long customerId = saveCustomer("overview4@example.com", "OVWPN0004D", 0);
+        Statistics statistics = sessionFactory.getStatistics();
+
+        statistics.clear();
+        CustomerOverview overview = overviewDAO.getOverview(customerId);
+        assertTrue(overview.getAccounts().isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount(), "Nothing to fetch beyond the customer");
+
+        statistics.clear();
+        assertNull(overviewDAO.getOverview(999_999L));
+        assertEquals(1, statistics.getPrepareStatementCount());
+        System.out.println("✓ One statement each");
+    }
+
+    // A customer with KYC, accounts subscribed to SMS, each with TRANSACTIONS_PER_ACCOUNT ledger rows
+    private static Long saveCustomer(String email, String pan, int accounts) {
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            KycProfile profile = new KycProfile(pan, "LOW");
+            session.save(profile);
+            Customer customer = new Customer("Overview Customer", email);
+            customer.setKycProfile(profile);
+            Long customerId = (Long) session.save(customer);
+            for (int i = 0; i < accounts; i++) {
+                Account account = new Account(pan + "-" + i, BigDecimal.TEN);
+                account.setCustomer(customer);
+                account.getSubscriptions().add(session.load(RefNotificationChannel.class, sms.getId()));
+                session.save(account);
+                for (int day = 1; day <= TRANSACTIONS_PER_ACCOUNT; day++) {
+                    BankTransaction transaction = new BankTransaction(
+                        LocalDate.of(2026, 1, day), "CREDIT", BigDecimal.ONE, "COMPLETED");
+                    transaction.setAccount(account);
+                    session.save(transaction);
+                }
+            }
+            session.getTransaction().commit();
+            return customerId;
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.CustomerDAO;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.entity.KycProfile;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify that a page of customers with their KYC profiles and
+ * accounts is loaded in two statements (in-memory H2 database)
+ */
+public class CustomerPageTest {
+
+    private static final int CUSTOMERS = 30;
+    private static final int ACCOUNTS_PER_CUSTOMER = 3;
+
+    private static SessionFactory sessionFactory;
+    private static CustomerDAO customerDAO;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:customer_page;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.generate_statistics", "true");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+        customerDAO = new CustomerDAO(sessionFactory);
+
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            for (int i = 0; i < CUSTOMERS; i++) {
+                Customer customer = new Customer("Page Customer " + i, "page" + i + "@example.com");
+                KycProfile profile = new KycProfile(String.format("PAGPN%04dA", i), "LOW");
+                session.save(profile);
+                customer.setKycProfile(profile);
+                session.save(customer);
+                for (int j = 0; j < ACCOUNTS_PER_CUSTOMER; j++) {
+                    Account account = new Account("PAGE-" + i + "-" + j, BigDecimal.TEN);
+                    account.setCustomer(customer);
+                    session.save(account);
+                }
+            }
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testPageWithAccountsInTwoStatements() {
+        System.out.println("\n[TEST] Loading a page of customers with accounts...");
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        List<Customer> page = customerDAO.getCustomersWithAccounts(10, 10);
+        assertEquals(10, page.size());
+        assertEquals(2, statistics.getPrepareStatementCount(), "The page query and one accounts query");
+
+        // Everything is initialized: no further SQL, and usable after the session is closed
+        for (Customer customer : page) {
+            assertNotNull(customer.getKycProfile().getPanNumber());
+            assertEquals(ACCOUNTS_PER_CUSTOMER, customer.getAccounts().size());
+        }
+        assertEquals(2, statistics.getPrepareStatementCount());
+        System.out.println("✓ 10 customers, their KYC profiles and " + (10 * ACCOUNTS_PER_CUSTOMER)
+            + " accounts in 2 statements");
+    }
+
+    @Test
+    public void testPagesDoNotOverlap() {
+        System.out.println("\n[TEST] Reading every page...");
+        Set<Long> seen = new HashSet<>();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        for (int first = 0; first < CUSTOMERS; first += 7) {
+            for (Customer customer : customerDAO.getCustomersWithAccounts(first, 7)) {
+                assertTrue(seen.add(customer.getId()), "Customer " + customer.getId() + " on two pages");
+                for (Account account : customer.getAccounts()) {
+                    assertEquals(customer.getId(), account.getCustomer().getId());
+                }
+            }
+        }
+        assertEquals(CUSTOMERS, seen.size());
+        assertEquals(2 * 5, statistics.getPrepareStatementCount(), "Five pages, two statements each");
+        System.out.println("✓ " + CUSTOMERS + " customers over 5 pages");
+    }
+
+    @Test
+    public void testEmptyPageInOneStatement() {
+        System.out.println("\n[TEST] Loading a page past the end...");
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        assertTrue(customerDAO.getCustomersWithAccounts(CUSTOMERS, 10).isEmpty());
+        assertEquals(1, statistics.getPrepareStatementCount(), "No accounts query for an empty page");
+        System.out.println("✓ Empty page in 1 statement");
+    }
+}
@@ -0,0 +1,205 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import javax.persistence.PersistenceException;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.StaleObjectStateException;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.AccountDAO;
+import com.banking.dao.AccountSubscriptionDAO;
+import com.banking.dao.BankTransactionDAO;
+import com.banking.dao.CustomerDAO;
+import com.banking.dao.KycProfileDAO;
+import com.banking.dao.RefNotificationChannelDAO;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.entity.KycProfile;
+import com.banking.entity.RefNotificationChannel;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify deletes by ID (no entity loads, version check, child
+ * rows deleted set-wise) against an in-memory H2 database
+ */
+public class DeleteByIdTest {
+
+    private static SessionFactory sessionFactory;
+    private static AccountDAO accountDAO;
+    private static BankTransactionDAO transactionDAO;
+    private static CustomerDAO customerDAO;
+    private static AccountSubscriptionDAO subscriptionDAO;
+    private static Long channelId;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:delete_by_id;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.generate_statistics", "true");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+        accountDAO = new AccountDAO(sessionFactory);
+        transactionDAO = new BankTransactionDAO(sessionFactory);
+        customerDAO = new CustomerDAO(sessionFactory);
+        subscriptionDAO = new AccountSubscriptionDAO(sessionFactory);
+        channelId = new RefNotificationChannelDAO(sessionFactory)
+            .saveChannel(new RefNotificationChannel("DELETE_SMS", new BigDecimal("1.00")));
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testDeleteAccountWithVersion() {
+        System.out.println("\n[TEST] Deleting an account at its version...");
+        Long customerId = customerDAO.saveCustomer(new Customer("Delete Customer", "delete1@example.com"));
+        Long accountId = newAccount(customerId, "DEL-1");
+        Long neighbourId = newAccount(customerId, "DEL-1B");
+        // Subscribed by now: queues a notification
+        transactionDAO.saveTransaction(accountId, LocalDate.now(), "DEBIT", new BigDecimal("4.00"), "COMPLETED");
+        Long version = accountDAO.getAccountById(accountId).getVersion();
+        assertNotNull(accountDAO.getByAccountNumber("DEL-1"));
+        assertNotNull(accountDAO.getByAccountNumber("DEL-1B"));
+
+        assertThrows(StaleObjectStateException.class, () -> accountDAO.deleteAccount(accountId, version + 1));
+        assertNotNull(accountDAO.getAccountById(accountId), "Stale delete rolls back");
+        assertEquals(3, countRows("SELECT COUNT(t) FROM BankTransaction t WHERE t.account.id = " + accountId));
+        assertEquals(1, countRows("SELECT COUNT(o) FROM OutboxMessage o WHERE o.accountId = " + accountId));
+
+        assertTrue(accountDAO.deleteAccount(accountId, version));
+        assertNull(accountDAO.getAccountById(accountId));
+        assertNull(accountDAO.getByAccountNumber("DEL-1"), "Natural-id cache evicted");
+        assertEquals(0, countRows("SELECT COUNT(t) FROM BankTransaction t WHERE t.account.id = " + accountId));
+        assertEquals(0, countRows("SELECT COUNT(o) FROM OutboxMessage o WHERE o.accountId = " + accountId),
+            "No notification left for the relay");
+        assertFalse(accountDAO.deleteAccount(accountId));
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        assertEquals(neighbourId, accountDAO.getByAccountNumber("DEL-1B").getId());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount(), "Only the deleted account number was evicted");
+        System.out.println("✓ Stale version rejected, current version deleted with its children");
+    }
+
+    @Test
+    public void testBulkDeletesWithoutLoading() {
+        System.out.println("\n[TEST] Deleting accounts and customers by IDs...");
+        Long customerId = customerDAO.saveCustomer(new Customer("Bulk Customer", "delete2@example.com"));
+        Long otherCustomerId = customerDAO.saveCustomer(new Customer("Other Customer", "delete3@example.com"));
+        List<Long> accountIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            accountIds.add(newAccount(customerId, "DEL-BULK-" + i));
+        }
+        Long otherAccountId = newAccount(otherCustomerId, "DEL-OTHER");
+        Long keptAccountId = newAccount(customerId, "DEL-KEPT");
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        assertEquals(2, accountDAO.deleteByIds(Arrays.asList(accountIds.get(0), accountIds.get(1), accountIds.get(1), 999_999L)));
+        assertEquals(2, customerDAO.deleteByIds(Arrays.asList(customerId, otherCustomerId)));
+        assertEquals(0, statistics.getEntityLoadCount(), "Nothing loaded to delete");
+        assertEquals(0, statistics.getCollectionLoadCount());
+
+        for (Long accountId : Arrays.asList(accountIds.get(2), otherAccountId, keptAccountId)) {
+            assertNull(accountDAO.getAccountById(accountId));
+        }
+        assertNull(customerDAO.getCustomerById(customerId));
+        assertEquals(0, countRows("SELECT COUNT(s) FROM AccountSubscription s WHERE s.accountId IN ("
+            + accountIds.get(0) + ", " + accountIds.get(2) + ", " + keptAccountId + ")"));
+        assertEquals(0, accountDAO.deleteByIds(new ArrayList<>()));
+        System.out.println("✓ Accounts, customers, ledger rows and subscriptions deleted without entity loads");
+    }
+
+    @Test
+    public void testDeleteTransactionsProfilesAndChannels() {
+        System.out.println("\n[TEST] Deleting transactions, KYC Profiles and channels by ID...");
+        Long customerId = customerDAO.saveCustomer(new Customer("Ledger Customer", "delete4@example.com"));
+        Long accountId = newAccount(customerId, "DEL-2");
+        Long third = transactionDAO.saveTransaction(accountId, LocalDate.now(), "DEBIT", new BigDecimal("3.00"), "COMPLETED");
+        List<Long> transactionIds = new ArrayList<>();
+        transactionDAO.getTransactionsByAccountId(accountId).forEach(t -> transactionIds.add(t.getId()));
+        assertEquals(1, countRows("SELECT COUNT(o) FROM OutboxMessage o WHERE o.transactionId = " + third));
+        assertTrue(transactionDAO.deleteTransaction(third));
+        assertEquals(0, countRows("SELECT COUNT(o) FROM OutboxMessage o WHERE o.transactionId = " + third),
+            "The pending notification goes with the transaction");
+        assertFalse(transactionDAO.deleteTransaction(third));
+        assertEquals(2, transactionDAO.deleteByIds(transactionIds));
+        assertTrue(transactionDAO.getTransactionsByAccountId(accountId).isEmpty());
+
+        KycProfileDAO kycDAO = new KycProfileDAO(sessionFactory);
+        Long freeProfileId = kycDAO.saveKycProfile(new KycProfile("DELPN0001A", "LOW"));
+        Long usedProfileId = kycDAO.saveKycProfile(new KycProfile("DELPN0002B", "LOW"));
+        Customer customer = customerDAO.getCustomerById(customerId);
+        customer.setKycProfile(kycDAO.getKycProfileById(usedProfileId));
+        customerDAO.updateCustomer(customer);
+        assertNotNull(kycDAO.getKycProfileByPanNumber("DELPN0001A"));
+        assertTrue(kycDAO.deleteKycProfile(freeProfileId));
+        assertNull(kycDAO.getKycProfileById(freeProfileId));
+        assertNull(kycDAO.getKycProfileByPanNumber("DELPN0001A"));
+        assertThrows(PersistenceException.class, () -> kycDAO.deleteKycProfile(usedProfileId),
+            "A profile still referenced by a customer is kept");
+        assertNotNull(kycDAO.getKycProfileById(usedProfileId));
+
+        RefNotificationChannelDAO channelDAO = new RefNotificationChannelDAO(sessionFactory);
+        Long emailId = channelDAO.saveChannel(new RefNotificationChannel("DELETE_EMAIL", new BigDecimal("0.50")));
+        assertTrue(subscriptionDAO.subscribe(accountId, emailId));
+        assertEquals(2, subscriptionCount(accountId));
+        assertTrue(channelDAO.deleteChannel(emailId));
+        assertNull(channelDAO.getChannelById(emailId));
+        assertEquals(1, subscriptionCount(accountId),
+            "Subscriptions go with the channel");
+        System.out.println("✓ Transactions, unreferenced KYC Profile and channel deleted by ID");
+    }
+
+    // An account with two ledger rows, subscribed to the test channel
+    private Long newAccount(Long customerId, String accountNumber) {
+        Long accountId = accountDAO.saveAccount(customerId, new Account(accountNumber, new BigDecimal("100.00")));
+        transactionDAO.saveTransaction(accountId, LocalDate.now(), "CREDIT", new BigDecimal("1.00"), "COMPLETED");
+        transactionDAO.saveTransaction(accountId, LocalDate.now(), "CREDIT", new BigDecimal("2.00"), "COMPLETED");
+        assertTrue(subscriptionDAO.subscribe(accountId, channelId));
+        return accountId;
+    }
+
+    // Through Account.subscriptions, so a stale collection cache entry would show
+    private int subscriptionCount(Long accountId) {
+        Session session = sessionFactory.openSession();
+        try {
+            return session.get(Account.class, accountId).getSubscriptions().size();
+        } finally {
+            session.close();
+        }
+    }
+
+    private long countRows(String hql) {
+        Session session = sessionFactory.openSession();
+        try {
+            return session.createQuery(hql, Long.class).uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.cache.IdempotencyFilter;
+import com.banking.dao.BankTransactionDAO;
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify idempotent transaction ingestion (filter, recent keys
+ * and the unique index) against an in-memory H2 database
+ */
+public class IdempotentIngestionTest {
+
+    private static SessionFactory sessionFactory;
+    private static Account account;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:idempotency;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        overrides.put(HibernateConfig.IDEMPOTENCY_EXPECTED_KEYS, "10000");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            Customer customer = new Customer("Feed Customer", "feed@example.com");
+            session.save(customer);
+            account = new Account("FEED-1", new BigDecimal("1000.00"));
+            account.setCustomer(customer);
+            session.save(account);
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testRedeliveriesAreRejectedWithoutInserts() {
+        System.out.println("\n[TEST] Testing new keys and redeliveries...");
+        IdempotencyFilter filter = new IdempotencyFilter();
+        filter.load(sessionFactory);
+        BankTransactionDAO transactionDAO = new BankTransactionDAO(sessionFactory, filter);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            ids.add(transactionDAO.ingestTransaction(transaction("feed-a-" + i)));
+        }
+        assertTrue(filter.getAcceptedWithoutLookup() >= 195, "New keys should almost never need a lookup");
+
+        for (int i = 0; i < 200; i++) {
+            BankTransaction redelivered = transaction("feed-a-" + i);
+            assertEquals(ids.get(i), transactionDAO.ingestTransaction(redelivered), "Redelivery maps to the original");
+            assertNull(redelivered.getId(), "Nothing is inserted for a redelivery");
+        }
+        assertEquals(200L, filter.getDuplicatesFromRecent(), "Redeliveries are answered from the recent keys");
+        assertEquals(200L, countKeys("feed-a-%"));
+        System.out.println("   " + filter);
+        System.out.println("✓ 200 redeliveries rejected without database access");
+    }
+
+    @Test
+    public void testKeysFromOtherInstancesAndRestarts() {
+        System.out.println("\n[TEST] Testing keys this instance has not seen...");
+        IdempotencyFilter filter = new IdempotencyFilter();
+        filter.load(sessionFactory);
+        BankTransactionDAO transactionDAO = new BankTransactionDAO(sessionFactory, filter);
+
+        // Written by another instance after this filter was loaded: only the unique index knows it
+        Long otherId = new BankTransactionDAO(sessionFactory).ingestTransaction(transaction("feed-b-other"));
+        assertEquals(otherId, transactionDAO.ingestTransaction(transaction("feed-b-other")));
+        assertEquals(1L, filter.getDuplicatesFromConstraint());
+        assertEquals(1L, countKeys("feed-b-other"));
+
+        // After a restart the keys are in the filter but not in the recent keys: one lookup each
+        Long storedId = transactionDAO.ingestTransaction(transaction("feed-b-restart"));
+        IdempotencyFilter restarted = new IdempotencyFilter();
+        restarted.load(sessionFactory);
+        assertEquals(storedId, new BankTransactionDAO(sessionFactory, restarted)
+            .ingestTransaction(transaction("feed-b-restart")));
+        assertEquals(1L, restarted.getDuplicatesFromLookup());
+        assertEquals(1L, countKeys("feed-b-restart"));
+        System.out.println("✓ Unseen and reloaded keys are still posted once");
+    }
+
+    @Test
+    public void testKeyIsRequired() {
+        System.out.println("\n[TEST] Testing ingestion without a key...");
+        assertThrows(IllegalArgumentException.class,
+            () -> new BankTransactionDAO(sessionFactory).ingestTransaction(transaction(null)));
+        System.out.println("✓ Ingestion requires an idempotency key");
+    }
+
+    private static BankTransaction transaction(String idempotencyKey) {
+        BankTransaction transaction = new BankTransaction(LocalDate.now(), "CREDIT", new BigDecimal("5.00"), "POSTED");
+        transaction.setAccount(account);
+        transaction.setIdempotencyKey(idempotencyKey);
+        return transaction;
+    }
+
+    private static long countKeys(String pattern) {
+        Session session = sessionFactory.openSession();
+        try {
+            return session.createQuery(
+                "SELECT COUNT(t) FROM BankTransaction t WHERE t.idempotencyKey LIKE :pattern", Long.class)
+                .setParameter("pattern", pattern)
+                .uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.SortedMap;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.cache.LedgerColumnStore;
+import com.banking.cache.LedgerFilter;
+import com.banking.cache.LedgerTotals;
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify the columnar ledger cache against the database
+ * (in-memory H2) and against a straightforward scan of synthetic rows
+ */
+public class LedgerColumnStoreTest {
+
+    private static final LocalDate DAY1 = LocalDate.of(2025, 3, 1);
+    private static final LocalDate DAY2 = LocalDate.of(2025, 3, 2);
+    // Rows added by the catch-up test land here, outside the seeded days
+    private static final LocalDate DAY3 = LocalDate.of(2025, 3, 3);
+
+    private static SessionFactory sessionFactory;
+    private static Account first;
+    private static Account second;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:ledger_columns;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            Customer customer = new Customer("Ledger Customer", "ledger@example.com");
+            session.save(customer);
+            first = new Account("LEDGER-1", new BigDecimal("0.00"));
+            first.setCustomer(customer);
+            session.save(first);
+            second = new Account("LEDGER-2", new BigDecimal("0.00"));
+            second.setCustomer(customer);
+            session.save(second);
+
+            session.save(transaction(first, DAY1, "CREDIT", "100.00", "COMPLETED"));
+            session.save(transaction(first, DAY1, "DEBIT", "30.25", "COMPLETED"));
+            session.save(transaction(first, DAY2, "DEBIT", "10.00", "PENDING"));
+            session.save(transaction(second, DAY2, "CREDIT", "55.50", "COMPLETED"));
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testAggregatesMatchTheLedger() {
+        System.out.println("\n[TEST] Testing column store aggregates against the ledger rows...");
+        LedgerColumnStore store = new LedgerColumnStore();
+        store.load(sessionFactory);
+        LedgerFilter seeded = LedgerFilter.between(DAY1, DAY2);
+
+        LedgerTotals all = store.totals(seeded);
+        assertEquals(4, all.getCount());
+        assertEquals(0, new BigDecimal("155.50").compareTo(all.getCredits()));
+        assertEquals(0, new BigDecimal("40.25").compareTo(all.getDebits()));
+
+        LedgerTotals completedDay1 = store.totals(LedgerFilter.between(DAY1, DAY1).status("COMPLETED"));
+        assertEquals(2, completedDay1.getCount());
+        assertEquals(6975L, completedDay1.getNetMinor());
+
+        Map<Long, Long> byAccount = store.netMinorByAccount(seeded);
+        assertEquals(5975L, byAccount.get(first.getId()));
+        assertEquals(5550L, byAccount.get(second.getId()));
+
+        SortedMap<LocalDate, Long> byDay = store.netMinorByDay(LedgerFilter.between(DAY1, DAY2).type("DEBIT"));
+        assertEquals(-3025L, byDay.get(DAY1));
+        assertEquals(-1000L, byDay.get(DAY2));
+
+        assertEquals(0, store.totals(LedgerFilter.all().status("REVERSED")).getCount(), "Unknown status matches nothing");
+        System.out.println("✓ Totals, per-account and per-day aggregates match");
+    }
+
+    @Test
+    public void testCatchUpAppendsNewRows() {
+        System.out.println("\n[TEST] Testing catch-up from the high-water mark...");
+        LedgerColumnStore store = new LedgerColumnStore();
+        store.load(sessionFactory);
+        long highWaterMark = store.getHighWaterMark();
+        int before = store.size();
+
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            session.save(transaction(second, DAY3, "DEBIT", "5.50", "COMPLETED"));
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+
+        assertEquals(1L, store.catchUp(sessionFactory), "Only the new row is appended");
+        assertEquals(0L, store.catchUp(sessionFactory), "Re-reading the overlap adds nothing");
+        assertEquals(before + 1, store.size());
+        assertTrue(store.getHighWaterMark() > highWaterMark);
+        assertEquals(-550L, store.netMinorByAccount(LedgerFilter.all().from(DAY3)).get(second.getId()));
+
+        // A reload swaps in a fresh copy of the ledger instead of appending to the old one
+        store.append(Long.MAX_VALUE, first.getId(), DAY3, "CREDIT", 100, "COMPLETED");
+        store.load(sessionFactory);
+        assertEquals(before + 1, store.size());
+        assertEquals(-550L, store.totals(LedgerFilter.all().from(DAY3)).getNetMinor());
+        System.out.println("✓ New ledger rows appended without a reload");
+    }
+
+    @Test
+    public void testParallelScanMatchesSimpleLoop() {
+        System.out.println("\n[TEST] Testing scans over 1M synthetic rows...");
+        LedgerColumnStore store = new LedgerColumnStore();
+        Random random = new Random(7);
+        long expectedCount = 0;
+        long expectedNet = 0;
+        LocalDate from = DAY1.plusDays(10);
+        LocalDate to = DAY1.plusDays(40);
+        for (int i = 1; i <= 1_000_000; i++) {
+            LocalDate day = DAY1.plusDays(random.nextInt(60));
+            boolean debit = random.nextBoolean();
+            long amount = 1 + random.nextInt(10_000);
+            String status = random.nextInt(4) == 0 ? "PENDING" : "COMPLETED";
+            store.append(i, 1 + random.nextInt(1000), day, debit ? "DEBIT" : "CREDIT", amount, status);
+            if (!day.isBefore(from) && !day.isAfter(to) && status.equals("COMPLETED")) {
+                expectedCount++;
+                expectedNet += debit ? -amount : amount;
+            }
+        }
+
+        LedgerFilter filter = LedgerFilter.between(from, to).status("COMPLETED");
+        LedgerTotals totals = store.totals(filter);
+        assertEquals(expectedCount, totals.getCount());
+        assertEquals(expectedNet, totals.getNetMinor());
+        assertEquals(expectedNet, store.netMinorByDay(filter).values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(expectedNet, store.netMinorByAccount(filter).values().stream().mapToLong(Long::longValue).sum());
+        System.out.println("✓ " + totals);
+    }
+
+    private static BankTransaction transaction(Account account, LocalDate day, String type, String amount, String status) {
+        BankTransaction transaction = new BankTransaction(day, type, new BigDecimal(amount), status);
+        transaction.setAccount(account);
+        return transaction;
+    }
+}
@@ -0,0 +1,138 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.BankTransactionDAO;
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify the date-range ledger queries (LocalDate mapping,
+ * inclusive bounds, count/sum variants and idx_tx_account_date) against an
+ * in-memory H2 database
+ */
+public class LedgerDateRangeTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 1, 1);
+
+    private static SessionFactory sessionFactory;
+    private static Account account;
+    private static Account otherAccount;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:date_ranges;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            Customer customer = new Customer("Range Customer", "ranges@example.com");
+            session.save(customer);
+            account = new Account("RANGE-1", new BigDecimal("0.00"));
+            account.setCustomer(customer);
+            session.save(account);
+            otherAccount = new Account("RANGE-2", new BigDecimal("0.00"));
+            otherAccount.setCustomer(customer);
+            session.save(otherAccount);
+
+            // One transaction per day for 90 days, every third a debit of 2.50, the others credits of 10.00
+            for (int day = 0; day < 90; day++) {
+                boolean debit = day % 3 == 0;
+                BankTransaction bankTransaction = new BankTransaction(START.plusDays(day), debit ? "DEBIT" : "CREDIT",
+                    new BigDecimal(debit ? "2.50" : "10.00"), "COMPLETED");
+                bankTransaction.setAccount(account);
+                session.save(bankTransaction);
+
+                BankTransaction other = new BankTransaction(START.plusDays(day), "CREDIT", new BigDecimal("1.00"), "COMPLETED");
+                other.setAccount(otherAccount);
+                session.save(other);
+            }
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testRangeIsInclusiveAndNewestFirst() {
+        System.out.println("\n[TEST] Testing transactions by account and date range...");
+        BankTransactionDAO transactionDAO = new BankTransactionDAO(sessionFactory);
+        LocalDate from = START.plusDays(30);
+        LocalDate to = START.plusDays(59);
+
+        List<BankTransaction> window = transactionDAO.getTransactionsByAccountAndDateRange(account.getId(), from, to);
+        assertEquals(30, window.size());
+        assertEquals(to, window.get(0).getTxDate(), "Newest first, upper bound included");
+        assertEquals(from, window.get(window.size() - 1).getTxDate(), "Lower bound included");
+        for (BankTransaction transaction : window) {
+            assertEquals(account.getId(), transaction.getAccount().getId());
+        }
+        assertTrue(transactionDAO.getTransactionsByAccountAndDateRange(account.getId(), START.minusDays(10),
+            START.minusDays(1)).isEmpty());
+        System.out.println("✓ " + window.size() + " transactions from " + from + " to " + to);
+    }
+
+    @Test
+    public void testCountAndSumVariants() {
+        System.out.println("\n[TEST] Testing count and sum by account and date range...");
+        BankTransactionDAO transactionDAO = new BankTransactionDAO(sessionFactory);
+        LocalDate from = START;
+        LocalDate to = START.plusDays(29);
+
+        assertEquals(30L, transactionDAO.countTransactionsByAccountAndDateRange(account.getId(), from, to));
+        assertEquals(0, new BigDecimal("25.00").compareTo(
+            transactionDAO.sumAmountByAccountAndDateRange(account.getId(), from, to, "DEBIT")));
+        assertEquals(0, new BigDecimal("200.00").compareTo(
+            transactionDAO.sumAmountByAccountAndDateRange(account.getId(), from, to, "CREDIT")));
+        assertEquals(0, BigDecimal.ZERO.compareTo(
+            transactionDAO.sumAmountByAccountAndDateRange(otherAccount.getId(), from, to, "DEBIT")), "No rows sum to zero");
+        System.out.println("✓ Count and sums match the seeded window");
+    }
+
+    @Test
+    public void testRangeQueryUsesCompositeIndex() {
+        System.out.println("\n[TEST] Testing the plan of the date-range query...");
+        Session session = sessionFactory.openSession();
+        try {
+            String plan = String.valueOf(session.createNativeQuery(
+                "EXPLAIN SELECT id, amount FROM bank_transactions WHERE account_id = " + account.getId() +
+                " AND tx_date BETWEEN DATE '2025-02-01' AND DATE '2025-02-28' ORDER BY tx_date DESC, id DESC")
+                .uniqueResult());
+            assertTrue(plan.toUpperCase().contains("IDX_TX_ACCOUNT_DATE"), plan);
+            System.out.println("✓ " + plan.replaceAll("\\s+", " "));
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.AccountDAO;
+import com.banking.dao.KycProfileDAO;
+import com.banking.entity.Account;
+import com.banking.entity.KycProfile;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify that loading many entities by ID takes one statement
+ * per banking.multi_load.batch_size IDs (in-memory H2 database)
+ */
+public class MultiIdLoadTest {
+
+    private static final int ACCOUNTS = 10_000;
+    private static final int BATCH_SIZE = 1000;
+
+    private static SessionFactory sessionFactory;
+    private static AccountDAO accountDAO;
+    private static List<Long> accountIds = new ArrayList<>();
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:multi_id_load;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.generate_statistics", "true");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+        accountDAO = new AccountDAO(sessionFactory);
+
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            for (int i = 0; i < ACCOUNTS; i++) {
+                accountIds.add((Long) session.save(new Account("MULTI-" + i, BigDecimal.ONE)));
+                if (i % 1000 == 999) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testTenThousandAccountsInBatches() {
+        System.out.println("\n[TEST] Loading " + ACCOUNTS + " accounts by ID...");
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        List<Account> accounts = accountDAO.getByIds(accountIds);
+        assertEquals(ACCOUNTS, accounts.size());
+        assertEquals(ACCOUNTS / BATCH_SIZE, statistics.getPrepareStatementCount(),
+            "One multi-load statement per " + BATCH_SIZE + " IDs");
+        System.out.println("✓ " + ACCOUNTS + " accounts in " + statistics.getPrepareStatementCount() + " statements");
+    }
+
+    @Test
+    public void testInputOrderMissingAndDuplicateIds() {
+        System.out.println("\n[TEST] Loading IDs out of order, with duplicates and unknown IDs...");
+        List<Long> ids = new ArrayList<>(accountIds.subList(0, 1500));
+        Collections.reverse(ids);
+        ids.add(999_999L);
+        ids.add(ids.get(0));
+        ids.add(null);
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        List<Account> accounts = accountDAO.getByIds(ids);
+        assertEquals(1500, accounts.size());
+        assertEquals(ids.get(0), accounts.get(0).getId());
+        assertEquals(accountIds.get(0), accounts.get(1499).getId());
+        assertEquals(2, statistics.getPrepareStatementCount(), "1501 distinct IDs in two statements");
+        System.out.println("✓ Input order kept, unknown and duplicate IDs skipped");
+    }
+
+    @Test
+    public void testCachedEntitiesNotQueried() {
+        System.out.println("\n[TEST] Loading cached and uncached KYC Profiles by ID...");
+        KycProfileDAO kycDAO = new KycProfileDAO(sessionFactory);
+        Long first = kycDAO.saveKycProfile(new KycProfile("MULPN0001A", "LOW"));
+        Long second = kycDAO.saveKycProfile(new KycProfile("MULPN0002B", "LOW"));
+        Long third = kycDAO.saveKycProfile(new KycProfile("MULPN0003C", "LOW"));
+        sessionFactory.getCache().evictEntityData(KycProfile.class, third);
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        List<KycProfile> profiles = kycDAO.getByIds(Arrays.asList(first, second, third));
+        assertEquals(3, profiles.size());
+        assertEquals(2, statistics.getSecondLevelCacheHitCount());
+        assertEquals(1, statistics.getPrepareStatementCount(), "Only the evicted profile is queried");
+
+        statistics.clear();
+        assertEquals(3, kycDAO.getByIds(Arrays.asList(first, second, third)).size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+        System.out.println("✓ Cached profiles served without SQL");
+    }
+}
@@ -0,0 +1,186 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.NamedQuery;
+import javax.persistence.Table;
+
+import org.hibernate.HibernateException;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.MetadataSources;
+import org.hibernate.boot.registry.StandardServiceRegistry;
+import org.hibernate.boot.registry.StandardServiceRegistryBuilder;
+import org.hibernate.engine.spi.NamedQueryDefinition;
+import org.hibernate.engine.spi.NamedSQLQueryDefinition;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.entity.RefNotificationChannel;
+import com.banking.util.HibernateConfig;
+import com.banking.util.NamedQueryReport;
+import com.banking.util.StartupReport;
+
+/**
+ * Test class to verify that named queries are validated while the
+ * SessionFactory is built, and that named query results batch-fetch their
+ * lazy collections (in-memory H2 database)
+ */
+public class NamedQueryValidationTest {
+
+    private static final int ACCOUNTS = 120;
+    private static final int BATCH_SIZE = 50;
+
+    private static SessionFactory sessionFactory;
+    private static Long customerId;
+
+    @BeforeAll
+    public static void setup() {
+        sessionFactory = HibernateConfig.buildSessionFactory(h2Overrides("named_queries"));
+
+        Session session = sessionFactory.openSession();
+        session.beginTransaction();
+        RefNotificationChannel sms = new RefNotificationChannel("NQ_SMS", new BigDecimal("1.00"));
+        session.save(sms);
+        Customer customer = new Customer("Named Query Customer", "named@example.com");
+        customerId = (Long) session.save(customer);
+        for (int i = 0; i < ACCOUNTS; i++) {
+            Account account = new Account("NQ-" + i, BigDecimal.TEN);
+            account.setCustomer(customer);
+            account.getSubscriptions().add(sms);
+            session.save(account);
+        }
+        session.getTransaction().commit();
+        session.close();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testNamedQueriesRegisteredAtStartup() {
+        System.out.println("\n[TEST] Testing that every named query was compiled at startup...");
+        StartupReport report = HibernateConfig.getStartupReport();
+        assertTrue(report.getPhases().contains("Build SessionFactory (named queries)"),
+            "Named queries are compiled as a timed startup phase");
+
+        Properties overrides = h2Overrides("named_queries");
+        overrides.put(HibernateConfig.USE_SECOND_LEVEL_CACHE, "false");
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .configure(HibernateConfig.CONFIG_RESOURCE)
+                .applySettings(overrides)
+                .build();
+        Map<String, NamedQueryDefinition> queries;
+        try {
+            queries = NamedQueryReport.collectNamedQueries(new MetadataSources(registry).buildMetadata());
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+        assertTrue(queries.containsKey(Account.FIND_BY_CUSTOMER_ID), "HQL named queries are listed");
+        assertTrue(queries.get(BankTransaction.FIND_LATEST_PER_ACCOUNT_OF_CUSTOMER) instanceof NamedSQLQueryDefinition,
+            "Native named queries are listed");
+        Session session = sessionFactory.openSession();
+        try {
+            for (String name : queries.keySet()) {
+                assertNotNull(session.getNamedQuery(name), name + " should be registered");
+            }
+        } finally {
+            session.close();
+        }
+        System.out.println("✓ " + queries.size() + " named queries registered");
+    }
+
+    @Test
+    public void testInvalidNamedQueryFailsStartup() {
+        System.out.println("\n[TEST] Testing that an invalid named query fails the bootstrap...");
+        Properties overrides = h2Overrides("named_queries_invalid");
+        overrides.put(HibernateConfig.USE_SECOND_LEVEL_CACHE, "false");
+        StandardServiceRegistry registry = new StandardServiceRegistryBuilder()
+                .configure(HibernateConfig.CONFIG_RESOURCE)
+                .applySettings(overrides)
+                .build();
+        try {
+            HibernateException error = assertThrows(HibernateException.class, () ->
+                new MetadataSources(registry)
+                    .addAnnotatedClass(BrokenQueryHolder.class)
+                    .buildMetadata()
+                    .buildSessionFactory());
+            assertTrue(error.getMessage().contains(BrokenQueryHolder.BROKEN_QUERY),
+                "The error names the broken query: " + error.getMessage());
+            System.out.println("✓ Bootstrap failed: " + error.getMessage());
+        } finally {
+            StandardServiceRegistryBuilder.destroy(registry);
+        }
+    }
+
+    @Test
+    public void testNamedQueryResultsBatchFetchCollections() {
+        System.out.println("\n[TEST] Testing batch fetching after a named query...");
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        Session session = sessionFactory.openSession();
+        try {
+            List<Account> accounts = session.createNamedQuery(Account.FIND_BY_CUSTOMER_ID, Account.class)
+                .setParameter("customerId", customerId)
+                .list();
+            assertEquals(ACCOUNTS, accounts.size());
+            for (Account account : accounts) {
+                assertEquals(1, account.getSubscriptions().size());
+            }
+
+            // The query, the (single) customer, and the subscriptions in ceil(N/batch) statements
+            long expected = 1 + 1 + (ACCOUNTS + BATCH_SIZE - 1) / BATCH_SIZE;
+            assertEquals(expected, statistics.getPrepareStatementCount(),
+                "Subscriptions of " + ACCOUNTS + " accounts should be batch-fetched");
+            System.out.println("✓ " + ACCOUNTS + " accounts with subscriptions in "
+                + statistics.getPrepareStatementCount() + " statements");
+        } finally {
+            session.close();
+        }
+    }
+
+    private static Properties h2Overrides(String database) {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.generate_statistics", "true");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        return overrides;
+    }
+
+    // Mapped only by testInvalidNamedQueryFailsStartup: its named query refers to a missing property
+    @Entity
+    @Table(name = "broken_query_holder")
+    @NamedQuery(name = BrokenQueryHolder.BROKEN_QUERY,
+                query = "FROM Account a WHERE a.noSuchProperty = :value")
+    public static class BrokenQueryHolder {
+
+        static final String BROKEN_QUERY = "BrokenQueryHolder.findByMissingProperty";
+
+        @Id
+        private Long id;
+    }
+}
@@ -0,0 +1,128 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.AccountDAO;
+import com.banking.dao.KycProfileDAO;
+import com.banking.entity.Account;
+import com.banking.entity.KycProfile;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify that natural-id lookups (account number, PAN) are
+ * answered from the natural-id cache once resolved (in-memory H2 database)
+ */
+public class NaturalIdCacheTest {
+
+    private static final int PROFILES = 1200;
+
+    private static SessionFactory sessionFactory;
+    private static AccountDAO accountDAO;
+    private static KycProfileDAO kycDAO;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:natural_id_cache;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.generate_statistics", "true");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+        accountDAO = new AccountDAO(sessionFactory);
+        kycDAO = new KycProfileDAO(sessionFactory);
+
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            session.save(new Account("NAT-1", BigDecimal.TEN));
+            for (int i = 0; i < PROFILES; i++) {
+                session.save(new KycProfile(String.format("NATPN%05d", i), "LOW"));
+            }
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testAccountNumberResolvedFromCache() {
+        System.out.println("\n[TEST] Looking up an account number twice...");
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        assertNotNull(accountDAO.getByAccountNumber("NAT-1"));
+        assertEquals(0, statistics.getNaturalIdCacheHitCount());
+
+        statistics.clear();
+        assertNotNull(accountDAO.getByAccountNumber("NAT-1"));
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(0, statistics.getNaturalIdQueryExecutionCount(), "No natural-id resolution query");
+        // Accounts are not entity-cached (balances change too often): only the load by primary key is left
+        assertEquals(1, statistics.getPrepareStatementCount());
+        System.out.println("✓ Second lookup resolved from the natural-id cache");
+    }
+
+    @Test
+    public void testPanLookupWithoutSql() {
+        System.out.println("\n[TEST] Looking up a PAN twice...");
+        sessionFactory.getCache().evictAllRegions();
+        Statistics statistics = sessionFactory.getStatistics();
+        assertNotNull(kycDAO.getKycProfileByPanNumber("NATPN00007"));
+
+        statistics.clear();
+        KycProfile profile = kycDAO.getKycProfileByPanNumber("NATPN00007");
+        assertEquals("NATPN00007", profile.getPanNumber());
+        assertEquals(1, statistics.getNaturalIdCacheHitCount());
+        assertEquals(0, statistics.getPrepareStatementCount(), "PAN -> id and the profile both come from the cache");
+        System.out.println("✓ Second PAN lookup issued no SQL");
+    }
+
+    @Test
+    public void testBulkPanLookupFromCache() {
+        System.out.println("\n[TEST] Looking up " + PROFILES + " PANs twice...");
+        sessionFactory.getCache().evictAllRegions();
+        List<String> pans = new ArrayList<>();
+        for (int i = 0; i < PROFILES; i++) {
+            pans.add(String.format("NATPN%05d", i));
+        }
+        pans.add("NATPN99999");
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        Map<String, KycProfile> first = kycDAO.findByPanNumbers(pans);
+        assertEquals(PROFILES, first.size());
+        assertEquals(3, statistics.getPrepareStatementCount(), "IN chunks of 500: 500 + 500 + 201");
+
+        statistics.clear();
+        Map<String, KycProfile> second = kycDAO.findByPanNumbers(pans.subList(0, PROFILES));
+        assertEquals(PROFILES, second.size());
+        assertEquals(0, statistics.getPrepareStatementCount(), "Every PAN answered from the caches");
+        System.out.println("✓ " + PROFILES + " PANs: 3 statements, then none");
+    }
+}
@@ -0,0 +1,282 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.BankTransactionDAO;
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.entity.OutboxMessage;
+import com.banking.entity.RefNotificationChannel;
+import com.banking.notification.NotificationSender;
+import com.banking.notification.OutboxRelay;
+import com.banking.notification.RelayMetrics;
+import com.banking.notification.StubNotificationSender;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify the transactional notification outbox and its relay
+ * against an in-memory H2 database
+ */
+public class OutboxRelayTest {
+
+    private static SessionFactory sessionFactory;
+    private static Account smsAndEmailAccount;
+    private static Account whatsappAccount;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:outbox;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        overrides.put(HibernateConfig.OUTBOX_BATCH_SIZE, "10");
+        overrides.put(HibernateConfig.OUTBOX_MAX_ATTEMPTS, "3");
+        overrides.put(HibernateConfig.OUTBOX_RETRY_BACKOFF_MILLIS, "0");
+        overrides.put(HibernateConfig.OUTBOX_POLL_INTERVAL_MILLIS, "20");
+        overrides.put(HibernateConfig.OUTBOX_CHANNEL_PREFIX + "SMS_ALERT.max_concurrency", "2");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            RefNotificationChannel sms = new RefNotificationChannel("SMS_ALERT", new BigDecimal("1.00"));
+            RefNotificationChannel email = new RefNotificationChannel("EMAIL_STMT", BigDecimal.ZERO);
+            RefNotificationChannel whatsapp = new RefNotificationChannel("WHATSAPP_OTP", new BigDecimal("2.50"));
+            session.save(sms);
+            session.save(email);
+            session.save(whatsapp);
+
+            Customer customer = new Customer("Outbox Customer", "outbox@example.com");
+            session.save(customer);
+            smsAndEmailAccount = new Account("OUTBOX-1", new BigDecimal("1000.00"));
+            smsAndEmailAccount.setCustomer(customer);
+            smsAndEmailAccount.getSubscriptions().addAll(Arrays.asList(sms, email));
+            session.save(smsAndEmailAccount);
+            whatsappAccount = new Account("OUTBOX-2", new BigDecimal("1000.00"));
+            whatsappAccount.setCustomer(customer);
+            whatsappAccount.getSubscriptions().add(whatsapp);
+            session.save(whatsappAccount);
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @BeforeEach
+    public void clearOutbox() {
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            session.createQuery("DELETE FROM OutboxMessage").executeUpdate();
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    public void testMessagesAreQueuedWithTheTransaction() {
+        System.out.println("\n[TEST] Testing that outbox rows commit and roll back with the ledger row...");
+        BankTransactionDAO transactionDAO = new BankTransactionDAO(sessionFactory);
+        transactionDAO.saveTransaction(transaction(smsAndEmailAccount, "POSTED"));
+        assertEquals(2L, count(OutboxMessage.PENDING), "One message per subscribed channel");
+
+        // status is VARCHAR(20): the insert fails at commit and takes the outbox rows with it
+        assertThrows(RuntimeException.class,
+            () -> transactionDAO.saveTransaction(transaction(smsAndEmailAccount, "A STATUS THAT IS TOO LONG")));
+        assertEquals(2L, count(OutboxMessage.PENDING), "No notifications for a rolled back transaction");
+        System.out.println("✓ Outbox rows share the ledger transaction");
+    }
+
+    @Test
+    public void testRelayDeliversWithRetriesAndBoundedConcurrency() {
+        System.out.println("\n[TEST] Testing batched delivery with retries...");
+        BankTransactionDAO transactionDAO = new BankTransactionDAO(sessionFactory);
+        for (int i = 0; i < 15; i++) {
+            transactionDAO.saveTransaction(transaction(smsAndEmailAccount, "POSTED"));
+        }
+
+        StubNotificationSender sms = new StubNotificationSender("SMS_ALERT", 20, 0);
+        StubNotificationSender email = new StubNotificationSender("EMAIL_STMT", 0, 1);
+        OutboxRelay relay = new OutboxRelay(sessionFactory, Arrays.asList(sms, email));
+        try {
+            while (relay.relayOnce() > 0) {
+                // until nothing is due
+            }
+            RelayMetrics metrics = relay.getMetrics();
+            System.out.println("   " + metrics);
+
+            assertEquals(15, sms.getDelivered().size());
+            assertEquals(15, email.getDelivered().size());
+            assertEquals(15L, metrics.getFailedAttempts("EMAIL_STMT"), "Each email failed once and was retried");
+            assertEquals(30L, metrics.getSent());
+            assertEquals(30L, count(OutboxMessage.SENT));
+            assertEquals(0L, count(OutboxMessage.PENDING));
+            assertTrue(metrics.getBatches() >= 5, "30 messages plus 15 retries in batches of 10");
+            assertTrue(sms.getMaxInFlight() <= 2, "SMS_ALERT is limited to 2 concurrent sends");
+        } finally {
+            relay.close();
+        }
+        System.out.println("✓ All messages delivered in batches with per-channel limits");
+    }
+
+    @Test
+    public void testUndeliverableMessagesFailAfterMaxAttempts() {
+        System.out.println("\n[TEST] Testing max attempts...");
+        new BankTransactionDAO(sessionFactory).saveTransaction(transaction(whatsappAccount, "POSTED"));
+
+        // No WHATSAPP_OTP sender registered
+        OutboxRelay relay = new OutboxRelay(sessionFactory,
+            Collections.singletonList(new StubNotificationSender("SMS_ALERT")));
+        try {
+            while (relay.relayOnce() > 0) {
+                // retry until given up
+            }
+            assertEquals(1L, relay.getMetrics().getGaveUp());
+            assertEquals(3L, relay.getMetrics().getFailedAttempts());
+            assertEquals(1L, count(OutboxMessage.FAILED));
+        } finally {
+            relay.close();
+        }
+        System.out.println("✓ Message marked FAILED after 3 attempts");
+    }
+
+    @Test
+    public void testSlowChannelDoesNotHoldUpOthers() throws Exception {
+        System.out.println("\n[TEST] Testing that a stuck channel does not delay the others...");
+        BankTransactionDAO transactionDAO = new BankTransactionDAO(sessionFactory);
+        for (int i = 0; i < 3; i++) {
+            transactionDAO.saveTransaction(transaction(smsAndEmailAccount, "POSTED"));
+        }
+
+        CountDownLatch gatewayBack = new CountDownLatch(1);
+        NotificationSender stuckSms = new NotificationSender() {
+            @Override
+            public String getChannelName() {
+                return "SMS_ALERT";
+            }
+
+            @Override
+            public void send(OutboxMessage message) throws Exception {
+                gatewayBack.await();
+            }
+        };
+        StubNotificationSender email = new StubNotificationSender("EMAIL_STMT");
+        OutboxRelay relay = new OutboxRelay(sessionFactory, Arrays.asList(stuckSms, email));
+        try {
+            relay.start();
+            awaitCount(OutboxMessage.SENT, 3L);
+            assertEquals(3, email.getDelivered().size(), "Emails sent while the SMS gateway hangs");
+            assertEquals(3L, count(OutboxMessage.PENDING), "The SMS messages are still in flight");
+
+            gatewayBack.countDown();
+            awaitCount(OutboxMessage.SENT, 6L);
+        } finally {
+            gatewayBack.countDown();
+            relay.close();
+        }
+        System.out.println("✓ EMAIL_STMT delivered while SMS_ALERT was stuck");
+    }
+
+    @Test
+    public void testOutcomeOfReclaimedMessageIsSkipped() {
+        System.out.println("\n[TEST] Testing that an outcome is only recorded while the claim is ours...");
+        new BankTransactionDAO(sessionFactory).saveTransaction(transaction(smsAndEmailAccount, "POSTED"));
+
+        // The lease runs out mid-send and another relay claims the SMS message
+        NotificationSender overtakenSms = new NotificationSender() {
+            @Override
+            public String getChannelName() {
+                return "SMS_ALERT";
+            }
+
+            @Override
+            public void send(OutboxMessage message) {
+                Session session = sessionFactory.openSession();
+                Transaction transaction = session.beginTransaction();
+                try {
+                    session.createNativeQuery("UPDATE notification_outbox SET claim_token = 'other-relay' WHERE id = :id")
+                        .setParameter("id", message.getId())
+                        .executeUpdate();
+                    transaction.commit();
+                } finally {
+                    session.close();
+                }
+            }
+        };
+        OutboxRelay relay = new OutboxRelay(sessionFactory,
+            Arrays.asList(overtakenSms, new StubNotificationSender("EMAIL_STMT")));
+        try {
+            assertEquals(2, relay.relayOnce());
+            assertEquals(1L, relay.getMetrics().getSkippedOutcomes());
+            assertEquals(1L, count(OutboxMessage.SENT), "Only the email outcome is recorded");
+            assertEquals(1L, count(OutboxMessage.PENDING));
+
+            Session session = sessionFactory.openSession();
+            try {
+                assertEquals("other-relay", session.createNativeQuery(
+                    "SELECT claim_token FROM notification_outbox WHERE status = 'PENDING'").uniqueResult());
+            } finally {
+                session.close();
+            }
+        } finally {
+            relay.close();
+        }
+        System.out.println("✓ The other relay's claim was left alone");
+    }
+
+    private static BankTransaction transaction(Account account, String status) {
+        BankTransaction transaction = new BankTransaction(LocalDate.now(), "DEBIT", new BigDecimal("10.00"), status);
+        transaction.setAccount(account);
+        return transaction;
+    }
+
+    private static long count(String status) {
+        Session session = sessionFactory.openSession();
+        try {
+            return session.createNamedQuery(OutboxMessage.COUNT_BY_STATUS, Long.class)
+                .setParameter("status", status)
+                .uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+
+    private static void awaitCount(String status, long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (count(status) < expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "Timed out waiting for " + expected + " " + status);
+            Thread.sleep(20);
+        }
+        assertEquals(expected, count(status));
+    }
+}
@@ -0,0 +1,122 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Properties;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.CustomerDAO;
+import com.banking.entity.Customer;
+import com.banking.util.HibernateConfig;
+import com.banking.util.PerformanceProfiles;
+
+/**
+ * Test class to verify the workload-specific SessionFactory profiles
+ * (hibernate-<name>.properties) against an in-memory H2 database
+ */
+public class PerformanceProfilesTest {
+
+    private static SessionFactory primary;
+    private static PerformanceProfiles profiles;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:profiles;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        overrides.put(HibernateConfig.PROFILE_PREFIX + "reporting.hibernate.jdbc.fetch_size", "250");
+        primary = HibernateConfig.buildSessionFactory(overrides);
+        profiles = new PerformanceProfiles(primary);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (profiles != null) {
+            profiles.close();
+        }
+        if (primary != null) {
+            primary.close();
+        }
+    }
+
+    @Test
+    public void testProfilesAreTunedFromTheirFiles() {
+        System.out.println("\n[TEST] Testing the profile settings...");
+        SessionFactoryOptions batch = options(profiles.get(PerformanceProfiles.BATCH));
+        assertEquals(500, batch.getJdbcBatchSize());
+        assertEquals(Integer.valueOf(1000), batch.getJdbcFetchSize());
+        assertEquals(FlushMode.COMMIT, flushMode(profiles.get(PerformanceProfiles.BATCH)));
+
+        assertEquals(20, options(profiles.get(PerformanceProfiles.OLTP)).getJdbcBatchSize());
+        assertEquals(FlushMode.AUTO, flushMode(profiles.get(PerformanceProfiles.OLTP)));
+
+        assertEquals(Integer.valueOf(250), options(profiles.get(PerformanceProfiles.REPORTING)).getJdbcFetchSize(),
+            "banking.profile.reporting.* should override the profile file");
+        assertEquals(FlushMode.MANUAL, flushMode(profiles.get(PerformanceProfiles.REPORTING)));
+
+        assertSame(profiles.get(PerformanceProfiles.BATCH), profiles.get(PerformanceProfiles.BATCH),
+            "A profile is built once");
+        assertEquals(50, options(primary).getJdbcBatchSize(), "The primary keeps hibernate.cfg.xml's settings");
+        System.out.println("✓ Each profile gets its own tuning");
+    }
+
+    @Test
+    public void testProfilesShareDatabaseAndCache() {
+        System.out.println("\n[TEST] Testing that profiles share the primary's database and cache...");
+        Long customerId = new CustomerDAO(profiles.get(PerformanceProfiles.OLTP))
+            .saveCustomer(new Customer("Profile Customer", "profile@example.com"));
+
+        CustomerDAO primaryDAO = new CustomerDAO(primary);
+        assertEquals("profile@example.com", primaryDAO.getCustomerById(customerId).getEmail(),
+            "Profiles write to the primary's database");
+
+        // Update through the batch profile; the primary's cached copy must be invalidated
+        Session session = profiles.get(PerformanceProfiles.BATCH).openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            session.get(Customer.class, customerId).setEmail("batch@example.com");
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+        assertEquals("batch@example.com", primaryDAO.getCustomerById(customerId).getEmail(),
+            "The second-level cache is shared with the primary");
+        System.out.println("✓ Profiles use the same database and second-level cache");
+    }
+
+    @Test
+    public void testUnknownProfile() {
+        System.out.println("\n[TEST] Testing an unknown profile...");
+        assertThrows(IllegalArgumentException.class, () -> profiles.get("no-such-profile"));
+        System.out.println("✓ Unknown profiles are rejected");
+    }
+
+    private static SessionFactoryOptions options(SessionFactory factory) {
+        return factory.unwrap(SessionFactoryImplementor.class).getSessionFactoryOptions();
+    }
+
+    private static FlushMode flushMode(SessionFactory factory) {
+        Session session = factory.openSession();
+        try {
+            return session.getHibernateFlushMode();
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,234 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.AccountDAO;
+import com.banking.dao.AccountSubscriptionDAO;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.entity.OutboxMessage;
+import com.banking.entity.RefNotificationChannel;
+import com.banking.service.Posting;
+import com.banking.service.PostingEngine;
+import com.banking.service.PostingResult;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify the PostingEngine (netted balance updates, overdraft
+ * check in SQL, ledger and outbox rows, concurrent posters) against an
+ * in-memory H2 database
+ */
+public class PostingEngineTest {
+
+    private static SessionFactory sessionFactory;
+    private static AccountDAO accountDAO;
+    private static PostingEngine engine;
+    private static Long customerId;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:posting_engine;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.generate_statistics", "true");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+        accountDAO = new AccountDAO(sessionFactory);
+        engine = new PostingEngine(sessionFactory);
+
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            customerId = (Long) session.save(new Customer("Posting Customer", "posting@example.com"));
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testNettedPosting() {
+        System.out.println("\n[TEST] Posting a batch over two accounts...");
+        Long first = accountDAO.saveAccount(customerId, new Account("POST-1", new BigDecimal("100.00")));
+        Long second = accountDAO.saveAccount(customerId, new Account("POST-2", new BigDecimal("0.00")));
+        Long firstVersion = accountDAO.getAccountById(first).getVersion();
+
+        PostingResult result = engine.post(Arrays.asList(
+            Posting.debit(first, new BigDecimal("30.00")),
+            Posting.credit(second, new BigDecimal("50.00")),
+            Posting.credit(first, new BigDecimal("10.00")),
+            Posting.credit(second, new BigDecimal("5.00"))));
+
+        assertEquals(4, result.getPosted());
+        assertEquals(2, result.getAccountsUpdated());
+        assertTrue(result.getRejected().isEmpty());
+        assertEquals(new BigDecimal("80.00"), accountDAO.getAccountById(first).getBalance());
+        assertEquals(new BigDecimal("55.00"), accountDAO.getAccountById(second).getBalance());
+        assertEquals(firstVersion + 1, accountDAO.getAccountById(first).getVersion(), "One UPDATE per account");
+        assertEquals(2, countTransactions(first));
+        assertEquals(2, countTransactions(second));
+        System.out.println("✓ " + result);
+    }
+
+    @Test
+    public void testOverdraftRejected() {
+        System.out.println("\n[TEST] Rejecting postings that would overdraw an account...");
+        Long poor = accountDAO.saveAccount(customerId, new Account("POST-3", new BigDecimal("20.00")));
+        Long covered = accountDAO.saveAccount(customerId, new Account("POST-4", new BigDecimal("20.00")));
+        Long other = accountDAO.saveAccount(customerId, new Account("POST-5", new BigDecimal("0.00")));
+
+        Posting overdraft = Posting.debit(poor, new BigDecimal("50.00"));
+        Posting unknown = Posting.credit(999_999L, new BigDecimal("1.00"));
+        PostingResult result = engine.post(Arrays.asList(
+            overdraft,
+            unknown,
+            // Net -15.00 on a balance of 20.00: accepted although the debit alone exceeds the balance
+            Posting.debit(covered, new BigDecimal("30.00")),
+            Posting.credit(covered, new BigDecimal("15.00")),
+            Posting.credit(other, new BigDecimal("1.00"))));
+
+        assertEquals(3, result.getPosted());
+        assertEquals(2, result.getRejected().size());
+        assertTrue(result.getRejected().containsAll(Arrays.asList(unknown, overdraft)));
+        assertEquals(new BigDecimal("20.00"), accountDAO.getAccountById(poor).getBalance());
+        assertEquals(0, countTransactions(poor));
+        assertEquals(new BigDecimal("5.00"), accountDAO.getAccountById(covered).getBalance());
+        assertEquals(new BigDecimal("1.00"), accountDAO.getAccountById(other).getBalance());
+        System.out.println("✓ Overdraft and unknown account rejected, the rest posted");
+    }
+
+    @Test
+    public void testConcurrentPostersWithNotifications() throws Exception {
+        System.out.println("\n[TEST] Concurrent posters on shared accounts...");
+        Long channelId;
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            channelId = (Long) session.save(new RefNotificationChannel("POSTING_SMS", new BigDecimal("1.00")));
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+        Long notified = accountDAO.saveAccount(customerId, new Account("POST-6", new BigDecimal("0.00")));
+        Long silent = accountDAO.saveAccount(customerId, new Account("POST-7", new BigDecimal("0.00")));
+        assertTrue(new AccountSubscriptionDAO(sessionFactory).subscribe(notified, channelId));
+
+        int posters = 8;
+        int batches = 10;
+        ExecutorService executor = Executors.newFixedThreadPool(posters);
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for (int i = 0; i < posters; i++) {
+                // Alternate the account order: rows are still locked in ID order
+                boolean reversed = i % 2 == 1;
+                workers.add(executor.submit(() -> {
+                    for (int j = 0; j < batches; j++) {
+                        Posting toNotified = Posting.credit(notified, new BigDecimal("1.00"));
+                        Posting toSilent = Posting.credit(silent, new BigDecimal("2.00"));
+                        engine.post(reversed ? Arrays.asList(toSilent, toNotified) : Arrays.asList(toNotified, toSilent));
+                    }
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        int postings = posters * batches;
+        assertEquals(new BigDecimal(postings + ".00"), accountDAO.getAccountById(notified).getBalance());
+        assertEquals(new BigDecimal(2 * postings + ".00"), accountDAO.getAccountById(silent).getBalance());
+        session = sessionFactory.openSession();
+        try {
+            List<OutboxMessage> messages = session.createQuery(
+                    "FROM OutboxMessage WHERE accountId = :accountId", OutboxMessage.class)
+                .setParameter("accountId", notified)
+                .list();
+            assertEquals(postings, messages.size());
+            assertEquals("CREDIT of 1.00 on account #" + notified + " (COMPLETED)", messages.get(0).getPayload());
+            assertEquals(OutboxMessage.PENDING, messages.get(0).getStatus());
+            assertEquals(0L, session.createQuery(
+                    "SELECT COUNT(o) FROM OutboxMessage o WHERE o.accountId = :accountId", Long.class)
+                .setParameter("accountId", silent)
+                .uniqueResult());
+        } finally {
+            session.close();
+        }
+        System.out.println("✓ " + postings * 2 + " postings from " + posters + " posters, " + postings + " notifications");
+    }
+
+    @Test
+    public void testLargeBatchOnNullBalance() {
+        System.out.println("\n[TEST] Posting 120 notified credits to an account without a balance...");
+        Long channelId;
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            channelId = (Long) session.save(new RefNotificationChannel("POSTING_EMAIL", BigDecimal.ZERO));
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+        Long account = accountDAO.saveAccount(customerId, new Account("POST-8", null));
+        assertTrue(new AccountSubscriptionDAO(sessionFactory).subscribe(account, channelId));
+
+        List<Posting> postings = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            postings.add(Posting.credit(account, new BigDecimal("1.00")));
+        }
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        PostingResult result = engine.post(postings);
+        // The JDBC batches themselves bypass Hibernate: what is counted are the sequence calls
+        long sequenceCalls = statistics.getPrepareStatementCount();
+
+        assertEquals(120, result.getPosted());
+        assertEquals(120, result.getNotifications());
+        assertEquals(new BigDecimal("120.00"), accountDAO.getAccountById(account).getBalance(), "NULL counts as zero");
+        assertTrue(sequenceCalls <= 8, "240 IDs from pooled sequences: " + sequenceCalls + " sequence calls");
+        System.out.println("✓ " + result + ", " + sequenceCalls + " sequence calls");
+    }
+
+    private long countTransactions(Long accountId) {
+        Session session = sessionFactory.openSession();
+        try {
+            return session.createQuery(
+                    "SELECT COUNT(t) FROM BankTransaction t WHERE t.account.id = :accountId", Long.class)
+                .setParameter("accountId", accountId)
+                .uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Properties;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.banking.entity.Customer;
+import com.banking.util.HibernateConfig;
+import com.banking.util.ReadWriteRouter;
+
+/**
+ * Test class to verify read/write routing between a primary and a replica
+ * (two separate in-memory H2 databases, so nothing is replicated), and that
+ * the replica does not share the primary's second-level cache
+ */
+public class ReadWriteRouterTest {
+
+    private static SessionFactory primary;
+    private static ReadWriteRouter router;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:rw_primary;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        overrides.put(HibernateConfig.REPLICA_ENABLED, "true");
+        overrides.put(HibernateConfig.REPLICA_READ_YOUR_WRITES_MILLIS, "60000");
+        overrides.put(HibernateConfig.REPLICA_PREFIX + "hibernate.connection.url", "jdbc:h2:mem:rw_replica;DB_CLOSE_DELAY=-1");
+        // The replica does not inherit the primary's schema handling
+        overrides.put(HibernateConfig.REPLICA_PREFIX + "hibernate.hbm2ddl.auto", "create-drop");
+        primary = HibernateConfig.buildSessionFactory(overrides);
+        router = ReadWriteRouter.fromSettings(primary);
+        assertTrue(router.hasReplica(), "Replica should be configured");
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (router != null) {
+            router.close();
+        }
+        if (primary != null) {
+            primary.close();
+        }
+    }
+
+    @BeforeEach
+    public void forgetWrites() {
+        ReadWriteRouter.clearWrites();
+    }
+
+    @Test
+    public void testReadsGoToReplica() {
+        System.out.println("\n[TEST] Testing that reads are routed to the replica...");
+        saveCustomer("replica-read");
+        ReadWriteRouter.clearWrites();
+
+        assertSame(primary, router.writeFactory(), "Writes always use the primary");
+        assertNotSame(primary, router.readFactory(), "Reads should use the replica");
+        assertEquals(0L, countCustomers(router.readFactory()), "Nothing is replicated to the replica database");
+        assertTrue(countCustomers(router.writeFactory()) > 0, "The primary has the customer");
+        System.out.println("✓ Reads are served by the replica");
+    }
+
+    @Test
+    public void testReadYourWrites() {
+        System.out.println("\n[TEST] Testing read-your-writes after a commit...");
+        assertNotSame(primary, router.readFactory(), "No recent write: reads use the replica");
+
+        saveCustomer("read-your-writes");
+
+        assertSame(primary, router.readFactory(), "Reads right after a commit should stay on the primary");
+        assertTrue(countCustomers(router.readFactory()) > 0, "The thread sees its own write");
+        System.out.println("✓ The committing thread reads its own writes");
+    }
+
+    @Test
+    public void testRollbackIsNotAWrite() {
+        System.out.println("\n[TEST] Testing that rolled back transactions are not tracked...");
+        Session session = primary.openSession();
+        try {
+            session.beginTransaction();
+            session.save(new Customer("Rolled Back", "rollback@example.com"));
+            session.getTransaction().rollback();
+        } finally {
+            session.close();
+        }
+        assertNotSame(primary, router.readFactory(), "A rollback should not pin reads to the primary");
+        System.out.println("✓ Only commits count as writes");
+    }
+
+    @Test
+    public void testDerivedSettingsCarryOnlyTheDatabase() {
+        System.out.println("\n[TEST] Testing the settings a derived factory takes from the primary...");
+        Properties derived = HibernateConfig.derivedSettings(primary);
+        assertEquals("jdbc:h2:mem:rw_primary;DB_CLOSE_DELAY=-1", derived.get("hibernate.connection.url"));
+        assertEquals("org.hibernate.dialect.H2Dialect", derived.get(HibernateConfig.DIALECT));
+        assertNotNull(derived.get(HibernateConfig.JCACHE_CACHE_MANAGER), "The cache manager is shared");
+        assertFalse(derived.containsKey("hibernate.session_factory.interceptor"),
+            "The interceptor comes from hibernate.cfg.xml, not the primary");
+        assertFalse(derived.containsKey("hibernate.hbm2ddl.auto"), "Schema handling stays with the primary");
+        System.out.println("✓ " + derived.size() + " derived settings");
+    }
+
+    private static Long saveCustomer(String name) {
+        Session session = primary.openSession();
+        try {
+            session.beginTransaction();
+            Long id = (Long) session.save(new Customer(name, name + "@example.com"));
+            session.getTransaction().commit();
+            return id;
+        } finally {
+            session.close();
+        }
+    }
+
+    @Test
+    public void testStaleReplicaReadNotCachedForPrimary() {
+        System.out.println("\n[TEST] Testing that a stale replica read does not reach the primary's cache...");
+        Long id = saveCustomer("current-name");
+        ReadWriteRouter.clearWrites();
+        // The replica still has an older version of the row
+        SessionFactory replica = router.readFactory();
+        executeOnReplica(replica, "INSERT INTO customers (id, full_name, email) VALUES (" + id + ", 'stale-name', 'stale@example.com')");
+        primary.getCache().evictEntityData(Customer.class, id);
+        try {
+            assertEquals("stale-name", getCustomer(replica, id).getFullName());
+            assertFalse(primary.getCache().containsEntity(Customer.class, id), "The replica read is not cached for the primary");
+            assertEquals("current-name", getCustomer(primary, id).getFullName());
+            assertTrue(primary.getCache().containsEntity(Customer.class, id));
+            assertEquals("stale-name", getCustomer(replica, id).getFullName(),
+                "The primary's cache entry is not served by the replica either");
+        } finally {
+            executeOnReplica(replica, "DELETE FROM customers WHERE id = " + id);
+        }
+        System.out.println("✓ Replica and primary caches are separate");
+    }
+
+    private static void executeOnReplica(SessionFactory replica, String sql) {
+        Session session = replica.openSession();
+        try {
+            session.beginTransaction();
+            session.createNativeQuery(sql).executeUpdate();
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    private static Customer getCustomer(SessionFactory sessionFactory, Long id) {
+        Session session = sessionFactory.openSession();
+        try {
+            return session.get(Customer.class, id);
+        } finally {
+            session.close();
+        }
+    }
+
+    private static long countCustomers(SessionFactory sessionFactory) {
+        Session session = sessionFactory.openSession();
+        try {
+            return session.createQuery("SELECT COUNT(c) FROM Customer c", Long.class).uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.AccountDAO;
+import com.banking.dao.AccountSubscriptionDAO;
+import com.banking.dao.BankTransactionDAO;
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.entity.OutboxMessage;
+import com.banking.entity.RefNotificationChannel;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify that writes by parent ID (transactions for an account
+ * ID, accounts for a customer ID, subscriptions) do not load the parents,
+ * against an in-memory H2 database
+ */
+public class ReferenceWriteTest {
+
+    private static SessionFactory sessionFactory;
+    private static Long customerId;
+    private static Long accountId;
+    private static Long channelId;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:reference_writes;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.generate_statistics", "true");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            Customer customer = new Customer("Reference Customer", "reference@example.com");
+            customerId = (Long) session.save(customer);
+            Account account = new Account("REF-1", new BigDecimal("0.00"));
+            account.setCustomer(customer);
+            accountId = (Long) session.save(account);
+            channelId = (Long) session.save(new RefNotificationChannel("EMAIL", new BigDecimal("0.50")));
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testSaveTransactionByAccountIdIsOneInsert() {
+        System.out.println("\n[TEST] Saving a ledger row by account ID...");
+        BankTransactionDAO dao = new BankTransactionDAO(sessionFactory);
+        // The first insert draws a block of 50 IDs from BANK_TRANSACTION_SEQ
+        dao.saveTransaction(accountId, LocalDate.now(), "CREDIT", new BigDecimal("10.00"), "COMPLETED");
+
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        BankTransaction saved = new BankTransaction(LocalDate.now(), "DEBIT", new BigDecimal("2.50"), "COMPLETED");
+        Long id = dao.saveTransaction(accountId, saved);
+
+        assertNotNull(id);
+        assertFalse(Hibernate.isInitialized(saved.getAccount()), "Account should stay an uninitialized reference");
+        assertEquals(0, statistics.getEntityLoadCount(), "No account, customer or KYC should be loaded");
+        assertEquals(1, statistics.getEntityInsertCount());
+        // The INSERT plus the subscription lookup for notifications (no sequence call within the block)
+        assertEquals(1, statistics.getQueryExecutionCount());
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(accountId, dao.getTransactionById(id).getAccount().getId());
+        System.out.println("✓ One INSERT for the ledger row, nothing loaded");
+    }
+
+    @Test
+    public void testSaveAccountByCustomerIdAndUnknownParents() {
+        System.out.println("\n[TEST] Saving by parent ID with known and unknown parents...");
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.clear();
+        Account account = new Account("REF-2", new BigDecimal("5.00"));
+        Long id = new AccountDAO(sessionFactory).saveAccount(customerId, account);
+        assertNotNull(id);
+        assertFalse(Hibernate.isInitialized(account.getCustomer()), "Customer should stay an uninitialized reference");
+        assertEquals(0, statistics.getEntityLoadCount());
+
+        // Unknown parents are rejected by the foreign keys, nothing is stored
+        BankTransactionDAO dao = new BankTransactionDAO(sessionFactory);
+        long before = countTransactions();
+        assertThrows(RuntimeException.class, () ->
+            dao.saveTransaction(999_999L, LocalDate.now(), "CREDIT", BigDecimal.ONE, "COMPLETED"));
+        assertEquals(before, countTransactions());
+        assertThrows(RuntimeException.class, () ->
+            new AccountDAO(sessionFactory).saveAccount(999_999L, new Account("REF-X", BigDecimal.ZERO)));
+        System.out.println("✓ Account saved for a customer ID; unknown IDs fail on the foreign key");
+    }
+
+    @Test
+    public void testSubscribeByIdsAndNotify() {
+        System.out.println("\n[TEST] Subscribing by IDs and notifying a reference-saved transaction...");
+        AccountSubscriptionDAO subscriptionDAO = new AccountSubscriptionDAO(sessionFactory);
+        Long subscriberId = new AccountDAO(sessionFactory).saveAccount(customerId, new Account("REF-3", BigDecimal.ZERO));
+
+        assertTrue(subscriptionDAO.subscribe(subscriberId, channelId));
+        assertFalse(subscriptionDAO.subscribe(subscriberId, channelId), "Already subscribed");
+        assertFalse(subscriptionDAO.subscribe(999_999L, channelId), "Unknown account is skipped");
+
+        Long id = new BankTransactionDAO(sessionFactory)
+            .saveTransaction(subscriberId, LocalDate.now(), "CREDIT", new BigDecimal("7.00"), "COMPLETED");
+        Session session = sessionFactory.openSession();
+        try {
+            List<OutboxMessage> messages = session.createQuery(
+                    "FROM OutboxMessage WHERE transactionId = :id", OutboxMessage.class)
+                .setParameter("id", id)
+                .list();
+            assertEquals(1, messages.size());
+            assertEquals(channelId, messages.get(0).getChannelId());
+            assertEquals("CREDIT of 7.00 on account #" + subscriberId + " (COMPLETED)", messages.get(0).getPayload());
+        } finally {
+            session.close();
+        }
+
+        assertTrue(subscriptionDAO.unsubscribe(subscriberId, channelId));
+        assertFalse(subscriptionDAO.unsubscribe(subscriberId, channelId));
+        System.out.println("✓ Subscription managed by IDs, notification queued without loading the account");
+    }
+
+    private long countTransactions() {
+        Session session = sessionFactory.openSession();
+        try {
+            return session.createQuery("SELECT COUNT(t) FROM BankTransaction t", Long.class).uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+}
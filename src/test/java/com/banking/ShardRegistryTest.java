@@ -0,0 +1,203 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.ShardedCustomerDAO;
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.entity.KycProfile;
+import com.banking.shard.ShardRegistry;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify customer sharding over several in-memory H2 databases
+ */
+public class ShardRegistryTest {
+
+    private static final int SHARDS = 3;
+    private static final int CUSTOMERS = 9;
+
+    private static ShardRegistry registry;
+    private static ShardedCustomerDAO shardedDAO;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        overrides.put(HibernateConfig.SHARD_COUNT, String.valueOf(SHARDS));
+        for (int shard = 0; shard < SHARDS; shard++) {
+            overrides.put(HibernateConfig.SHARD_PREFIX + shard + ".hibernate.connection.url",
+                "jdbc:h2:mem:shard" + shard + ";DB_CLOSE_DELAY=-1");
+        }
+        registry = ShardRegistry.fromSettings(overrides);
+        assertEquals(SHARDS, registry.getShardCount());
+
+        // Per-shard sequence offsets from db_script.txt: START WITH N + k, INCREMENT BY N
+        for (int shard = 0; shard < SHARDS; shard++) {
+            int start = SHARDS + shard;
+            int transactionStart = 50 * (shard + 1);
+            Session session = registry.getShard(shard).openSession();
+            try {
+                session.doWork(connection -> {
+                    try (Statement statement = connection.createStatement()) {
+                        for (String sequence : new String[] {"CUSTOMER_SEQ", "ACCOUNT_SEQ", "KYC_PROFILE_SEQ"}) {
+                            statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + start + " INCREMENT BY " + SHARDS);
+                        }
+                        // Pooled: shard k gets every N-th block of 50 (START WITH 50 * (k + 1), INCREMENT BY 50 * N)
+                        for (String sequence : new String[] {"BANK_TRANSACTION_SEQ", "NOTIFICATION_OUTBOX_SEQ"}) {
+                            statement.execute("ALTER SEQUENCE " + sequence + " RESTART WITH " + transactionStart
+                                + " INCREMENT BY " + 50 * SHARDS);
+                        }
+                    }
+                });
+            } finally {
+                session.close();
+            }
+        }
+
+        shardedDAO = new ShardedCustomerDAO(registry);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = new Customer("Customer " + i, "customer" + i + "@example.com");
+            customer.setKycProfile(new KycProfile("PAN" + i, "LOW"));
+            Long customerId = shardedDAO.saveCustomer(customer);
+            for (int a = 0; a < 2; a++) {
+                Account account = new Account("ACC" + i + "-" + a, new BigDecimal("100.00"));
+                account.setCustomer(customer);
+                shardedDAO.saveAccount(account);
+            }
+            assertNotNull(customerId);
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (registry != null) {
+            registry.close();
+        }
+    }
+
+    @Test
+    public void testCustomersAreSpreadAndRoutable() {
+        System.out.println("\n[TEST] Testing customer placement and routing...");
+        for (int shard = 0; shard < SHARDS; shard++) {
+            assertEquals(CUSTOMERS / SHARDS, count(registry.getShard(shard), "SELECT COUNT(c) FROM Customer c"),
+                "Customers should be spread evenly over the shards");
+        }
+        List<Customer> found = shardedDAO.findByEmail("customer4@example.com");
+        assertEquals(1, found.size(), "Scatter-gather should find the customer on its shard");
+        Long customerId = found.get(0).getId();
+        assertEquals(customerId % SHARDS, registry.shardIndexFor(customerId));
+
+        Customer routed = shardedDAO.getCustomerById(customerId);
+        assertNotNull(routed, "Lookup by ID should be routed to the owning shard");
+        assertEquals("Customer 4", routed.getFullName());
+        assertEquals("PAN4", routed.getKycProfile().getPanNumber(), "KYC profile lives on the customer's shard");
+        System.out.println("✓ Customers are placed round robin and routed by ID");
+    }
+
+    @Test
+    public void testAccountsCoLocateWithCustomer() {
+        System.out.println("\n[TEST] Testing that accounts live on their customer's shard...");
+        Long customerId = shardedDAO.findByEmail("customer7@example.com").get(0).getId();
+        List<Account> accounts = shardedDAO.getAccountsByCustomerId(customerId);
+        assertEquals(2, accounts.size(), "Both accounts should be on the customer's shard");
+
+        for (int shard = 0; shard < SHARDS; shard++) {
+            if (shard != registry.shardIndexFor(customerId)) {
+                Session session = registry.getShard(shard).openSession();
+                try {
+                    Long elsewhere = session.createQuery(
+                        "SELECT COUNT(a) FROM Account a WHERE a.customer.id = :customerId", Long.class)
+                        .setParameter("customerId", customerId)
+                        .uniqueResult();
+                    assertEquals(0L, elsewhere, "No accounts of the customer on other shards");
+                } finally {
+                    session.close();
+                }
+            }
+        }
+        System.out.println("✓ Accounts are co-located with their customer");
+    }
+
+    @Test
+    public void testScatterGatherAggregates() {
+        System.out.println("\n[TEST] Testing cross-shard aggregates...");
+        assertEquals(CUSTOMERS, shardedDAO.countCustomers());
+        assertEquals(0, new BigDecimal("1800.00").compareTo(shardedDAO.getTotalBalance()),
+            "Total balance should add up over all shards");
+        System.out.println("✓ Global aggregates are gathered from every shard");
+    }
+
+    @Test
+    public void testTransactionIdsUniqueAcrossShards() {
+        System.out.println("\n[TEST] Testing transaction IDs across shards...");
+        Set<Long> transactionIds = new HashSet<>();
+        int perCustomer = 60;
+        for (int i = 0; i < SHARDS; i++) {
+            Long customerId = shardedDAO.findByEmail("customer" + i + "@example.com").get(0).getId();
+            Long accountId = shardedDAO.getAccountsByCustomerId(customerId).get(0).getId();
+            for (int t = 0; t < perCustomer; t++) {
+                BankTransaction transaction = new BankTransaction(LocalDate.now(), "CREDIT", BigDecimal.ONE, "COMPLETED");
+                Long id = shardedDAO.saveTransaction(customerId, accountId, transaction);
+                assertTrue(transactionIds.add(id), "Transaction ID " + id + " was also generated on another shard");
+            }
+        }
+        assertEquals(SHARDS * perCustomer, transactionIds.size());
+        System.out.println("✓ " + transactionIds.size() + " transaction IDs, more than one pooled block per shard, all distinct");
+    }
+
+    @Test
+    public void testNestedScatterGather() throws Exception {
+        System.out.println("\n[TEST] Testing scatter-gather called from scatter-gather work...");
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<Long> total = caller.submit(() -> {
+                long sum = 0;
+                // Every pool thread runs an inner scatter-gather; with one thread per shard this used to deadlock
+                for (Long shardTotal : registry.scatterGather(shard -> shardedDAO.countCustomers())) {
+                    sum += shardTotal;
+                }
+                return sum;
+            });
+            assertEquals(SHARDS * (long) CUSTOMERS, total.get(30, TimeUnit.SECONDS).longValue());
+        } finally {
+            caller.shutdownNow();
+        }
+        System.out.println("✓ Nested scatter-gather completed");
+    }
+
+    private static long count(SessionFactory shard, String hql) {
+        Session session = shard.openSession();
+        try {
+            return session.createQuery(hql, Long.class).uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+}
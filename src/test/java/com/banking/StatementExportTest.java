@@ -0,0 +1,183 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.Transaction;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.banking.entity.Account;
+import com.banking.entity.BankTransaction;
+import com.banking.entity.Customer;
+import com.banking.service.ExportRunReport;
+import com.banking.service.StatementExportService;
+import com.banking.service.StatementFormat;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify the streaming statement export (CSV and binary,
+ * single account and partitioned) against an in-memory H2 database
+ */
+public class StatementExportTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 4, 1);
+    private static final int BULK_ROWS = 10_000; // more than one 256 KB buffer of CSV
+
+    private static SessionFactory sessionFactory;
+    private static Account small;
+
+    @TempDir
+    Path exportDir;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:statements;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put("hibernate.jdbc.batch_size", "100");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+
+        Session session = sessionFactory.openSession();
+        Transaction transaction = session.beginTransaction();
+        try {
+            Customer customer = new Customer("Statement Customer", "statements@example.com");
+            session.save(customer);
+            small = new Account("STMT-1", new BigDecimal("0.00"));
+            small.setCustomer(customer);
+            session.save(small);
+            Account bulk = new Account("STMT-2", new BigDecimal("0.00"));
+            bulk.setCustomer(customer);
+            session.save(bulk);
+
+            session.save(transaction(small, DAY.plusDays(1), "DEBIT", "7.05", "COMPLETED"));
+            session.save(transaction(small, DAY, "CREDIT", "1250.00", "COMPLETED"));
+            session.save(transaction(small, DAY.plusDays(2), "DEBIT", "0.99", "ON HOLD, REVIEW"));
+            session.save(transaction(small, DAY.plusDays(40), "CREDIT", "5.00", "COMPLETED")); // outside the period
+            for (int i = 0; i < BULK_ROWS; i++) {
+                session.save(transaction(bulk, DAY.plusDays(i % 30), i % 2 == 0 ? "CREDIT" : "DEBIT", "10.01", "COMPLETED"));
+                if (i % 100 == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+            transaction.commit();
+        } finally {
+            session.close();
+        }
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testSingleAccountCsv() throws IOException {
+        System.out.println("\n[TEST] Testing CSV statement of one account...");
+        StatementExportService service = new StatementExportService(sessionFactory, 1, 100);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = service.exportAccount(small.getId(), DAY, DAY.plusDays(29), StatementFormat.CSV,
+            Channels.newChannel(out));
+
+        assertEquals(3, rows);
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals(4, lines.length);
+        assertEquals("account_id,transaction_id,tx_date,type,amount,status", lines[0]);
+        assertTrue(lines[1].matches(small.getId() + ",\\d+,2025-04-01,CREDIT,1250.00,COMPLETED"), lines[1]);
+        assertTrue(lines[2].matches(small.getId() + ",\\d+,2025-04-02,DEBIT,7.05,COMPLETED"), lines[2]);
+        assertTrue(lines[3].endsWith(",2025-04-03,DEBIT,0.99,\"ON HOLD, REVIEW\""), lines[3]);
+        System.out.println("✓ " + lines[1]);
+    }
+
+    @Test
+    public void testPartitionedCsvExport() throws IOException {
+        System.out.println("\n[TEST] Testing partitioned CSV export...");
+        StatementExportService service = new StatementExportService(sessionFactory, 2, 1);
+        ExportRunReport report = service.exportAll(exportDir, DAY, DAY.plusDays(29), StatementFormat.CSV);
+
+        assertEquals(BULK_ROWS + 3, report.getRows());
+        assertEquals(2, report.getFiles().size());
+        long lines = 0;
+        long bytes = 0;
+        for (Path file : report.getFiles()) {
+            List<String> content = Files.readAllLines(file, StandardCharsets.UTF_8);
+            assertEquals("account_id,transaction_id,tx_date,type,amount,status", content.get(0));
+            lines += content.size() - 1;
+            bytes += Files.size(file);
+        }
+        assertEquals(BULK_ROWS + 3, lines);
+        assertEquals(bytes, report.getBytes());
+        System.out.println("✓ " + report);
+    }
+
+    @Test
+    public void testBinaryExportRoundTrip() throws IOException {
+        System.out.println("\n[TEST] Testing binary export...");
+        StatementExportService service = new StatementExportService(sessionFactory, 2, 1);
+        ExportRunReport report = service.exportAll(exportDir, DAY, DAY.plusDays(29), StatementFormat.BINARY);
+
+        long rows = 0;
+        long netMinor = 0;
+        for (Path file : report.getFiles()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+                byte[] magic = new byte[8];
+                in.readFully(magic);
+                assertEquals("BKSTMT01", new String(magic, StandardCharsets.US_ASCII));
+                while (true) {
+                    long accountId;
+                    try {
+                        accountId = in.readLong();
+                    } catch (EOFException e) {
+                        break;
+                    }
+                    assertTrue(accountId > 0);
+                    in.readLong();
+                    LocalDate txDate = LocalDate.ofEpochDay(in.readInt());
+                    assertFalse(txDate.isBefore(DAY));
+                    boolean debit = in.readByte() == 1;
+                    long amount = in.readLong();
+                    byte[] status = new byte[in.readUnsignedByte()];
+                    in.readFully(status);
+                    netMinor += debit ? -amount : amount;
+                    rows++;
+                }
+            }
+        }
+        assertEquals(BULK_ROWS + 3, rows);
+        assertEquals(125000L - 705L - 99L, netMinor, "Bulk credits and debits cancel out");
+        System.out.println("✓ " + report);
+    }
+
+    private static BankTransaction transaction(Account account, LocalDate day, String type, String amount, String status) {
+        BankTransaction transaction = new BankTransaction(day, type, new BigDecimal(amount), status);
+        transaction.setAccount(account);
+        return transaction;
+    }
+}
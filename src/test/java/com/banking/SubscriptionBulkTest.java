@@ -0,0 +1,150 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.banking.dao.AccountSubscriptionDAO;
+import com.banking.entity.Account;
+import com.banking.entity.Customer;
+import com.banking.entity.RefNotificationChannel;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify the set-based subscribe operations of
+ * AccountSubscriptionDAO against an in-memory H2 database
+ */
+public class SubscriptionBulkTest {
+
+    private static SessionFactory sessionFactory;
+    private static AccountSubscriptionDAO subscriptionDAO;
+
+    @BeforeAll
+    public static void setup() {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:subscription_bulk;DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+        subscriptionDAO = new AccountSubscriptionDAO(sessionFactory);
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testSubscribeCustomersAccounts() {
+        System.out.println("\n[TEST] Subscribing the accounts of a set of customers...");
+        Long channelId = saveChannel("BULK_CUSTOMERS");
+        Long first = saveCustomer("bulk1@example.com", 3, "BC1-", BigDecimal.ONE);
+        Long second = saveCustomer("bulk2@example.com", 2, "BC2-", BigDecimal.ONE);
+        Long other = saveCustomer("bulk3@example.com", 4, "BC3-", BigDecimal.ONE);
+
+        assertEquals(5, subscriptionDAO.subscribeCustomersAccounts(channelId, Arrays.asList(first, second, first)));
+        assertEquals(0, subscriptionDAO.subscribeCustomersAccounts(channelId, Arrays.asList(first, second)),
+            "Re-running skips existing subscriptions");
+        assertEquals(4, subscriptionDAO.subscribeCustomerAccounts(channelId, other));
+        assertEquals(9, countSubscriptions(channelId));
+        System.out.println("✓ Customer-set subscribe is bound and idempotent");
+    }
+
+    @Test
+    public void testSubscribeAccountsInChunks() {
+        System.out.println("\n[TEST] Subscribing more accounts than one IN list holds...");
+        Long channelId = saveChannel("BULK_ACCOUNTS");
+        Long customerId = saveCustomer("bulk4@example.com", 1100, "BA-", BigDecimal.ONE);
+        List<Long> accountIds = accountIds(customerId);
+        List<Long> requested = new ArrayList<>(accountIds);
+        requested.add(999_999L);
+
+        assertEquals(1100, subscriptionDAO.subscribeAccounts(channelId, requested));
+        assertEquals(1100, countSubscriptions(channelId));
+        assertEquals(0, subscriptionDAO.subscribeAccounts(channelId, new ArrayList<>()));
+        System.out.println("✓ 1100 accounts subscribed over two IN-list statements");
+    }
+
+    @Test
+    public void testSubscribeByMinBalance() {
+        System.out.println("\n[TEST] Subscribing accounts by minimum balance...");
+        Long channelId = saveChannel("BULK_BALANCE");
+        saveCustomer("bulk5@example.com", 2, "BR-", new BigDecimal("50000.00"));
+        saveCustomer("bulk6@example.com", 3, "BP-", new BigDecimal("10.00"));
+
+        assertEquals(2, subscriptionDAO.subscribeAccountsWithMinBalance(channelId, new BigDecimal("40000.00")));
+        assertEquals(2, countSubscriptions(channelId));
+        System.out.println("✓ Only accounts at or above the balance were subscribed");
+    }
+
+    private static Long saveChannel(String name) {
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            Long id = (Long) session.save(new RefNotificationChannel(name, BigDecimal.ONE));
+            session.getTransaction().commit();
+            return id;
+        } finally {
+            session.close();
+        }
+    }
+
+    private static Long saveCustomer(String email, int accounts, String accountPrefix, BigDecimal balance) {
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            Customer customer = new Customer("Bulk Customer", email);
+            Long id = (Long) session.save(customer);
+            for (int i = 0; i < accounts; i++) {
+                Account account = new Account(accountPrefix + i, balance);
+                account.setCustomer(customer);
+                session.save(account);
+            }
+            session.getTransaction().commit();
+            return id;
+        } finally {
+            session.close();
+        }
+    }
+
+    private static List<Long> accountIds(Long customerId) {
+        Session session = sessionFactory.openSession();
+        try {
+            return session.createQuery("SELECT a.id FROM Account a WHERE a.customer.id = :customerId", Long.class)
+                .setParameter("customerId", customerId)
+                .list();
+        } finally {
+            session.close();
+        }
+    }
+
+    private static long countSubscriptions(Long channelId) {
+        Session session = sessionFactory.openSession();
+        try {
+            return session.createQuery(
+                    "SELECT COUNT(s) FROM AccountSubscription s WHERE s.channelId = :channelId", Long.class)
+                .setParameter("channelId", channelId)
+                .uniqueResult();
+        } finally {
+            session.close();
+        }
+    }
+}
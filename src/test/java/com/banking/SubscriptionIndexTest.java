@@ -0,0 +1,222 @@
+package com.banking;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.h2.api.Trigger;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.longlong.Roaring64NavigableMap;
+
+import com.banking.cache.SubscriptionIndex;
+import com.banking.entity.Account;
+import com.banking.entity.AccountSubscription;
+import com.banking.entity.RefNotificationChannel;
+import com.banking.util.HibernateConfig;
+
+/**
+ * Test class to verify the in-memory subscription bitmap index
+ */
+public class SubscriptionIndexTest {
+
+    private static final long SMS = 1L;
+    private static final long EMAIL = 2L;
+    private static final long PUSH = 3L;
+
+    private SubscriptionIndex index;
+
+    @BeforeEach
+    public void setup() {
+        index = new SubscriptionIndex();
+        index.channelAdded(SMS, "SMS_ALERT");
+        index.channelAdded(EMAIL, "EMAIL_STMT");
+        index.channelAdded(PUSH, "PUSH_NOTIFY");
+
+        // accounts 1..6 on SMS, even accounts on EMAIL, account 5 on PUSH
+        for (long accountId = 1; accountId <= 6; accountId++) {
+            index.subscribed(accountId, SMS);
+            if (accountId % 2 == 0) {
+                index.subscribed(accountId, EMAIL);
+            }
+        }
+        index.subscribed(5L, PUSH);
+    }
+
+    @Test
+    public void testAccountsAndChannelsLookup() {
+        System.out.println("\n[TEST] Testing channel -> accounts and account -> channels lookups...");
+        assertEquals(6L, index.countAccounts(SMS), "SMS should have 6 subscribers");
+        assertArrayEquals(new long[] {2L, 4L, 6L}, index.accountsFor("EMAIL_STMT").toArray());
+        assertEquals(Arrays.asList(SMS, PUSH), index.channelsFor(5L), "Account 5 should be on SMS and PUSH");
+        assertTrue(index.isSubscribed(4L, EMAIL), "Account 4 should be subscribed to EMAIL");
+        System.out.println("✓ Lookups are correct");
+    }
+
+    @Test
+    public void testSetOperations() {
+        System.out.println("\n[TEST] Testing AND / OR / AND NOT queries...");
+        Roaring64NavigableMap smsAndNotEmail = index.allOfExcept(
+            Collections.singletonList("SMS_ALERT"), Collections.singletonList("EMAIL_STMT"));
+        assertArrayEquals(new long[] {1L, 3L, 5L}, smsAndNotEmail.toArray(), "SMS AND NOT EMAIL");
+
+        Roaring64NavigableMap emailOrPush = index.anyOf(Arrays.asList("EMAIL_STMT", "PUSH_NOTIFY"));
+        assertArrayEquals(new long[] {2L, 4L, 5L, 6L}, emailOrPush.toArray(), "EMAIL OR PUSH");
+
+        Roaring64NavigableMap smsAndPush = index.allOf(Arrays.asList("SMS_ALERT", "PUSH_NOTIFY"));
+        assertArrayEquals(new long[] {5L}, smsAndPush.toArray(), "SMS AND PUSH");
+
+        assertTrue(index.anyOf(Collections.singletonList("UNKNOWN")).isEmpty(), "Unknown channel matches nothing");
+        System.out.println("✓ Set operations are correct");
+    }
+
+    @Test
+    public void testWritesKeepIndexCurrent() {
+        System.out.println("\n[TEST] Testing index maintenance on subscription writes...");
+        Roaring64NavigableMap before = index.accountsFor(SMS);
+
+        index.unsubscribed(1L, SMS);
+        index.accountRemoved(2L);
+        index.channelCleared(PUSH);
+
+        assertEquals(6L, before.getLongCardinality(), "Returned bitmaps must be copies");
+        assertArrayEquals(new long[] {3L, 4L, 5L, 6L}, index.accountsFor(SMS).toArray());
+        assertArrayEquals(new long[] {4L, 6L}, index.accountsFor(EMAIL).toArray());
+        assertEquals(0L, index.countAccounts(PUSH), "Cleared channel should be empty");
+        System.out.println("✓ Index follows subscription writes");
+    }
+
+    @Test
+    public void testSubscriptionCommittedDuringLoadIsKept() {
+        System.out.println("\n[TEST] Testing a subscription committed while the index loads...");
+        SubscriptionIndex loading = new SubscriptionIndex();
+        SessionFactory sessionFactory = scanHookedSessionFactory("subscription_index_load");
+        try {
+            Long[] ids = saveChannelAndAccount(sessionFactory, "LOAD_SMS", "IDX-1");
+            Long channelId = ids[0];
+            Long accountId = ids[1];
+
+            // Between the load's channel query and its subscription scan: commit a subscription on
+            // another connection and report it through the write path, as AccountSubscriptionDAO does
+            ScanHook.BEFORE_SCAN.set(() -> subscribe(sessionFactory, loading, accountId, channelId));
+            loading.load(sessionFactory);
+
+            assertNull(ScanHook.BEFORE_SCAN.get(), "The subscription was committed during the load");
+            assertTrue(loading.isSubscribed(accountId, channelId), "The subscription survives the load");
+            assertEquals(1L, loading.countAccounts(channelId));
+            System.out.println("✓ Subscription committed during the load is kept");
+        } finally {
+            sessionFactory.close();
+        }
+    }
+
+    @Test
+    public void testSubscriptionCommittedDuringChannelReloadIsKept() {
+        System.out.println("\n[TEST] Testing a subscription committed while one channel reloads...");
+        SubscriptionIndex reloading = new SubscriptionIndex();
+        SessionFactory sessionFactory = scanHookedSessionFactory("subscription_index_reload");
+        try {
+            Long[] ids = saveChannelAndAccount(sessionFactory, "RELOAD_SMS", "IDX-2");
+            Long channelId = ids[0];
+            Long accountId = ids[1];
+            Long[] otherIds = saveChannelAndAccount(sessionFactory, "RELOAD_EMAIL", "IDX-3");
+            reloading.load(sessionFactory);
+
+            // Between the reload's channel lookup and its scan; a change to another channel is not replayed
+            ScanHook.BEFORE_SCAN.set(() -> {
+                subscribe(sessionFactory, reloading, accountId, channelId);
+                subscribe(sessionFactory, reloading, otherIds[1], otherIds[0]);
+            });
+            reloading.reloadChannel(sessionFactory, channelId);
+
+            assertNull(ScanHook.BEFORE_SCAN.get(), "The subscription was committed during the reload");
+            assertTrue(reloading.isSubscribed(accountId, channelId), "The subscription survives the reload");
+            assertEquals(1L, reloading.countAccounts(channelId));
+            assertTrue(reloading.isSubscribed(otherIds[1], otherIds[0]));
+            assertEquals(Long.valueOf(channelId), reloading.getChannelId("RELOAD_SMS"));
+            System.out.println("✓ Subscription committed during the channel reload is kept");
+        } finally {
+            sessionFactory.close();
+        }
+    }
+
+    // In-memory H2 database whose account_subscriptions scans run ScanHook first
+    private static SessionFactory scanHookedSessionFactory(String database) {
+        Properties overrides = new Properties();
+        overrides.put("hibernate.connection.driver_class", "org.h2.Driver");
+        overrides.put("hibernate.connection.url", "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        overrides.put("hibernate.connection.username", "sa");
+        overrides.put("hibernate.connection.password", "");
+        overrides.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        overrides.put("hibernate.hbm2ddl.auto", "create-drop");
+        overrides.put("hibernate.show_sql", "false");
+        // Snapshot reads: the scan does not see rows committed after the index's first statement
+        overrides.put("hibernate.connection.isolation", String.valueOf(Connection.TRANSACTION_REPEATABLE_READ));
+        overrides.put(HibernateConfig.STARTUP_REPORT, "false");
+        overrides.put(HibernateConfig.NAMED_QUERY_REPORT, "false");
+        SessionFactory sessionFactory = HibernateConfig.buildSessionFactory(overrides);
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            session.createNativeQuery("CREATE TRIGGER subscription_scan_hook BEFORE SELECT ON account_subscriptions "
+                + "CALL \"" + ScanHook.class.getName() + "\"").executeUpdate();
+            session.getTransaction().commit();
+        } finally {
+            session.close();
+        }
+        return sessionFactory;
+    }
+
+    // {channel ID, account ID}
+    private static Long[] saveChannelAndAccount(SessionFactory sessionFactory, String channelName, String accountNumber) {
+        Session session = sessionFactory.openSession();
+        try {
+            session.beginTransaction();
+            Long channelId = (Long) session.save(new RefNotificationChannel(channelName, BigDecimal.ONE));
+            Long accountId = (Long) session.save(new Account(accountNumber, BigDecimal.ONE));
+            session.getTransaction().commit();
+            return new Long[] {channelId, accountId};
+        } finally {
+            session.close();
+        }
+    }
+
+    // Commits the subscription on its own connection, then reports it to the index
+    private static void subscribe(SessionFactory sessionFactory, SubscriptionIndex index, Long accountId, Long channelId) {
+        Session writer = sessionFactory.openSession();
+        try {
+            writer.beginTransaction();
+            writer.save(new AccountSubscription(accountId, channelId));
+            writer.getTransaction().commit();
+        } finally {
+            writer.close();
+        }
+        index.subscribed(accountId, channelId);
+    }
+
+    // H2 trigger run before each SELECT on account_subscriptions: runs the armed hook once
+    public static class ScanHook implements Trigger {
+
+        static final AtomicReference<Runnable> BEFORE_SCAN = new AtomicReference<>();
+
+        @Override
+        public void init(Connection connection, String schemaName, String triggerName, String tableName,
+                         boolean before, int type) {
+        }
+
+        @Override
+        public void fire(Connection connection, Object[] oldRow, Object[] newRow) {
+            Runnable hook = BEFORE_SCAN.getAndSet(null);
+            if (hook != null) {
+                hook.run();
+            }
+        }
+    }
+}